@@ -21,6 +21,8 @@ import org.hibernate.search.jpa.FullTextEntityManager;
 import org.hibernate.search.jpa.Search;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import javax.persistence.EntityManager;
@@ -28,8 +30,10 @@ import javax.persistence.PersistenceContext;
 
 /**
  * On application start this block of code will build the lucene search index
+ * It runs before the other listeners so the cache warm-up searches a complete index
  */
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
 @Slf4j
 public class BuildSearchIndex implements ApplicationListener<ApplicationReadyEvent> {
     @PersistenceContext
@@ -16,19 +16,30 @@
 
 package com.nestedbird.config;
 
+import com.nestedbird.modules.binaryuuid.UUIDColumnMigration;
+import com.nestedbird.modules.binaryuuid.UUIDStorage;
+import com.nestedbird.modules.datasourcerouting.RoutingDataSource;
+import com.nestedbird.modules.rediscache.RedisRegionFactory;
+import com.nestedbird.modules.statementcounter.StatementCounter;
+import org.apache.tomcat.jdbc.pool.PoolProperties;
 import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.SharedCacheMode;
 import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -82,6 +93,98 @@ public class DatabaseConfig {
 
     private final String hibernateUseSqlComments;
 
+    /**
+     * How many statements hibernate groups into a single jdbc batch
+     */
+    private final String hibernateJdbcBatchSize;
+
+    /**
+     * The most connections the pool will open at once
+     */
+    private final Integer dbMaxActive;
+
+    /**
+     * The most idle connections the pool will keep
+     */
+    private final Integer dbMaxIdle;
+
+    /**
+     * The fewest idle connections the pool will keep
+     */
+    private final Integer dbMinIdle;
+
+    /**
+     * How long in milliseconds a request waits for a connection before timing out
+     */
+    private final Integer dbMaxWait;
+
+    /**
+     * How long in milliseconds the pool waits between checks for idle connections to close
+     */
+    private final Integer dbTimeBetweenEvictionRuns;
+
+    /**
+     * How long in milliseconds a connection can sit idle before it may be closed
+     */
+    private final Integer dbMinEvictableIdleTime;
+
+    /**
+     * How long in seconds a connection can be held before it is logged as a possible leak
+     */
+    private final Integer dbLeakDetectionTimeout;
+
+    /**
+     * How many prepared statements the driver caches per connection
+     */
+    private final Integer dbStatementCacheSize;
+
+    /**
+     * Comma separated connection URLs of the replica databases
+     */
+    private final String dbReplicaUrls;
+
+    /**
+     * Replica database username
+     */
+    private final String dbReplicaUsername;
+
+    /**
+     * Replica database password
+     */
+    private final String dbReplicaPassword;
+
+    /**
+     * How many seconds a replica can fall behind the primary before reads stop being sent to it
+     */
+    private final Long dbReplicaMaxLag;
+
+    /**
+     * Whether the second level cache is shared between nodes through redis, rather than held by each node
+     */
+    private final Boolean cacheDistributed;
+
+    /**
+     * How many entries each distributed cache region keeps on this node
+     */
+    private final Integer cacheNearCacheSize;
+
+    /**
+     * How long in milliseconds an entry is kept in a distributed cache region's near cache
+     */
+    private final Long cacheNearCacheTimeToLive;
+
+    /**
+     * How entity ids are stored, either char or binary
+     */
+    private final UUIDStorage uuidStorage;
+
+    /**
+     * Whether string id columns are converted to binary on start, when ids are stored as binary
+     */
+    private final Boolean uuidMigrate;
+
+    private final RedissonClient redissonClient;
+
     /**
      * Instantiates a new Database config.
      *
@@ -95,6 +198,25 @@ public class DatabaseConfig {
      * @param entitymanagerPackagesToScan the entitymanager packages to scan
      * @param hibernateUseSqlComments     the hibernate use sql comments
      * @param hibernateFormatSql          the hibernate format sql
+     * @param hibernateJdbcBatchSize      the hibernate jdbc batch size
+     * @param dbMaxActive                 the db max active
+     * @param dbMaxIdle                   the db max idle
+     * @param dbMinIdle                   the db min idle
+     * @param dbMaxWait                   the db max wait
+     * @param dbTimeBetweenEvictionRuns   the db time between eviction runs
+     * @param dbMinEvictableIdleTime      the db min evictable idle time
+     * @param dbLeakDetectionTimeout      the db leak detection timeout
+     * @param dbStatementCacheSize        the db statement cache size
+     * @param dbReplicaUrls               the db replica urls
+     * @param dbReplicaUsername           the db replica username
+     * @param dbReplicaPassword           the db replica password
+     * @param dbReplicaMaxLag             the db replica max lag
+     * @param cacheDistributed            the cache distributed
+     * @param cacheNearCacheSize          the cache near cache size
+     * @param cacheNearCacheTimeToLive    the cache near cache time to live
+     * @param uuidStorage                 the uuid storage
+     * @param uuidMigrate                 the uuid migrate
+     * @param redissonClient              the redisson client
      */
     public DatabaseConfig(@Value("${spring.datasource.driver-class-name}") final String dbDriver,
                           @Value("${spring.datasource.password}") final String dbPassword,
@@ -105,7 +227,26 @@ public class DatabaseConfig {
                           @Value("${spring.jpa.hibernate.ddl-auto}") final String hibernateHbm2DDLAuto,
                           @Value("${entitymanager.packagesToScan}") final String entitymanagerPackagesToScan,
                           @Value("${spring.jpa.properties.hibernate.use_sql_comments}") final String hibernateUseSqlComments,
-                          @Value("${spring.jpa.properties.hibernate.format_sql}") final String hibernateFormatSql) {
+                          @Value("${spring.jpa.properties.hibernate.format_sql}") final String hibernateFormatSql,
+                          @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") final String hibernateJdbcBatchSize,
+                          @Value("${spring.datasource.max-active:10}") final Integer dbMaxActive,
+                          @Value("${spring.datasource.max-idle:8}") final Integer dbMaxIdle,
+                          @Value("${spring.datasource.min-idle:8}") final Integer dbMinIdle,
+                          @Value("${spring.datasource.max-wait:10000}") final Integer dbMaxWait,
+                          @Value("${spring.datasource.time-between-eviction-runs-millis:30000}") final Integer dbTimeBetweenEvictionRuns,
+                          @Value("${spring.datasource.min-evictable-idle-time-millis:60000}") final Integer dbMinEvictableIdleTime,
+                          @Value("${spring.datasource.leak-detection-timeout:60}") final Integer dbLeakDetectionTimeout,
+                          @Value("${spring.datasource.statement-cache-size:250}") final Integer dbStatementCacheSize,
+                          @Value("${spring.datasource.replica.urls:}") final String dbReplicaUrls,
+                          @Value("${spring.datasource.replica.username:${spring.datasource.username}}") final String dbReplicaUsername,
+                          @Value("${spring.datasource.replica.password:${spring.datasource.password}}") final String dbReplicaPassword,
+                          @Value("${spring.datasource.replica.max_lag:5}") final Long dbReplicaMaxLag,
+                          @Value("${spring.jpa.cache.distributed:false}") final Boolean cacheDistributed,
+                          @Value("${spring.jpa.cache.near_cache_size:1000}") final Integer cacheNearCacheSize,
+                          @Value("${spring.jpa.cache.near_cache_ttl:60000}") final Long cacheNearCacheTimeToLive,
+                          @Value("${spring.jpa.uuid.storage:char}") final String uuidStorage,
+                          @Value("${spring.jpa.uuid.migrate:false}") final Boolean uuidMigrate,
+                          final RedissonClient redissonClient) {
         this.dbDriver = dbDriver;
         this.dbPassword = dbPassword;
         this.dbUrl = dbUrl;
@@ -116,6 +257,25 @@ public class DatabaseConfig {
         this.entitymanagerPackagesToScan = entitymanagerPackagesToScan;
         this.hibernateFormatSql = hibernateFormatSql;
         this.hibernateUseSqlComments = hibernateUseSqlComments;
+        this.hibernateJdbcBatchSize = hibernateJdbcBatchSize;
+        this.dbMaxActive = dbMaxActive;
+        this.dbMaxIdle = dbMaxIdle;
+        this.dbMinIdle = dbMinIdle;
+        this.dbMaxWait = dbMaxWait;
+        this.dbTimeBetweenEvictionRuns = dbTimeBetweenEvictionRuns;
+        this.dbMinEvictableIdleTime = dbMinEvictableIdleTime;
+        this.dbLeakDetectionTimeout = dbLeakDetectionTimeout;
+        this.dbStatementCacheSize = dbStatementCacheSize;
+        this.dbReplicaUrls = dbReplicaUrls;
+        this.dbReplicaUsername = dbReplicaUsername;
+        this.dbReplicaPassword = dbReplicaPassword;
+        this.dbReplicaMaxLag = dbReplicaMaxLag;
+        this.cacheDistributed = cacheDistributed;
+        this.cacheNearCacheSize = cacheNearCacheSize;
+        this.cacheNearCacheTimeToLive = cacheNearCacheTimeToLive;
+        this.uuidStorage = UUIDStorage.fromSetting(uuidStorage);
+        this.uuidMigrate = uuidMigrate;
+        this.redissonClient = redissonClient;
     }
 
     /**
@@ -137,6 +297,11 @@ public class DatabaseConfig {
      */
     @Bean
     public EntityManagerFactory entityManagerFactory(final DataSource dataSource, final Properties hibernateProperties) {
+        // The columns must be converted before hibernate reads or updates the schema
+        if (uuidStorage == UUIDStorage.BINARY && uuidMigrate) {
+            new UUIDColumnMigration(dataSource).migrate();
+        }
+
         final LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
         em.setDataSource(dataSource);
         em.setPackagesToScan(entitymanagerPackagesToScan);
@@ -151,18 +316,109 @@ public class DatabaseConfig {
     }
 
     /**
-     * Creates a datasource bean out of the above connection information.
+     * How entity ids are stored, for the statements that bind ids through jdbc rather than hibernate
+     *
+     * @return the uuid storage
+     */
+    @Bean
+    public UUIDStorage uuidStorage() {
+        return uuidStorage;
+    }
+
+    /**
+     * Creates the datasource bean used by the application.
+     * Connections are only retrieved when the first statement is run, so the routing data source knows whether
+     * the transaction is read only when it picks the primary or a replica.
      *
      * @return new datasource
      */
     @Bean
+    @Primary
     public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(dbDriver);
-        dataSource.setUrl(dbUrl);
-        dataSource.setUsername(dbUsername);
-        dataSource.setPassword(dbPassword);
-        return dataSource;
+        return new LazyConnectionDataSourceProxy(routingDataSource());
+    }
+
+    /**
+     * Creates the data source that routes between the primary database and its replicas.
+     * With no replica urls configured, everything is sent to the primary.
+     *
+     * @return the routing data source
+     */
+    @Bean
+    public RoutingDataSource routingDataSource() {
+        final Map<String, DataSource> replicas = new LinkedHashMap<>();
+        final String[] replicaUrls = StringUtils.commaDelimitedListToStringArray(dbReplicaUrls);
+
+        for (int i = 0; i < replicaUrls.length; i++) {
+            if (!replicaUrls[i].trim().isEmpty()) {
+                final String name = "replica-" + i;
+                replicas.put(name, createPool(name, replicaUrls[i].trim(), dbReplicaUsername, dbReplicaPassword));
+            }
+        }
+
+        return new RoutingDataSource(
+                createPool(RoutingDataSource.PRIMARY, dbUrl, dbUsername, dbPassword),
+                replicas,
+                dbReplicaMaxLag);
+    }
+
+    /**
+     * Creates a pooled datasource out of the above connection information.
+     * Connections are validated when borrowed, and connections held for longer than the leak detection timeout
+     * are logged along with the stack trace of whoever borrowed them.
+     *
+     * @param name     the name of the pool
+     * @param url      the connection url
+     * @param username the username
+     * @param password the password
+     * @return new datasource
+     */
+    private DataSource createPool(final String name, final String url, final String username, final String password) {
+        final PoolProperties poolProperties = new PoolProperties();
+        poolProperties.setName(name);
+        poolProperties.setDriverClassName(dbDriver);
+        poolProperties.setUrl(url);
+        poolProperties.setUsername(username);
+        poolProperties.setPassword(password);
+        poolProperties.setDbProperties(driverProperties());
+
+        poolProperties.setMaxActive(dbMaxActive);
+        poolProperties.setMaxIdle(dbMaxIdle);
+        poolProperties.setMinIdle(dbMinIdle);
+        poolProperties.setInitialSize(dbMinIdle);
+        poolProperties.setMaxWait(dbMaxWait);
+
+        poolProperties.setTestOnBorrow(true);
+        poolProperties.setValidationQuery("SELECT 1");
+        poolProperties.setValidationInterval(30000);
+        poolProperties.setTimeBetweenEvictionRunsMillis(dbTimeBetweenEvictionRuns);
+        poolProperties.setMinEvictableIdleTimeMillis(dbMinEvictableIdleTime);
+
+        poolProperties.setSuspectTimeout(dbLeakDetectionTimeout);
+        poolProperties.setLogAbandoned(true);
+
+        poolProperties.setJmxEnabled(true);
+        poolProperties.setJdbcInterceptors("ConnectionState;StatementFinalizer;ResetAbandonedTimer");
+
+        return new org.apache.tomcat.jdbc.pool.DataSource(poolProperties);
+    }
+
+    /**
+     * Properties passed to the MySQL/MariaDB driver
+     * The driver caches prepared statements and rewrites jdbc batches into multi row statements
+     *
+     * @return driver properties
+     */
+    private Properties driverProperties() {
+        final Properties properties = new Properties();
+
+        properties.put("cachePrepStmts", "true");
+        properties.put("useServerPrepStmts", "true");
+        properties.put("prepStmtCacheSize", dbStatementCacheSize.toString());
+        properties.put("prepStmtCacheSqlLimit", "2048");
+        properties.put("rewriteBatchedStatements", "true");
+
+        return properties;
     }
 
     /**
@@ -181,15 +437,28 @@ public class DatabaseConfig {
         properties.put("hibernate.format_sql", hibernateFormatSql);
         properties.put("hibernate.hbm2ddl.auto", hibernateHbm2DdlAuto);
         properties.put("hibernate.connection.driver_class", dbDriver);
+        properties.put("hibernate.jdbc.batch_size", hibernateJdbcBatchSize);
+        properties.put("hibernate.order_inserts", "true");
+        properties.put("hibernate.order_updates", "true");
+        properties.put("hibernate.jdbc.batch_versioned_data", "true");
+        properties.put("hibernate.session_factory.statement_inspector", StatementCounter.class.getName());
+        properties.put(UUIDStorage.SETTING, uuidStorage.name());
 
         //        properties.put("hibernate.generate_statistics", "true");
         properties.put("hibernate.cache.use_second_level_cache", "true");
         properties.put("hibernate.cache.use_query_cache", "true");
-        properties.put("hibernate.cache.region.factory_class", "org.hibernate.cache.ehcache.SingletonEhCacheRegionFactory");
         properties.put("hibernate.cache.region_prefix", "hibernate");
+        // Event.times is the inverse side, so it is only evicted when a time is written if hibernate does it for us
+        properties.put("hibernate.cache.auto_evict_collection_cache", "true");
+
+        if (cacheDistributed) {
+            properties.put("hibernate.cache.region.factory_class", new RedisRegionFactory(redissonClient, cacheNearCacheSize, cacheNearCacheTimeToLive));
+        } else {
+            properties.put("hibernate.cache.region.factory_class", "org.hibernate.cache.ehcache.SingletonEhCacheRegionFactory");
 
-        // todo phase out in favour of EhCacheConfig
-        properties.put("net.sf.ehcache.configurationResourceName", "classpath:ehcache.xml");
+            // todo phase out in favour of EhCacheConfig
+            properties.put("net.sf.ehcache.configurationResourceName", "classpath:ehcache.xml");
+        }
 
         properties.put("hibernate.cache.use_structured_entries", "true");
 
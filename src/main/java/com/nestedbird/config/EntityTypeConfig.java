@@ -0,0 +1,72 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.nestedbird.config;
+
+import com.nestedbird.models.artist.Artist;
+import com.nestedbird.models.event.Event;
+import com.nestedbird.models.location.Location;
+import com.nestedbird.models.medium.Medium;
+import com.nestedbird.modules.entitytypes.EntityTypeListener;
+import com.nestedbird.modules.entitytypes.EntityTypeRegistry;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+
+/**
+ * This class is responsible for configuring the registry that records the type of each entity by id
+ * This includes creating required beans and listening to hibernate so the registry stays up to date
+ */
+@Configuration
+public class EntityTypeConfig {
+    /**
+     * The redis hash the types are recorded in
+     */
+    private static final String REGISTRY_NAME = "EntityTypes";
+
+    /**
+     * Create the entity type registry
+     * Inserts and deletes are recorded once their transaction commits, so every node sees the same registry
+     *
+     * @param redissonClient       the redisson client
+     * @param entityManagerFactory the entity manager factory
+     * @return the entity type registry
+     */
+    @Bean
+    public EntityTypeRegistry entityTypeRegistry(final RedissonClient redissonClient,
+                                                 final EntityManagerFactory entityManagerFactory) {
+        final EntityTypeRegistry entityTypeRegistry = new EntityTypeRegistry(
+                redissonClient.getMap(REGISTRY_NAME, StringCodec.INSTANCE),
+                Arrays.asList(Event.class, Artist.class, Location.class, Medium.class));
+
+        final EntityTypeListener listener = new EntityTypeListener(entityTypeRegistry);
+        final EventListenerRegistry listenerRegistry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+
+        return entityTypeRegistry;
+    }
+}
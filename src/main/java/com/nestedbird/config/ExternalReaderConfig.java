@@ -0,0 +1,151 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.config;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * This class is responsible for configuring requests made to external apis (facebook, youtube, soundcloud)
+ * This includes reading properties from the properties files and creating required beans
+ */
+@Configuration
+public class ExternalReaderConfig {
+    /**
+     * Maximum amount of open connections across all hosts
+     */
+    private final Integer maxConnections;
+
+    /**
+     * Maximum amount of open connections to a single host
+     */
+    private final Integer maxConnectionsPerRoute;
+
+    /**
+     * How long to wait for a connection to be established, in milliseconds
+     */
+    private final Integer connectTimeout;
+
+    /**
+     * How long to wait for a response, in milliseconds
+     */
+    private final Integer readTimeout;
+
+    /**
+     * Maximum amount of responses held in memory
+     */
+    private final Long cacheMaxSize;
+
+    /**
+     * How long a cached response is valid for, in seconds
+     */
+    private final Long cacheTtlSeconds;
+
+    /**
+     * Whether responses are also shared through redis
+     */
+    private final Boolean cacheRedis;
+
+    /**
+     * How many requests the media statistics refresher makes at once
+     */
+    private final Integer statisticsConcurrency;
+
+    /**
+     * Instantiates a new External reader config.
+     *
+     * @param maxConnections         the max connections
+     * @param maxConnectionsPerRoute the max connections per route
+     * @param connectTimeout         the connect timeout
+     * @param readTimeout            the read timeout
+     * @param cacheMaxSize           the cache max size
+     * @param cacheTtlSeconds        the cache ttl seconds
+     * @param cacheRedis             the cache redis
+     * @param statisticsConcurrency  the statistics concurrency
+     */
+    public ExternalReaderConfig(@Value("${external.http.max_connections:50}") final Integer maxConnections,
+                                @Value("${external.http.max_connections_per_route:20}") final Integer maxConnectionsPerRoute,
+                                @Value("${external.http.connect_timeout:2000}") final Integer connectTimeout,
+                                @Value("${external.http.read_timeout:5000}") final Integer readTimeout,
+                                @Value("${external.cache.max_size:1000}") final Long cacheMaxSize,
+                                @Value("${external.cache.ttl_seconds:3600}") final Long cacheTtlSeconds,
+                                @Value("${external.cache.redis:false}") final Boolean cacheRedis,
+                                @Value("${external.statistics.concurrency:4}") final Integer statisticsConcurrency) {
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.cacheMaxSize = cacheMaxSize;
+        this.cacheTtlSeconds = cacheTtlSeconds;
+        this.cacheRedis = cacheRedis;
+        this.statisticsConcurrency = statisticsConcurrency;
+    }
+
+    /**
+     * Creates new ExternalReaderSettings bean
+     *
+     * @return the external reader settings
+     */
+    @Bean
+    public ExternalReaderSettings externalReaderSettings() {
+        return ExternalReaderSettings.builder()
+                .cacheMaxSize(cacheMaxSize)
+                .cacheTtlSeconds(cacheTtlSeconds)
+                .cacheRedis(cacheRedis)
+                .statisticsConcurrency(statisticsConcurrency)
+                .build();
+    }
+
+    /**
+     * Creates the rest template shared by every external reader
+     * Connections are pooled and kept alive between requests
+     *
+     * @return the rest template
+     */
+    @Bean
+    public RestTemplate externalRestTemplate() {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(externalHttpClient()));
+    }
+
+    /**
+     * Creates the pooled http client used for external requests
+     *
+     * @return the http client
+     */
+    @Bean
+    public HttpClient externalHttpClient() {
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+
+        return HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(connectTimeout)
+                        .setConnectionRequestTimeout(connectTimeout)
+                        .setSocketTimeout(readTimeout)
+                        .build())
+                .build();
+    }
+}
@@ -46,6 +46,15 @@ public class JsonViewConfiguration extends AbstractMappingJacksonResponseBodyAdv
                                            final MethodParameter returnType,
                                            final ServerHttpRequest request,
                                            final ServerHttpResponse response) {
+        bodyContainer.setSerializationView(currentView());
+    }
+
+    /**
+     * Gets the json view of the current user, based on their privileges
+     *
+     * @return the view class
+     */
+    public static Class<?> currentView() {
         final Mutable<Class<?>> viewClass = Mutable.of(View.Anonymous.class);
 
         if (SecurityContextHolder.getContext().getAuthentication() != null && SecurityContextHolder.getContext().getAuthentication().getAuthorities() != null) {
@@ -56,6 +65,6 @@ public class JsonViewConfiguration extends AbstractMappingJacksonResponseBodyAdv
             viewClass.mutateIf(View.Admin.class, authorities.stream().anyMatch(o -> o.getAuthority().equals("PRIV_ADMIN")));
         }
 
-        bodyContainer.setSerializationView(viewClass.get());
+        return viewClass.get();
     }
 }
\ No newline at end of file
@@ -16,6 +16,10 @@
 
 package com.nestedbird.config;
 
+import com.nestedbird.models.event.ParsedEventData;
+import com.nestedbird.models.event.ParsedEventDataCodec;
+import com.nestedbird.modules.valuecodec.JsonValueCodec;
+import com.nestedbird.modules.valuecodec.ValueCodec;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.codec.SnappyCodec;
@@ -46,19 +50,27 @@ public class RedisConfig {
      */
     private final String redisPassword;
 
+    /**
+     * How the occurrences in the upcoming store are encoded, either compact or json
+     */
+    private final String upcomingCodec;
+
     /**
      * Instantiates a new Redis config.
      *
      * @param redisHostName the redis host name
      * @param redisPort     the redis port
      * @param redisPassword the redis password
+     * @param upcomingCodec the upcoming codec
      */
     public RedisConfig(@Value("${spring.redis.host}") final String redisHostName,
                        @Value("${spring.redis.port}") final Integer redisPort,
-                       @Value("${spring.redis.password}") final String redisPassword) {
+                       @Value("${spring.redis.password}") final String redisPassword,
+                       @Value("${spring.redis.codec.upcoming:compact}") final String upcomingCodec) {
         this.redisHostName = redisHostName;
         this.redisPort = redisPort;
         this.redisPassword = redisPassword;
+        this.upcomingCodec = upcomingCodec;
     }
 
     /**
@@ -90,4 +102,17 @@ public class RedisConfig {
                 .setRetryInterval(2000);
         return config;
     }
+
+    /**
+     * The codec the occurrences in the upcoming store are encoded with
+     *
+     * @return the parsed event data codec
+     */
+    @Bean
+    public ValueCodec<ParsedEventData> parsedEventDataCodec() {
+        if ("json".equals(upcomingCodec)) {
+            return new JsonValueCodec<>(ParsedEventData.class);
+        }
+        return new ParsedEventDataCodec();
+    }
 }
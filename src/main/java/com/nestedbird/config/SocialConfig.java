@@ -51,6 +51,21 @@ public class SocialConfig {
      */
     private final String scClientId;
 
+    /**
+     * Base url of the facebook graph api
+     */
+    private final String fbApiUrl;
+
+    /**
+     * Base url of the youtube data api
+     */
+    private final String ytApiUrl;
+
+    /**
+     * Base url of the soundcloud api
+     */
+    private final String scApiUrl;
+
     /**
      * Instantiates a new Social config.
      *
@@ -59,17 +74,26 @@ public class SocialConfig {
      * @param fbAccessToken the fb access token
      * @param ytKey         the yt key
      * @param scClientId    the sc client id
+     * @param fbApiUrl      the fb api url
+     * @param ytApiUrl      the yt api url
+     * @param scApiUrl      the sc api url
      */
     public SocialConfig(@Value("${facebook.auto_post}") final Boolean fbAutoPost,
                         @Value("${facebook.scan}") final Boolean fbScan,
                         @Value("${facebook.access_token}") final String fbAccessToken,
                         @Value("${youtube.key}") final String ytKey,
-                        @Value("${soundcloud.client_id}") final String scClientId) {
+                        @Value("${soundcloud.client_id}") final String scClientId,
+                        @Value("${facebook.api_url:https://graph.facebook.com}") final String fbApiUrl,
+                        @Value("${youtube.api_url:https://www.googleapis.com/youtube/v3}") final String ytApiUrl,
+                        @Value("${soundcloud.api_url:https://api.soundcloud.com}") final String scApiUrl) {
         this.fbAutoPost = fbAutoPost;
         this.fbScan = fbScan;
         this.fbAccessToken = fbAccessToken;
         this.ytKey = ytKey;
         this.scClientId = scClientId;
+        this.fbApiUrl = fbApiUrl;
+        this.ytApiUrl = ytApiUrl;
+        this.scApiUrl = scApiUrl;
     }
 
 
@@ -86,6 +110,9 @@ public class SocialConfig {
                 .fbAccessToken(fbAccessToken)
                 .ytKey(ytKey)
                 .scClientId(scClientId)
+                .fbApiUrl(fbApiUrl)
+                .ytApiUrl(ytApiUrl)
+                .scApiUrl(scApiUrl)
                 .build();
     }
 }
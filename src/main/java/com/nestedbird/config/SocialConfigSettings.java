@@ -53,4 +53,19 @@ public class SocialConfigSettings extends DataObject implements Serializable {
      * Soundcloud API Key
      */
     private final String scClientId;
+
+    /**
+     * Base url of the facebook graph api
+     */
+    private final String fbApiUrl;
+
+    /**
+     * Base url of the youtube data api
+     */
+    private final String ytApiUrl;
+
+    /**
+     * Base url of the soundcloud api
+     */
+    private final String scApiUrl;
 }
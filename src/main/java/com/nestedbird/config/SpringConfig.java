@@ -16,19 +16,25 @@
 
 package com.nestedbird.config;
 
+import com.fasterxml.jackson.databind.Module;
 import com.nestedbird.components.userdetails.DetailsService;
+import com.nestedbird.modules.conditionalget.PresetEtagHeaderFilter;
+import com.nestedbird.modules.datasourcerouting.ReplicaRoutingInterceptor;
+import com.nestedbird.modules.lazyattributes.LazyAttributeModule;
+import com.nestedbird.modules.statementcounter.StatementCountInterceptor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.catalina.Context;
 import org.apache.catalina.webresources.StandardRoot;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.embedded.EmbeddedServletContainerFactory;
 import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.*;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.http.MediaType;
-import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import org.springframework.web.servlet.ViewResolver;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 import org.springframework.web.servlet.view.BeanNameViewResolver;
 
@@ -43,6 +49,19 @@ import javax.servlet.Filter;
 @ComponentScan
 @Slf4j
 class SpringConfig extends WebMvcConfigurerAdapter {
+    /**
+     * Requests that run more sql statements than this are logged
+     */
+    private final Long statementThreshold;
+
+    /**
+     * Instantiates a new Spring config.
+     *
+     * @param statementThreshold the statement threshold
+     */
+    SpringConfig(@Value("${spring.jpa.statement_threshold:20}") final Long statementThreshold) {
+        this.statementThreshold = statementThreshold;
+    }
 
     /**
      * User details service details service.
@@ -69,6 +88,42 @@ class SpringConfig extends WebMvcConfigurerAdapter {
                 mediaType("json", MediaType.APPLICATION_JSON);
     }
 
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(replicaRoutingInterceptor());
+        registry.addInterceptor(statementCountInterceptor());
+    }
+
+    /**
+     * Counts the sql statements each request runs
+     *
+     * @return the statement count interceptor
+     */
+    @Bean
+    public StatementCountInterceptor statementCountInterceptor() {
+        return new StatementCountInterceptor(statementThreshold);
+    }
+
+    /**
+     * Lets public GET requests be served from a replica database
+     *
+     * @return the replica routing interceptor
+     */
+    @Bean
+    public ReplicaRoutingInterceptor replicaRoutingInterceptor() {
+        return new ReplicaRoutingInterceptor();
+    }
+
+    /**
+     * Keeps lazy attributes that were never fetched out of the json responses
+     *
+     * @return the jackson module
+     */
+    @Bean
+    public Module lazyAttributeModule() {
+        return new LazyAttributeModule();
+    }
+
     /**
      * Bean name view resolver view resolver.
      *
@@ -117,11 +172,12 @@ class SpringConfig extends WebMvcConfigurerAdapter {
 
     /**
      * Etag filter filter.
+     * Responses that answered a conditional GET themselves keep their own etag
      *
      * @return the filter
      */
     @Bean(name = "etagFilter")
     public Filter etagFilter() {
-        return new ShallowEtagHeaderFilter();
+        return new PresetEtagHeaderFilter();
     }
 }
\ No newline at end of file
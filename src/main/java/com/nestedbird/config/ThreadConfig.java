@@ -16,10 +16,14 @@
 
 package com.nestedbird.config;
 
+import com.nestedbird.modules.scheduling.MonitoredTaskScheduler;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
-import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * This class is responsible for configuring the threads
@@ -27,14 +31,123 @@ import org.springframework.core.task.TaskExecutor;
  */
 @Configuration
 public class ThreadConfig {
+    /**
+     * How many media statistics requests can wait for a thread, one page of media
+     */
+    private static final int STATISTICS_QUEUE_CAPACITY = 50;
+
+    /**
+     * How many threads run general asynchronous work
+     */
+    private final Integer taskPoolSize;
+
+    /**
+     * How many asynchronous tasks can wait for a thread before they are run on the thread submitting them
+     */
+    private final Integer taskQueueCapacity;
+
+    /**
+     * How many scheduled jobs can run at once
+     */
+    private final Integer schedulerPoolSize;
+
+    /**
+     * How many threads parse external resources at once
+     */
+    private final Integer resourceParserPoolSize;
+
+    /**
+     * How many external resources can wait to be parsed before new requests are rejected
+     */
+    private final Integer resourceParserQueueCapacity;
+
+    /**
+     * Instantiates a new Thread config.
+     *
+     * @param resourceParserPoolSize      the resource parser pool size
+     * @param resourceParserQueueCapacity the resource parser queue capacity
+     * @param taskPoolSize                the task pool size
+     * @param taskQueueCapacity           the task queue capacity
+     * @param schedulerPoolSize           the scheduler pool size
+     */
+    public ThreadConfig(@Value("${thread.resource_parser.pool_size:8}") final Integer resourceParserPoolSize,
+                        @Value("${thread.resource_parser.queue_capacity:32}") final Integer resourceParserQueueCapacity,
+                        @Value("${thread.task.pool_size:8}") final Integer taskPoolSize,
+                        @Value("${thread.task.queue_capacity:100}") final Integer taskQueueCapacity,
+                        @Value("${thread.scheduler.pool_size:4}") final Integer schedulerPoolSize) {
+        this.resourceParserPoolSize = resourceParserPoolSize;
+        this.resourceParserQueueCapacity = resourceParserQueueCapacity;
+        this.taskPoolSize = taskPoolSize;
+        this.taskQueueCapacity = taskQueueCapacity;
+        this.schedulerPoolSize = schedulerPoolSize;
+    }
+
     /**
      * Create TaskExecutor bean
+     * The pool is bounded, once the queue is full tasks run on the thread that submitted them, slowing it down
+     * rather than starting ever more threads
      *
      * @return the task executor
      */
     @Bean
-    public TaskExecutor taskExecutor() {
-        return new SimpleAsyncTaskExecutor();
+    public ThreadPoolTaskExecutor taskExecutor() {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(taskPoolSize);
+        executor.setMaxPoolSize(taskPoolSize);
+        executor.setQueueCapacity(taskQueueCapacity);
+        executor.setThreadNamePrefix("task-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Create the scheduler that every @Scheduled job runs on
+     * Jobs run on their own threads so a slow job does not hold back the others, and a job never overlaps itself
+     *
+     * @param redissonClient the redisson client holding the leases of cluster singleton jobs
+     * @return the task scheduler
+     */
+    @Bean
+    public MonitoredTaskScheduler taskScheduler(final RedissonClient redissonClient) {
+        final MonitoredTaskScheduler scheduler = new MonitoredTaskScheduler(redissonClient);
+        scheduler.setPoolSize(schedulerPoolSize);
+        scheduler.setThreadNamePrefix("scheduler-");
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * Create the executor that external resources (facebook, youtube, soundcloud) are parsed on
+     * This keeps slow third parties from holding on to the servlet threads
+     *
+     * @return the resource parser executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor resourceParserExecutor() {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(resourceParserPoolSize);
+        executor.setMaxPoolSize(resourceParserPoolSize);
+        executor.setQueueCapacity(resourceParserQueueCapacity);
+        executor.setThreadNamePrefix("resource-parser-");
+        return executor;
+    }
+
+    /**
+     * Create the executor that media statistics are requested from soundcloud and facebook on
+     * Statistics are refreshed a page at a time, so the queue never has to hold more than a page
+     *
+     * @param externalReaderSettings the external reader settings
+     * @return the statistics executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor statisticsExecutor(final ExternalReaderSettings externalReaderSettings) {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(externalReaderSettings.getStatisticsConcurrency());
+        executor.setMaxPoolSize(externalReaderSettings.getStatisticsConcurrency());
+        executor.setQueueCapacity(STATISTICS_QUEUE_CAPACITY);
+        executor.setThreadNamePrefix("statistics-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
     }
     //
     //    @Bean
@@ -0,0 +1,190 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nestedbird.models.artist.Artist;
+import com.nestedbird.models.artist.ArtistService;
+import com.nestedbird.models.core.Base.BaseEntity;
+import com.nestedbird.models.event.Event;
+import com.nestedbird.models.event.EventService;
+import com.nestedbird.models.location.Location;
+import com.nestedbird.models.location.LocationService;
+import com.nestedbird.models.medium.Medium;
+import com.nestedbird.models.medium.MediumService;
+import com.nestedbird.models.song.Song;
+import com.nestedbird.models.song.SongService;
+import com.nestedbird.modules.entitysearch.EntitySearch;
+import com.nestedbird.modules.entitytypes.EntityTypeRegistry;
+import com.nestedbird.modules.warmup.CacheWarmup;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * This class is responsible for configuring the cache warm-up that runs when a node starts
+ * This includes reading properties from the properties files and creating required beans
+ */
+@Configuration
+public class WarmupConfig {
+    /**
+     * The entities that are searched through the api and search page, each has its own lucene index
+     */
+    private static final List<Class<? extends BaseEntity>> SEARCHED_ENTITIES =
+            Arrays.asList(Artist.class, Event.class, Location.class, Medium.class, Song.class);
+
+    /**
+     * How long in milliseconds the warm-up may hold back the node from being ready
+     */
+    private final Long budget;
+
+    /**
+     * How many of the most accessed entities of each type are loaded into the second level cache
+     */
+    private final Integer preloadSize;
+
+    /**
+     * How many times the listing endpoints are run, so the JIT compiles them before real requests arrive
+     */
+    private final Integer iterations;
+
+    /**
+     * The query run against each lucene index
+     */
+    private final String searchQuery;
+
+    /**
+     * Instantiates a new Warmup config.
+     *
+     * @param budget      the budget
+     * @param preloadSize the preload size
+     * @param iterations  the iterations
+     * @param searchQuery the search query
+     */
+    public WarmupConfig(@Value("${warmup.budget:60000}") final Long budget,
+                        @Value("${warmup.preload_size:100}") final Integer preloadSize,
+                        @Value("${warmup.iterations:20}") final Integer iterations,
+                        @Value("${warmup.search_query:music}") final String searchQuery) {
+        this.budget = budget;
+        this.preloadSize = preloadSize;
+        this.iterations = iterations;
+        this.searchQuery = searchQuery;
+    }
+
+    /**
+     * Create the cache warm-up
+     * The steps mirror what the first requests after a deploy would otherwise pay for: the upcoming and hot stores,
+     * the entities those listings load, the lucene readers, the serialization of the listings and, on a first start, the entity type registry
+     *
+     * @param taskExecutor       the executor the steps run on
+     * @param transactionManager the transaction manager
+     * @param objectMapper       the object mapper responses are written with
+     * @param entitySearch       the entity search
+     * @param eventService       the event service
+     * @param mediumService      the medium service
+     * @param artistService      the artist service
+     * @param locationService    the location service
+     * @param songService        the song service
+     * @param entityTypeRegistry the entity type registry
+     * @return the cache warmup
+     */
+    @Bean
+    public CacheWarmup cacheWarmup(@Qualifier("taskExecutor") final ThreadPoolTaskExecutor taskExecutor,
+                                   final PlatformTransactionManager transactionManager,
+                                   final ObjectMapper objectMapper,
+                                   final EntitySearch entitySearch,
+                                   final EventService eventService,
+                                   final MediumService mediumService,
+                                   final ArtistService artistService,
+                                   final LocationService locationService,
+                                   final SongService songService,
+                                   final EntityTypeRegistry entityTypeRegistry) {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        final PageRequest preloadPage = new PageRequest(0, preloadSize);
+
+        final CacheWarmup cacheWarmup = new CacheWarmup(taskExecutor, budget)
+                .step("store:upcoming", eventService::getUpcomingEventsFromStore)
+                .step("store:hot", mediumService::getHotMediaFromStore)
+                .step("registry:entity-types", () -> transactionTemplate.execute(status -> {
+                    if (entityTypeRegistry.isEmpty()) {
+                        entityTypeRegistry.registerAll(Event.class, eventService.findAllIds());
+                        entityTypeRegistry.registerAll(Artist.class, artistService.findAllIds());
+                        entityTypeRegistry.registerAll(Location.class, locationService.findAllIds());
+                        entityTypeRegistry.registerAll(Medium.class, mediumService.findAllIds());
+                    }
+                    return null;
+                }))
+                .step("preload:Event", () -> transactionTemplate.execute(status -> eventService.retrieveUpcoming()))
+                .step("preload:Medium", () -> transactionTemplate.execute(status -> getHotMedia(mediumService, preloadSize)))
+                .step("preload:Artist", () -> transactionTemplate.execute(status -> artistService.listAllByPage(preloadPage)))
+                .step("preload:Location", () -> transactionTemplate.execute(status -> locationService.listAllByPage(preloadPage)))
+                .step("preload:Song", () -> transactionTemplate.execute(status -> songService.listAllByPage(preloadPage)))
+                .step("serialize:listings", () -> transactionTemplate.execute(status -> {
+                    for (int i = 0; i < iterations; i++) {
+                        serialize(objectMapper, eventService.getUpcomingOccurrences(new PageRequest(0, 20)));
+                        serialize(objectMapper, getHotMedia(mediumService, 20));
+                    }
+                    return null;
+                }));
+
+        SEARCHED_ENTITIES.forEach(clazz -> cacheWarmup.step("search:" + clazz.getSimpleName(),
+                () -> transactionTemplate.execute(status -> search(entitySearch, clazz))));
+
+        return cacheWarmup;
+    }
+
+    /**
+     * Loads the hottest media the same way the hot listing does, one at a time through the second level cache
+     */
+    private List<Medium> getHotMedia(final MediumService mediumService, final Integer count) {
+        return mediumService.getHotMediaFromStore().valueRange(0, count - 1).stream()
+                .map(mediumService::findOne)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toList());
+    }
+
+    private List<Object[]> search(final EntitySearch entitySearch, final Class<? extends BaseEntity> clazz) {
+        try {
+            return entitySearch.search(clazz, searchQuery);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Unable to parse the warm-up search query " + searchQuery, e);
+        }
+    }
+
+    private void serialize(final ObjectMapper objectMapper, final Object value) {
+        try {
+            objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
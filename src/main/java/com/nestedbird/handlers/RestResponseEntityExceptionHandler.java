@@ -17,7 +17,11 @@
 package com.nestedbird.handlers;
 
 import com.nestedbird.jackson.ApiError;
+import com.nestedbird.models.core.Base.EntityNotFound;
+import com.nestedbird.modules.paginator.InvalidCursor;
+import com.nestedbird.modules.projection.InvalidProjection;
 import com.nestedbird.modules.ratelimiter.RequestLimitExceeded;
+import com.nestedbird.modules.resourceparser.ResourceParseUnavailable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -72,9 +76,39 @@ public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionH
      */
     @ExceptionHandler(value = {
             DataIntegrityViolationException.class,
-            RequestLimitExceeded.class
+            RequestLimitExceeded.class,
+            InvalidCursor.class,
+            InvalidProjection.class
     })
     public final ResponseEntity<Object> handleBadRequest(final RuntimeException ex, final WebRequest request) {
         return handleExceptionInternal(ex, message(HttpStatus.BAD_REQUEST, ex), new HttpHeaders(), HttpStatus.BAD_REQUEST, request);
     }
+
+    /**
+     * Handle not found response entity.
+     *
+     * @param ex      the ex
+     * @param request the request
+     * @return the response entity
+     */
+    @ExceptionHandler(value = {
+            EntityNotFound.class
+    })
+    public final ResponseEntity<Object> handleNotFound(final RuntimeException ex, final WebRequest request) {
+        return handleExceptionInternal(ex, message(HttpStatus.NOT_FOUND, ex), new HttpHeaders(), HttpStatus.NOT_FOUND, request);
+    }
+
+    /**
+     * Handle service unavailable response entity.
+     *
+     * @param ex      the ex
+     * @param request the request
+     * @return the response entity
+     */
+    @ExceptionHandler(value = {
+            ResourceParseUnavailable.class
+    })
+    public final ResponseEntity<Object> handleServiceUnavailable(final RuntimeException ex, final WebRequest request) {
+        return handleExceptionInternal(ex, message(HttpStatus.SERVICE_UNAVAILABLE, ex), new HttpHeaders(), HttpStatus.SERVICE_UNAVAILABLE, request);
+    }
 }
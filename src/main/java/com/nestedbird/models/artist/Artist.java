@@ -25,10 +25,13 @@ import com.nestedbird.models.event.Event;
 import com.nestedbird.models.song.Song;
 import com.nestedbird.models.tag.Tag;
 import com.nestedbird.modules.entitysearch.SearchAnalysers;
+import com.nestedbird.modules.projection.ProjectionView;
 import com.nestedbird.modules.schema.Schema;
 import com.nestedbird.modules.schema.annotations.SchemaRepository;
 import com.nestedbird.modules.schema.annotations.SchemaView;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.search.annotations.*;
 
 import javax.persistence.*;
@@ -45,12 +48,15 @@ import java.util.Set;
 @Entity
 @Table(name = "artists")
 @Cacheable
+@Cache(region = "artist", usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @Indexed
 @SchemaRepository(ArtistRepository.class)
 @Boost(2.0f)
 @AnalyzerDiscriminator(impl = ArtistBridge.class)
+@NamedEntityGraph(name = "Artist.listing", attributeNodes = @NamedAttributeNode("tags"))
+@ProjectionView(name = "summary", attributes = {"name", "imageUrl"})
 @Data
-@EqualsAndHashCode(callSuper = true, exclude = {"events", "songs"})
+@EqualsAndHashCode(callSuper = true, exclude = {"events", "songs", "description"})
 @NoArgsConstructor(force = true)
 public class Artist extends TaggedEntity implements Serializable {
 
@@ -89,6 +95,7 @@ public class Artist extends TaggedEntity implements Serializable {
      */
     @Column(name = "description", columnDefinition = "LONGTEXT")
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     @Field(boost = @Boost(0.5f), analyzer = @Analyzer(definition = SearchAnalysers.ENGLISH_WORD_ANALYSER))
     @SchemaView(Schema.MARKDOWN)
     private String description;
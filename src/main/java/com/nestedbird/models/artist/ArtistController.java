@@ -26,6 +26,7 @@ import com.nestedbird.models.occurrence.Occurrence;
 import com.nestedbird.models.song.Song;
 import com.nestedbird.modules.formparser.ParameterMapParser;
 import com.nestedbird.modules.paginator.Paginator;
+import com.nestedbird.modules.resourceparser.AsyncResourceParser;
 import com.nestedbird.modules.resourceparser.PageParser;
 import com.nestedbird.util.Mutable;
 import com.nestedbird.util.QueryBlock;
@@ -38,6 +39,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.ArrayList;
@@ -56,6 +58,7 @@ public class ArtistController extends BaseController<Artist> {
     private final ArtistService artistService;
     private final PageParser pageParser;
     private final EventService eventService;
+    private final AsyncResourceParser asyncResourceParser;
 
 
     /**
@@ -65,16 +68,19 @@ public class ArtistController extends BaseController<Artist> {
      * @param artistRepository the artist repository
      * @param eventRepository
      * @param redissonClient
+     * @param asyncResourceParser the async resource parser
      */
     @Autowired
     ArtistController(final ArtistService artistService,
                      final ArtistRepository artistRepository,
                      final PageParser pageParser,
-                     final EventService eventService) {
+                     final EventService eventService,
+                     final AsyncResourceParser asyncResourceParser) {
         this.artistService = artistService;
         this.artistRepository = artistRepository;
         this.pageParser = pageParser;
         this.eventService = eventService;
+        this.asyncResourceParser = asyncResourceParser;
     }
 
     @Override
@@ -166,9 +172,9 @@ public class ArtistController extends BaseController<Artist> {
     @RequestMapping(value = "/parseurl", method = RequestMethod.POST,
             headers = "content-type=application/x-www-form-urlencoded",
             consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
-    public Artist parseUrl(final HttpServletRequest request) {
+    public DeferredResult<Artist> parseUrl(final HttpServletRequest request) {
         final ParameterMapParser parser = ParameterMapParser.parse(request.getParameterMap());
-        final Mutable<Artist> artist = Mutable.of(null);
+        final Mutable<DeferredResult<Artist>> artist = Mutable.of(asyncResourceParser.empty());
 
         QueryBlock.create()
 
@@ -177,8 +183,20 @@ public class ArtistController extends BaseController<Artist> {
                         .fail(HttpStatus.BAD_REQUEST, "Request does not have required data")
                         .done(data -> data.put("url", parser.get("url").toString())))
 
-                // Return the processes medium
-                .done(data -> artist.mutate(pageParser.parseArtistFromUrl(data.get("url").toString())));
+                // Parse the url off the request thread
+                .done(data -> artist.mutate(asyncResourceParser.parse("Artists", data.get("url").toString(), this::parseAndSaveUrl)));
+
+        return artist.get();
+    }
+
+    /**
+     * Parse a url, returning the stored artist if we already have it
+     *
+     * @param url the url
+     * @return the artist
+     */
+    private Artist parseAndSaveUrl(final String url) {
+        final Mutable<Artist> artist = Mutable.of(pageParser.parseArtistFromUrl(url));
 
         artist.ofNullable().ifPresent(newArtist ->
                 artist.mutate(artistService
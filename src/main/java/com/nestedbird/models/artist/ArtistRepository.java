@@ -21,6 +21,7 @@ import com.nestedbird.models.medium.Medium;
 import com.nestedbird.models.song.Song;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -37,6 +38,7 @@ public interface ArtistRepository extends AuditedRepository<Artist> {
      * @param artistId the artist id
      * @return the page
      */
+    @EntityGraph(value = "Medium.listing", type = EntityGraph.EntityGraphType.LOAD)
     @Query("SELECT m FROM Medium m WHERE m.song.artist.id=:artistId AND m.active=true")
     Page<Medium> findAllMedia(final Pageable pageable, @Param("artistId") final String artistId);
 
@@ -47,6 +49,7 @@ public interface ArtistRepository extends AuditedRepository<Artist> {
      * @param artistId the artist id
      * @return the page
      */
+    @EntityGraph(value = "Song.listing", type = EntityGraph.EntityGraphType.LOAD)
     @Query("SELECT s FROM Song s WHERE s.artist.id=:artistId AND s.active=true")
     Page<Song> findAllSongs(final Pageable pageable, @Param("artistId") final String artistId);
 
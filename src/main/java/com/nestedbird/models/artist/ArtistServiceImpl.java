@@ -20,12 +20,15 @@ import com.nestedbird.models.core.Audited.AuditedRepository;
 import com.nestedbird.models.core.Audited.AuditedServiceImpl;
 import com.nestedbird.models.medium.Medium;
 import com.nestedbird.models.song.Song;
+import com.nestedbird.util.UUIDConverter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.Optional;
 
 /**
@@ -53,12 +56,20 @@ public class ArtistServiceImpl extends AuditedServiceImpl<Artist> implements Art
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Medium> listAllMediumByPage(final Pageable pageable, final String id) {
+        if (!UUIDConverter.isParsable(id)) {
+            return new PageImpl<>(Collections.emptyList(), pageable, 0);
+        }
         return artistRepository.findAllMedia(pageable, id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Song> listAllSongsByPage(final Pageable pageable, final String id) {
+        if (!UUIDConverter.isParsable(id)) {
+            return new PageImpl<>(Collections.emptyList(), pageable, 0);
+        }
         return artistRepository.findAllSongs(pageable, id);
     }
 
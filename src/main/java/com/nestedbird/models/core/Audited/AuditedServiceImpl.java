@@ -19,6 +19,7 @@ package com.nestedbird.models.core.Audited;
 import com.nestedbird.models.core.Base.BaseServiceImpl;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * The type Audited service.
@@ -27,6 +28,7 @@ import org.springframework.data.domain.Pageable;
  */
 public abstract class AuditedServiceImpl<T extends AuditedEntity> extends BaseServiceImpl<T> implements AuditedService<T> {
     @Override
+    @Transactional(readOnly = true)
     public Page<T> findByActive(final Pageable pageable, final Boolean active) {
         return getRepository().findByActive(pageable, active);
     }
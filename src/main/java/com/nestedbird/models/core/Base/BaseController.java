@@ -16,22 +16,40 @@
 
 package com.nestedbird.models.core.Base;
 
+import com.nestedbird.config.JsonViewConfiguration;
+import com.nestedbird.models.core.Audited.AuditedEntity;
+import com.nestedbird.models.core.View;
+import com.nestedbird.modules.conditionalget.CachePolicy;
+import com.nestedbird.modules.conditionalget.ConditionalGet;
 import com.nestedbird.modules.entitysearch.EntitySearch;
 import com.nestedbird.modules.formparser.FormParse;
-import com.nestedbird.modules.schema.SchemaElement;
-import com.nestedbird.modules.schema.SchemaReader;
+import com.nestedbird.modules.lazyattributes.LazyAttributes;
+import com.nestedbird.modules.paginator.Cursor;
+import com.nestedbird.modules.paginator.CursorPage;
+import com.nestedbird.modules.projection.FieldSelection;
+import com.nestedbird.modules.projection.Projection;
+import com.nestedbird.modules.schema.SchemaCache;
+import com.nestedbird.util.UUIDConverter;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * The Base Controller contains common endpoints for all BaseEntities.
@@ -42,6 +60,15 @@ import java.util.List;
  */
 @RestController
 public abstract class BaseController<E extends BaseEntity> {
+    /**
+     * The largest page that can be requested with a cursor
+     */
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    /**
+     * The most elements that can be requested by id at once
+     */
+    private static final int MAX_IDS = 100;
 
     /**
      * This searches the lucene storage
@@ -53,6 +80,16 @@ public abstract class BaseController<E extends BaseEntity> {
      */
     private FormParse formParse;
 
+    /**
+     * Turns the fields asked for into projections
+     */
+    private FieldSelection fieldSelection;
+
+    /**
+     * Serves the precompiled schemas
+     */
+    private SchemaCache schemaCache;
+
     /**
      * Sets entity search.
      *
@@ -73,16 +110,181 @@ public abstract class BaseController<E extends BaseEntity> {
         this.formParse = formParse;
     }
 
+    /**
+     * Sets field selection.
+     *
+     * @param fieldSelection the field selection
+     */
+    @Autowired
+    public void setFieldSelection(final FieldSelection fieldSelection) {
+        this.fieldSelection = fieldSelection;
+    }
+
+    /**
+     * Sets schema cache.
+     *
+     * @param schemaCache the schema cache
+     */
+    @Autowired
+    public void setSchemaCache(final SchemaCache schemaCache) {
+        this.schemaCache = schemaCache;
+    }
+
     /**
      * retrieves a specific BaseEntity
+     * Unlike the listings, this includes the lazily fetched attributes of the entity, but not of its relations
+     * Nothing is serialized when the client already has the current version of the entity
      *
-     * @param id id of base entity
+     * @param id         id of base entity
+     * @param webRequest the web request
      * @return the base entity
      */
     @ApiOperation("Retrieve this specific element")
     @RequestMapping(value = "/{id}", method = RequestMethod.GET)
-    public E get(@ApiParam(value = "UUID Id of Element", required = true) @PathVariable final String id) {
-        return getRepository().findOne(id);
+    public E get(@ApiParam(value = "UUID Id of Element", required = true) @PathVariable final String id,
+                 final ServletWebRequest webRequest) {
+        final E entity = getRepository().findOne(requireId(id));
+        if (entity == null || isNotModified(webRequest, Collections.singletonList(entity), CachePolicy.ENTITY)) {
+            return null;
+        }
+        return LazyAttributes.initialize(entity);
+    }
+
+    /**
+     * retrieves many specific BaseEntities at once, in a single query
+     * Elements that do not exist are left out, the rest keep the order they were asked for in
+     * Asking for too many elements, or with an id that is not a UUID, is a bad request
+     *
+     * @param ids        the comma separated ids of the base entities
+     * @param webRequest the web request
+     * @return the base entities
+     */
+    @ApiOperation("Retrieve many specific elements")
+    @RequestMapping(value = "", params = {"ids", "!fields", "!view", "!cursor", "!query"}, method = RequestMethod.GET)
+    public ResponseEntity<List<E>> listByIds(@ApiParam(value = "Comma Separated UUID Ids", required = true) @RequestParam("ids") final List<String> ids,
+                                             final ServletWebRequest webRequest) {
+        final List<String> distinctIds = distinctIds(ids);
+        if (!areValidIds(distinctIds)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        final List<E> entities = getService().findAll(distinctIds);
+        return isNotModified(webRequest, entities, CachePolicy.LISTING) ? null : ResponseEntity.ok(entities);
+    }
+
+    /**
+     * retrieves many specific BaseEntities at once, selecting only the fields asked for
+     *
+     * @param ids    the comma separated ids of the base entities
+     * @param fields the comma separated fields, ie: id,name,location.name
+     * @return the base entities
+     */
+    @ApiOperation("Retrieve many specific elements, with only the fields asked for")
+    @RequestMapping(value = "", params = {"ids", "fields", "!view", "!cursor", "!query"}, method = RequestMethod.GET)
+    public ResponseEntity<List<Map<String, Object>>> listFieldsByIds(@ApiParam(value = "Comma Separated UUID Ids", required = true) @RequestParam("ids") final List<String> ids,
+                                                                     @ApiParam(value = "Comma Separated Fields", required = true) @RequestParam("fields") final String fields) {
+        final List<String> distinctIds = distinctIds(ids);
+        if (!areValidIds(distinctIds)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(getService().findAll(distinctIds, selectFields(fields)));
+    }
+
+    /**
+     * retrieves many specific BaseEntities at once, selecting only the attributes of a view
+     *
+     * @param ids  the comma separated ids of the base entities
+     * @param view the name of the view
+     * @return the base entities
+     */
+    @ApiOperation("Retrieve many specific elements, with only the attributes of a view")
+    @RequestMapping(value = "", params = {"ids", "view", "!fields", "!cursor", "!query"}, method = RequestMethod.GET)
+    public ResponseEntity<List<Map<String, Object>>> listViewByIds(@ApiParam(value = "Comma Separated UUID Ids", required = true) @RequestParam("ids") final List<String> ids,
+                                                                   @ApiParam(value = "Name Of The View", required = true) @RequestParam("view") final String view) {
+        final List<String> distinctIds = distinctIds(ids);
+        if (!areValidIds(distinctIds)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(getService().findAll(distinctIds, Projection.of(getEntityClass(), view)));
+    }
+
+    /**
+     * Refuses to page through specific BaseEntities, the ids already decide which elements are returned
+     * Without this the request would fall through to a listing of every element
+     *
+     * @return a bad request
+     */
+    @ApiOperation(value = "Ids cannot be combined with a cursor", hidden = true)
+    @RequestMapping(value = "", params = {"ids", "cursor"}, method = RequestMethod.GET)
+    public ResponseEntity<Void> listByIdsAndCursor() {
+        return ResponseEntity.badRequest().build();
+    }
+
+    /**
+     * Refuses to search specific BaseEntities, the ids already decide which elements are returned
+     *
+     * @return a bad request
+     */
+    @ApiOperation(value = "Ids cannot be combined with a query", hidden = true)
+    @RequestMapping(value = "", params = {"ids", "query", "!cursor"}, method = RequestMethod.GET)
+    public ResponseEntity<Void> listByIdsAndQuery() {
+        return ResponseEntity.badRequest().build();
+    }
+
+    /**
+     * Removes blank and repeated ids
+     *
+     * @param ids the ids
+     * @return the distinct ids
+     */
+    private List<String> distinctIds(final List<String> ids) {
+        return ids.stream()
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Whether the ids can be looked up, there cannot be too many and each has to be a UUID
+     *
+     * @param ids the distinct ids
+     * @return whether the ids can be looked up
+     */
+    private boolean areValidIds(final List<String> ids) {
+        return ids.size() <= MAX_IDS && ids.stream().allMatch(UUIDConverter::isParsable);
+    }
+
+    /**
+     * Checks an id could belong to an element before it is looked up
+     *
+     * @param id the id
+     * @return the id
+     * @throws EntityNotFound the id is not a UUID
+     */
+    private String requireId(final String id) {
+        if (!UUIDConverter.isParsable(id)) {
+            throw new EntityNotFound("No element has the id " + id);
+        }
+        return id;
+    }
+
+    /**
+     * retrieves a specific BaseEntity, selecting only the fields asked for
+     *
+     * @param id     id of base entity
+     * @param fields the comma separated fields, ie: id,name,location.name
+     * @return the base entity
+     */
+    @ApiOperation("Retrieve this specific element, with only the fields asked for")
+    @RequestMapping(value = "/{id}", params = {"fields"}, method = RequestMethod.GET)
+    public Map<String, Object> getFields(@ApiParam(value = "UUID Id of Element", required = true) @PathVariable final String id,
+                                         @ApiParam(value = "Comma Separated Fields", required = true) @RequestParam("fields") final String fields) {
+        return getService().findAll(Collections.singletonList(requireId(id)), selectFields(fields)).stream()
+                .findFirst()
+                .orElse(null);
     }
 
     /**
@@ -95,12 +297,15 @@ public abstract class BaseController<E extends BaseEntity> {
 
     /**
      * gets schema of BaseEntity
+     * The schema is only serialized once, and is served with a strong etag
      *
+     * @param version the version of the schema the client expects
      * @return baseentity schema
      */
+    @ApiOperation("Retrieve the schema of this element")
     @RequestMapping(value = "/schema", method = RequestMethod.GET)
-    public List<SchemaElement> getSchema() {
-        return SchemaReader.read(getEntityClass());
+    public ResponseEntity<byte[]> getSchema(@ApiParam(value = "Schema Version") @RequestParam(value = "version", required = false) final String version) {
+        return schemaCache.get(getEntityClass()).toResponseEntity(version);
     }
 
     /**
@@ -113,14 +318,150 @@ public abstract class BaseController<E extends BaseEntity> {
 
     /**
      * retrieves all recorded base entity items in paginated format.
+     * Lazily fetched attributes, such as descriptions, lyrics and medium data, are left out of every listing and search
+     * response. Retrieve an element on its own to read them.
      *
-     * @param pageable the pagination format
+     * @param pageable   the pagination format
+     * @param webRequest the web request
      * @return the base entities paginated
      */
     @ApiOperation("Retrieve all of the elements")
     @RequestMapping(value = "", method = RequestMethod.GET)
-    public Page<E> list(final Pageable pageable) {
-        return getService().listAllByPage(pageable);
+    public Page<E> list(final Pageable pageable,
+                        final ServletWebRequest webRequest) {
+        final Page<E> page = getService().listAllByPage(pageable);
+        return isNotModified(webRequest, page.getContent(), CachePolicy.LISTING, page.getTotalElements()) ? null : page;
+    }
+
+    /**
+     * retrieves all recorded base entity items using keyset pagination.
+     * An empty cursor starts from the beginning, every response includes the cursor of the next page.
+     * Unlike page numbers, deep pages cost the same as the first page, and nothing is counted unless asked for.
+     *
+     * @param cursor     the cursor of the page
+     * @param size       the number of elements in the page
+     * @param sortBy     the property to sort by, only used when starting a listing
+     * @param direction  the direction to sort by, only used when starting a listing
+     * @param count      whether to count the total number of elements
+     * @param webRequest the web request
+     * @return the base entities page
+     */
+    @ApiOperation("Retrieve all of the elements using a cursor")
+    @RequestMapping(value = "", params = {"cursor", "!query", "!ids"}, method = RequestMethod.GET)
+    public CursorPage<E> listByCursor(@ApiParam(value = "Cursor Of The Page", required = true) @RequestParam("cursor") final String cursor,
+                                      @RequestParam(value = "size", defaultValue = "20") final int size,
+                                      @RequestParam(value = "sortBy", defaultValue = "id") final String sortBy,
+                                      @RequestParam(value = "direction", defaultValue = "ASC") final Sort.Direction direction,
+                                      @RequestParam(value = "count", defaultValue = "false") final boolean count,
+                                      final ServletWebRequest webRequest) {
+        final CursorPage<E> page = getService().listAllByCursor(position(cursor, sortBy, direction), pageSize(size), count);
+        return isNotModified(webRequest, page.getContent(), CachePolicy.LISTING, page.getNextCursor(), page.getTotalElements()) ? null : page;
+    }
+
+    /**
+     * retrieves all recorded base entity items in paginated format, selecting only the attributes of a view.
+     * Each element is returned as the attributes of the view, rather than as the entity.
+     *
+     * @param pageable the pagination format
+     * @param view     the name of the view
+     * @return the base entities paginated
+     */
+    @ApiOperation("Retrieve all of the elements, with only the attributes of a view")
+    @RequestMapping(value = "", params = {"view", "!fields", "!cursor", "!query", "!ids"}, method = RequestMethod.GET)
+    public Page<Map<String, Object>> listView(final Pageable pageable,
+                                              @ApiParam(value = "Name Of The View", required = true) @RequestParam("view") final String view) {
+        return getService().listAllByPage(pageable, Projection.of(getEntityClass(), view));
+    }
+
+    /**
+     * retrieves all recorded base entity items using keyset pagination, selecting only the attributes of a view.
+     *
+     * @param cursor    the cursor of the page
+     * @param view      the name of the view
+     * @param size      the number of elements in the page
+     * @param sortBy    the property to sort by, only used when starting a listing
+     * @param direction the direction to sort by, only used when starting a listing
+     * @param count     whether to count the total number of elements
+     * @return the base entities page
+     */
+    @ApiOperation("Retrieve all of the elements using a cursor, with only the attributes of a view")
+    @RequestMapping(value = "", params = {"cursor", "view", "!fields", "!query", "!ids"}, method = RequestMethod.GET)
+    public CursorPage<Map<String, Object>> listViewByCursor(@ApiParam(value = "Cursor Of The Page", required = true) @RequestParam("cursor") final String cursor,
+                                                            @ApiParam(value = "Name Of The View", required = true) @RequestParam("view") final String view,
+                                                            @RequestParam(value = "size", defaultValue = "20") final int size,
+                                                            @RequestParam(value = "sortBy", defaultValue = "id") final String sortBy,
+                                                            @RequestParam(value = "direction", defaultValue = "ASC") final Sort.Direction direction,
+                                                            @RequestParam(value = "count", defaultValue = "false") final boolean count) {
+        return getService().listAllByCursor(position(cursor, sortBy, direction), pageSize(size), count, Projection.of(getEntityClass(), view));
+    }
+
+    /**
+     * retrieves all recorded base entity items in paginated format, selecting only the fields asked for.
+     * Only the columns and relations of the fields are queried.
+     *
+     * @param pageable the pagination format
+     * @param fields   the comma separated fields, ie: id,name,location.name
+     * @return the base entities paginated
+     */
+    @ApiOperation("Retrieve all of the elements, with only the fields asked for")
+    @RequestMapping(value = "", params = {"fields", "!view", "!cursor", "!query", "!ids"}, method = RequestMethod.GET)
+    public Page<Map<String, Object>> listFields(final Pageable pageable,
+                                                @ApiParam(value = "Comma Separated Fields", required = true) @RequestParam("fields") final String fields) {
+        return getService().listAllByPage(pageable, selectFields(fields));
+    }
+
+    /**
+     * retrieves all recorded base entity items using keyset pagination, selecting only the fields asked for.
+     *
+     * @param cursor    the cursor of the page
+     * @param fields    the comma separated fields, ie: id,name,location.name
+     * @param size      the number of elements in the page
+     * @param sortBy    the property to sort by, only used when starting a listing
+     * @param direction the direction to sort by, only used when starting a listing
+     * @param count     whether to count the total number of elements
+     * @return the base entities page
+     */
+    @ApiOperation("Retrieve all of the elements using a cursor, with only the fields asked for")
+    @RequestMapping(value = "", params = {"cursor", "fields", "!view", "!query", "!ids"}, method = RequestMethod.GET)
+    public CursorPage<Map<String, Object>> listFieldsByCursor(@ApiParam(value = "Cursor Of The Page", required = true) @RequestParam("cursor") final String cursor,
+                                                              @ApiParam(value = "Comma Separated Fields", required = true) @RequestParam("fields") final String fields,
+                                                              @RequestParam(value = "size", defaultValue = "20") final int size,
+                                                              @RequestParam(value = "sortBy", defaultValue = "id") final String sortBy,
+                                                              @RequestParam(value = "direction", defaultValue = "ASC") final Sort.Direction direction,
+                                                              @RequestParam(value = "count", defaultValue = "false") final boolean count) {
+        return getService().listAllByCursor(position(cursor, sortBy, direction), pageSize(size), count, selectFields(fields));
+    }
+
+    /**
+     * Creates the projection of the fields asked for, only fields visible to the current user can be selected
+     *
+     * @param fields the comma separated fields
+     * @return the projection
+     */
+    private Projection selectFields(final String fields) {
+        return fieldSelection.select(getEntityClass(), fields, JsonViewConfiguration.currentView());
+    }
+
+    /**
+     * Reads the position of a cursor, an empty cursor starts from the beginning
+     *
+     * @param cursor    the cursor of the page
+     * @param sortBy    the property to sort by, only used when starting a listing
+     * @param direction the direction to sort by, only used when starting a listing
+     * @return the position
+     */
+    private Cursor position(final String cursor, final String sortBy, final Sort.Direction direction) {
+        return cursor.isEmpty() ? Cursor.start(sortBy, direction) : Cursor.decode(cursor);
+    }
+
+    /**
+     * Keeps the page size of a cursor listing between one and the largest page
+     *
+     * @param size the requested size
+     * @return the page size
+     */
+    private int pageSize(final int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
     }
 
     /**
@@ -134,21 +475,89 @@ public abstract class BaseController<E extends BaseEntity> {
     /**
      * searches the base entities, returns a paginated response
      *
-     * @param queryText the lucene query text
-     * @param pageable  the pagination format
-     * @param sort      the sorting query
+     * @param queryText  the lucene query text
+     * @param pageable   the pagination format
+     * @param sort       the sorting query
+     * @param webRequest the web request
      * @return the searched response paginated
      * @throws ParseException the parse exception
      */
     @ApiOperation("Retrieve and search all the elements")
-    @RequestMapping(value = "", params = {"query"}, method = RequestMethod.GET)
+    @RequestMapping(value = "", params = {"query", "!ids"}, method = RequestMethod.GET)
     public Page<E> search(final Pageable pageable,
                           final Sort sort,
-                          @ApiParam(value = "Search Query", required = true) @RequestParam("query") final String queryText) throws ParseException {
+                          @ApiParam(value = "Search Query", required = true) @RequestParam("query") final String queryText,
+                          final ServletWebRequest webRequest) throws ParseException {
+        final Page<E> page = searchPage(pageable, sort, queryText);
+        return isNotModified(webRequest, page.getContent(), CachePolicy.LISTING, page.getTotalElements()) ? null : page;
+    }
+
+    /**
+     * searches the base entities and paginates the results
+     *
+     * @param pageable  the pagination format
+     * @param sort      the sorting query
+     * @param queryText the lucene query text
+     * @return the searched response paginated
+     * @throws ParseException the parse exception
+     */
+    private Page<E> searchPage(final Pageable pageable, final Sort sort, final String queryText) throws ParseException {
         final List<E> results = entitySearch.searchOnlyReturnData(getEntityClass(), queryText);
         return entitySearch.paginate(results, pageable, sort);
     }
 
+    /**
+     * Answers a conditional GET from the last modified dates of the entities, before anything is serialized
+     * Only audited entities know when they were last modified, so other entities are always sent in full
+     *
+     * @param webRequest the web request
+     * @param entities   the entities in the response
+     * @param policy     how long the response can be cached for
+     * @param variants   anything else the response depends on
+     * @return true when the client's copy is current
+     */
+    private boolean isNotModified(final ServletWebRequest webRequest,
+                                  final Collection<E> entities,
+                                  final CachePolicy policy,
+                                  final Object... variants) {
+        if (!AuditedEntity.class.isAssignableFrom(getEntityClass())) {
+            return false;
+        }
+
+        final Class<?> view = JsonViewConfiguration.currentView();
+        final Object[] responseVariants = Arrays.copyOf(variants, variants.length + 1);
+        responseVariants[variants.length] = view.getName();
+
+        return ConditionalGet.checkNotModified(webRequest, entities, policy,
+                View.Anonymous.class.equals(view), responseVariants);
+    }
+
+    /**
+     * searches the base entities, selecting only the fields asked for
+     * The page is found by searching, then only the fields of the entities in the page are queried
+     *
+     * @param pageable  the pagination format
+     * @param sort      the sorting query
+     * @param queryText the lucene query text
+     * @param fields    the comma separated fields, ie: id,name,location.name
+     * @return the searched response paginated
+     * @throws ParseException the parse exception
+     */
+    @ApiOperation("Retrieve and search all the elements, with only the fields asked for")
+    @RequestMapping(value = "", params = {"query", "fields", "!ids"}, method = RequestMethod.GET)
+    public Page<Map<String, Object>> searchFields(final Pageable pageable,
+                                                  final Sort sort,
+                                                  @ApiParam(value = "Search Query", required = true) @RequestParam("query") final String queryText,
+                                                  @ApiParam(value = "Comma Separated Fields", required = true) @RequestParam("fields") final String fields) throws ParseException {
+        final Projection projection = selectFields(fields);
+        final Page<E> results = searchPage(pageable, sort, queryText);
+        final List<String> ids = results.getContent().stream()
+                .map(BaseEntity::getId)
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(getService().findAll(ids, projection), pageable, results.getTotalElements());
+    }
+
     /**
      * Create a new BaseEntity
      *
@@ -177,8 +586,7 @@ public abstract class BaseController<E extends BaseEntity> {
      * @return updated entity
      */
     private E processEntity(final E initialEntity, final HttpServletRequest request) {
-        final E parsedEntity = formParse.parse(initialEntity, request);
-        return getRepository().saveAndFlush(parsedEntity);
+        return formParse.parseAndSave(initialEntity, request, getRepository());
     }
 
     /**
@@ -206,7 +614,7 @@ public abstract class BaseController<E extends BaseEntity> {
             consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
     @ResponseBody
     public String update(@PathVariable final String id, final HttpServletRequest request) {
-        final E initialEntity = getRepository().findOne(id);
+        final E initialEntity = getRepository().findOne(requireId(id));
 
         // todo change from toJson to Springs automatic encoding
         // the reason why it isnt at the moment is because of a lazy loading bug
@@ -222,7 +630,7 @@ public abstract class BaseController<E extends BaseEntity> {
      */
     @RequestMapping(value = "/{id}", method = RequestMethod.DELETE)
     public E delete(@PathVariable final String id) {
-        final E existingEntity = getRepository().findOne(id);
+        final E existingEntity = getRepository().findOne(requireId(id));
         getRepository().delete(existingEntity);
         return existingEntity;
     }
@@ -17,6 +17,7 @@
 package com.nestedbird.models.core.Base;
 
 import com.nestedbird.models.core.DataObject;
+import com.nestedbird.modules.binaryuuid.UUIDStringType;
 import com.nestedbird.modules.entitysearch.SearchAnalysers;
 import com.nestedbird.modules.schema.annotations.SchemaView;
 import com.nestedbird.util.UUIDConverter;
@@ -33,6 +34,7 @@ import org.apache.lucene.analysis.snowball.SnowballPorterFilterFactory;
 import org.apache.lucene.analysis.standard.StandardFilterFactory;
 import org.apache.lucene.analysis.standard.StandardTokenizerFactory;
 import org.apache.lucene.analysis.synonym.SynonymFilterFactory;
+import org.hibernate.annotations.Type;
 import org.hibernate.search.annotations.*;
 
 import javax.persistence.Column;
@@ -78,9 +80,11 @@ import java.util.UUID;
 public abstract class BaseEntity extends DataObject implements Serializable {
     /**
      * The ID of this entity
+     * The column is CHAR(36) or BINARY(16) depending on the uuid storage, see UUIDColumnIntegrator
      */
     @Id
-    @Column(name = "id", unique = true, nullable = false, columnDefinition = "CHAR(36)")
+    @Type(type = UUIDStringType.NAME)
+    @Column(name = "id", unique = true, nullable = false)
     @SchemaView(locked = true)
     @Getter
     private final String id;
@@ -16,11 +16,9 @@
 
 package com.nestedbird.models.core.Base;
 
-import com.nestedbird.modules.schema.SchemaElement;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 
-import java.util.List;
-
 /**
  * The interface Base security.
  */
@@ -29,8 +27,9 @@ public interface BaseSecurity {
     /**
      * Gets schema.
      *
+     * @param version the version of the schema the client expects
      * @return the schema
      */
     @PreAuthorize("hasRole('ADMIN')")
-    List<SchemaElement> getSchema();
+    ResponseEntity<byte[]> getSchema(String version);
 }
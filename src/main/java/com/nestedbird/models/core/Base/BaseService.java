@@ -16,9 +16,15 @@
 
 package com.nestedbird.models.core.Base;
 
+import com.nestedbird.modules.paginator.Cursor;
+import com.nestedbird.modules.paginator.CursorPage;
+import com.nestedbird.modules.projection.Projection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -35,8 +41,64 @@ public interface BaseService<T extends BaseEntity> {
      */
     Page<T> listAllByPage(final Pageable pageable);
 
+    /**
+     * Retrieve a keyset paginated list of all base entities
+     * Every page costs the same to retrieve regardless of how deep into the listing it is
+     *
+     * @param cursor the position in the listing
+     * @param size   the number of entities in the page
+     * @param count  whether the total number of entities should be counted
+     * @return page of entities
+     */
+    CursorPage<T> listAllByCursor(final Cursor cursor, final int size, final boolean count);
+
+    /**
+     * Retrieve paginated list of all base entities, selecting only the attributes of a projection
+     *
+     * @param pageable   the pagination settings
+     * @param projection the projection, either a view or the fields asked for
+     * @return page of projected entities
+     */
+    Page<Map<String, Object>> listAllByPage(final Pageable pageable, final Projection projection);
+
+    /**
+     * Retrieve a keyset paginated list of all base entities, selecting only the attributes of a projection
+     *
+     * @param cursor     the position in the listing
+     * @param size       the number of entities in the page
+     * @param count      whether the total number of entities should be counted
+     * @param projection the projection, either a view or the fields asked for
+     * @return page of projected entities
+     */
+    CursorPage<Map<String, Object>> listAllByCursor(final Cursor cursor, final int size, final boolean count, final Projection projection);
+
+    /**
+     * Retrieves elements by id in a single query
+     *
+     * @param ids the elements to retrieve
+     * @return the elements that exist, in the order of the ids
+     */
+    List<T> findAll(final List<String> ids);
+
+    /**
+     * Retrieves the ids of every element, without loading the elements
+     *
+     * @return the ids
+     */
+    List<String> findAllIds();
+
+    /**
+     * Retrieves elements by id, selecting only the attributes of a projection
+     *
+     * @param ids        the elements to retrieve
+     * @param projection the projection, either a view or the fields asked for
+     * @return the projected elements, in the order of the ids
+     */
+    List<Map<String, Object>> findAll(final List<String> ids, final Projection projection);
+
     /**
      * Retrieves a single element by id
+     * Ids that are not UUIDs cannot belong to an element, so they are not looked up
      *
      * @param id the element to retrieve
      * @return optional of element
@@ -50,4 +112,14 @@ public interface BaseService<T extends BaseEntity> {
      * @return optional of saved element
      */
     Optional<T> saveAndFlush(final T entity);
+
+    /**
+     * Save many entities in a single transaction
+     * The entities are written in chunks of the jdbc batch size, so hibernate sends each chunk as a jdbc batch
+     * The returned entities are detached
+     *
+     * @param entities entities to save
+     * @return the saved entities
+     */
+    List<T> saveAll(final Collection<T> entities);
 }
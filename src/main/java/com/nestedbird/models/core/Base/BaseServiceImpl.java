@@ -16,10 +16,31 @@
 
 package com.nestedbird.models.core.Base;
 
+import com.google.common.collect.Lists;
+import com.nestedbird.modules.paginator.Cursor;
+import com.nestedbird.modules.paginator.CursorPage;
+import com.nestedbird.modules.paginator.InvalidCursor;
+import com.nestedbird.modules.projection.Projection;
+import com.nestedbird.util.UUIDConverter;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.GenericTypeResolver;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.*;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * The type Base service.
@@ -27,10 +48,348 @@ import java.util.Optional;
  * @param <T> the type parameter
  */
 public abstract class BaseServiceImpl<T extends BaseEntity> implements BaseService<T> {
+    /**
+     * The hibernate property holding how many statements are grouped into a single jdbc batch
+     */
+    private static final String BATCH_SIZE_PROPERTY = "hibernate.jdbc.batch_size";
+
+    /**
+     * The chunk size used when the batch size is not configured
+     */
+    private static final int DEFAULT_BATCH_SIZE = 50;
+
+    /**
+     * The suffix of the entity graph used for listings
+     */
+    private static final String LISTING_GRAPH = ".listing";
+
+    /**
+     * The hint that fetches the attributes of an entity graph, leaving the other attributes as they are mapped
+     */
+    private static final String LOAD_GRAPH_HINT = "javax.persistence.loadgraph";
+
+    /**
+     * Used to build the keyset pagination queries and to write entities in bulk
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
+    @Transactional(readOnly = true)
     public Page<T> listAllByPage(final Pageable pageable) {
-        return getRepository().findAll(pageable);
+        return getListingGraph()
+                .<Page<T>>map(graph -> {
+                    final CriteriaQuery<String> query = entityManager.getCriteriaBuilder().createQuery(String.class);
+                    final List<T> content = fetchWithGraph(listPage(query, pageable, (q, root) -> q.select(root.get("id"))), graph);
+                    return new PageImpl<>(content, pageable, countAll(getEntityClass()));
+                })
+                .orElseGet(() -> getRepository().findAll(pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> listAllByPage(final Pageable pageable, final Projection projection) {
+        final CriteriaQuery<Tuple> query = entityManager.getCriteriaBuilder().createTupleQuery();
+        final List<Tuple> rows = listPage(query, pageable, (q, root) -> q.multiselect(projection.select(root)));
+
+        return new PageImpl<>(projection.read(rows, entityManager), pageable, countAll(getEntityClass()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<T> listAllByCursor(final Cursor cursor, final int size, final boolean count) {
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final List<T> results = getListingGraph()
+                .map(graph -> fetchWithGraph(listAfter(builder.createQuery(String.class), cursor, size, (q, root) -> q.select(root.get("id"))), graph))
+                .orElseGet(() -> listAfter(builder.createQuery(getEntityClass()), cursor, size, CriteriaQuery::select));
+
+        return toCursorPage(new ArrayList<>(results), cursor, size, count,
+                last -> sortValue(last, cursor.getSortBy()),
+                BaseEntity::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> listAllByCursor(final Cursor cursor, final int size, final boolean count, final Projection projection) {
+        final Projection sortedProjection = projection.including(cursor.getSortBy());
+        final CriteriaQuery<Tuple> query = entityManager.getCriteriaBuilder().createTupleQuery();
+        final List<Tuple> rows = listAfter(query, cursor, size, (q, root) -> q.multiselect(sortedProjection.select(root)));
+
+        final CursorPage<Map<String, Object>> page = toCursorPage(sortedProjection.read(rows, entityManager), cursor, size, count,
+                last -> last.get(cursor.getSortBy()),
+                last -> (String) last.get("id"));
+
+        // The sorted attribute is only selected to create the next cursor, it may not be a field the client can ask for
+        if (sortedProjection != projection) {
+            page.getContent().forEach(result -> result.remove(cursor.getSortBy()));
+        }
+
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<T> findAll(final List<String> ids) {
+        return getListingGraph()
+                .map(graph -> fetchWithGraph(ids, graph))
+                .orElseGet(() -> inOrder(ids, getRepository().findAll(ids)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> findAllIds() {
+        final CriteriaQuery<String> query = entityManager.getCriteriaBuilder().createQuery(String.class);
+        query.select(query.from(getEntityClass()).get("id"));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAll(final List<String> ids, final Projection projection) {
+        return projection.findAll(ids, entityManager);
+    }
+
+    /**
+     * Selects a page of the entities, sorted the way the pageable asks for
+     *
+     * @param query    the query
+     * @param pageable the pagination format
+     * @param select   selects what is returned from the root of the query
+     * @param <R>      the type of result
+     * @return the results
+     */
+    private <R> List<R> listPage(final CriteriaQuery<R> query,
+                                 final Pageable pageable,
+                                 final BiConsumer<CriteriaQuery<R>, Root<T>> select) {
+        final Root<T> root = query.from(getEntityClass());
+        select.accept(query, root);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, entityManager.getCriteriaBuilder()));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    /**
+     * Selects the entities after the position of the cursor
+     * We retrieve one extra row to find out if there is another page
+     *
+     * @param query  the query
+     * @param cursor the cursor of the page
+     * @param size   the number of elements in the page
+     * @param select selects what is returned from the root of the query
+     * @param <R>    the type of result
+     * @return the results
+     */
+    private <R> List<R> listAfter(final CriteriaQuery<R> query,
+                                  final Cursor cursor,
+                                  final int size,
+                                  final BiConsumer<CriteriaQuery<R>, Root<T>> select) {
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final Root<T> root = query.from(getEntityClass());
+        select.accept(query, root);
+
+        final Path<String> id = root.get("id");
+        final Path<Comparable> sortKey = getSortKey(root, cursor.getSortBy());
+        final boolean ascending = cursor.getDirection().isAscending();
+
+        if (cursor.hasPosition()) {
+            query.where(isAfter(builder, sortKey, id, cursor, ascending));
+        }
+        query.orderBy(ascending
+                ? Arrays.asList(builder.asc(sortKey), builder.asc(id))
+                : Arrays.asList(builder.desc(sortKey), builder.desc(id)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+    }
+
+    /**
+     * Trims the extra row from the results, and creates the cursor of the next page from the last element
+     *
+     * @param results the results, including the extra row
+     * @param cursor  the cursor of this page
+     * @param size    the number of elements in the page
+     * @param count   whether to count the total number of elements
+     * @param valueOf reads the sorted property of an element
+     * @param idOf    reads the id of an element
+     * @param <R>     the type of element
+     * @return the cursor page
+     */
+    private <R> CursorPage<R> toCursorPage(final List<R> results,
+                                           final Cursor cursor,
+                                           final int size,
+                                           final boolean count,
+                                           final Function<R, Object> valueOf,
+                                           final Function<R, String> idOf) {
+        String nextCursor = null;
+        if (results.size() > size) {
+            results.subList(size, results.size()).clear();
+
+            final R last = results.get(size - 1);
+            nextCursor = cursor.after(valueOf.apply(last), idOf.apply(last)).encode();
+        }
+
+        return new CursorPage<>(results, nextCursor, count ? countAll(getEntityClass()) : null);
+    }
+
+    /**
+     * Gets the entity graph used for listings, which fetches the relations serialized with each entity
+     * The graph is named after the entity, ie: Event.listing
+     *
+     * @return the listing entity graph
+     */
+    private Optional<EntityGraph<? super T>> getListingGraph() {
+        final String name = getEntityClass().getSimpleName() + LISTING_GRAPH;
+        return entityManager.getEntityGraphs(getEntityClass()).stream()
+                .filter(graph -> name.equals(graph.getName()))
+                .findFirst();
+    }
+
+    /**
+     * Fetches the entities with their listing graph in one query, keeping the order of the ids
+     * The page is selected as ids first, as joining collections into a limited query would page in memory
+     *
+     * @param ids   the ids of the entities
+     * @param graph the listing graph
+     * @return the entities
+     */
+    private List<T> fetchWithGraph(final List<String> ids, final EntityGraph<? super T> graph) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<T> query = builder.createQuery(getEntityClass());
+        final Root<T> root = query.from(getEntityClass());
+        query.select(root).distinct(true).where(root.get("id").in(ids));
+
+        return inOrder(ids, entityManager.createQuery(query)
+                .setHint(LOAD_GRAPH_HINT, graph)
+                .getResultList());
+    }
+
+    /**
+     * Reads the sorted property of an entity through its getter, so a lazy attribute is fetched rather than read
+     * as null. Properties without a getter are read from the field
+     *
+     * @param entity the entity
+     * @param sortBy the sorted property
+     * @return the value of the property
+     */
+    private static Object sortValue(final Object entity, final String sortBy) {
+        final BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        return wrapper.isReadableProperty(sortBy)
+                ? wrapper.getPropertyValue(sortBy)
+                : PropertyAccessorFactory.forDirectFieldAccess(entity).getPropertyValue(sortBy);
+    }
+
+    /**
+     * Puts entities in the order of their ids, ids that were not found are left out
+     *
+     * @param ids      the ids
+     * @param entities the entities, in any order
+     * @param <E>      the type of entity
+     * @return the entities in the order of the ids
+     */
+    static <E extends BaseEntity> List<E> inOrder(final List<String> ids, final Iterable<E> entities) {
+        final Map<String, E> entitiesById = new HashMap<>();
+        entities.forEach(entity -> entitiesById.put(entity.getId(), entity));
+
+        return ids.stream()
+                .map(entitiesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Builds the keyset condition, which is (sortKey, id) > (lastValue, lastId) for ascending listings
+     * When sorting by id this is simply id > lastId
+     * Nullable properties follow mysql, which orders NULL before every value, so NULL rows come first in ascending
+     * listings and last in descending ones. Comparing against NULL matches nothing, so those rows are tested with
+     * IS NULL / IS NOT NULL instead
+     *
+     * @param builder   the criteria builder
+     * @param sortKey   the property we are sorting by
+     * @param id        the id property
+     * @param cursor    the cursor holding the last element
+     * @param ascending is the listing ascending
+     * @return the predicate
+     */
+    @SuppressWarnings("unchecked")
+    private Predicate isAfter(final CriteriaBuilder builder,
+                              final Path<Comparable> sortKey,
+                              final Path<String> id,
+                              final Cursor cursor,
+                              final boolean ascending) {
+        final Predicate afterId = ascending
+                ? builder.greaterThan(id, cursor.getId())
+                : builder.lessThan(id, cursor.getId());
+
+        if ("id".equals(cursor.getSortBy())) {
+            return afterId;
+        }
+
+        final Comparable value = cursor.getValue(sortKey.getJavaType());
+        if (value == null) {
+            final Predicate afterNull = builder.and(builder.isNull(sortKey), afterId);
+            return ascending ? builder.or(afterNull, builder.isNotNull(sortKey)) : afterNull;
+        }
+
+        final Predicate afterValue = ascending
+                ? builder.greaterThan(sortKey, value)
+                : builder.or(builder.lessThan(sortKey, value), builder.isNull(sortKey));
+
+        return builder.or(afterValue, builder.and(builder.equal(sortKey, value), afterId));
+    }
+
+    /**
+     * Finds the property we are sorting by, only comparable properties of the entity itself can be sorted by
+     *
+     * @param root   the query root
+     * @param sortBy the name of the property
+     * @return the property path
+     */
+    @SuppressWarnings("unchecked")
+    private Path<Comparable> getSortKey(final Root<T> root, final String sortBy) {
+        try {
+            final Path<Comparable> sortKey = root.get(sortBy);
+
+            if (!Comparable.class.isAssignableFrom(sortKey.getJavaType()) && !sortKey.getJavaType().isPrimitive()) {
+                throw new InvalidCursor("Unable to sort by " + sortBy);
+            }
+
+            return sortKey;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new InvalidCursor("Unable to sort by " + sortBy, e);
+        }
+    }
+
+    /**
+     * Counts all of the entities
+     *
+     * @param entityClass the entity class
+     * @return the count
+     */
+    private Long countAll(final Class<T> entityClass) {
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        query.select(builder.count(query.from(entityClass)));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * Gets the class of the entity this service is for
+     *
+     * @return the entity class
+     */
+    @SuppressWarnings("unchecked")
+    protected Class<T> getEntityClass() {
+        return (Class<T>) GenericTypeResolver.resolveTypeArgument(getClass(), BaseServiceImpl.class);
     }
 
     /**
@@ -41,7 +400,11 @@ public abstract class BaseServiceImpl<T extends BaseEntity> implements BaseServi
     protected abstract BaseRepository<T> getRepository();
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<T> findOne(final String id) {
+        if (!UUIDConverter.isParsable(id)) {
+            return Optional.empty();
+        }
         return Optional.ofNullable(getRepository().findOne(id));
     }
 
@@ -49,4 +412,87 @@ public abstract class BaseServiceImpl<T extends BaseEntity> implements BaseServi
     public Optional<T> saveAndFlush(final T entity) {
         return Optional.ofNullable(getRepository().saveAndFlush(entity));
     }
+
+    @Override
+    @Transactional
+    public List<T> saveAll(final Collection<T> entities) {
+        final List<T> saved = new ArrayList<>(entities.size());
+
+        forEachChunk(new ArrayList<>(entities), chunk -> {
+            final Set<String> existingIds = findExistingIds(chunk);
+
+            for (final T entity : chunk) {
+                if (entityManager.contains(entity)) {
+                    saved.add(entity);
+                } else if (existingIds.contains(entity.getId())) {
+                    saved.add(entityManager.merge(entity));
+                } else {
+                    // The id is assigned by us, so persisting directly avoids the select merge would run
+                    entityManager.persist(entity);
+                    saved.add(entity);
+                }
+            }
+        });
+
+        return saved;
+    }
+
+    /**
+     * Runs the action over the elements in chunks of the jdbc batch size
+     * The persistence context is flushed and cleared after every chunk, so each flush is sent as one jdbc batch and
+     * the persistence context does not grow with the amount of elements
+     *
+     * @param elements the elements
+     * @param action   the action to run for each chunk
+     * @param <E>      the type of the elements
+     */
+    protected <E> void forEachChunk(final List<E> elements, final Consumer<List<E>> action) {
+        Lists.partition(elements, getBatchSize()).forEach(chunk -> {
+            action.accept(chunk);
+            flushAndClear();
+        });
+    }
+
+    /**
+     * Writes all pending changes to the database and detaches every managed entity
+     */
+    protected void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Gets how many statements hibernate groups into a single jdbc batch
+     *
+     * @return the batch size
+     */
+    protected int getBatchSize() {
+        final Object batchSize = entityManager.getEntityManagerFactory().getProperties().get(BATCH_SIZE_PROPERTY);
+
+        try {
+            return batchSize != null ? Math.max(1, Integer.parseInt(batchSize.toString())) : DEFAULT_BATCH_SIZE;
+        } catch (NumberFormatException e) {
+            return DEFAULT_BATCH_SIZE;
+        }
+    }
+
+    /**
+     * Finds which of the entities already exist in the database, with a single query
+     *
+     * @param entities the entities
+     * @return the ids of the entities that exist
+     */
+    private Set<String> findExistingIds(final List<T> entities) {
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<String> query = builder.createQuery(String.class);
+        final Root<T> root = query.from(getEntityClass());
+        final Path<String> id = root.get("id");
+
+        final List<String> ids = new ArrayList<>(entities.size());
+        entities.forEach(entity -> ids.add(entity.getId()));
+
+        query.select(id).where(id.in(ids));
+
+        return new HashSet<>(entityManager.createQuery(query).getResultList());
+    }
 }
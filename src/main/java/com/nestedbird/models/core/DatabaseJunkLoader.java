@@ -18,11 +18,15 @@ package com.nestedbird.models.core;
 
 import com.nestedbird.models.artist.Artist;
 import com.nestedbird.models.artist.ArtistRepository;
+import com.nestedbird.models.artist.ArtistService;
 import com.nestedbird.models.event.Event;
 import com.nestedbird.models.event.EventRepository;
+import com.nestedbird.models.event.EventService;
 import com.nestedbird.models.eventtime.EventTime;
+import com.nestedbird.models.eventtime.EventTimeService;
 import com.nestedbird.models.location.Location;
 import com.nestedbird.models.location.LocationRepository;
+import com.nestedbird.models.location.LocationService;
 import lombok.experimental.UtilityClass;
 import org.joda.time.DateTime;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -81,15 +85,29 @@ public class DatabaseJunkLoader implements ApplicationRunner {
             return secondWords[new Random().nextInt(secondWords.length)];
         }
     }
+    private final ArtistService artistService;
+    private final EventService eventService;
+    private final EventTimeService eventTimeService;
+    private final LocationService locationService;
     private final ArtistRepository artistRepository;
     private final EventRepository eventRepository;
     private final LocationRepository locationRepository;
 
+    private List<Artist> artists;
+    private List<Location> locations;
 
     @Autowired
-    public DatabaseJunkLoader(final ArtistRepository artistRepository,
+    public DatabaseJunkLoader(final ArtistService artistService,
+                              final EventService eventService,
+                              final EventTimeService eventTimeService,
+                              final LocationService locationService,
+                              final ArtistRepository artistRepository,
                               final EventRepository eventRepository,
                               final LocationRepository locationRepository) {
+        this.artistService = artistService;
+        this.eventService = eventService;
+        this.eventTimeService = eventTimeService;
+        this.locationService = locationService;
         this.artistRepository = artistRepository;
         this.eventRepository = eventRepository;
         this.locationRepository = locationRepository;
@@ -103,9 +121,10 @@ public class DatabaseJunkLoader implements ApplicationRunner {
     }
 
     private void generateArtists() {
-        if (artistRepository.findAll().isEmpty()) {
+        if (artistRepository.count() == 0) {
+            final List<Artist> newArtists = new ArrayList<>();
             for (Integer i = 0; i < 50; i++) {
-                artistRepository.saveAndFlush(
+                newArtists.add(
                         Artist.builder()
                                 .active(true)
                                 .description("test artist")
@@ -113,13 +132,15 @@ public class DatabaseJunkLoader implements ApplicationRunner {
                                 .build()
                 );
             }
+            artistService.saveAll(newArtists);
         }
     }
 
     private void generateLocations() {
-        if (locationRepository.findAll().isEmpty()) {
+        if (locationRepository.count() == 0) {
+            final List<Location> newLocations = new ArrayList<>();
             for (Integer i = 0; i < 10; i++) {
-                locationRepository.saveAndFlush(
+                newLocations.add(
                         Location.builder()
                                 .active(true)
                                 .description("test location")
@@ -128,22 +149,31 @@ public class DatabaseJunkLoader implements ApplicationRunner {
                                 .build()
                 );
             }
+            locationService.saveAll(newLocations);
         }
     }
 
     private void generateEvents() {
-        if (eventRepository.findAll().isEmpty()) {
+        if (eventRepository.count() == 0) {
+            artists = artistRepository.findAll();
+            locations = locationRepository.findAll();
+
+            final List<Event> events = new ArrayList<>();
+            final List<EventTime> times = new ArrayList<>();
             for (Integer i = 0; i < 350; i++) {
-                eventRepository.saveAndFlush(
-                        Event.builder()
-                                .active(true)
-                                .artists(getRandomArtistSet())
-                                .location(getRandomLocation())
-                                .description("test event")
-                                .times(getRandomEventTimeSet())
-                                .build()
-                );
+                final Event event = Event.builder()
+                        .active(true)
+                        .artists(getRandomArtistSet())
+                        .location(getRandomLocation())
+                        .description("test event")
+                        .build();
+                events.add(event);
+                times.add(getRandomEventTime(event));
             }
+
+            // The times reference their events, so the events must be written first
+            eventService.saveAll(events);
+            eventTimeService.saveAll(times);
         }
     }
 
@@ -159,26 +189,19 @@ public class DatabaseJunkLoader implements ApplicationRunner {
 
     private Location getRandomLocation() {
         final Random random = new Random();
-        final List<Location> locations = locationRepository.findAll();
         return locations.get(random.nextInt(locations.size()));
     }
 
-    private Set<EventTime> getRandomEventTimeSet() {
-        final HashSet<EventTime> set = new HashSet<>();
-
-        set.add(
-                EventTime.builder()
-                        .active(true)
-                        .startTime(DateTime.now().plusDays((int) (100 * Math.random())))
-                        .build()
-        );
-
-        return set;
+    private EventTime getRandomEventTime(final Event event) {
+        return EventTime.builder()
+                .active(true)
+                .event(event)
+                .startTime(DateTime.now().plusDays((int) (100 * Math.random())))
+                .build();
     }
 
     private Artist getRandomArtist() {
         final Random random = new Random();
-        final List<Artist> artists = artistRepository.findAll();
         return artists.get(random.nextInt(artists.size()));
     }
 }
@@ -26,6 +26,7 @@ import com.nestedbird.modules.schema.Schema;
 import com.nestedbird.modules.schema.annotations.SchemaView;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.search.annotations.Analyzer;
 import org.hibernate.search.annotations.Field;
 import org.hibernate.search.annotations.FieldBridge;
@@ -49,6 +50,7 @@ public abstract class TaggedEntity extends AuditedEntity implements Serializable
      * A collection of tags
      */
     @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @Field(bridge = @FieldBridge(impl = TagBridge.class),
             analyzer = @Analyzer(definition = SearchAnalysers.ENGLISH_WORD_ANALYSER))
     @JoinTable(name = "tags_entities",
@@ -58,6 +60,7 @@ public abstract class TaggedEntity extends AuditedEntity implements Serializable
     private Set<Tag> tags = new HashSet<>(0);
 
     @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @Field(bridge = @FieldBridge(impl = TagBridge.class),
             analyzer = @Analyzer(definition = SearchAnalysers.ENGLISH_WORD_ANALYSER))
     @JoinTable(name = "hiddentags_entities",
@@ -26,10 +26,14 @@ import com.nestedbird.models.eventtime.EventTime;
 import com.nestedbird.models.location.Location;
 import com.nestedbird.models.occurrence.Occurrence;
 import com.nestedbird.modules.entitysearch.SearchAnalysers;
+import com.nestedbird.modules.projection.ProjectionView;
 import com.nestedbird.modules.schema.Schema;
 import com.nestedbird.modules.schema.annotations.SchemaRepository;
 import com.nestedbird.modules.schema.annotations.SchemaView;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.search.annotations.*;
 import org.hibernate.search.bridge.builtin.LongBridge;
 import org.joda.time.DateTime;
@@ -48,11 +52,18 @@ import java.util.stream.Stream;
 @Entity
 @Table(name = "events")
 @Cacheable
+@Cache(region = "event", usage = CacheConcurrencyStrategy.READ_WRITE)
 @Indexed
-//@Cache(region="common", usage = CacheConcurrencyStrategy.READ_WRITE)
 @SchemaRepository(EventRepository.class)
+@NamedEntityGraph(name = "Event.listing", attributeNodes = {
+        @NamedAttributeNode("location"),
+        @NamedAttributeNode("artists"),
+        @NamedAttributeNode("times")
+})
+@ProjectionView(name = "summary", attributes = {"name", "imageUrl", "location.id", "location.name",
+        "artists.id", "artists.name", "times.startTime", "times.duration"})
 @Data
-@EqualsAndHashCode(callSuper = true, exclude = {"artists", "location", "recordedOccurrences", "times"})
+@EqualsAndHashCode(callSuper = true, exclude = {"artists", "location", "recordedOccurrences", "times", "description"})
 @NoArgsConstructor(force = true)
 public class Event extends AuditedEntity implements Serializable {
 
@@ -69,6 +80,8 @@ public class Event extends AuditedEntity implements Serializable {
      * What artists are at this event
      */
     @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
+    @Cache(region = "event.artists", usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(name = "events_artists",
             joinColumns = @JoinColumn(name = "event_id", referencedColumnName = "id"),
             inverseJoinColumns = @JoinColumn(name = "artist_id", referencedColumnName = "id"))
@@ -133,6 +146,7 @@ public class Event extends AuditedEntity implements Serializable {
      */
     @Column(name = "description", columnDefinition = "TEXT", length = 25000)
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     @Field(boost = @Boost(0.5f), analyzer = @Analyzer(definition = SearchAnalysers.ENGLISH_WORD_ANALYSER))
     @Size(max = 25000)
     @SchemaView(Schema.MARKDOWN)
@@ -160,6 +174,8 @@ public class Event extends AuditedEntity implements Serializable {
      * The amount of eventtimes that are associated to this event
      */
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "event")
+    @BatchSize(size = 50)
+    @Cache(region = "event.times", usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonManagedReference(value = "eventParent")
     @SchemaView(value = "Array", type = EventTime.class, mappings = {"event:id"})
     @Field(bridge = @FieldBridge(impl = EventTimeBridge.class),
@@ -24,7 +24,10 @@ import com.nestedbird.models.occurrence.Occurrence;
 import com.nestedbird.models.occurrence.OccurrenceRepository;
 import com.nestedbird.modules.facebookreader.FacebookPoster;
 import com.nestedbird.modules.formparser.ParameterMapParser;
+import com.nestedbird.modules.resourceparser.AsyncResourceParser;
 import com.nestedbird.modules.resourceparser.EventParser;
+import com.nestedbird.modules.scheduling.ClusterLease;
+import com.nestedbird.modules.scheduling.ClusterSingleton;
 import com.nestedbird.util.Mutable;
 import com.nestedbird.util.QueryBlock;
 import io.swagger.annotations.Api;
@@ -42,8 +45,10 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Optional;
 
 /**
  * The type Event controller.
@@ -60,6 +65,7 @@ public class EventController extends BaseController<Event> {
     private final SocialConfigSettings socialConfigSettings;
     private final FacebookPoster facebookPoster;
     private final EventParser eventParser;
+    private final AsyncResourceParser asyncResourceParser;
 
     /**
      * Instantiates a new Event controller.
@@ -71,6 +77,7 @@ public class EventController extends BaseController<Event> {
      * @param socialConfigSettings the social config settings
      * @param facebookPoster       the facebook poster
      * @param eventParser          the event parser
+     * @param asyncResourceParser  the async resource parser
      */
     @Autowired
     EventController(final EventService eventService,
@@ -78,13 +85,15 @@ public class EventController extends BaseController<Event> {
                     final OccurrenceRepository occurrenceRepository,
                     final SocialConfigSettings socialConfigSettings,
                     final FacebookPoster facebookPoster,
-                    final EventParser eventParser) {
+                    final EventParser eventParser,
+                    final AsyncResourceParser asyncResourceParser) {
         this.eventService = eventService;
         this.eventRepository = eventRepository;
         this.occurrenceRepository = occurrenceRepository;
         this.socialConfigSettings = socialConfigSettings;
         this.facebookPoster = facebookPoster;
         this.eventParser = eventParser;
+        this.asyncResourceParser = asyncResourceParser;
     }
 
     @Override
@@ -106,8 +115,10 @@ public class EventController extends BaseController<Event> {
      * Automatically post events to facebook...
      * This doesnt really work as expected and facebook seems to block it
      * It is mostly proof of concept
+     * Posting stops as soon as another node takes over the job, so an event is never posted twice
      */
     @Scheduled(cron = "0 */30 * * * *")
+    @ClusterSingleton
     @Transactional
     @RequestMapping(value = "/updateFB", method = RequestMethod.GET)
     public void postToFacebook() {
@@ -120,7 +131,7 @@ public class EventController extends BaseController<Event> {
                 .filter(e -> e.getStartTime().isBefore(DateTime.now().plusWeeks(2)))
                 .forEach(e -> {
                     e.getEvent().ifPresent(event -> {
-                        if (occurrenceRepository.findFirstByEventAndStartTime(event, e.getStartTime()) == null) {
+                        if (occurrenceRepository.findFirstByEventAndStartTime(event, e.getStartTime()) == null && ClusterLease.isHeld()) {
                             occurrenceRepository.saveAndFlush(facebookPoster.create(e));
                         }
                     });
@@ -143,6 +154,7 @@ public class EventController extends BaseController<Event> {
      * Calculate upcoming events and save them to redis cache
      */
     @Scheduled(cron = "0 */10 * * * *")
+    @ClusterSingleton
     @Transactional
     public void retrieveUpcomingToCache() {
         eventService.updateUpcomingStore();
@@ -157,9 +169,9 @@ public class EventController extends BaseController<Event> {
     @RequestMapping(value = "/parseurl", method = RequestMethod.POST,
             headers = "content-type=application/x-www-form-urlencoded",
             consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
-    public Event parseUrl(final HttpServletRequest request) {
+    public DeferredResult<Event> parseUrl(final HttpServletRequest request) {
         final ParameterMapParser parser = ParameterMapParser.parse(request.getParameterMap());
-        final Mutable<Event> event = Mutable.of(null);
+        final Mutable<DeferredResult<Event>> event = Mutable.of(asyncResourceParser.empty());
 
         QueryBlock.create()
 
@@ -168,15 +180,22 @@ public class EventController extends BaseController<Event> {
                         .fail(HttpStatus.BAD_REQUEST, "Request does not have required data")
                         .done(data -> data.put("url", parser.get("url").toString())))
 
-                // Return the processes medium
-                .done(data -> event.mutate(eventParser.parseUrl(data.get("url").toString())));
-
-        event.ofNullable().ifPresent(newEvent ->
-                event.mutate(eventService
-                        .findFirstByFacebookId(newEvent.getFacebookId())
-                        .orElseGet(() -> eventService.saveAndFlush(newEvent).orElse(newEvent)))
-        );
+                // Parse the url off the request thread
+                .done(data -> event.mutate(asyncResourceParser.parse("Events", data.get("url").toString(), this::parseAndSaveUrl)));
 
         return event.get();
     }
+
+    /**
+     * Parse a url, returning the stored event if we already have it
+     * This runs off the request thread, so the event is serialized after its session is closed
+     *
+     * @param url the url
+     * @return the event
+     */
+    private Event parseAndSaveUrl(final String url) {
+        return Optional.ofNullable(eventParser.parseUrl(url))
+                .map(eventService::findOrSave)
+                .orElse(null);
+    }
 }
\ No newline at end of file
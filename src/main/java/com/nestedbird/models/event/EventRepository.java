@@ -17,8 +17,12 @@
 package com.nestedbird.models.event;
 
 import com.nestedbird.models.core.Audited.AuditedRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * The interface Event repository.
  */
@@ -32,4 +36,21 @@ public interface EventRepository extends AuditedRepository<Event> {
      * @return the event
      */
     Event findFirstByFacebookId(final Long facebookId);
+
+    /**
+     * Find all events that match any of the facebook ids
+     *
+     * @param facebookIds the facebook ids
+     * @return the events
+     */
+    List<Event> findAllByFacebookIdIn(final Collection<Long> facebookIds);
+
+    /**
+     * Find all events by id, fetching the relations that are serialized with them
+     *
+     * @param ids the ids
+     * @return the events
+     */
+    @EntityGraph(value = "Event.listing", type = EntityGraph.EntityGraphType.LOAD)
+    List<Event> findAllByIdIn(final Collection<String> ids);
 }
@@ -39,7 +39,16 @@ public interface EventService extends AuditedService<Event> {
      */
     Optional<Event> findFirstByFacebookId(final Long facebookId);
 
-    RScoredSortedSet<String> getUpcomingEventsFromStore();
+    /**
+     * Finds the stored event with the same facebook id, or saves the event when there is none
+     * The relations serialized with the event are fetched, so it can be serialized once the session is closed
+     *
+     * @param event the parsed event
+     * @return the stored event
+     */
+    Event findOrSave(final Event event);
+
+    RScoredSortedSet<byte[]> getUpcomingEventsFromStore();
 
     Set<ParsedEventData> retrieveUpcoming();
 
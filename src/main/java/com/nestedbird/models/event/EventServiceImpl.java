@@ -16,9 +16,6 @@
 
 package com.nestedbird.models.event;
 
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
 import com.nestedbird.models.artist.Artist;
 import com.nestedbird.models.core.Audited.AuditedEntity;
 import com.nestedbird.models.core.Audited.AuditedRepository;
@@ -27,10 +24,13 @@ import com.nestedbird.models.eventtime.EventTime;
 import com.nestedbird.models.location.Location;
 import com.nestedbird.models.occurrence.Occurrence;
 import com.nestedbird.models.occurrence.OccurrenceService;
+import com.nestedbird.modules.lazyattributes.SerializedRelations;
+import com.nestedbird.modules.storeloader.StoreLoader;
+import com.nestedbird.modules.valuecodec.ValueCodec;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RScoredSortedSet;
 import org.redisson.api.RedissonClient;
-import org.redisson.client.protocol.ScoredEntry;
+import org.redisson.client.codec.ByteArrayCodec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -40,7 +40,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
-import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -56,6 +55,8 @@ class EventServiceImpl extends AuditedServiceImpl<Event> implements EventService
     private final OccurrenceService occurrenceService;
     private final EventRepository eventRepository;
     private final RedissonClient redissonClient;
+    private final StoreLoader storeLoader;
+    private final ValueCodec<ParsedEventData> parsedEventDataCodec;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -63,16 +64,22 @@ class EventServiceImpl extends AuditedServiceImpl<Event> implements EventService
     /**
      * Instantiates a new Event service.
      *
-     * @param eventRepository the event repository
+     * @param eventRepository      the event repository
      * @param redissonClient
+     * @param storeLoader          the store loader
+     * @param parsedEventDataCodec the codec the upcoming store is encoded with
      */
     @Autowired
     EventServiceImpl(final EventRepository eventRepository,
                      final RedissonClient redissonClient,
-                     final OccurrenceService occurrenceService) {
+                     final OccurrenceService occurrenceService,
+                     final StoreLoader storeLoader,
+                     final ValueCodec<ParsedEventData> parsedEventDataCodec) {
         this.eventRepository = eventRepository;
         this.redissonClient = redissonClient;
         this.occurrenceService = occurrenceService;
+        this.storeLoader = storeLoader;
+        this.parsedEventDataCodec = parsedEventDataCodec;
     }
 
     @Override
@@ -86,15 +93,19 @@ class EventServiceImpl extends AuditedServiceImpl<Event> implements EventService
     }
 
     @Override
-    public RScoredSortedSet<String> getUpcomingEventsFromStore() {
-        final RScoredSortedSet<String> set = redissonClient.getScoredSortedSet(REDIS_KEY_UPCOMING_EVENTS);
-        if (set.size() == 0) {
-            updateUpcomingStore();
-        }
-        return set;
+    public Event findOrSave(final Event event) {
+        return SerializedRelations.initialize(findFirstByFacebookId(event.getFacebookId())
+                .orElseGet(() -> saveAndFlush(event).orElse(event)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RScoredSortedSet<byte[]> getUpcomingEventsFromStore() {
+        return storeLoader.getOrBuild(getStoreKey(), this::getStore, this::buildUpcomingStore);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Set<ParsedEventData> retrieveUpcoming() {
         return getAllPossibleUpcoming().stream()
                 .filter(AuditedEntity::getActive)
@@ -106,29 +117,65 @@ class EventServiceImpl extends AuditedServiceImpl<Event> implements EventService
     }
 
     public void updateUpcomingStore() {
-        final RScoredSortedSet<String> set = redissonClient.getScoredSortedSet(REDIS_KEY_UPCOMING_EVENTS);
+        storeLoader.rebuild(getStoreKey(), this::getStore, this::buildUpcomingStore);
+    }
+
+    /**
+     * The store is keyed by its codec, so nodes using different codecs never read each other's entries
+     */
+    private String getStoreKey() {
+        return REDIS_KEY_UPCOMING_EVENTS + ":" + parsedEventDataCodec.getName();
+    }
+
+    private RScoredSortedSet<byte[]> getStore(final String key) {
+        return redissonClient.getScoredSortedSet(key, ByteArrayCodec.INSTANCE);
+    }
 
-        set.clear();
+    private void buildUpcomingStore(final RScoredSortedSet<byte[]> set) {
         retrieveUpcoming()
                 .forEach(parsedEventData ->
-                        set.add(parsedEventData.getStartTime().getMillis() / 1000.0, parsedEventData.toJSON()));
+                        set.add(parsedEventData.getStartTime().getMillis() / 1000.0, parsedEventDataCodec.encode(parsedEventData)));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Occurrence> getUpcomingOccurrences(final Pageable pageable) {
-        final RScoredSortedSet<String> set = getUpcomingEventsFromStore();
+        final RScoredSortedSet<byte[]> set = getUpcomingEventsFromStore();
 
         final int page = pageable.getPageNumber();
         final int count = pageable.getPageSize();
 
-        final List<ScoredEntry<String>> occurrenceCollection = new ArrayList<>(set.entryRange(page * count, ((page + 1) * count) - 1));
-        final Page<ScoredEntry<String>> occurrences = new PageImpl<>(occurrenceCollection, pageable, set.size());
+        final List<ParsedEventData> parsedEvents = set.valueRange(page * count, ((page + 1) * count) - 1).stream()
+                .map(this::decodeParsedEvent)
+                .collect(Collectors.toList());
 
-        return occurrences
-                .map(this::convertParsedEventToOccurrence);
+        preloadEvents(parsedEvents);
+
+        return new PageImpl<>(parsedEvents, pageable, set.size())
+                .map(parsedEvent -> Optional.ofNullable(parsedEvent)
+                        .map(occurrenceService::parseParsedEventData)
+                        .orElse(null));
+    }
+
+    /**
+     * Fetches the events of a page of occurrences with their relations in one query
+     * Each occurrence then finds its event in the persistence context, instead of querying for it and its relations
+     *
+     * @param parsedEvents the parsed events of the page
+     */
+    private void preloadEvents(final List<ParsedEventData> parsedEvents) {
+        final Set<String> eventIds = parsedEvents.stream()
+                .filter(Objects::nonNull)
+                .map(ParsedEventData::getEventId)
+                .collect(Collectors.toSet());
+
+        if (!eventIds.isEmpty()) {
+            eventRepository.findAllByIdIn(eventIds);
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Set<Occurrence> retrieveByArtist(final Artist artist) {
         return getAllPossibleUpcoming().stream()
                 .filter(AuditedEntity::getActive)
@@ -142,6 +189,7 @@ class EventServiceImpl extends AuditedServiceImpl<Event> implements EventService
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Set<Occurrence> retrieveUpcomingByArtist(final Artist artist) {
         return getAllPossibleUpcoming().stream()
                 .filter(AuditedEntity::getActive)
@@ -155,6 +203,7 @@ class EventServiceImpl extends AuditedServiceImpl<Event> implements EventService
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Set<Occurrence> retrieveByLocation(final Location location) {
         return getAllPossibleUpcoming().stream()
                 .filter(AuditedEntity::getActive)
@@ -168,6 +217,7 @@ class EventServiceImpl extends AuditedServiceImpl<Event> implements EventService
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Set<Occurrence> retrieveUpcomingByLocation(final Location location) {
         return getAllPossibleUpcoming().stream()
                 .filter(AuditedEntity::getActive)
@@ -188,16 +238,11 @@ class EventServiceImpl extends AuditedServiceImpl<Event> implements EventService
         ).getResultList();
     }
 
-    private Occurrence convertParsedEventToOccurrence(final ScoredEntry<String> parsedEvent) {
-        final ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new Hibernate5Module());
-        objectMapper.configure(MapperFeature.DEFAULT_VIEW_INCLUSION, true);
-
+    private ParsedEventData decodeParsedEvent(final byte[] parsedEvent) {
         try {
-            final ParsedEventData parsedEventData = objectMapper.readValue(parsedEvent.getValue(), ParsedEventData.class);
-            return occurrenceService.parseParsedEventData(parsedEventData);
-        } catch (IOException e) {
-            logger.info("[EventController] [convertEventCollectionToListOfOccurrences] Failure To Read JSON From Cache", e);
+            return parsedEventDataCodec.decode(parsedEvent);
+        } catch (IllegalArgumentException e) {
+            logger.info("[EventServiceImpl] [decodeParsedEvent] Failure To Read Occurrence From Cache", e);
         }
         return null;
     }
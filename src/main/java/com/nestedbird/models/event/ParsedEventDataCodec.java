@@ -0,0 +1,75 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.models.event;
+
+import com.nestedbird.modules.valuecodec.ValueCodec;
+import com.nestedbird.util.UUIDConverter;
+import org.joda.time.DateTime;
+import org.joda.time.Period;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Stores an occurrence of an event in 33 bytes
+ * <p>
+ * The layout is fixed, new fields get a new version rather than changing this one:
+ * 1 byte version, 16 bytes event id, 8 bytes start time in epoch millis, 8 bytes duration in millis
+ */
+public class ParsedEventDataCodec implements ValueCodec<ParsedEventData> {
+    private static final byte VERSION = 1;
+
+    private static final int LENGTH = 1 + 16 + 8 + 8;
+
+    @Override
+    public String getName() {
+        return "compact-v" + VERSION;
+    }
+
+    /**
+     * Encode an occurrence
+     * A duration holding months or years is measured from the start time of the occurrence
+     *
+     * @param value the occurrence
+     * @return the encoded bytes
+     */
+    @Override
+    public byte[] encode(final ParsedEventData value) {
+        return ByteBuffer.allocate(LENGTH)
+                .put(VERSION)
+                .put(UUIDConverter.toBytes(value.getEventId()))
+                .putLong(value.getStartTime().getMillis())
+                .putLong(value.getDuration().toDurationFrom(value.getStartTime()).getMillis())
+                .array();
+    }
+
+    @Override
+    public ParsedEventData decode(final byte[] bytes) {
+        if (bytes.length != LENGTH || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Not a version " + VERSION + " occurrence");
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, LENGTH - 1);
+        final byte[] eventId = new byte[16];
+        buffer.get(eventId);
+
+        return ParsedEventData.builder()
+                .eventId(UUIDConverter.fromBytes(eventId))
+                .startTime(new DateTime(buffer.getLong()))
+                .duration(new Period(buffer.getLong()))
+                .build();
+    }
+}
@@ -25,10 +25,13 @@ import com.nestedbird.components.bridges.JodaPeriodSplitBridge;
 import com.nestedbird.models.core.Audited.AuditedEntity;
 import com.nestedbird.models.event.Event;
 import com.nestedbird.models.event.ParsedEventData;
+import com.nestedbird.modules.projection.ProjectionView;
 import com.nestedbird.modules.schema.Schema;
 import com.nestedbird.modules.schema.annotations.SchemaRepository;
 import com.nestedbird.modules.schema.annotations.SchemaView;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.search.annotations.*;
 import org.joda.time.DateTime;
 import org.joda.time.Period;
@@ -47,10 +50,13 @@ import java.util.Optional;
 @Entity
 @Table(name = "event_times")
 @Cacheable
+@Cache(region = "eventtime", usage = CacheConcurrencyStrategy.READ_WRITE)
 @Indexed
 @SchemaRepository(EventTimeRepository.class)
 @ClassBridge(impl = EventTimeBridge.class)
 @AnalyzerDiscriminator(impl = EventTimeBridge.class)
+@NamedEntityGraph(name = "EventTime.listing", attributeNodes = @NamedAttributeNode("event"))
+@ProjectionView(name = "summary", attributes = {"startTime", "duration", "repeatTime", "repeatEnd", "event.id", "event.name"})
 @Data
 @EqualsAndHashCode(callSuper = true, exclude = {"event"})
 @NoArgsConstructor(force = true)
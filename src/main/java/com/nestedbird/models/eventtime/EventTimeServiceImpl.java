@@ -50,6 +50,7 @@ class EventTimeServiceImpl extends AuditedServiceImpl<EventTime> implements Even
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<EventTime> listAllByPageUpcoming(final Pageable pageable) {
         return eventTimeRepository.findAllByActiveAndStartTimeAfter(
                 true,
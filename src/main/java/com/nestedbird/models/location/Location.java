@@ -22,10 +22,13 @@ import com.nestedbird.models.core.Tagged.TaggedEntity;
 import com.nestedbird.models.event.Event;
 import com.nestedbird.models.tag.Tag;
 import com.nestedbird.modules.entitysearch.SearchAnalysers;
+import com.nestedbird.modules.projection.ProjectionView;
 import com.nestedbird.modules.schema.Schema;
 import com.nestedbird.modules.schema.annotations.SchemaRepository;
 import com.nestedbird.modules.schema.annotations.SchemaView;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.search.annotations.*;
 import org.hibernate.search.bridge.builtin.LongBridge;
 
@@ -43,10 +46,13 @@ import java.util.Set;
 @Entity
 @Table(name = "locations")
 @Cacheable
+@Cache(region = "location", usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @Indexed
 @SchemaRepository(LocationRepository.class)
+@NamedEntityGraph(name = "Location.listing", attributeNodes = @NamedAttributeNode("tags"))
+@ProjectionView(name = "summary", attributes = {"name", "city", "country", "imageUrl"})
 @Data
-@EqualsAndHashCode(callSuper = true, exclude = {"events"})
+@EqualsAndHashCode(callSuper = true, exclude = {"events", "description"})
 @NoArgsConstructor(force = true)
 public class Location extends TaggedEntity implements Serializable {
 
@@ -136,6 +142,7 @@ public class Location extends TaggedEntity implements Serializable {
      */
     @Column(name = "description", columnDefinition = "TEXT", length = 25000)
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     @Field(boost = @Boost(0.5f), analyzer = @Analyzer(definition = SearchAnalysers.ENGLISH_WORD_ANALYSER))
     @Size(max = 25000)
     @SchemaView(Schema.MARKDOWN)
@@ -24,6 +24,7 @@ import com.nestedbird.models.event.EventService;
 import com.nestedbird.models.occurrence.Occurrence;
 import com.nestedbird.modules.formparser.ParameterMapParser;
 import com.nestedbird.modules.paginator.Paginator;
+import com.nestedbird.modules.resourceparser.AsyncResourceParser;
 import com.nestedbird.modules.resourceparser.LocationParser;
 import com.nestedbird.util.Mutable;
 import com.nestedbird.util.QueryBlock;
@@ -36,6 +37,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.ArrayList;
@@ -52,24 +54,28 @@ public class LocationController extends BaseController<Location> {
     private final LocationRepository locationRepository;
     private final LocationService locationService;
     private final LocationParser locationParser;
+    private final AsyncResourceParser asyncResourceParser;
     private final EventService eventService;
 
     /**
      * Instantiates a new Location controller.
      *
-     * @param locationRepository the location repository
-     * @param locationService    the location service
-     * @param locationParser     the location parser
+     * @param locationRepository  the location repository
+     * @param locationService     the location service
+     * @param locationParser      the location parser
+     * @param asyncResourceParser the async resource parser
      */
     @Autowired
     LocationController(final LocationRepository locationRepository,
                        final LocationService locationService,
                        final LocationParser locationParser,
-                       final EventService eventService) {
+                       final EventService eventService,
+                       final AsyncResourceParser asyncResourceParser) {
         this.locationService = locationService;
         this.locationRepository = locationRepository;
         this.locationParser = locationParser;
         this.eventService = eventService;
+        this.asyncResourceParser = asyncResourceParser;
     }
 
     @Override
@@ -126,9 +132,9 @@ public class LocationController extends BaseController<Location> {
     @RequestMapping(value = "/parseurl", method = RequestMethod.POST,
             headers = "content-type=application/x-www-form-urlencoded",
             consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
-    public Location parseUrl(final HttpServletRequest request) {
+    public DeferredResult<Location> parseUrl(final HttpServletRequest request) {
         final ParameterMapParser parser = ParameterMapParser.parse(request.getParameterMap());
-        final Mutable<Location> location = Mutable.of(null);
+        final Mutable<DeferredResult<Location>> location = Mutable.of(asyncResourceParser.empty());
 
         QueryBlock.create()
 
@@ -137,8 +143,20 @@ public class LocationController extends BaseController<Location> {
                         .fail(HttpStatus.BAD_REQUEST, "Request does not have required data")
                         .done(data -> data.put("url", parser.get("url").toString())))
 
-                // Return the processes medium
-                .done(data -> location.mutate(locationParser.parseUrl(data.get("url").toString())));
+                // Parse the url off the request thread
+                .done(data -> location.mutate(asyncResourceParser.parse("Locations", data.get("url").toString(), this::parseAndSaveUrl)));
+
+        return location.get();
+    }
+
+    /**
+     * Parse a url, returning the stored location if we already have it
+     *
+     * @param url the url
+     * @return the location
+     */
+    private Location parseAndSaveUrl(final String url) {
+        final Mutable<Location> location = Mutable.of(locationParser.parseUrl(url));
 
         location.ofNullable().ifPresent(newLocation ->
                 location.mutate(locationService
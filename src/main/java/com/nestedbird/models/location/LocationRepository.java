@@ -19,6 +19,9 @@ package com.nestedbird.models.location;
 import com.nestedbird.models.core.Audited.AuditedRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * The interface Location repository.
  */
@@ -41,4 +44,13 @@ public interface LocationRepository extends AuditedRepository<Location> {
      * @return the location
      */
     Location findFirstByFacebookIdOrName(final Long facebookId, final String name);
-}
\ No newline at end of file
+
+    /**
+     * Find all locations that match any of the facebook ids or any of the names
+     *
+     * @param facebookIds the facebook ids
+     * @param names       the names
+     * @return the locations
+     */
+    List<Location> findAllByFacebookIdInOrNameIn(final Collection<Long> facebookIds, final Collection<String> names);
+}
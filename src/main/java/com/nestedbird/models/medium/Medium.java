@@ -22,11 +22,14 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.nestedbird.components.bridges.JodaDateTimeSplitBridge;
 import com.nestedbird.models.core.Audited.AuditedEntity;
 import com.nestedbird.models.song.Song;
+import com.nestedbird.modules.projection.ProjectionView;
 import com.nestedbird.modules.schema.Schema;
 import com.nestedbird.modules.schema.annotations.SchemaRepository;
 import com.nestedbird.modules.schema.annotations.SchemaView;
 import lombok.*;
 import org.apache.commons.lang3.StringEscapeUtils;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.search.annotations.*;
 import org.hibernate.search.bridge.builtin.IntegerBridge;
 import org.joda.time.DateTime;
@@ -43,10 +46,15 @@ import java.util.Optional;
 @Entity
 @Table(name = "media")
 @Cacheable
+@Cache(region = "medium", usage = CacheConcurrencyStrategy.READ_WRITE)
 @Indexed
 @SchemaRepository(MediumRepository.class)
+@NamedEntityGraph(name = "Medium.listing", attributeNodes = @NamedAttributeNode(value = "song", subgraph = "song"),
+        subgraphs = @NamedSubgraph(name = "song", attributeNodes = @NamedAttributeNode("artist")))
+@ProjectionView(name = "summary", attributes = {"type", "sourceId", "sourceUrl", "artUrl", "scoreFinal",
+        "song.id", "song.name", "song.artist.id", "song.artist.name"})
 @Data
-@EqualsAndHashCode(callSuper = true, exclude = {"song"})
+@EqualsAndHashCode(callSuper = true, exclude = {"song", "data"})
 @NoArgsConstructor(force = true)
 public class Medium extends AuditedEntity implements Serializable {
     /**
@@ -125,6 +133,7 @@ public class Medium extends AuditedEntity implements Serializable {
      */
     @Column(name = "data", columnDefinition = "LONGTEXT")
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     private String data;
 
     /**
@@ -21,13 +21,14 @@ import com.nestedbird.models.core.Base.BaseController;
 import com.nestedbird.models.core.Base.BaseRepository;
 import com.nestedbird.models.core.Base.BaseService;
 import com.nestedbird.modules.formparser.ParameterMapParser;
+import com.nestedbird.modules.resourceparser.AsyncResourceParser;
 import com.nestedbird.modules.resourceparser.MediumParser;
+import com.nestedbird.modules.scheduling.ClusterSingleton;
 import com.nestedbird.util.Mutable;
 import com.nestedbird.util.QueryBlock;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import org.redisson.api.RScoredSortedSet;
-import org.redisson.api.RedissonClient;
 import org.redisson.client.protocol.ScoredEntry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -37,14 +38,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
-import javax.persistence.EntityManager;
-import javax.persistence.PersistenceContext;
-import javax.persistence.Query;
 import javax.servlet.http.HttpServletRequest;
 import java.util.Collection;
 import java.util.List;
@@ -61,30 +59,28 @@ import java.util.stream.Collectors;
 @Api(tags = "Media")
 public class MediumController extends BaseController<Medium> {
 
-    private final RedissonClient redissonClient;
     private final MediumRepository mediumRepository;
     private final MediumService mediumService;
     private final MediumParser mediumParser;
-    @PersistenceContext
-    private EntityManager entityManager;
+    private final AsyncResourceParser asyncResourceParser;
 
     /**
      * Instantiates a new Medium controller.
      *
-     * @param redissonClient   the redisson client
-     * @param mediumRepository the medium repository
-     * @param mediumService    the medium service
-     * @param mediumParser     the medium parser
+     * @param mediumRepository    the medium repository
+     * @param mediumService       the medium service
+     * @param mediumParser        the medium parser
+     * @param asyncResourceParser the async resource parser
      */
     @Autowired
-    MediumController(final RedissonClient redissonClient,
-                     final MediumRepository mediumRepository,
+    MediumController(final MediumRepository mediumRepository,
                      final MediumService mediumService,
-                     final MediumParser mediumParser) {
-        this.redissonClient = redissonClient;
+                     final MediumParser mediumParser,
+                     final AsyncResourceParser asyncResourceParser) {
         this.mediumRepository = mediumRepository;
         this.mediumService = mediumService;
         this.mediumParser = mediumParser;
+        this.asyncResourceParser = asyncResourceParser;
     }
 
     @Override
@@ -114,10 +110,7 @@ public class MediumController extends BaseController<Medium> {
         final int page = pageable.getPageNumber();
         final int count = pageable.getPageSize();
 
-        final RScoredSortedSet<String> set = redissonClient.getScoredSortedSet("HotMediaByScore");
-        if (set.size() == 0) {
-            retrieveHotToCache();
-        }
+        final RScoredSortedSet<String> set = mediumService.getHotMediaFromStore();
 
         final Collection<ScoredEntry<String>> mediaCollection = set.entryRange(page * count, ((page + 1) * count) - 1);
 
@@ -135,25 +128,9 @@ public class MediumController extends BaseController<Medium> {
      * Orders the media by "hotness" and saves the ordered result to the redis cache
      */
     @Scheduled(cron = "0 0 */2 * * *")
-    @Transactional
+    @ClusterSingleton
     public void retrieveHotToCache() {
-        final RScoredSortedSet<String> set = redissonClient.getScoredSortedSet("HotMediaByScore");
-
-        final Query query = entityManager.createNativeQuery(
-                "CALL getMediaByHot()",
-                Medium.class
-        );
-
-        @SuppressWarnings("unchecked") final List<Medium> results = (List<Medium>) query.getResultList();
-
-        for (final Medium medium : results) {
-            mediumRepository.setMediumScoreById(medium.getScore(), medium.getScoreFinal(), medium.getId());
-        }
-
-        set.clear();
-        for (final Medium medium : results) {
-            set.add(medium.getScoreFinal(), medium.getId());
-        }
+        mediumService.updateHotStore();
     }
 
     /**
@@ -165,9 +142,9 @@ public class MediumController extends BaseController<Medium> {
     @RequestMapping(value = "/parseurl", method = RequestMethod.POST,
             headers = "content-type=application/x-www-form-urlencoded",
             consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
-    public Medium parseUrl(final HttpServletRequest request) {
+    public DeferredResult<Medium> parseUrl(final HttpServletRequest request) {
         final ParameterMapParser parser = ParameterMapParser.parse(request.getParameterMap());
-        final Mutable<Medium> medium = Mutable.of(null);
+        final Mutable<DeferredResult<Medium>> medium = Mutable.of(asyncResourceParser.empty());
 
         QueryBlock.create()
 
@@ -176,8 +153,20 @@ public class MediumController extends BaseController<Medium> {
                         .fail(HttpStatus.BAD_REQUEST, "Request does not have required data")
                         .done(data -> data.put("url", parser.get("url").toString())))
 
-                // Return the processes medium
-                .done(data -> medium.mutate(mediumParser.parseUrl(data.get("url").toString())));
+                // Parse the url off the request thread
+                .done(data -> medium.mutate(asyncResourceParser.parse("Media", data.get("url").toString(), this::parseAndSaveUrl)));
+
+        return medium.get();
+    }
+
+    /**
+     * Parse a url, returning the stored medium if we already have it
+     *
+     * @param url the url
+     * @return the medium
+     */
+    private Medium parseAndSaveUrl(final String url) {
+        final Mutable<Medium> medium = Mutable.of(mediumParser.parseUrl(url));
 
         medium.ofNullable().ifPresent(newMedium ->
                 medium.mutate(mediumService
@@ -18,29 +18,18 @@ package com.nestedbird.models.medium;
 
 
 import com.nestedbird.models.core.Audited.AuditedRepository;
-import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 /**
  * The interface Medium repository.
  */
 @Repository
 public interface MediumRepository extends AuditedRepository<Medium> {
-    /**
-     * Sets medium score by id.
-     *
-     * @param score      the score
-     * @param scoreFinal the score final
-     * @param id         the id
-     */
-    @Modifying
-    @Transactional
-    @Query("UPDATE Medium m SET m.score = :score, m.scoreFinal = :scoreFinal WHERE m.id = :id")
-    void setMediumScoreById(@Param("score") final double score, @Param("scoreFinal") final double scoreFinal, @Param("id") final String id);
-
     /**
      * Find first by source id and type medium.
      *
@@ -49,4 +38,31 @@ public interface MediumRepository extends AuditedRepository<Medium> {
      * @return the medium
      */
     Medium findFirstBySourceIdAndType(final String sourceId, final MediumType type);
+
+    /**
+     * Find the first page of source statistics of active media of a type, ordered by id
+     *
+     * @param type     the type
+     * @param pageable the page size
+     * @return the source statistics
+     */
+    @Query("SELECT new com.nestedbird.models.medium.MediumSourceStatistics(m.id, m.sourceId, m.sourcePlaybackCount, m.sourceCommentCount, m.sourceFavouriteCount) " +
+            "FROM Medium m WHERE m.type = :type AND m.active = true ORDER BY m.id")
+    List<MediumSourceStatistics> findSourceStatistics(@Param("type") final MediumType type,
+                                                      final Pageable pageable);
+
+    /**
+     * Find the source statistics of active media of a type, ordered by id
+     * Only media with an id greater than afterId are returned so large tables can be walked page by page
+     *
+     * @param type     the type
+     * @param afterId  the id of the last medium of the previous page
+     * @param pageable the page size
+     * @return the source statistics
+     */
+    @Query("SELECT new com.nestedbird.models.medium.MediumSourceStatistics(m.id, m.sourceId, m.sourcePlaybackCount, m.sourceCommentCount, m.sourceFavouriteCount) " +
+            "FROM Medium m WHERE m.type = :type AND m.active = true AND m.id > :afterId ORDER BY m.id")
+    List<MediumSourceStatistics> findSourceStatistics(@Param("type") final MediumType type,
+                                                      @Param("afterId") final String afterId,
+                                                      final Pageable pageable);
 }
\ No newline at end of file
@@ -17,6 +17,7 @@
 package com.nestedbird.models.medium;
 
 import com.nestedbird.models.core.Audited.AuditedService;
+import org.redisson.api.RScoredSortedSet;
 
 import java.util.Optional;
 
@@ -32,4 +33,16 @@ public interface MediumService extends AuditedService<Medium> {
      * @return the optional
      */
     Optional<Medium> findFirstBySourceIdAndType(final String sourceId, final MediumType type);
+
+    /**
+     * Gets the ids of the hot media, ordered by score, building the store if it is empty
+     *
+     * @return the hot media store
+     */
+    RScoredSortedSet<String> getHotMediaFromStore();
+
+    /**
+     * Orders the media by "hotness" and saves the ordered result to the store
+     */
+    void updateHotStore();
 }
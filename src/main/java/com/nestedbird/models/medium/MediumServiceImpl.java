@@ -19,11 +19,21 @@ package com.nestedbird.models.medium;
 import com.nestedbird.models.core.Audited.AuditedEntity;
 import com.nestedbird.models.core.Audited.AuditedRepository;
 import com.nestedbird.models.core.Audited.AuditedServiceImpl;
+import com.nestedbird.modules.binaryuuid.UUIDStorage;
+import com.nestedbird.modules.storeloader.StoreLoader;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * The type Medium service.
@@ -31,17 +41,38 @@ import java.util.Optional;
 @Service
 @Transactional
 class MediumServiceImpl extends AuditedServiceImpl<Medium> implements MediumService {
+    private static final String REDIS_KEY_HOT_MEDIA = "HotMediaByScore";
+    private static final String UPDATE_SCORE_SQL = "UPDATE media SET score = ?, score_final = ? WHERE id = ?";
 
     private final MediumRepository mediumRepository;
+    private final RedissonClient redissonClient;
+    private final JdbcTemplate jdbcTemplate;
+    private final StoreLoader storeLoader;
+    private final UUIDStorage uuidStorage;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     /**
      * Instantiates a new Medium service.
      *
      * @param mediumRepository the medium repository
+     * @param redissonClient   the redisson client
+     * @param jdbcTemplate     the jdbc template
+     * @param storeLoader      the store loader
+     * @param uuidStorage      how ids are stored
      */
     @Autowired
-    MediumServiceImpl(final MediumRepository mediumRepository) {
+    MediumServiceImpl(final MediumRepository mediumRepository,
+                      final RedissonClient redissonClient,
+                      final JdbcTemplate jdbcTemplate,
+                      final StoreLoader storeLoader,
+                      final UUIDStorage uuidStorage) {
         this.mediumRepository = mediumRepository;
+        this.redissonClient = redissonClient;
+        this.jdbcTemplate = jdbcTemplate;
+        this.storeLoader = storeLoader;
+        this.uuidStorage = uuidStorage;
     }
 
     @Override
@@ -54,4 +85,41 @@ class MediumServiceImpl extends AuditedServiceImpl<Medium> implements MediumServ
         return Optional.ofNullable(mediumRepository.findFirstBySourceIdAndType(sourceId, type))
                 .filter(AuditedEntity::getActive);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RScoredSortedSet<String> getHotMediaFromStore() {
+        return storeLoader.getOrBuild(REDIS_KEY_HOT_MEDIA, this::getStore, this::buildHotStore);
+    }
+
+    @Override
+    public void updateHotStore() {
+        storeLoader.rebuild(REDIS_KEY_HOT_MEDIA, this::getStore, this::buildHotStore);
+    }
+
+    private RScoredSortedSet<String> getStore(final String key) {
+        return redissonClient.getScoredSortedSet(key);
+    }
+
+    private void buildHotStore(final RScoredSortedSet<String> set) {
+        final Query query = entityManager.createNativeQuery(
+                "CALL getMediaByHot()",
+                Medium.class
+        );
+
+        @SuppressWarnings("unchecked") final List<Medium> results = (List<Medium>) query.getResultList();
+
+        // All of the scores are written in one jdbc batch, rather than one update statement per medium
+        final List<Object[]> scores = results.stream()
+                .map(medium -> new Object[]{medium.getScore(), medium.getScoreFinal(), uuidStorage.toParameter(medium.getId())})
+                .collect(Collectors.toList());
+        if (!scores.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SCORE_SQL, scores);
+            entityManager.getEntityManagerFactory().getCache().evict(Medium.class);
+        }
+
+        for (final Medium medium : results) {
+            set.add(medium.getScoreFinal(), medium.getId());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.models.medium;
+
+import com.nestedbird.models.core.DataObject;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * The counts a medium has on the site it was retrieved from
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@AllArgsConstructor
+public class MediumSourceStatistics extends DataObject implements Serializable {
+    private final String id;
+
+    private final String sourceId;
+
+    private final Integer sourcePlaybackCount;
+
+    private final Integer sourceCommentCount;
+
+    private final Integer sourceFavouriteCount;
+
+    /**
+     * Copy these statistics with new counts, keeping the current count when a new one is not known
+     *
+     * @param playbackCount  the playback count
+     * @param commentCount   the comment count
+     * @param favouriteCount the favourite count
+     * @return the updated statistics
+     */
+    public MediumSourceStatistics withCounts(final Integer playbackCount,
+                                             final Integer commentCount,
+                                             final Integer favouriteCount) {
+        return new MediumSourceStatistics(
+                id,
+                sourceId,
+                playbackCount != null ? playbackCount : sourcePlaybackCount,
+                commentCount != null ? commentCount : sourceCommentCount,
+                favouriteCount != null ? favouriteCount : sourceFavouriteCount
+        );
+    }
+
+    /**
+     * Whether any of the counts differ from another set of statistics
+     *
+     * @param other the other statistics
+     * @return true if a count has changed
+     */
+    public boolean countsDiffer(final MediumSourceStatistics other) {
+        return !Objects.equals(sourcePlaybackCount, other.getSourcePlaybackCount()) ||
+                !Objects.equals(sourceCommentCount, other.getSourceCommentCount()) ||
+                !Objects.equals(sourceFavouriteCount, other.getSourceFavouriteCount());
+    }
+}
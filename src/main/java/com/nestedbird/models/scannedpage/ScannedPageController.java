@@ -26,9 +26,11 @@ import com.nestedbird.modules.facebookreader.FacebookReader;
 import com.nestedbird.modules.facebookreader.FacebookScanCollection;
 import com.nestedbird.modules.facebookreader.FacebookScanner;
 import com.nestedbird.modules.formparser.ParameterMapParser;
-import com.nestedbird.modules.resourceparser.EventParser;
+import com.nestedbird.modules.resourceparser.AsyncResourceParser;
+import com.nestedbird.modules.resourceparser.EventBatchParser;
 import com.nestedbird.modules.resourceparser.PageParser;
 import com.nestedbird.modules.resourceparser.PostParser;
+import com.nestedbird.modules.scheduling.ClusterSingleton;
 import com.nestedbird.util.Mutable;
 import com.nestedbird.util.QueryBlock;
 import lombok.extern.slf4j.Slf4j;
@@ -39,6 +41,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 import springfox.documentation.annotations.ApiIgnore;
 
 import javax.servlet.http.HttpServletRequest;
@@ -66,10 +69,12 @@ public class ScannedPageController extends BaseController<ScannedPage> {
 
     private final PageParser pageParser;
 
-    private final EventParser eventParser;
+    private final EventBatchParser eventBatchParser;
 
     private final PostParser postParser;
 
+    private final AsyncResourceParser asyncResourceParser;
+
     /**
      * Instantiates a new Scanned page controller.
      *
@@ -79,8 +84,9 @@ public class ScannedPageController extends BaseController<ScannedPage> {
      * @param facebookReader        the facebook reader
      * @param facebookScanner       the facebook scanner
      * @param pageParser            the page parser
-     * @param eventParser           the event parser
+     * @param eventBatchParser      the event batch parser
      * @param postParser            the post parser
+     * @param asyncResourceParser   the async resource parser
      */
     @Autowired
     ScannedPageController(final ScannedPageRepository scannedPageRepository,
@@ -89,16 +95,18 @@ public class ScannedPageController extends BaseController<ScannedPage> {
                           final FacebookReader facebookReader,
                           final FacebookScanner facebookScanner,
                           final PageParser pageParser,
-                          final EventParser eventParser,
-                          final PostParser postParser) {
+                          final EventBatchParser eventBatchParser,
+                          final PostParser postParser,
+                          final AsyncResourceParser asyncResourceParser) {
         this.scannedPageRepository = scannedPageRepository;
         this.scannedPageService = scannedPageService;
         this.socialConfigSettings = socialConfigSettings;
         this.facebookReader = facebookReader;
         this.facebookScanner = facebookScanner;
         this.pageParser = pageParser;
-        this.eventParser = eventParser;
+        this.eventBatchParser = eventBatchParser;
         this.postParser = postParser;
+        this.asyncResourceParser = asyncResourceParser;
     }
 
     @Override
@@ -125,9 +133,9 @@ public class ScannedPageController extends BaseController<ScannedPage> {
     @RequestMapping(value = "/parseurl", method = RequestMethod.POST,
             headers = "content-type=application/x-www-form-urlencoded",
             consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
-    public ScannedPage parseUrl(final HttpServletRequest request) {
+    public DeferredResult<ScannedPage> parseUrl(final HttpServletRequest request) {
         final ParameterMapParser parser = ParameterMapParser.parse(request.getParameterMap());
-        final Mutable<ScannedPage> scannedPage = Mutable.of(null);
+        final Mutable<DeferredResult<ScannedPage>> scannedPage = Mutable.of(asyncResourceParser.empty());
 
         QueryBlock.create()
 
@@ -136,8 +144,20 @@ public class ScannedPageController extends BaseController<ScannedPage> {
                         .fail(HttpStatus.BAD_REQUEST, "Request does not have required data")
                         .done(data -> data.put("url", parser.get("url").toString())))
 
-                // Return the processes medium
-                .done(data -> scannedPage.mutate(pageParser.parseScannedPageFromUrl(data.get("url").toString())));
+                // Parse the url off the request thread
+                .done(data -> scannedPage.mutate(asyncResourceParser.parse("ScannedPages", data.get("url").toString(), this::parseAndSaveUrl)));
+
+        return scannedPage.get();
+    }
+
+    /**
+     * Parse a url, returning the stored scanned page if we already have it
+     *
+     * @param url the url
+     * @return the scanned page
+     */
+    private ScannedPage parseAndSaveUrl(final String url) {
+        final Mutable<ScannedPage> scannedPage = Mutable.of(pageParser.parseScannedPageFromUrl(url));
 
         scannedPage.ofNullable().ifPresent(newScannedPage ->
                 scannedPage.mutate(scannedPageService
@@ -160,6 +180,7 @@ public class ScannedPageController extends BaseController<ScannedPage> {
      * Scan facebook for for all events and save them to the database
      */
     @Scheduled(cron = "0 0 0 * * *")
+    @ClusterSingleton
     //    @Transactional
     public void retrieveEventsToDatabase() {
         if (!socialConfigSettings.getFbScan())
@@ -171,8 +192,9 @@ public class ScannedPageController extends BaseController<ScannedPage> {
         logger.info("[Scanner] [Result] Found " + scanCollection.getEvents().size() + " Events");
         logger.info("[Scanner] [Result] Found " + scanCollection.getPages().size() + " Pages");
 
-        scanCollection.getEvents()
-                .forEach(eventParser::parse);
+        final int persisted = eventBatchParser.parse(scanCollection.getEvents());
+
+        logger.info("[Scanner] [Result] Persisted " + persisted + " Events");
 
         scanCollection.getPosts()
                 .forEach(postParser::parse);
@@ -22,10 +22,13 @@ import com.nestedbird.models.artist.Artist;
 import com.nestedbird.models.core.Audited.AuditedEntity;
 import com.nestedbird.models.medium.Medium;
 import com.nestedbird.modules.entitysearch.SearchAnalysers;
+import com.nestedbird.modules.projection.ProjectionView;
 import com.nestedbird.modules.schema.Schema;
 import com.nestedbird.modules.schema.annotations.SchemaRepository;
 import com.nestedbird.modules.schema.annotations.SchemaView;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.search.annotations.*;
 import org.joda.time.DateTime;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -44,11 +47,14 @@ import java.util.Set;
 @Entity
 @Table(name = "songs")
 @Cacheable
+@Cache(region = "song", usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @Indexed
 @SchemaRepository(SongRepository.class)
+@NamedEntityGraph(name = "Song.listing", attributeNodes = @NamedAttributeNode("artist"))
+@ProjectionView(name = "summary", attributes = {"name", "releaseDateTime", "artist.id", "artist.name"})
 @Data
 //@Boost(0.5f)
-@EqualsAndHashCode(callSuper = true, exclude = {"artist", "media"})
+@EqualsAndHashCode(callSuper = true, exclude = {"artist", "media", "lyrics"})
 @NoArgsConstructor(force = true)
 public class Song extends AuditedEntity implements Serializable {
 
@@ -96,6 +102,7 @@ public class Song extends AuditedEntity implements Serializable {
     @Column(name = "lyrics", nullable = true, columnDefinition = "LONGTEXT")
     @Field(boost = @Boost(0.5f), analyzer = @Analyzer(definition = SearchAnalysers.ENGLISH_WORD_ANALYSER))
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     private String lyrics;
 
     @Builder
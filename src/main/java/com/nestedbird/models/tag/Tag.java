@@ -24,6 +24,8 @@ import com.nestedbird.modules.schema.annotations.SchemaView;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.search.annotations.*;
 
 import javax.persistence.*;
@@ -34,6 +36,7 @@ import java.io.Serializable;
 @Entity
 @Table(name = "tags")
 @Cacheable
+@Cache(region = "tag", usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @Indexed
 @SchemaRepository(TagRepository.class)
 @Boost(2.0f)
@@ -0,0 +1,78 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.binaryuuid;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.ForeignKey;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.mapping.Table;
+import org.hibernate.mapping.Value;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * Sets the column type of every uuid id, and in binary storage every foreign key referring to one
+ * This runs before hibernate creates or updates the schema, the column type cannot be set in the annotations
+ * because it depends on the storage. Hibernate finds this through META-INF/services
+ */
+public class UUIDColumnIntegrator implements Integrator {
+    @Override
+    public void integrate(final Metadata metadata,
+                          final SessionFactoryImplementor sessionFactory,
+                          final SessionFactoryServiceRegistry serviceRegistry) {
+        for (final PersistentClass entity : metadata.getEntityBindings()) {
+            getStorage(entity.getIdentifier())
+                    .ifPresent(storage -> setColumnType(entity.getIdentifier().getColumnIterator(), storage));
+        }
+
+        for (final Table table : metadata.collectTableMappings()) {
+            final Iterator<ForeignKey> foreignKeys = table.getForeignKeyIterator();
+            while (foreignKeys.hasNext()) {
+                final ForeignKey foreignKey = foreignKeys.next();
+                Optional.ofNullable(metadata.getEntityBinding(foreignKey.getReferencedEntityName()))
+                        .flatMap(referenced -> getStorage(referenced.getIdentifier()))
+                        .filter(storage -> storage == UUIDStorage.BINARY)
+                        .ifPresent(storage -> setColumnType(foreignKey.getColumnIterator(), storage));
+            }
+        }
+    }
+
+    @Override
+    public void disintegrate(final SessionFactoryImplementor sessionFactory,
+                             final SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    private static Optional<UUIDStorage> getStorage(final Value identifier) {
+        return Optional.ofNullable(identifier)
+                .map(Value::getType)
+                .filter(UUIDStringType.class::isInstance)
+                .map(type -> ((UUIDStringType) type).getStorage());
+    }
+
+    private static void setColumnType(final Iterator<?> columns, final UUIDStorage storage) {
+        columns.forEachRemaining(column -> {
+            if (column instanceof Column) {
+                ((Column) column).setSqlType(storage.getColumnType());
+            }
+        });
+    }
+}
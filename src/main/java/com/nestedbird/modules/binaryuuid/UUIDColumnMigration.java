@@ -0,0 +1,150 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.binaryuuid;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts the uuid columns of an existing MySQL schema from CHAR(36) to BINARY(16) in place
+ * <p>
+ * The primary key "id" of every table is converted, along with every column with a foreign key to one.
+ * Foreign keys are dropped while their columns are converted and added back afterwards.
+ * MySQL cannot run schema changes in a transaction, so take a backup first and restore it if a run fails part way.
+ * Columns that are already binary are left alone, so running it against a converted schema does nothing.
+ */
+@Slf4j
+public class UUIDColumnMigration {
+    private static final String ID_COLUMNS_SQL = "SELECT TABLE_NAME, COLUMN_NAME, IS_NULLABLE " +
+            "FROM INFORMATION_SCHEMA.COLUMNS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND COLUMN_NAME = 'id' AND COLUMN_KEY = 'PRI' " +
+            "AND DATA_TYPE IN ('char', 'varchar')";
+
+    private static final String FOREIGN_KEYS_SQL = "SELECT k.CONSTRAINT_NAME, k.TABLE_NAME, k.COLUMN_NAME, " +
+            "k.REFERENCED_TABLE_NAME, c.IS_NULLABLE, c.DATA_TYPE " +
+            "FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE k " +
+            "JOIN INFORMATION_SCHEMA.COLUMNS c ON c.TABLE_SCHEMA = k.TABLE_SCHEMA " +
+            "AND c.TABLE_NAME = k.TABLE_NAME AND c.COLUMN_NAME = k.COLUMN_NAME " +
+            "WHERE k.TABLE_SCHEMA = DATABASE() AND k.REFERENCED_TABLE_SCHEMA = DATABASE() " +
+            "AND k.REFERENCED_COLUMN_NAME = 'id'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Instantiates a new Uuid column migration.
+     *
+     * @param dataSource the data source of the primary database
+     */
+    public UUIDColumnMigration(final DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Convert every uuid column that is still a string
+     * Everything runs on one connection, foreign key checks are switched off for that connection only
+     *
+     * @return the number of columns converted
+     */
+    public int migrate() {
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) this::migrate);
+    }
+
+    private int migrate(final Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            final Map<String, Boolean> columns = new LinkedHashMap<>();
+            final List<String[]> foreignKeys = new ArrayList<>();
+
+            try (ResultSet ids = statement.executeQuery(ID_COLUMNS_SQL)) {
+                while (ids.next()) {
+                    columns.put(quote(ids.getString(1)) + "." + quote(ids.getString(2)),
+                            "YES".equals(ids.getString(3)));
+                }
+            }
+
+            try (ResultSet references = statement.executeQuery(FOREIGN_KEYS_SQL)) {
+                while (references.next()) {
+                    foreignKeys.add(new String[]{references.getString(1), references.getString(2),
+                            references.getString(3), references.getString(4)});
+                    if (!references.getString(6).contains("binary")) {
+                        columns.put(quote(references.getString(2)) + "." + quote(references.getString(3)),
+                                "YES".equals(references.getString(5)));
+                    }
+                }
+            }
+
+            if (columns.isEmpty()) {
+                logger.info("[UUIDColumnMigration] [migrate] Every UUID Column Is Already Binary");
+                return 0;
+            }
+
+            statement.execute("SET FOREIGN_KEY_CHECKS = 0");
+            try {
+                for (final String[] foreignKey : foreignKeys) {
+                    statement.execute("ALTER TABLE " + quote(foreignKey[1]) + " DROP FOREIGN KEY " + quote(foreignKey[0]));
+                }
+
+                for (final Map.Entry<String, Boolean> column : columns.entrySet()) {
+                    convert(statement, column.getKey(), column.getValue());
+                }
+
+                for (final String[] foreignKey : foreignKeys) {
+                    statement.execute("ALTER TABLE " + quote(foreignKey[1]) + " ADD CONSTRAINT " + quote(foreignKey[0]) +
+                            " FOREIGN KEY (" + quote(foreignKey[2]) + ") REFERENCES " + quote(foreignKey[3]) + " (`id`)");
+                }
+            } finally {
+                statement.execute("SET FOREIGN_KEY_CHECKS = 1");
+            }
+
+            logger.info("[UUIDColumnMigration] [migrate] Converted " + columns.size() + " UUID Columns To Binary");
+            return columns.size();
+        }
+    }
+
+    /**
+     * Converts one column, going through VARBINARY so the string survives until it is unhexed
+     *
+     * @param statement the statement
+     * @param column    the quoted table and column, ie: `events`.`id`
+     * @param nullable  whether the column allows nulls
+     */
+    private void convert(final Statement statement, final String column, final Boolean nullable) throws SQLException {
+        final String table = column.substring(0, column.indexOf('.'));
+        final String name = column.substring(column.indexOf('.') + 1);
+        final String nullability = nullable ? " NULL" : " NOT NULL";
+
+        logger.info("[UUIDColumnMigration] [convert] Converting " + column);
+        statement.execute("ALTER TABLE " + table + " MODIFY " + name + " VARBINARY(36)" + nullability);
+        statement.execute("UPDATE " + table + " SET " + name + " = UNHEX(REPLACE(" + name + ", '-', '')) " +
+                "WHERE LENGTH(" + name + ") = 36");
+        statement.execute("ALTER TABLE " + table + " MODIFY " + name + " BINARY(16)" + nullability);
+    }
+
+    private static String quote(final String identifier) {
+        return "`" + identifier.replace("`", "``") + "`";
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.binaryuuid;
+
+import com.nestedbird.util.UUIDConverter;
+
+/**
+ * How entity ids are stored in the database
+ * Ids are UUID strings everywhere in java, this only decides the column type they are written to
+ */
+public enum UUIDStorage {
+    /**
+     * The 36 character string form, one byte per character in latin1 and up to four in utf8mb4
+     */
+    CHAR("CHAR(36)"),
+
+    /**
+     * The 16 raw bytes of the UUID
+     */
+    BINARY("BINARY(16)");
+
+    /**
+     * The hibernate setting the storage is read from
+     */
+    public static final String SETTING = "hibernate.nestedbird.uuid_storage";
+
+    private final String columnType;
+
+    UUIDStorage(final String columnType) {
+        this.columnType = columnType;
+    }
+
+    /**
+     * Read the storage from a setting, defaulting to CHAR
+     *
+     * @param setting the setting, ie: "binary"
+     * @return the uuid storage
+     */
+    public static UUIDStorage fromSetting(final Object setting) {
+        if (setting == null || setting.toString().trim().isEmpty()) {
+            return CHAR;
+        }
+        return valueOf(setting.toString().trim().toUpperCase());
+    }
+
+    /**
+     * The column type id columns are created with
+     *
+     * @return the column type
+     */
+    public String getColumnType() {
+        return columnType;
+    }
+
+    /**
+     * Converts an id to what is bound to a jdbc statement, for the statements we write by hand
+     *
+     * @param id the id
+     * @return the id as stored in the database
+     */
+    public Object toParameter(final String id) {
+        return this == BINARY ? UUIDConverter.toBytes(id) : id;
+    }
+}
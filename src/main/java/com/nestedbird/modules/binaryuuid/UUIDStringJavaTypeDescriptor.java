@@ -0,0 +1,71 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.binaryuuid;
+
+import com.nestedbird.util.UUIDConverter;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractTypeDescriptor;
+
+/**
+ * Describes a UUID string to hibernate, so it can be bound as either the string or its 16 bytes
+ */
+class UUIDStringJavaTypeDescriptor extends AbstractTypeDescriptor<String> {
+    static final UUIDStringJavaTypeDescriptor INSTANCE = new UUIDStringJavaTypeDescriptor();
+
+    private UUIDStringJavaTypeDescriptor() {
+        super(String.class);
+    }
+
+    @Override
+    public String toString(final String value) {
+        return value;
+    }
+
+    @Override
+    public String fromString(final String string) {
+        return string;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <X> X unwrap(final String value, final Class<X> type, final WrapperOptions options) {
+        if (value == null) {
+            return null;
+        }
+        if (String.class.isAssignableFrom(type)) {
+            return (X) value;
+        }
+        if (byte[].class.isAssignableFrom(type)) {
+            return (X) UUIDConverter.toBytes(value);
+        }
+        throw unknownUnwrap(type);
+    }
+
+    @Override
+    public <X> String wrap(final X value, final WrapperOptions options) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof String) {
+            return (String) value;
+        }
+        if (value instanceof byte[]) {
+            return UUIDConverter.fromBytes((byte[]) value);
+        }
+        throw unknownWrap(value.getClass());
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.binaryuuid;
+
+import org.hibernate.type.AbstractSingleColumnStandardBasicType;
+import org.hibernate.type.descriptor.sql.BinaryTypeDescriptor;
+import org.hibernate.type.descriptor.sql.VarcharTypeDescriptor;
+
+/**
+ * Maps a UUID string id to a column in the way chosen by the uuid storage
+ * Entities refer to it by {@link #NAME}, the instance behind the name is registered by the {@link UUIDTypeContributor}
+ */
+public class UUIDStringType extends AbstractSingleColumnStandardBasicType<String> {
+    /**
+     * The name entities use in @Type
+     */
+    public static final String NAME = "uuid-string";
+
+    private final UUIDStorage storage;
+
+    /**
+     * Instantiates a new Uuid string type.
+     *
+     * @param storage how the ids are stored
+     */
+    public UUIDStringType(final UUIDStorage storage) {
+        super(storage == UUIDStorage.BINARY ? BinaryTypeDescriptor.INSTANCE : VarcharTypeDescriptor.INSTANCE,
+                UUIDStringJavaTypeDescriptor.INSTANCE);
+        this.storage = storage;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * How the ids are stored
+     *
+     * @return the storage
+     */
+    public UUIDStorage getStorage() {
+        return storage;
+    }
+}
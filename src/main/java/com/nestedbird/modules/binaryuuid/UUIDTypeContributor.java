@@ -0,0 +1,35 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.binaryuuid;
+
+import org.hibernate.boot.model.TypeContributions;
+import org.hibernate.boot.model.TypeContributor;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.service.ServiceRegistry;
+
+/**
+ * Registers the uuid string type for the storage chosen in the hibernate settings
+ * Hibernate finds this through META-INF/services
+ */
+public class UUIDTypeContributor implements TypeContributor {
+    @Override
+    public void contribute(final TypeContributions typeContributions, final ServiceRegistry serviceRegistry) {
+        final Object setting = serviceRegistry.getService(ConfigurationService.class).getSettings().get(UUIDStorage.SETTING);
+
+        typeContributions.contributeType(new UUIDStringType(UUIDStorage.fromSetting(setting)), UUIDStringType.NAME);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.cachemonitor;
+
+import lombok.extern.slf4j.Slf4j;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.management.ManagementService;
+import net.sf.ehcache.statistics.StatisticsGateway;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Reports how well the second level cache regions are performing.
+ * Every region's hit, miss and eviction counts are exposed over JMX under net.sf.ehcache, and summarised in the log.
+ * Only used when the cache is held by ehcache on this node.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.jpa.cache.distributed", havingValue = "false", matchIfMissing = true)
+@Slf4j
+public class CacheRegionMonitor {
+    private final CacheManager cacheManager;
+
+    /**
+     * Instantiates a new Cache region monitor.
+     * The entity manager factory is required so the cache manager hibernate creates exists before we look it up
+     *
+     * @param entityManagerFactory the entity manager factory
+     */
+    @Autowired
+    public CacheRegionMonitor(final EntityManagerFactory entityManagerFactory) {
+        this.cacheManager = CacheManager.getInstance();
+    }
+
+    /**
+     * Registers the cache manager and the statistics of every region
+     */
+    @PostConstruct
+    public void registerRegions() {
+        try {
+            ManagementService.registerMBeans(cacheManager, ManagementFactory.getPlatformMBeanServer(),
+                    false, true, true, true);
+        } catch (RuntimeException e) {
+            logger.info("[CacheRegionMonitor] [registerRegions] Unable To Register Cache Regions", e);
+        }
+    }
+
+    /**
+     * Logs the hit ratio and evictions of every region
+     */
+    @Scheduled(fixedDelayString = "${spring.jpa.cache.statistics_interval:3600000}")
+    public void logStatistics() {
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+
+        Arrays.stream(cacheManager.getCacheNames())
+                .map(cacheManager::getEhcache)
+                .forEach(this::logStatistics);
+    }
+
+    private void logStatistics(final Ehcache cache) {
+        final StatisticsGateway statistics = cache.getStatistics();
+        final long hits = statistics.cacheHitCount();
+        final long misses = statistics.cacheMissCount();
+        final double hitRatio = hits + misses > 0 ? (double) hits / (hits + misses) : 0;
+
+        logger.debug(String.format("[CacheRegionMonitor] [logStatistics] %s: %d entries, %d hits, %d misses (%.1f%%), %d evictions, %d expired",
+                cache.getName(),
+                statistics.getSize(),
+                hits,
+                misses,
+                hitRatio * 100,
+                statistics.cacheEvictedCount(),
+                statistics.cacheExpiredCount()));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.conditionalget;
+
+import org.springframework.http.CacheControl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long each kind of endpoint can be cached for
+ * Shared caches, ie: CDNs, may only cache what anonymous users see, everyone else has to revalidate privately
+ */
+public enum CachePolicy {
+    /**
+     * A single entity
+     */
+    ENTITY(60, true),
+
+    /**
+     * A page of entities, which changes whenever any entity is added or removed
+     * Removing an entity does not change the latest last modified date of a page, so only the etag is sent
+     */
+    LISTING(30, false);
+
+    /**
+     * How many seconds a response can be used before it is revalidated
+     */
+    private final long maxAge;
+
+    /**
+     * Whether the response can be revalidated by its last modified date, rather than only by its etag
+     */
+    private final boolean lastModifiedSent;
+
+    CachePolicy(final long maxAge, final boolean lastModifiedSent) {
+        this.maxAge = maxAge;
+        this.lastModifiedSent = lastModifiedSent;
+    }
+
+    /**
+     * Whether the Last-Modified header is sent
+     *
+     * @return boolean
+     */
+    public boolean isLastModifiedSent() {
+        return lastModifiedSent;
+    }
+
+    /**
+     * Creates the cache control of a response
+     *
+     * @param shared whether the response is the same for everyone, and so can be stored by shared caches
+     * @return the cache control
+     */
+    public CacheControl toCacheControl(final boolean shared) {
+        return shared
+                ? CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePublic().mustRevalidate()
+                : CacheControl.noCache().cachePrivate();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.conditionalget;
+
+import com.nestedbird.models.core.Audited.AuditedEntity;
+import com.nestedbird.models.core.Base.BaseEntity;
+import com.nestedbird.modules.lazyattributes.SerializedRelations;
+import lombok.experimental.UtilityClass;
+import org.joda.time.DateTime;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Answers conditional GET requests from the last modified dates of the entities in a response
+ * This runs before the response is serialized, so a client with a current copy costs no serialization at all
+ * The entities serialized with each entity, ie: the location of an event, are part of the response too, so their
+ * last modified dates and ids are included in the validators
+ */
+@UtilityClass
+public class ConditionalGet {
+    /**
+     * The request headers that decide who the user is, and so which json view a response is serialized with
+     */
+    private static final String VARY = HttpHeaders.COOKIE + ", " + HttpHeaders.AUTHORIZATION;
+
+    /**
+     * Sets the validators, Cache-Control and Vary headers of a response, and checks the client's copy against them
+     * The ETag is weak as it describes the entities rather than the bytes of the response
+     * Last-Modified is only sent when the policy asks for it, as the latest date of a listing does not change when
+     * an older entity is removed from it
+     *
+     * @param request  the request
+     * @param entities the entities in the response
+     * @param policy   how the response can be cached
+     * @param shared   whether the response is the same for everyone, and so can be stored by shared caches
+     * @param variants anything else the response depends on, ie: the json view, the total number of elements
+     * @return true when the client's copy is current, the response is then a 304 and nothing should be written
+     */
+    public static boolean checkNotModified(final ServletWebRequest request,
+                                           final Collection<? extends BaseEntity> entities,
+                                           final CachePolicy policy,
+                                           final boolean shared,
+                                           final Object... variants) {
+        final List<BaseEntity> dependencies = withRelations(entities);
+        final long lastModified = lastModified(dependencies);
+        final String eTag = eTag(dependencies, lastModified, request.getRequest().getRequestURI(),
+                request.getRequest().getQueryString(), variants);
+
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, policy.toCacheControl(shared).getHeaderValue());
+        request.getResponse().addHeader(HttpHeaders.VARY, VARY);
+        return policy.isLastModifiedSent()
+                ? request.checkNotModified(eTag, lastModified)
+                : request.checkNotModified(eTag);
+    }
+
+    /**
+     * Gets the entities followed by every entity serialized with them
+     * The related entities are sorted by id, as their collections have no order of their own
+     *
+     * @param entities the entities
+     * @return the entities and their related entities
+     */
+    static List<BaseEntity> withRelations(final Collection<? extends BaseEntity> entities) {
+        final List<BaseEntity> related = SerializedRelations.of(entities);
+        related.sort(Comparator.comparing(BaseEntity::getId, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        final List<BaseEntity> dependencies = new ArrayList<>(entities);
+        dependencies.addAll(related);
+        return dependencies;
+    }
+
+    /**
+     * Gets the latest last modified date of the entities
+     *
+     * @param entities the entities
+     * @return the latest last modified date in milliseconds, or -1 when it is not known
+     */
+    static long lastModified(final Collection<? extends BaseEntity> entities) {
+        return entities.stream()
+                .filter(AuditedEntity.class::isInstance)
+                .map(AuditedEntity.class::cast)
+                .map(AuditedEntity::getLastModifiedDate)
+                .filter(Objects::nonNull)
+                .mapToLong(DateTime::getMillis)
+                .max()
+                .orElse(-1);
+    }
+
+    /**
+     * Creates the weak etag of a response
+     * The ids are included so adding or removing an entity from a page changes the etag, even when the latest
+     * last modified date does not change
+     *
+     * @param entities     the entities
+     * @param lastModified the latest last modified date
+     * @param uri          the uri of the request
+     * @param queryString  the query string of the request
+     * @param variants     anything else the response depends on
+     * @return the weak etag
+     */
+    static String eTag(final Collection<? extends BaseEntity> entities,
+                       final long lastModified,
+                       final String uri,
+                       final String queryString,
+                       final Object... variants) {
+        final String key = Stream.concat(
+                Stream.<Object>of(uri, queryString, lastModified),
+                Stream.concat(entities.stream().map(BaseEntity::getId), Arrays.stream(variants)))
+                .map(String::valueOf)
+                .collect(Collectors.joining("\n"));
+
+        return "W/\"" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
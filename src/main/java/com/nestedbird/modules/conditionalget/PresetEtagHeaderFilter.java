@@ -0,0 +1,39 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.conditionalget;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.InputStream;
+
+/**
+ * Generates etags from the response body, unless the response already set its own etag
+ * The ShallowEtagHeaderFilter would otherwise replace the etag a conditional GET was answered with
+ */
+public class PresetEtagHeaderFilter extends ShallowEtagHeaderFilter {
+    @Override
+    protected boolean isEligibleForEtag(final HttpServletRequest request,
+                                        final HttpServletResponse response,
+                                        final int responseStatusCode,
+                                        final InputStream inputStream) {
+        return !response.containsHeader(HttpHeaders.ETAG)
+                && super.isEligibleForEtag(request, response, responseStatusCode, inputStream);
+    }
+}
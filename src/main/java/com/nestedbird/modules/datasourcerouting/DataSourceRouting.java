@@ -0,0 +1,55 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.datasourcerouting;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Holds whether the work on the current thread may be served by a replica database.
+ * Read only transactions are always sent to a replica, this is used for work outside of a transaction, such as
+ * lazy loading while rendering a public GET request.
+ */
+@UtilityClass
+public class DataSourceRouting {
+    /**
+     * Whether the current thread prefers a replica
+     */
+    private static final ThreadLocal<Boolean> replicaPreferred = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Mark the current thread as preferring a replica
+     */
+    public static void preferReplica() {
+        replicaPreferred.set(true);
+    }
+
+    /**
+     * Does the current thread prefer a replica
+     *
+     * @return boolean
+     */
+    public static boolean isReplicaPreferred() {
+        return replicaPreferred.get();
+    }
+
+    /**
+     * Clear the preference of the current thread
+     */
+    public static void clear() {
+        replicaPreferred.remove();
+    }
+}
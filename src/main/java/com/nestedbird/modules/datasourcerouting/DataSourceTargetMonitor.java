@@ -0,0 +1,100 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.datasourcerouting;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tomcat.jdbc.pool.DataSourceProxy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Watches the targets of the RoutingDataSource.
+ * Each connection pool is exposed over JMX under its target name, and replicas are health checked on a schedule.
+ */
+@Component
+@Slf4j
+public class DataSourceTargetMonitor {
+    private final RoutingDataSource routingDataSource;
+
+    private final List<ObjectName> registeredNames = new ArrayList<>();
+
+    /**
+     * Instantiates a new Data source target monitor.
+     *
+     * @param routingDataSource the routing data source
+     */
+    @Autowired
+    public DataSourceTargetMonitor(final RoutingDataSource routingDataSource) {
+        this.routingDataSource = routingDataSource;
+    }
+
+    /**
+     * Registers the connection pool of every target, these report the active, idle and waiting connections
+     */
+    @PostConstruct
+    public void registerPools() {
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+        routingDataSource.getTargets().forEach((name, dataSource) -> {
+            if (dataSource instanceof DataSourceProxy) {
+                try {
+                    final ObjectName objectName = new ObjectName("com.nestedbird:type=ConnectionPool,name=" + name);
+                    mBeanServer.registerMBean(((DataSourceProxy) dataSource).createPool().getJmxPool(), objectName);
+                    registeredNames.add(objectName);
+                } catch (JMException | SQLException e) {
+                    logger.info("[DataSourceTargetMonitor] [registerPools] Unable To Register Pool " + name, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Unregisters the connection pools
+     */
+    @PreDestroy
+    public void unregisterPools() {
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+        registeredNames.forEach(objectName -> {
+            try {
+                mBeanServer.unregisterMBean(objectName);
+            } catch (JMException e) {
+                logger.info("[DataSourceTargetMonitor] [unregisterPools] Unable To Unregister Pool " + objectName, e);
+            }
+        });
+        registeredNames.clear();
+    }
+
+    /**
+     * Checks the health and lag of every replica
+     */
+    @Scheduled(fixedDelayString = "${spring.datasource.replica.check_interval:10000}")
+    public void checkReplicas() {
+        routingDataSource.checkReplicas();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.datasourcerouting;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lets public GET requests be served from a replica database.
+ * Requests from moderators and admins always use the primary, so they see their own changes immediately.
+ */
+public class ReplicaRoutingInterceptor extends HandlerInterceptorAdapter {
+    /**
+     * Authorities that are always served by the primary
+     */
+    private static final List<String> primaryAuthorities = Arrays.asList("PRIV_ADMIN", "PRIV_MODERATOR");
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request,
+                             final HttpServletResponse response,
+                             final Object handler) {
+        if (HttpMethod.GET.matches(request.getMethod()) && !isPrivileged()) {
+            DataSourceRouting.preferReplica();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request,
+                                final HttpServletResponse response,
+                                final Object handler,
+                                final Exception ex) {
+        DataSourceRouting.clear();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(final HttpServletRequest request,
+                                               final HttpServletResponse response,
+                                               final Object handler) {
+        DataSourceRouting.clear();
+    }
+
+    /**
+     * Is the current user a moderator or admin
+     *
+     * @return boolean
+     */
+    private boolean isPrivileged() {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        return authentication != null &&
+                authentication.getAuthorities() != null &&
+                authentication.getAuthorities().stream()
+                        .anyMatch(authority -> primaryAuthorities.contains(authority.getAuthority()));
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.datasourcerouting;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes connections between the primary database and its replicas.
+ * <p>
+ * Read only transactions, and work outside of a transaction on threads that prefer a replica, are sent to a healthy
+ * replica in turn. Everything else is sent to the primary. A replica that fails to hand out a connection, or that
+ * falls too far behind the primary, is skipped until it recovers, and the primary is used in its place.
+ * <p>
+ * This must be wrapped in a LazyConnectionDataSourceProxy, so the connection is only retrieved once the
+ * transaction has declared whether it is read only.
+ */
+@Slf4j
+public class RoutingDataSource extends AbstractDataSource {
+    /**
+     * Name of the primary target
+     */
+    public static final String PRIMARY = "primary";
+
+    /**
+     * The primary database, which receives all writes
+     */
+    private final DataSource primary;
+
+    /**
+     * The replica databases, keyed by name
+     */
+    private final Map<String, DataSource> replicas;
+
+    /**
+     * The names of the replicas, so they can be picked in turn
+     */
+    private final List<String> replicaNames;
+
+    /**
+     * The replicas that are currently being skipped
+     */
+    private final Set<String> unhealthyReplicas = ConcurrentHashMap.newKeySet();
+
+    /**
+     * How many seconds a replica can fall behind the primary before it is skipped
+     */
+    private final long maxLagSeconds;
+
+    /**
+     * Which replica is next in turn
+     */
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    /**
+     * Instantiates a new Routing data source.
+     *
+     * @param primary       the primary database
+     * @param replicas      the replica databases, keyed by name
+     * @param maxLagSeconds how far behind a replica can fall
+     */
+    public RoutingDataSource(final DataSource primary,
+                             final Map<String, DataSource> replicas,
+                             final long maxLagSeconds) {
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableMap(new LinkedHashMap<>(replicas));
+        this.replicaNames = new ArrayList<>(replicas.keySet());
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * Gets every target of this data source, the primary first
+     *
+     * @return the targets keyed by name
+     */
+    public Map<String, DataSource> getTargets() {
+        final Map<String, DataSource> targets = new LinkedHashMap<>();
+        targets.put(PRIMARY, primary);
+        targets.putAll(replicas);
+        return targets;
+    }
+
+    /**
+     * Checks every replica is reachable and not too far behind the primary.
+     * Replicas that are not replicating from anything report no lag, so two independent local databases can be
+     * used to test routing.
+     */
+    public void checkReplicas() {
+        replicas.forEach((name, dataSource) -> {
+            final boolean wasHealthy = !unhealthyReplicas.contains(name);
+            final boolean isHealthy = isReplicaHealthy(name, dataSource);
+
+            if (isHealthy) {
+                unhealthyReplicas.remove(name);
+            } else {
+                unhealthyReplicas.add(name);
+            }
+
+            if (wasHealthy != isHealthy) {
+                logger.info("[RoutingDataSource] [checkReplicas] Replica " + name + (isHealthy ? " Recovered" : " Is Unhealthy"));
+            }
+        });
+    }
+
+    /**
+     * Retrieves a connection from the target the current work should be routed to
+     *
+     * @param connector retrieves a connection from a data source
+     * @return the connection
+     * @throws SQLException the sql exception
+     */
+    private Connection route(final Connector connector) throws SQLException {
+        if (shouldUseReplica()) {
+            final Optional<String> replicaName = nextHealthyReplica();
+
+            if (replicaName.isPresent()) {
+                try {
+                    return connector.connect(replicas.get(replicaName.get()));
+                } catch (SQLException e) {
+                    unhealthyReplicas.add(replicaName.get());
+                    logger.info("[RoutingDataSource] [route] Replica " + replicaName.get() + " Failed, Using Primary", e);
+                }
+            }
+        }
+
+        return connector.connect(primary);
+    }
+
+    /**
+     * Should the current work be sent to a replica
+     *
+     * @return boolean
+     */
+    private boolean shouldUseReplica() {
+        if (replicas.isEmpty()) {
+            return false;
+        }
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+
+        return DataSourceRouting.isReplicaPreferred();
+    }
+
+    /**
+     * Picks the next healthy replica in turn
+     *
+     * @return the name of the replica, empty if none are healthy
+     */
+    private Optional<String> nextHealthyReplica() {
+        final int start = Math.abs(nextReplica.getAndIncrement() % replicaNames.size());
+
+        for (int i = 0; i < replicaNames.size(); i++) {
+            final String name = replicaNames.get((start + i) % replicaNames.size());
+            if (!unhealthyReplicas.contains(name)) {
+                return Optional.of(name);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Checks a replica is reachable and not too far behind
+     *
+     * @param name       the name of the replica
+     * @param dataSource the replica
+     * @return boolean
+     */
+    private boolean isReplicaHealthy(final String name, final DataSource dataSource) {
+        try (final Connection connection = dataSource.getConnection();
+             final Statement statement = connection.createStatement();
+             final ResultSet status = statement.executeQuery("SHOW SLAVE STATUS")) {
+
+            if (!status.next()) {
+                return true;
+            }
+
+            final long lag = status.getLong("Seconds_Behind_Master");
+            return !status.wasNull() && lag <= maxLagSeconds;
+        } catch (SQLException e) {
+            logger.info("[RoutingDataSource] [isReplicaHealthy] Unable To Check Replica " + name, e);
+            return false;
+        }
+    }
+
+    /**
+     * Retrieves a connection from a data source
+     */
+    @FunctionalInterface
+    private interface Connector {
+        /**
+         * Retrieve a connection
+         *
+         * @param dataSource the data source
+         * @return the connection
+         * @throws SQLException the sql exception
+         */
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+}
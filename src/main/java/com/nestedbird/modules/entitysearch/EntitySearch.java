@@ -36,6 +36,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
@@ -71,7 +72,8 @@ public class EntitySearch {
      * @throws ParseException the parse exception
      */
     @SuppressWarnings("unchecked")
-    public final <T extends BaseEntity> List<T> searchOnlyReturnData(final Class<T> clazz, final String queryText) throws ParseException {
+    @Transactional(readOnly = true)
+    public <T extends BaseEntity> List<T> searchOnlyReturnData(final Class<T> clazz, final String queryText) throws ParseException {
         return search(clazz, queryText).stream()
                 .map(e -> (T) e[2])
                 .collect(Collectors.toList());
@@ -86,7 +88,8 @@ public class EntitySearch {
      * @return list of entities
      * @throws ParseException the parse exception
      */
-    public final <T extends BaseEntity> List<Object[]> search(final Class<T> clazz, final String queryText) throws ParseException {
+    @Transactional(readOnly = true)
+    public <T extends BaseEntity> List<Object[]> search(final Class<T> clazz, final String queryText) throws ParseException {
         final FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(entityManager);
 
         final SearchFactory searchFactory = fullTextEntityManager.getSearchFactory();
@@ -0,0 +1,68 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.entitytypes;
+
+import com.nestedbird.models.core.Base.BaseEntity;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Keeps the entity type registry up to date as entities are inserted and deleted
+ * This runs after the transaction commits, so rolled back inserts are never recorded
+ */
+public class EntityTypeListener implements PostCommitInsertEventListener, PostCommitDeleteEventListener {
+    private final transient EntityTypeRegistry entityTypeRegistry;
+
+    /**
+     * Instantiates a new Entity type listener.
+     *
+     * @param entityTypeRegistry the entity type registry
+     */
+    public EntityTypeListener(final EntityTypeRegistry entityTypeRegistry) {
+        this.entityTypeRegistry = entityTypeRegistry;
+    }
+
+    @Override
+    public void onPostInsert(final PostInsertEvent event) {
+        if (event.getEntity() instanceof BaseEntity) {
+            entityTypeRegistry.register((BaseEntity) event.getEntity());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(final PostInsertEvent event) {
+        // nothing was recorded before the commit, so there is nothing to undo
+    }
+
+    @Override
+    public void onPostDelete(final PostDeleteEvent event) {
+        entityTypeRegistry.remove(String.valueOf(event.getId()));
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(final PostDeleteEvent event) {
+        // nothing was removed before the commit, so there is nothing to undo
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(final EntityPersister persister) {
+        return entityTypeRegistry.isRegistered(persister.getMappedClass());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.entitytypes;
+
+import com.nestedbird.models.core.Base.BaseEntity;
+import org.redisson.api.RMap;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Records the type of every entity by its id, so an id can be resolved without asking every table for it
+ * The records are kept in a redis hash shared by every node, and are written as entities are inserted
+ */
+public class EntityTypeRegistry {
+    /**
+     * The type of each entity, by id
+     */
+    private final RMap<String, String> types;
+
+    /**
+     * The types that are recorded, by name
+     */
+    private final Map<String, Class<? extends BaseEntity>> registeredTypes;
+
+    /**
+     * Instantiates a new Entity type registry.
+     *
+     * @param types           the redis hash the types are recorded in
+     * @param registeredTypes the types that are recorded
+     */
+    public EntityTypeRegistry(final RMap<String, String> types,
+                              final Collection<Class<? extends BaseEntity>> registeredTypes) {
+        this.types = types;
+        this.registeredTypes = registeredTypes.stream()
+                .collect(Collectors.toMap(Class::getSimpleName, Function.identity()));
+    }
+
+    /**
+     * Is this type recorded
+     *
+     * @param clazz the class
+     * @return boolean
+     */
+    public boolean isRegistered(final Class<?> clazz) {
+        return registeredTypes.containsValue(clazz);
+    }
+
+    /**
+     * Has nothing been recorded yet, ie: the first time the registry is used
+     *
+     * @return boolean
+     */
+    public boolean isEmpty() {
+        return types.isEmpty();
+    }
+
+    /**
+     * Gets the type of an entity
+     *
+     * @param id the id of the entity
+     * @return the type, empty when the entity has not been recorded
+     */
+    public Optional<Class<? extends BaseEntity>> typeOf(final String id) {
+        return Optional.ofNullable(types.get(id))
+                .map(registeredTypes::get);
+    }
+
+    /**
+     * Records the type of an entity, entities of other types are ignored
+     *
+     * @param entity the entity
+     */
+    public void register(final BaseEntity entity) {
+        if (isRegistered(entity.getClass())) {
+            types.fastPut(entity.getId(), entity.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Records the type of many entities at once
+     *
+     * @param type the type of the entities
+     * @param ids  the ids of the entities
+     */
+    public void registerAll(final Class<? extends BaseEntity> type, final Collection<String> ids) {
+        if (isRegistered(type) && !ids.isEmpty()) {
+            types.putAll(ids.stream().collect(Collectors.toMap(Function.identity(), id -> type.getSimpleName(), (a, b) -> a)));
+        }
+    }
+
+    /**
+     * Forgets the type of an entity, ie: when it has been deleted
+     *
+     * @param id the id of the entity
+     */
+    public void remove(final String id) {
+        types.fastRemove(id);
+    }
+}
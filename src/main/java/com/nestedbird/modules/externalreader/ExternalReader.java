@@ -0,0 +1,206 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.externalreader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.nestedbird.config.ExternalReaderSettings;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared layer that every reader of an external api makes its requests through
+ *
+ * Requests go through one pooled rest template. Responses for resources that have a canonical id can be cached,
+ * first in an in-process LRU cache, and optionally in redis so the responses are shared between instances.
+ * Failed requests are never cached.
+ */
+@Component
+@Slf4j
+public class ExternalReader {
+    /**
+     * Redis key of the shared response cache
+     */
+    private static final String REDIS_KEY_EXTERNAL_RESOURCES = "ExternalResourceCache";
+
+    private final RestTemplate restTemplate;
+
+    private final ExternalReaderSettings externalReaderSettings;
+
+    private final RedissonClient redissonClient;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final Cache<String, Object> localCache;
+
+    /**
+     * Instantiates a new External reader.
+     *
+     * @param externalRestTemplate   the external rest template
+     * @param externalReaderSettings the external reader settings
+     * @param redissonClient         the redisson client
+     */
+    @Autowired
+    public ExternalReader(final RestTemplate externalRestTemplate,
+                          final ExternalReaderSettings externalReaderSettings,
+                          final RedissonClient redissonClient) {
+        this.restTemplate = externalRestTemplate;
+        this.externalReaderSettings = externalReaderSettings;
+        this.redissonClient = redissonClient;
+        this.localCache = CacheBuilder.newBuilder()
+                .maximumSize(externalReaderSettings.getCacheMaxSize())
+                .expireAfterWrite(externalReaderSettings.getCacheTtlSeconds(), TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Gets the rest template shared by the external readers
+     *
+     * @return the rest template
+     */
+    public RestTemplate getRestTemplate() {
+        return restTemplate;
+    }
+
+    /**
+     * Request a resource without caching the response
+     *
+     * @param url              request url
+     * @param deconstructClass class of request object
+     * @param <T>              type of request object this is
+     * @return request object, null on failure
+     */
+    public <T> T request(final String url, final Class<T> deconstructClass) {
+        T deconstructedResponse = null;
+
+        try {
+            deconstructedResponse = restTemplate.getForObject(url, deconstructClass);
+        } catch (RestClientException err) {
+            logger.info("[ExternalReader] [request] Failure To Retrieve External Resource (" + url + ")", err);
+        }
+
+        return deconstructedResponse;
+    }
+
+    /**
+     * Request a resource, reading it from the cache when we have recently requested it
+     *
+     * @param cacheKey         canonical key of the resource, eg youtube:video:{id}
+     * @param url              request url
+     * @param deconstructClass class of request object
+     * @param <T>              type of request object this is
+     * @return request object, null on failure
+     */
+    public <T> T requestCached(final String cacheKey, final String url, final Class<T> deconstructClass) {
+        final Optional<T> cached = Optional.ofNullable(localCache.getIfPresent(cacheKey))
+                .filter(deconstructClass::isInstance)
+                .map(deconstructClass::cast);
+
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        final T deconstructedResponse = Optional.ofNullable(readFromRedis(cacheKey, deconstructClass))
+                .orElseGet(() -> requestAndShare(cacheKey, url, deconstructClass));
+
+        Optional.ofNullable(deconstructedResponse)
+                .ifPresent(response -> localCache.put(cacheKey, response));
+
+        return deconstructedResponse;
+    }
+
+    /**
+     * Remove a resource from the caches, so that the next request retrieves it again
+     *
+     * @param cacheKey canonical key of the resource
+     */
+    public void evict(final String cacheKey) {
+        localCache.invalidate(cacheKey);
+
+        if (externalReaderSettings.getCacheRedis()) {
+            getRedisCache().fastRemove(cacheKey);
+        }
+    }
+
+    /**
+     * Request the raw resource and share it through redis
+     *
+     * @param cacheKey         canonical key of the resource
+     * @param url              request url
+     * @param deconstructClass class of request object
+     * @param <T>              type of request object this is
+     * @return request object, null on failure
+     */
+    private <T> T requestAndShare(final String cacheKey, final String url, final Class<T> deconstructClass) {
+        if (!externalReaderSettings.getCacheRedis()) {
+            return request(url, deconstructClass);
+        }
+
+        final String rawResponse = request(url, String.class);
+
+        Optional.ofNullable(rawResponse)
+                .ifPresent(response -> getRedisCache().fastPut(cacheKey, response,
+                        externalReaderSettings.getCacheTtlSeconds(), TimeUnit.SECONDS));
+
+        return deconstruct(rawResponse, deconstructClass);
+    }
+
+    /**
+     * Read a resource shared by another instance through redis
+     *
+     * @param cacheKey         canonical key of the resource
+     * @param deconstructClass class of request object
+     * @param <T>              type of request object this is
+     * @return request object, null if not in redis
+     */
+    private <T> T readFromRedis(final String cacheKey, final Class<T> deconstructClass) {
+        if (!externalReaderSettings.getCacheRedis()) {
+            return null;
+        }
+
+        return deconstruct(getRedisCache().get(cacheKey), deconstructClass);
+    }
+
+    private <T> T deconstruct(final String rawResponse, final Class<T> deconstructClass) {
+        T deconstructedResponse = null;
+
+        try {
+            if (rawResponse != null) {
+                deconstructedResponse = objectMapper.readValue(rawResponse, deconstructClass);
+            }
+        } catch (IOException err) {
+            logger.info("[ExternalReader] [deconstruct] Failure To Read External Resource", err);
+        }
+
+        return deconstructedResponse;
+    }
+
+    private RMapCache<String, String> getRedisCache() {
+        return redissonClient.getMapCache(REDIS_KEY_EXTERNAL_RESOURCES);
+    }
+}
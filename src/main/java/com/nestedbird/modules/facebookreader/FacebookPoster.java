@@ -22,12 +22,12 @@ import com.nestedbird.jackson.facebook.FacebookPost;
 import com.nestedbird.models.event.Event;
 import com.nestedbird.models.location.Location;
 import com.nestedbird.models.occurrence.Occurrence;
+import com.nestedbird.modules.externalreader.ExternalReader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.*;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
 import java.util.stream.Collectors;
@@ -43,14 +43,19 @@ public class FacebookPoster {
 
     private final SocialConfigSettings socialConfigSettings;
 
+    private final ExternalReader externalReader;
+
     /**
      * Instantiates a new Facebook poster.
      *
      * @param socialConfigSettings the social config settings
+     * @param externalReader       the external reader
      */
     @Autowired
-    public FacebookPoster(final SocialConfigSettings socialConfigSettings) {
+    public FacebookPoster(final SocialConfigSettings socialConfigSettings,
+                          final ExternalReader externalReader) {
         this.socialConfigSettings = socialConfigSettings;
+        this.externalReader = externalReader;
     }
 
     /**
@@ -72,8 +77,7 @@ public class FacebookPoster {
 
         HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(map, headers);
 
-        RestTemplate restTemplate = new RestTemplate();
-        ResponseEntity<FacebookPost> response = restTemplate.postForEntity(generateRequestUrl(), request, FacebookPost.class);
+        ResponseEntity<FacebookPost> response = externalReader.getRestTemplate().postForEntity(generateRequestUrl(), request, FacebookPost.class);
 
         occurrence.setFacebookPostId(response.getBody().getId());
         return occurrence;
@@ -111,7 +115,8 @@ public class FacebookPoster {
 
     private String generateRequestUrl() {
         return String.format(
-                "https://graph.facebook.com/NestedBird/feed/?access_token=%s",
+                "%s/NestedBird/feed/?access_token=%s",
+                socialConfigSettings.getFbApiUrl(),
                 socialConfigSettings.getFbAccessToken()
         );
     }
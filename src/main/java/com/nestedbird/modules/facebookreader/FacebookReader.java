@@ -18,12 +18,10 @@ package com.nestedbird.modules.facebookreader;
 
 import com.nestedbird.config.SocialConfigSettings;
 import com.nestedbird.jackson.facebook.*;
-import lombok.extern.slf4j.Slf4j;
+import com.nestedbird.modules.externalreader.ExternalReader;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.Optional;
 
@@ -31,21 +29,28 @@ import java.util.Optional;
  * This class is responsible for requesting and reading data from facebooks graph API
  */
 @Component
-@Slf4j
 public class FacebookReader {
     /**
      * Social media settings information
      */
     private final SocialConfigSettings socialConfigSettings;
 
+    /**
+     * Shared layer external requests are made through
+     */
+    private final ExternalReader externalReader;
+
     /**
      * Instantiates a new Facebook reader.
      *
      * @param socialConfigSettings the social config settings
+     * @param externalReader       the external reader
      */
     @Autowired
-    public FacebookReader(final SocialConfigSettings socialConfigSettings) {
+    public FacebookReader(final SocialConfigSettings socialConfigSettings,
+                          final ExternalReader externalReader) {
         this.socialConfigSettings = socialConfigSettings;
+        this.externalReader = externalReader;
     }
 
     /**
@@ -55,7 +60,7 @@ public class FacebookReader {
      * @return the id from url
      */
     public String getIdFromUrl(final String url) {
-        final FacebookId facebookId = request(encodeUrl(url), FacebookId.class);
+        final FacebookId facebookId = requestCached("facebook:url:" + url, encodeUrl(url), FacebookId.class);
 
 
         return Optional.ofNullable(facebookId)
@@ -72,16 +77,20 @@ public class FacebookReader {
      * @return request object
      */
     private <T> T request(final String url, final Class<T> deconstructClass) {
-        final RestTemplate restTemplate = new RestTemplate();
-        T deconstructedResponse = null;
-
-        try {
-            deconstructedResponse = restTemplate.getForObject(url, deconstructClass);
-        } catch (HttpClientErrorException err) {
-            logger.info("[FacebookReader] [request] Failure To Retrieve Facebook Resource (" + url + ")", err);
-        }
+        return externalReader.request(url, deconstructClass);
+    }
 
-        return deconstructedResponse;
+    /**
+     * Makes the http request, reusing a recent response for the same resource
+     *
+     * @param cacheKey         canonical key of the resource
+     * @param url              request url
+     * @param deconstructClass class of request object
+     * @param <T>              type of request object this is
+     * @return request object
+     */
+    private <T> T requestCached(final String cacheKey, final String url, final Class<T> deconstructClass) {
+        return externalReader.requestCached(cacheKey, url, deconstructClass);
     }
 
     private String encodeUrl(final String url) {
@@ -96,7 +105,8 @@ public class FacebookReader {
      */
     private String generateRequestUrl(final String id) {
         return String.format(
-                "https://graph.facebook.com/?id=%s&access_token=%s",
+                "%s/?id=%s&access_token=%s",
+                socialConfigSettings.getFbApiUrl(),
                 id,
                 socialConfigSettings.getFbAccessToken()
         );
@@ -124,7 +134,18 @@ public class FacebookReader {
                         "comments.summary(true)"
                 }
         );
-        return request(url, FacebookVideo.class);
+        return requestCached("facebook:video:" + id, url, FacebookVideo.class);
+    }
+
+    /**
+     * Request video facebook video, ignoring any cached response
+     *
+     * @param id the id
+     * @return the facebook video
+     */
+    public FacebookVideo refreshVideo(final String id) {
+        externalReader.evict("facebook:video:" + id);
+        return requestVideo(id);
     }
 
     /**
@@ -136,7 +157,8 @@ public class FacebookReader {
      */
     private String generateRequestUrl(final String id, final String[] fields) {
         return String.format(
-                "https://graph.facebook.com/%s/?fields=%s&access_token=%s&limit=60",
+                "%s/%s/?fields=%s&access_token=%s&limit=60",
+                socialConfigSettings.getFbApiUrl(),
                 id,
                 String.join(",", fields),
                 socialConfigSettings.getFbAccessToken()
@@ -174,7 +196,8 @@ public class FacebookReader {
      */
     private String generateRequestUrl(final String id, final String nestedItem, final String[] fields) {
         return String.format(
-                "https://graph.facebook.com/%s/%s/?fields=%s&access_token=%s&limit=60",
+                "%s/%s/%s/?fields=%s&access_token=%s&limit=60",
+                socialConfigSettings.getFbApiUrl(),
                 id,
                 nestedItem,
                 String.join(",", fields),
@@ -200,7 +223,7 @@ public class FacebookReader {
                         "about"
                 }
         );
-        return request(url, FacebookPlace.class);
+        return requestCached("facebook:place:" + id, url, FacebookPlace.class);
     }
 
     /**
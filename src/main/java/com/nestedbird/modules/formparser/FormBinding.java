@@ -0,0 +1,166 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.formparser;
+
+import com.nestedbird.modules.schema.annotations.SchemaView;
+import lombok.Getter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.util.ClassUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.util.function.Function;
+
+/**
+ * A FormBinding is the precompiled description of how a single field of an entity is written to by FormParse.
+ * All of the reflection (finding the field, its setter, its annotations and its generic type) is done once when
+ * the binding is created, so writing to the field afterwards is a method handle invocation.
+ */
+@Getter
+public class FormBinding {
+    /**
+     * Conversion service used to coerce form values into the fields type
+     */
+    private static final ConversionService conversionService = DefaultConversionService.getSharedInstance();
+
+    /**
+     * The name of the field
+     */
+    private final String name;
+
+    /**
+     * The generic type of the field
+     */
+    private final ResolvableType type;
+
+    /**
+     * The SchemaView annotation on the field, if it has one
+     */
+    private final SchemaView schemaView;
+
+    /**
+     * Whether the field can be edited at all, ignoring whether it is locked
+     */
+    private final boolean editable;
+
+    /**
+     * Reads the field, with the signature (Object)Object
+     */
+    private final MethodHandle getter;
+
+    /**
+     * Writes the field, with the signature (Object, Object)void, null if the field cannot be written to
+     */
+    private final MethodHandle setter;
+
+    /**
+     * Converts a parsed form value into the fields type
+     */
+    private final Function<Object, Object> converter;
+
+    /**
+     * Instantiates a new Form binding.
+     *
+     * @param name       the field name
+     * @param type       the field type
+     * @param schemaView the fields SchemaView annotation
+     * @param editable   whether the field can be edited
+     * @param getter     the getter handle
+     * @param setter     the setter handle
+     * @param descriptor the type descriptor of the field
+     */
+    FormBinding(final String name,
+                final ResolvableType type,
+                final SchemaView schemaView,
+                final boolean editable,
+                final MethodHandle getter,
+                final MethodHandle setter,
+                final TypeDescriptor descriptor) {
+        this.name = name;
+        this.type = type;
+        this.schemaView = schemaView;
+        this.editable = editable;
+        this.getter = getter;
+        this.setter = setter;
+        this.converter = compileConverter(descriptor);
+    }
+
+    /**
+     * Creates the converter for a field, values that are already the correct type are passed straight through
+     *
+     * @param descriptor the type descriptor of the field
+     * @return the converter
+     */
+    private static Function<Object, Object> compileConverter(final TypeDescriptor descriptor) {
+        final Class<?> targetClass = ClassUtils.resolvePrimitiveIfNecessary(descriptor.getType());
+
+        return value -> (value == null || targetClass.isInstance(value))
+                ? value
+                : conversionService.convert(value, TypeDescriptor.forObject(value), descriptor);
+    }
+
+    /**
+     * Is this field writable on this specific entity
+     * Locked fields can only be written to while they are still null
+     *
+     * @param entity the entity
+     * @return boolean
+     */
+    public boolean isWritable(final Object entity) {
+        final boolean isLocked = editable && schemaView.locked() && read(entity) != null;
+
+        return editable && !isLocked;
+    }
+
+    /**
+     * Reads the value of this field from an entity
+     *
+     * @param entity the entity
+     * @return the value
+     */
+    public Object read(final Object entity) {
+        try {
+            return (Object) getter.invokeExact(entity);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to read field " + name, e);
+        }
+    }
+
+    /**
+     * Converts a value into the type of this field and writes it to an entity
+     *
+     * @param entity the entity
+     * @param value  the value
+     */
+    public void write(final Object entity, final Object value) {
+        if (setter == null) {
+            throw new IllegalStateException("Unable to write to field " + name);
+        }
+
+        try {
+            setter.invokeExact(entity, converter.apply(value));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to write to field " + name, e);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.formparser;
+
+import com.nestedbird.modules.schema.annotations.SchemaView;
+import lombok.extern.slf4j.Slf4j;
+import org.joda.time.DateTime;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.convert.TypeDescriptor;
+import org.thymeleaf.util.StringUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A FormBindingPlan holds a FormBinding for every field of an entity class.
+ * Plans are built once per class, and then reused for every form submission against that class.
+ */
+@Slf4j
+public final class FormBindingPlan {
+    /**
+     * Method type of a compiled getter
+     */
+    private static final MethodType getterType = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * Method type of a compiled setter
+     */
+    private static final MethodType setterType = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * Creates a new plan by scanning the fields of a class and all of its parents
+     *
+     * @param entityClass the entity class
+     * @return the form binding plan
+     */
+    public static FormBindingPlan of(final Class<?> entityClass) {
+        final Map<String, FormBinding> bindings = new HashMap<>();
+
+        Class<?> currentClass = entityClass;
+        do {
+            for (final Field field : currentClass.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !bindings.containsKey(field.getName())) {
+                    createBinding(entityClass, field)
+                            .ifPresent(binding -> bindings.put(binding.getName(), binding));
+                }
+            }
+            currentClass = currentClass.getSuperclass();
+        } while (currentClass.getSuperclass() != null);
+
+        return new FormBindingPlan(entityClass, bindings);
+    }
+
+    /**
+     * Compiles a FormBinding for a field
+     *
+     * @param entityClass the entity class the field is being written through
+     * @param field       the field
+     * @return the binding, empty if the field cannot be read
+     */
+    private static Optional<FormBinding> createBinding(final Class<?> entityClass, final Field field) {
+        final SchemaView schemaView = field.getAnnotation(SchemaView.class);
+        final boolean isFinal = Modifier.isFinal(field.getModifiers());
+
+        try {
+            field.setAccessible(true);
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            final MethodHandle getter = lookup.unreflectGetter(field).asType(getterType);
+            final MethodHandle setter = isFinal ? null : lookup.unreflectSetter(field).asType(setterType);
+
+            return Optional.of(new FormBinding(
+                    field.getName(),
+                    ResolvableType.forField(field, entityClass),
+                    schemaView,
+                    schemaView != null &&
+                            schemaView.visible() &&
+                            !isFinal &&
+                            doesSetterExist(entityClass, field.getName(), field.getType()),
+                    getter,
+                    setter,
+                    new TypeDescriptor(field)));
+        } catch (IllegalAccessException | SecurityException e) {
+            logger.info("[FormBindingPlan] [createBinding] Unable To Access Field", e);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Returns whether or not a field has a public setter
+     * The setter is found by looking for set plus the variable name capitalised.
+     *
+     * @param objectClass - The object we are searching in
+     * @param fieldName   - The name of the field we want to find the setter for
+     * @param fieldType   the field type
+     * @return boolean boolean
+     */
+    private static boolean doesSetterExist(final Class<?> objectClass, final String fieldName, final Class<?> fieldType) {
+        try {
+            objectClass.getMethod("set" + StringUtils.capitalize(fieldName), getFieldSetterType(fieldType));
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * When checking for a fields setter, we need to specify the class of the variable we expect the setter to
+     * take, so we know if it will accept the variable we expect it to.
+     * Certain setters use different variable types in setting than the actual variables type.
+     * For example, DateTime sets its variables with strings rather than DateTime.
+     *
+     * @param fieldType - The type of variable of the field
+     * @return - The type of variable we will use in the setter
+     */
+    private static Class<?> getFieldSetterType(final Class<?> fieldType) {
+        Class<?> returnClass = fieldType;
+
+        if (fieldType.isAssignableFrom(DateTime.class)) {
+            returnClass = String.class;
+        }
+
+        return returnClass;
+    }
+
+    /**
+     * The class this plan was built for
+     */
+    private final Class<?> entityClass;
+
+    /**
+     * The bindings of this class, keyed by field name
+     */
+    private final Map<String, FormBinding> bindings;
+
+    /**
+     * Instantiates a new Form binding plan.
+     *
+     * @param entityClass the entity class
+     * @param bindings    the bindings
+     */
+    private FormBindingPlan(final Class<?> entityClass, final Map<String, FormBinding> bindings) {
+        this.entityClass = entityClass;
+        this.bindings = Collections.unmodifiableMap(bindings);
+    }
+
+    /**
+     * Gets the class this plan was built for
+     *
+     * @return the entity class
+     */
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * Gets the binding of a field
+     *
+     * @param fieldName the field name
+     * @return the binding
+     */
+    public Optional<FormBinding> getBinding(final String fieldName) {
+        return Optional.ofNullable(bindings.get(fieldName));
+    }
+
+    /**
+     * Gets the number of bindings in this plan
+     *
+     * @return the size
+     */
+    public int size() {
+        return bindings.size();
+    }
+}
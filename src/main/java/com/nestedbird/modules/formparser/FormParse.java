@@ -17,10 +17,12 @@
 package com.nestedbird.modules.formparser;
 
 import com.nestedbird.models.core.Base.BaseEntity;
+import com.nestedbird.modules.lazyattributes.LazyAttributes;
+import com.nestedbird.modules.schema.SchemaEntities;
 import com.nestedbird.modules.schema.annotations.SchemaRepository;
+import com.nestedbird.modules.statementcounter.StatementCounter;
 import com.nestedbird.modules.schema.annotations.SchemaView;
 import com.nestedbird.util.JSONUtil;
-import com.nestedbird.util.Mutable;
 import com.nestedbird.util.UUIDConverter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.math.NumberUtils;
@@ -30,20 +32,21 @@ import org.joda.time.format.DateTimeFormat;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.springframework.beans.PropertyAccessor;
-import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.ResolvableType;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.thymeleaf.util.StringUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import javax.servlet.http.HttpServletRequest;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * This class processes the payload of a form and saves the data to the database
@@ -53,23 +56,78 @@ import java.util.*;
 @Configuration
 @Slf4j
 public class FormParse {
+    /**
+     * Types that can be written to an entity without any additional processing
+     */
+    private static final List<Class> standardTypes = Arrays.asList(
+            String.class,
+            Long.class,
+            Integer.class,
+            Double.class,
+            Boolean.class
+    );
+
     /**
      * The application context so we can search for beans
      */
     private final ApplicationContext appContext;
 
+    /**
+     * The entities that have schemas, and so can be submitted through forms
+     */
+    private final SchemaEntities schemaEntities;
+
+    /**
+     * Compiled binding plans, keyed by the class of the entity
+     */
+    private final Map<Class<?>, FormBindingPlan> bindingPlans = new ConcurrentHashMap<>();
+
+    /**
+     * Repositories of entities, keyed by the class of the entity
+     */
+    private final Map<Class<?>, JpaRepository> repositories = new ConcurrentHashMap<>();
+
+    /**
+     * Runs a form submission and all of its nested saves in a single transaction
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Used to persist new nested entities without looking them up first
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Instantiates a new Form parse.
      *
-     * @param appContext the app context
+     * @param appContext         the app context
+     * @param transactionManager the transaction manager
+     * @param schemaEntities     the schema entities
      */
     @Autowired
-    public FormParse(final ApplicationContext appContext) {
+    public FormParse(final ApplicationContext appContext,
+                     final PlatformTransactionManager transactionManager,
+                     final SchemaEntities schemaEntities) {
         this.appContext = appContext;
+        this.schemaEntities = schemaEntities;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Compiles the binding plan of every entity that has a SchemaRepository, so the first form submission of
+     * each entity does not have to pay for the reflection
+     */
+    @PostConstruct
+    public void compileBindingPlans() {
+        schemaEntities.getEntityClasses().forEach(this::getBindingPlan);
+
+        logger.info("[FormParse] [compileBindingPlans] Compiled " + bindingPlans.size() + " Binding Plans");
     }
 
     /**
      * Parses a HTTPServletRequest and saves the information onto an existing entity
+     * Nested entities are saved as well, so this should be run inside a transaction, see parseAndSave
      *
      * @param <T>            - Class of entity
      * @param existingEntity - Entity to be written over
@@ -83,6 +141,33 @@ public class FormParse {
         return existingEntity;
     }
 
+    /**
+     * Parses a HTTPServletRequest, saves the information onto an existing entity and then saves the entity.
+     * The entity and every nested entity it references are written in a single transaction, so they are flushed
+     * to the database together when it commits.
+     * The lazy attributes of the entity are fetched first. The bindings write fields directly, which the enhanced
+     * entity does not notice, so an attribute that was never fetched would be left out of the update.
+     *
+     * @param <T>            - Class of entity
+     * @param existingEntity - Entity to be written over
+     * @param request        - HTTPRequest information
+     * @param repository     - Repository of the entity
+     * @return - The saved entity
+     */
+    public <T extends BaseEntity> T parseAndSave(final T existingEntity,
+                                                 final HttpServletRequest request,
+                                                 final JpaRepository<T, String> repository) {
+        final long statementsBefore = StatementCounter.getCount();
+
+        final T savedEntity = transactionTemplate.execute(status ->
+                repository.save(parse(LazyAttributes.initialize(existingEntity), request)));
+
+        logger.debug("[FormParse] [parseAndSave] " + existingEntity.getClass().getSimpleName() + " Saved Using " +
+                (StatementCounter.getCount() - statementsBefore) + " Statements");
+
+        return savedEntity;
+    }
+
     /**
      * Write the value to the existingEntity field with the name of key
      *
@@ -91,90 +176,91 @@ public class FormParse {
      * @param key            The key we are changing
      * @param value          The new value
      */
-    private <T extends BaseEntity> void writeToEntity(T existingEntity, String key, Object value) {
-        final PropertyAccessor accessor = PropertyAccessorFactory.forDirectFieldAccess(existingEntity);
+    private <T extends BaseEntity> void writeToEntity(final T existingEntity, final String key, final Object value) {
+        getBindingPlan(existingEntity.getClass())
+                .getBinding(key)
+                .ifPresent(binding -> writeBindingToEntity(existingEntity, binding, value));
+    }
 
-        if (accessor.getPropertyType(key) != null) {
-            try {
-                if (value.getClass().equals(JSONObject.class) &&
-                        ((JSONObject) value).has("_isMap") &&
-                        ((JSONObject) value).get("_isMap").equals(true)) {
-                    writeArrayMapToEntity(accessor, key, (JSONObject) value);
-                } else if (value.getClass().equals(JSONObject.class)) {
-                    writeObjectToEntity(accessor, key, (JSONObject) value);
-                } else if (value.getClass().equals(JSONArray.class)) {
-                    writeArrayToEntity(accessor, key, (JSONArray) value);
-                } else if (isFieldValid(accessor, key, existingEntity.getClass())) {
-                    writeValueToEntity(accessor, key, value);
-                }
-            } catch (JSONException e) {
-                logger.info("[FormParse] [writeToEntity] Unable To Process JSON", e);
+    /**
+     * Write the value to the existingEntity through a compiled binding
+     *
+     * @param existingEntity The entity we are changing
+     * @param binding        The binding of the field we are changing
+     * @param value          The new value
+     */
+    private void writeBindingToEntity(final Object existingEntity, final FormBinding binding, final Object value) {
+        try {
+            if (value.getClass().equals(JSONObject.class) &&
+                    ((JSONObject) value).has("_isMap") &&
+                    ((JSONObject) value).get("_isMap").equals(true)) {
+                writeArrayMapToEntity(existingEntity, binding, (JSONObject) value);
+            } else if (value.getClass().equals(JSONObject.class)) {
+                writeObjectToEntity(existingEntity, binding, (JSONObject) value);
+            } else if (value.getClass().equals(JSONArray.class)) {
+                writeArrayToEntity(existingEntity, binding, (JSONArray) value);
+            } else if (binding.isWritable(existingEntity)) {
+                writeValueToEntity(existingEntity, binding, value);
             }
+        } catch (JSONException e) {
+            logger.info("[FormParse] [writeBindingToEntity] Unable To Process JSON", e);
         }
     }
 
     /**
      * Write object to the entity
      *
-     * @param accessor The accessor for the existing entity
-     * @param key      The fields name we are overwriting
-     * @param value    The new value
+     * @param existingEntity The entity we are changing
+     * @param binding        The binding of the field we are overwriting
+     * @param value          The new value
      * @throws JSONException the json exception
      */
-    private void writeObjectToEntity(final PropertyAccessor accessor,
-                                     final String key,
+    private void writeObjectToEntity(final Object existingEntity,
+                                     final FormBinding binding,
                                      final JSONObject value) throws JSONException {
-        final ResolvableType type = accessor.getPropertyTypeDescriptor(key).getResolvableType();
-
-        accessor.setPropertyValue(key, parseObject(value, type));
+        binding.write(existingEntity, parseObject(value, binding.getType()));
     }
 
     /**
      * Write an array map to an entity
      * an array map is an object, but is meant to represent an array
      *
-     * @param accessor The accessor for the existing entity
-     * @param key      The fields name we are overwriting
-     * @param value    The new value
+     * @param existingEntity The entity we are changing
+     * @param binding        The binding of the field we are overwriting
+     * @param value          The new value
      * @throws JSONException the json exception
      */
-    private void writeArrayMapToEntity(final PropertyAccessor accessor,
-                                       final String key,
+    private void writeArrayMapToEntity(final Object existingEntity,
+                                       final FormBinding binding,
                                        final JSONObject value) throws JSONException {
-        final ResolvableType type = accessor.getPropertyTypeDescriptor(key).getResolvableType();
-
-        accessor.setPropertyValue(key, parseArrayMap(value, type));
+        binding.write(existingEntity, parseArrayMap(value, binding.getType()));
     }
 
     /**
      * Write array to entity.
      *
-     * @param accessor The accessor for the existing entity
-     * @param key      The fields name we are overwriting
-     * @param value    The new value
+     * @param existingEntity The entity we are changing
+     * @param binding        The binding of the field we are overwriting
+     * @param value          The new value
      * @throws JSONException the json exception
      */
-    private void writeArrayToEntity(final PropertyAccessor accessor,
-                                    final String key,
+    private void writeArrayToEntity(final Object existingEntity,
+                                    final FormBinding binding,
                                     final JSONArray value) throws JSONException {
-        final ResolvableType type = accessor.getPropertyTypeDescriptor(key).getResolvableType();
-
-        accessor.setPropertyValue(key, parseArray(value, type));
+        binding.write(existingEntity, parseArray(value, binding.getType()));
     }
 
     /**
      * Write normal value to entity.
      *
-     * @param accessor The accessor for the existing entity
-     * @param key      The fields name we are overwriting
-     * @param value    The new value
+     * @param existingEntity The entity we are changing
+     * @param binding        The binding of the field we are overwriting
+     * @param value          The new value
      */
-    private void writeValueToEntity(final PropertyAccessor accessor,
-                                    final String key,
+    private void writeValueToEntity(final Object existingEntity,
+                                    final FormBinding binding,
                                     final Object value) {
-        final ResolvableType type = accessor.getPropertyTypeDescriptor(key).getResolvableType();
-
-        accessor.setPropertyValue(key, parseValue(value, type));
+        binding.write(existingEntity, parseValue(value, binding.getType()));
     }
 
     /**
@@ -259,82 +345,12 @@ public class FormParse {
      * @return boolean boolean
      */
     private Boolean isTypeStandard(final Class fieldType) {
-        final List<Class> standardTypes = Arrays.asList(
-                String.class,
-                Long.class,
-                Integer.class,
-                Double.class,
-                Boolean.class
-        );
         return standardTypes.contains(fieldType);
     }
 
-    /**
-     * Checks whether the target field is final, meaning it should not be written over...
-     * apparently spring writes over final variables
-     *
-     * @param objectClass - The class of the object we are checking
-     * @param fieldName   - The name of the field we are checking
-     * @return - Whether or not the field is final
-     */
-    private boolean isFieldFinal(final Class objectClass, final String fieldName) {
-        final Mutable<Boolean> returnVar = Mutable.of(true);
-        getField(objectClass, fieldName)
-                .ifPresent(field -> returnVar.mutate(Modifier.isFinal(field.getModifiers())));
-        return returnVar.get();
-    }
-
-    /**
-     * Is the field editable according to the SchemaView annotation
-     *
-     * @param accessor the accessor
-     * @param key      the key
-     * @return boolean boolean
-     */
-    private Boolean isFieldEditable(final PropertyAccessor accessor, final String key) {
-        final SchemaView schemaView = accessor.getPropertyTypeDescriptor(key).getAnnotation(SchemaView.class);
-
-        if (schemaView != null) {
-            final boolean isLocked = schemaView.locked() && accessor.getPropertyValue(key) != null;
-            final boolean isVisible = schemaView.visible();
-
-            return !isLocked && isVisible;
-        }
-
-        return false;
-    }
-
-    /**
-     * Can the field be written to and read from?
-     * This is according to the springs accessor, if it has no setter or getter it still can somehow be read to...
-     * apparently
-     *
-     * @param accessor  - The spring propertyAccessor          -
-     * @param fieldName - The fieldName
-     * @return boolean boolean
-     */
-    private Boolean isFieldInteractable(final PropertyAccessor accessor, final String fieldName) {
-        return accessor.isReadableProperty(fieldName) &&
-                accessor.isWritableProperty(fieldName);
-    }
-
-    /**
-     * Is field valid for editing
-     *
-     * @param accessor    the accessor
-     * @param fieldName   the field name
-     * @param entityClass the entity class
-     * @return the boolean
-     */
-    private boolean isFieldValid(final PropertyAccessor accessor, final String fieldName, final Class entityClass) {
-        return isFieldInteractable(accessor, fieldName) &&
-                isFieldEditable(accessor, fieldName) &&
-                doesSetterExist(entityClass, fieldName, accessor.getPropertyType(fieldName)) &&
-                !isFieldFinal(entityClass, fieldName);
-    }
-
     /**
      * Saves and associate these database entities to this object
+     * All of the existing entities referenced by the array are retrieved with a single query
      *
      * @param value database entities to process
      * @param type  type of the database entities
@@ -342,14 +358,25 @@ public class FormParse {
      * @throws JSONException the exception
      */
     private List<Object> parseArrayOfDatabaseEntities(final JSONArray value, final Class type) throws JSONException {
-        final List<Object> elements = new ArrayList<>();
-
+        final List<JSONObject> entries = new ArrayList<>();
         for (Integer i = 0; i < value.length(); i++) {
             if (!value.isNull(i)) {
-                final JSONObject data = (JSONObject) value.get(i);
-                elements.add(parseBaseEntity(data, type));
+                entries.add((JSONObject) value.get(i));
             }
         }
+
+        final Set<String> ids = new HashSet<>();
+        for (final JSONObject entry : entries) {
+            getEntryId(entry).ifPresent(ids::add);
+        }
+
+        final Map<String, BaseEntity> existingEntities = findAllById(getFieldRepository(type), ids);
+
+        final List<Object> elements = new ArrayList<>();
+        for (final JSONObject entry : entries) {
+            final BaseEntity existingEntity = getEntryId(entry).map(existingEntities::get).orElse(null);
+            parseBaseEntity(entry, type, existingEntity).ifPresent(elements::add);
+        }
         return elements;
     }
 
@@ -395,16 +422,29 @@ public class FormParse {
      * @param value     data to edit
      * @param fieldType type of baseentity
      * @return edited base entity
-     * @throws JSONException the exception
      */
-    private BaseEntity parseBaseEntity(final JSONObject value, final Class fieldType) throws JSONException {
-        final JpaRepository repository = getFieldRepository(fieldType);
-        Optional<BaseEntity> entity = Optional.empty();
+    private BaseEntity parseBaseEntity(final JSONObject value, final Class fieldType) {
+        final BaseEntity existingEntity = getEntryId(value)
+                .map(id -> (BaseEntity) getFieldRepository(fieldType).findOne(id))
+                .orElse(null);
 
-        if (value.has("id") && (!value.isNull("id"))) {
-            final String id = value.get("id").toString();
-            entity = Optional.ofNullable((BaseEntity) repository.findOne(id));
-        }
+        return parseBaseEntity(value, fieldType, existingEntity).orElse(null);
+    }
+
+    /**
+     * Writes data onto an existing BaseEntity, or a new one if there is no existing entity, and saves it.
+     * Nothing is flushed here, the changes are written when the surrounding transaction commits.
+     *
+     * @param value          data to edit
+     * @param fieldType      type of baseentity
+     * @param existingEntity the entity to edit, or null to create a new one
+     * @return edited base entity
+     */
+    @SuppressWarnings("unchecked")
+    private Optional<BaseEntity> parseBaseEntity(final JSONObject value,
+                                                 final Class fieldType,
+                                                 final BaseEntity existingEntity) {
+        Optional<BaseEntity> entity = Optional.ofNullable(existingEntity);
 
         if (!entity.isPresent()) {
             try {
@@ -413,13 +453,47 @@ public class FormParse {
                 logger.info("[FormParse] [parseBaseEntity] Failure To Create Class Instance", e1);
             }
         }
-        entity.ifPresent(e -> {
+
+        return entity.map(e -> {
             final ParameterMapParser parser = new ParameterMapParser(value);
             parser.loopData((key, data) -> writeToEntity(e, key, data));
-            repository.saveAndFlush(e);
+
+            if (existingEntity == null) {
+                entityManager.persist(e);
+                return e;
+            }
+            return (BaseEntity) getFieldRepository(fieldType).save(e);
         });
+    }
 
-        return entity.orElseGet(null);
+    /**
+     * Retrieves the id of an entry, if it has one
+     *
+     * @param value the entry
+     * @return the id
+     */
+    private Optional<String> getEntryId(final JSONObject value) {
+        return Optional.ofNullable(value.opt("id"))
+                .filter(id -> !JSONObject.NULL.equals(id))
+                .map(Object::toString);
+    }
+
+    /**
+     * Retrieves all the entities with these ids using a single query
+     *
+     * @param repository the repository of the entities
+     * @param ids        the ids
+     * @return the entities keyed by their id
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, BaseEntity> findAllById(final JpaRepository repository, final Collection<String> ids) {
+        final Map<String, BaseEntity> entities = new HashMap<>();
+
+        if (!ids.isEmpty()) {
+            ((List<BaseEntity>) repository.findAll(ids)).forEach(entity -> entities.put(entity.getId(), entity));
+        }
+
+        return entities;
     }
 
     /**
@@ -510,21 +584,20 @@ public class FormParse {
 
     /**
      * Parses a comma separated value of database indexes.
-     * Retrieves all the items from the database and adds them to an array to save them to the object
+     * Retrieves all the items from the database with a single query and adds them to an array to save them to
+     * the object
      *
      * @param value           CSV of indexes
      * @param repositoryClass repository of entities
      * @return array of entities
      */
     private Collection<BaseEntity> parseCSVDatabaseIndexes(final String value, final Class repositoryClass) {
-        final Set<BaseEntity> elements = new HashSet<>();
-        final JpaRepository repository = getFieldRepository(repositoryClass);
-        Arrays.stream(value.split(","))
-                .distinct()
+        final Set<String> ids = Arrays.stream(value.split(","))
                 .filter(Objects::nonNull)
                 .filter(UUIDConverter::isUUID)
-                .forEach(id -> elements.add((BaseEntity) repository.getOne(id)));
-        return elements;
+                .collect(Collectors.toSet());
+
+        return new HashSet<>(findAllById(getFieldRepository(repositoryClass), ids).values());
     }
 
     /**
@@ -534,122 +607,19 @@ public class FormParse {
      * @return field repository
      */
     private JpaRepository getFieldRepository(final Class<?> entityType) {
-        final Class repositoryClass = entityType.getAnnotation(SchemaRepository.class).value();
-        return (JpaRepository) appContext.getBean(repositoryClass);
-    }
-
-    /**
-     * For some reason I cannot use Class.getField, as it does not do anything.
-     * This method loops over DeclaredFields of the object and all its parents
-     *
-     * @param objectClass - The object we are searching in
-     * @param fieldName   - The fields name we are searching for
-     * @return - The field
-     */
-    private Optional<Field> getField(final Class objectClass, final String fieldName) {
-        Class currentClass = objectClass;
-        final Mutable<Field> field = Mutable.of(null);
-        do {
-            final Field foundField = Arrays.stream(currentClass.getDeclaredFields())
-                    .filter(e -> e.getName().equals(fieldName))
-                    .findFirst()
-                    .orElse(null);
-
-            field.mutateIf(foundField, foundField != null);
-
-            currentClass = currentClass.getSuperclass();
-        } while (currentClass.getSuperclass() != null);
-
-        if (!field.isPresent()) {
-            logger.info("[FormParse] [getField] Unable To Find Field", new NoSuchFieldException(fieldName));
-        }
-
-        return field.ofNullable();
-    }
-
-    /**
-     * Find the fields setter method. This is a simple search and it looks for get plus the variable name capitalised.
-     * For example
-     * name     => setName
-     * bigName  => setBigName
-     *
-     * @param objectClass - The object we are searching in
-     * @param fieldName   - The name of the field we want to find the setter for
-     * @param fieldType   the field type
-     * @return - The setter method
-     * @throws NoSuchMethodException the no such method exception
-     */
-    private Method getFieldSetter(final Class<?> objectClass,
-                                  final String fieldName,
-                                  final Class fieldType) throws NoSuchMethodException {
-        return objectClass.getMethod("set" + StringUtils.capitalize(fieldName), fieldType);
-    }
-
-    /**
-     * When checking for a fields setter, we need to specify the class of the variable we expect the setter to
-     * take, so we know if it will accept the variable we expect it to.
-     * Certain setters use different variable types in setting than the actual variables type.
-     * For example, DateTime sets its variables with strings rather than DateTime.
-     *
-     * @param fieldType - The type of variable of the field
-     * @return - The type of variable we will use in the setter
-     */
-    private Class<?> getFieldSetterType(final Class<?> fieldType) {
-        Class<?> returnClass = fieldType;
-
-        if (fieldType.isAssignableFrom(DateTime.class)) {
-            returnClass = String.class;
-        }
-
-        return returnClass;
-    }
-
-    /**
-     * Returns whether or not a field has a getter
-     *
-     * @param objectClass - The object we are searching in
-     * @param fieldName   - The name of the field we want to find the getter for
-     * @return boolean boolean
-     */
-    private Boolean doesGetterExist(final Class<?> objectClass, final String fieldName) {
-        try {
-            getFieldGetter(objectClass, fieldName);
-            return true;
-        } catch (NoSuchMethodException e) {
-            return false;
-        }
-    }
-
-    /**
-     * Find the fields getter method. This is a simple search and it looks for get plus the variable name capitalised.
-     * For example
-     * name     => getName
-     * bigName  => getBigName
-     *
-     * @param objectClass - The object we are searching in
-     * @param fieldName   - The name of the field we want to find the getter for
-     * @return - The getter method
-     * @throws NoSuchMethodException the no such method exception
-     */
-    private Method getFieldGetter(final Class<?> objectClass, final String fieldName) throws NoSuchMethodException {
-        return objectClass.getMethod("get" + StringUtils.capitalize(fieldName));
+        return repositories.computeIfAbsent(entityType, type -> {
+            final Class repositoryClass = type.getAnnotation(SchemaRepository.class).value();
+            return (JpaRepository) appContext.getBean(repositoryClass);
+        });
     }
 
     /**
-     * Returns whether or not a field has a setter
+     * Finds the compiled binding plan for a class, compiling it if this is the first time it has been seen
      *
-     * @param objectClass - The object we are searching in
-     * @param fieldName   - The name of the field we want to find the setter for
-     * @param fieldType   the field type
-     * @return boolean boolean
+     * @param entityType - Class we want to find the binding plan for
+     * @return binding plan
      */
-    private Boolean doesSetterExist(final Class<?> objectClass, final String fieldName, final Class fieldType) {
-        try {
-            // This intentionally doesn't immediately return, so the try can trip without returning
-            getFieldSetter(objectClass, fieldName, getFieldSetterType(fieldType));
-            return true;
-        } catch (NoSuchMethodException e) {
-            return false;
-        }
+    private FormBindingPlan getBindingPlan(final Class<?> entityType) {
+        return bindingPlans.computeIfAbsent(entityType, FormBindingPlan::of);
     }
-}
+}
\ No newline at end of file
@@ -23,7 +23,6 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -39,18 +38,21 @@ public class ParameterMapParser {
     /**
      * Converts a parameter map to a JSONObject
      * The return type is a ParameterMapParser which has an abstraction over the normal JSONObject
+     * <p>
+     * Every entry is inserted straight into a single tree, in the order of the parameter map,
+     * so later entries win on conflicts.
      *
      * @param parameterMap the parameter map
      * @return new parameter map parser
      */
     public static ParameterMapParser parse(final Map<String, String[]> parameterMap) {
-        final JSONObject data = parameterMap.entrySet().stream()
-                .parallel()
-                .reduce(
-                        new JSONObject(),
-                        ParameterMapParser::parseAccumulator,
-                        ParameterMapParser::parseCombiner
-                );
+        final JSONObject data = new JSONObject();
+
+        parameterMap.forEach((key, values) -> {
+            if (values != null && values.length > 0) {
+                insertEntry(data, FormField.parse(key), getEntryValue(values));
+            }
+        });
 
         return ParameterMapParser.of(data);
     }
@@ -66,138 +68,80 @@ public class ParameterMapParser {
     }
 
     /**
-     * Adds new parsed data to our existing collection of parsed data
+     * Spring stores the entry values in a map, as each entry value can have several options, if the same html
+     * name has several inputs.
+     * We only want the last value we recieve, and we ignore the rest.
      *
-     * @param object existing data that will lose on conflicts
-     * @param entry  new data from form that will be processed and will win on conflicts
-     * @return new object
+     * @param values - the values of the entry
+     * @return - The Single Remaining Entry
      */
-    private static JSONObject parseAccumulator(final JSONObject object, final Entry<String, String[]> entry) {
-        return parseCombiner(object, createObjectWithKey(entry));
+    private static String getEntryValue(final String[] values) {
+        return values[values.length - 1];
     }
 
     /**
-     * Combines two JSONObjects together
+     * Inserts the value of a form entry into the tree, at the position described by its FormField
      *
-     * @param object  object that will lose on conflicts
-     * @param object2 object that will win on conflicts
-     * @return new object
+     * @param data      The tree we are inserting into
+     * @param formField The parsed schema of a form entry key
+     * @param value     The value of the form entry
      */
-    private static JSONObject parseCombiner(final JSONObject object, final JSONObject object2) {
+    private static void insertEntry(final JSONObject data, final FormField formField, final String value) {
         try {
-            return JSONUtil.deepMerge(
-                    object,
-                    object2
-            );
+            if (formField.getType().equals(FormFieldType.ARRAY)) {
+                getOrCreateArray(data, formField.getName()).put(formField.getIndex(), value);
+            } else if (formField.getType().equals(FormFieldType.ARRAYOFOBJECT)) {
+                final JSONObject childArray = getOrCreateObject(data, formField.getName());
+                childArray.put("_isMap", true);
+                getOrCreateObject(childArray, formField.getIndex().toString()).put(formField.getChildName(), value);
+            } else if (formField.getType().equals(FormFieldType.OBJECT)) {
+                getOrCreateObject(data, formField.getName()).put(formField.getChildName(), value);
+            } else if (formField.getType().equals(FormFieldType.STRING)) {
+                data.put(formField.getName(), value);
+            }
         } catch (JSONException e) {
-            logger.info("[ParameterMapParser] [parseCombiner] Failure To Merge JSON", e);
+            logger.info("[ParameterMapParser] [insertEntry] Failure To Process JSON", e);
         }
-        return object;
     }
 
     /**
-     * Converts the form submission result to a new JSONObject
+     * Retrieves the child object of a key, replacing whatever was there if it is not already an object
      *
-     * @param entry entry from the form submission
-     * @return new json object
+     * @param data The parent object
+     * @param key  The key of the child
+     * @return the child json object
+     * @throws JSONException the json exception
      */
-    private static JSONObject createObjectWithKey(final Entry<String, String[]> entry) {
-        final FormField formField = FormField.parse(entry.getKey());
-        final String value = getEntryValue(entry);
-
-        JSONObject newObject = new JSONObject();
-
-        try {
-            newObject = createNewObject(value, formField);
-        } catch (JSONException e) {
-            logger.info("[ParameterMapParser] [createObjectWithKey] Failure To Process JSON", e);
+    private static JSONObject getOrCreateObject(final JSONObject data, final String key) throws JSONException {
+        final Object existing = data.opt(key);
+        if (existing instanceof JSONObject) {
+            return (JSONObject) existing;
         }
 
-        return newObject;
-    }
-
-    /**
-     * Spring stores the entry values in a map, as each entry value can have several options, if the same html
-     * name has several inputs.
-     * We only want the last value we recieve, and we ignore the rest.
-     *
-     * @param entries - the map of entries
-     * @return - The Single Remaining Entry
-     */
-    private static String getEntryValue(final Entry<String, String[]> entries) {
-        return entries.getValue()[entries.getValue().length - 1];
+        final JSONObject childObject = new JSONObject();
+        data.put(key, childObject);
+        return childObject;
     }
 
     /**
-     * Create new JSONObject out of the result from a FormField
+     * Retrieves the child array of a key, replacing whatever was there if it is not already an array
      *
-     * @param value     The value of the form entry
-     * @param formField The parsed schema of a form entry key
-     * @return new JSONObject
+     * @param data The parent object
+     * @param key  The key of the child
+     * @return the child json array
      * @throws JSONException the json exception
      */
-    private static JSONObject createNewObject(final String value, final FormField formField) throws JSONException {
-        final JSONObject newObject = new JSONObject();
-
-        if (formField.getType().equals(FormFieldType.ARRAY)) {
-            newObject.put(formField.getName(), convertValueToArray(value));
-        } else if (formField.getType().equals(FormFieldType.ARRAYOFOBJECT)) {
-            newObject.put(formField.getName(), convertValueToArrayOfObject(value, formField));
-        } else if (formField.getType().equals(FormFieldType.OBJECT)) {
-            newObject.put(formField.getName(), convertValueToObject(value, formField));
-        } else if (formField.getType().equals(FormFieldType.STRING)) {
-            newObject.put(formField.getName(), value);
+    private static JSONArray getOrCreateArray(final JSONObject data, final String key) throws JSONException {
+        final Object existing = data.opt(key);
+        if (existing instanceof JSONArray) {
+            return (JSONArray) existing;
         }
 
-        return newObject;
-    }
-
-    /**
-     * Convert value to array
-     *
-     * @param value The value of the form entity
-     * @return the json array
-     */
-    private static JSONArray convertValueToArray(final String value) {
         final JSONArray childArray = new JSONArray();
-        childArray.put(value);
+        data.put(key, childArray);
         return childArray;
     }
 
-    /**
-     * Convert value to array of objects.
-     *
-     * @param value     The value of the form entity
-     * @param formField The parsed schema of a form entry key
-     * @return the json array
-     * @throws JSONException the json exception
-     */
-    private static JSONObject convertValueToArrayOfObject(final String value,
-                                                          final FormField formField) throws JSONException {
-        final JSONObject childObject = new JSONObject();
-        childObject.put(formField.getChildName(), value);
-
-        final JSONObject childArray = new JSONObject();
-        childArray.put("_isMap", true);
-        childArray.put(formField.getIndex().toString(), childObject);
-
-        return childArray;
-    }
-
-    /**
-     * Convert value to json object.
-     *
-     * @param value     The value of the form entity
-     * @param formField The parsed schema of a form entry key
-     * @return the json object
-     * @throws JSONException the json exception
-     */
-    private static JSONObject convertValueToObject(final String value, final FormField formField) throws JSONException {
-        final JSONObject childObject = new JSONObject();
-        childObject.put(formField.getChildName(), value);
-        return childObject;
-    }
-
     /**
      * Parsed form payload
      */
@@ -0,0 +1,53 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.lazyattributes;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Leaves lazy attributes that have not been fetched out of the json
+ * List endpoints only select the small columns, so their responses leave out descriptions, lyrics and raw data
+ */
+public class LazyAttributeModule extends SimpleModule {
+    /**
+     * Instantiates a new Lazy attribute module.
+     */
+    public LazyAttributeModule() {
+        super("LazyAttributeModule");
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public List<BeanPropertyWriter> changeProperties(final SerializationConfig config,
+                                                             final BeanDescription beanDesc,
+                                                             final List<BeanPropertyWriter> beanProperties) {
+                final List<String> lazy = LazyAttributes.of(beanDesc.getBeanClass());
+                if (lazy.isEmpty()) {
+                    return beanProperties;
+                }
+                return beanProperties.stream()
+                        .map(writer -> lazy.contains(writer.getName()) ? new UnfetchedAttributeWriter(writer) : writer)
+                        .collect(Collectors.toList());
+            }
+        });
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.lazyattributes;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import javax.persistence.Basic;
+import javax.persistence.FetchType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds the attributes of an entity that are fetched lazily, ie: @Basic(fetch = FetchType.LAZY)
+ * Lazy attributes are only fetched on their own when the entity classes have been enhanced at build time
+ */
+@UtilityClass
+public class LazyAttributes {
+    private static final Map<Class<?>, List<String>> lazyAttributes = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the names of the lazy attributes of a class and its super classes
+     *
+     * @param clazz the entity class
+     * @return the lazy attribute names
+     */
+    public static List<String> of(final Class<?> clazz) {
+        return lazyAttributes.computeIfAbsent(clazz, LazyAttributes::findLazyAttributes);
+    }
+
+    /**
+     * Fetches every lazy attribute of an entity, so it is serialized in full
+     * This must be called while the entity is still attached to a session
+     *
+     * @param entity the entity
+     * @param <E>    the type of entity
+     * @return the entity
+     */
+    public static <E> E initialize(final E entity) {
+        Optional.ofNullable(entity).ifPresent(e -> of(e.getClass())
+                .forEach(PropertyAccessorFactory.forBeanPropertyAccess(e)::getPropertyValue));
+        return entity;
+    }
+
+    private static List<String> findLazyAttributes(final Class<?> clazz) {
+        final List<String> names = new ArrayList<>();
+        for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (final Field field : current.getDeclaredFields()) {
+                final Basic basic = field.getAnnotation(Basic.class);
+                if (basic != null && basic.fetch() == FetchType.LAZY) {
+                    names.add(field.getName());
+                }
+            }
+        }
+        return Collections.unmodifiableList(names);
+    }
+}
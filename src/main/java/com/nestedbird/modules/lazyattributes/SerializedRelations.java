@@ -0,0 +1,144 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.nestedbird.modules.lazyattributes;
+
+import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.nestedbird.models.core.Base.BaseEntity;
+import lombok.experimental.UtilityClass;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Finds the entities that are serialized with an entity, ie: the location, artists and times of an event
+ * Relations are read through their getters, so following them fetches anything that has not been fetched yet
+ */
+@UtilityClass
+public class SerializedRelations {
+    /**
+     * The relations that are serialized with each entity class
+     */
+    private static final Map<Class<?>, List<String>> relations = new ConcurrentHashMap<>();
+
+    /**
+     * Gets every entity serialized with the entities, and the entities serialized with those
+     * Each related entity is returned once, in the order it was found
+     *
+     * @param entities the entities
+     * @return the related entities, not including the entities themselves
+     */
+    public static List<BaseEntity> of(final Collection<? extends BaseEntity> entities) {
+        final Set<BaseEntity> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<BaseEntity> related = new ArrayList<>();
+        entities.forEach(entity -> {
+            visited.add(entity);
+            collectRelations(entity, visited, related);
+        });
+        return related;
+    }
+
+    /**
+     * Fetches every relation that is serialized with an entity, so it can be serialized once its session is closed
+     * This must be called while the entity is still attached to a session
+     *
+     * @param entity the entity
+     * @param <E>    the type of entity
+     * @return the entity
+     */
+    public static <E extends BaseEntity> E initialize(final E entity) {
+        Optional.ofNullable(entity).ifPresent(e -> of(Collections.singletonList(e)));
+        return entity;
+    }
+
+    /**
+     * Adds the entities serialized with an entity, and the entities serialized with those
+     *
+     * @param entity  the entity
+     * @param visited the entities found so far
+     * @param related the related entities found so far
+     */
+    private static void collectRelations(final BaseEntity entity,
+                                         final Set<BaseEntity> visited,
+                                         final List<BaseEntity> related) {
+        final BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        relations.computeIfAbsent(entity.getClass(), SerializedRelations::findRelations).stream()
+                .map(wrapper::getPropertyValue)
+                .map(SerializedRelations::unwrap)
+                .filter(Objects::nonNull)
+                .flatMap(value -> value instanceof Collection ? ((Collection<?>) value).stream() : Stream.of(value))
+                .filter(BaseEntity.class::isInstance)
+                .map(BaseEntity.class::cast)
+                .filter(visited::add)
+                .forEach(relation -> {
+                    related.add(relation);
+                    collectRelations(relation, visited, related);
+                });
+    }
+
+    /**
+     * Unwraps the value of a relation, as the getters of to one relations return an optional
+     *
+     * @param value the value returned by the getter
+     * @return the relation, or null when there is none
+     */
+    private static Object unwrap(final Object value) {
+        return value instanceof Optional ? ((Optional<?>) value).orElse(null) : value;
+    }
+
+    /**
+     * Finds the relations of a class and its super classes that are serialized, ie: not back references
+     *
+     * @param clazz the entity class
+     * @return the relation names
+     */
+    private static List<String> findRelations(final Class<?> clazz) {
+        final List<String> names = new ArrayList<>();
+        for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (final Field field : current.getDeclaredFields()) {
+                if (isSerializedRelation(field)) {
+                    names.add(field.getName());
+                }
+            }
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    private static boolean isSerializedRelation(final Field field) {
+        if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())
+                || field.isAnnotationPresent(JsonBackReference.class) || field.isAnnotationPresent(JsonIgnore.class)) {
+            return false;
+        }
+        if (BaseEntity.class.isAssignableFrom(field.getType())) {
+            return true;
+        }
+        return Collection.class.isAssignableFrom(field.getType())
+                && field.getGenericType() instanceof ParameterizedType
+                && Optional.of(((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0])
+                .filter(Class.class::isInstance)
+                .map(Class.class::cast)
+                .map(BaseEntity.class::isAssignableFrom)
+                .orElse(false);
+    }
+}
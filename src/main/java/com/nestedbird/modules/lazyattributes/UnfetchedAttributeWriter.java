@@ -0,0 +1,39 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.lazyattributes;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import org.hibernate.Hibernate;
+
+/**
+ * Writes a lazy attribute only when it has already been fetched
+ * Serializing a list of entities would otherwise fetch the attribute of every entity, one query each
+ */
+class UnfetchedAttributeWriter extends BeanPropertyWriter {
+    UnfetchedAttributeWriter(final BeanPropertyWriter base) {
+        super(base);
+    }
+
+    @Override
+    public void serializeAsField(final Object bean, final JsonGenerator gen, final SerializerProvider prov) throws Exception {
+        if (Hibernate.isPropertyInitialized(bean, getName())) {
+            super.serializeAsField(bean, gen, prov);
+        }
+    }
+}
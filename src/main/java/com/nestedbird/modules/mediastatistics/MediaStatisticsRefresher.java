@@ -0,0 +1,316 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.mediastatistics;
+
+import com.nestedbird.jackson.facebook.*;
+import com.nestedbird.jackson.youtube.YoutubeListResponse;
+import com.nestedbird.jackson.youtube.YoutubeStatistics;
+import com.nestedbird.jackson.youtube.YoutubeVideo;
+import com.nestedbird.models.medium.Medium;
+import com.nestedbird.models.medium.MediumRepository;
+import com.nestedbird.models.medium.MediumService;
+import com.nestedbird.models.medium.MediumSourceStatistics;
+import com.nestedbird.models.medium.MediumType;
+import com.nestedbird.modules.binaryuuid.UUIDStorage;
+import com.nestedbird.modules.facebookreader.FacebookReader;
+import com.nestedbird.modules.scheduling.ClusterSingleton;
+import com.nestedbird.modules.soundcloudreader.SoundcloudReader;
+import com.nestedbird.modules.youtubereader.YoutubeReader;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.search.jpa.FullTextEntityManager;
+import org.hibernate.search.jpa.Search;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Refreshes the playback, comment and favourite counts of media from the sites they were retrieved from
+ *
+ * The counts feed the hot ranking, so the hot store is rebuilt once every medium has been refreshed.
+ * Youtube statistics are requested for a whole page of media at once, soundcloud and facebook have no such
+ * endpoint so their media are requested individually, a few at a time.
+ * Only changed counts are written, as one jdbc batch per page. The batch bypasses hibernate, so it bumps the last
+ * modified date itself and the changed media are reindexed afterwards, otherwise conditional gets and searches
+ * would keep serving the old counts.
+ */
+@Component
+@Slf4j
+public class MediaStatisticsRefresher {
+    /**
+     * How many media are processed at once, youtube allows at most 50 ids per request
+     */
+    private static final int PAGE_SIZE = 50;
+
+    private static final String UPDATE_STATISTICS_SQL = "UPDATE media SET source_playback_count = ?, " +
+            "source_comment_count = ?, source_favourite_count = ?, last_modified_date = ? WHERE id = ?";
+
+    private final MediumRepository mediumRepository;
+
+    private final MediumService mediumService;
+
+    private final YoutubeReader youtubeReader;
+
+    private final SoundcloudReader soundcloudReader;
+
+    private final FacebookReader facebookReader;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ThreadPoolTaskExecutor statisticsExecutor;
+
+    private final UUIDStorage uuidStorage;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Used to reindex the media whose statistics changed
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Instantiates a new Media statistics refresher.
+     *
+     * @param mediumRepository       the medium repository
+     * @param mediumService          the medium service
+     * @param youtubeReader          the youtube reader
+     * @param soundcloudReader       the soundcloud reader
+     * @param facebookReader         the facebook reader
+     * @param jdbcTemplate           the jdbc template
+     * @param entityManagerFactory   the entity manager factory
+     * @param statisticsExecutor     the executor statistics are requested on
+     * @param uuidStorage            how ids are stored
+     * @param transactionManager     the transaction manager
+     */
+    @Autowired
+    public MediaStatisticsRefresher(final MediumRepository mediumRepository,
+                                    final MediumService mediumService,
+                                    final YoutubeReader youtubeReader,
+                                    final SoundcloudReader soundcloudReader,
+                                    final FacebookReader facebookReader,
+                                    final JdbcTemplate jdbcTemplate,
+                                    final EntityManagerFactory entityManagerFactory,
+                                    @Qualifier("statisticsExecutor") final ThreadPoolTaskExecutor statisticsExecutor,
+                                    final UUIDStorage uuidStorage,
+                                    final PlatformTransactionManager transactionManager) {
+        this.mediumRepository = mediumRepository;
+        this.mediumService = mediumService;
+        this.youtubeReader = youtubeReader;
+        this.soundcloudReader = soundcloudReader;
+        this.facebookReader = facebookReader;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.statisticsExecutor = statisticsExecutor;
+        this.uuidStorage = uuidStorage;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Refresh the statistics of every active medium, then rebuild the hot ranking
+     * Only one node refreshes, so each site is asked once per run rather than once per node
+     */
+    @Scheduled(cron = "${external.statistics.cron:0 45 */2 * * *}")
+    @ClusterSingleton
+    public void refresh() {
+        final int updated = refreshYoutube() + refreshIndividually(MediumType.SOUNDCLOUD, this::requestSoundcloud)
+                + refreshIndividually(MediumType.FACEBOOK, this::requestFacebook);
+
+        logger.info("[MediaStatisticsRefresher] [refresh] Updated Statistics Of " + updated + " Media");
+
+        mediumService.updateHotStore();
+    }
+
+    /**
+     * Refresh youtube media, one request per page
+     *
+     * @return the number of media updated
+     */
+    private int refreshYoutube() {
+        final int[] updated = {0};
+
+        forEachPage(MediumType.YOUTUBE, page -> {
+            final Map<String, YoutubeStatistics> statistics = Optional.ofNullable(youtubeReader.requestVideoStatistics(
+                    page.stream().map(MediumSourceStatistics::getSourceId).collect(Collectors.toList())))
+                    .map(YoutubeListResponse::getItems)
+                    .orElse(Collections.emptyList())
+                    .stream()
+                    .filter(video -> video.getStatistics().isPresent())
+                    .collect(Collectors.toMap(YoutubeVideo::getId, video -> video.getStatistics().get(), (first, second) -> first));
+
+            updated[0] += write(page.stream()
+                    .filter(medium -> statistics.containsKey(medium.getSourceId()))
+                    .map(medium -> {
+                        final YoutubeStatistics videoStatistics = statistics.get(medium.getSourceId());
+                        return medium.withCounts(
+                                parseCount(videoStatistics.getViewCount()),
+                                parseCount(videoStatistics.getCommentCount()),
+                                parseCount(videoStatistics.getLikeCount()));
+                    }), page);
+        });
+
+        return updated[0];
+    }
+
+    /**
+     * Refresh media of a type that has to be requested one medium at a time
+     * At most external.statistics.concurrency requests are made at once
+     *
+     * @param type    the type of media
+     * @param request requests the new statistics of one medium, empty if unavailable
+     * @return the number of media updated
+     */
+    private int refreshIndividually(final MediumType type,
+                                    final Function<MediumSourceStatistics, Optional<MediumSourceStatistics>> request) {
+        final int[] updated = {0};
+
+        forEachPage(type, page -> {
+            final List<CompletableFuture<Optional<MediumSourceStatistics>>> requests = page.stream()
+                    .map(medium -> CompletableFuture.supplyAsync(() -> request.apply(medium), statisticsExecutor)
+                            .exceptionally(e -> {
+                                logger.info("[MediaStatisticsRefresher] [refreshIndividually] Failure To Refresh Medium (" + medium.getId() + ")", e);
+                                return Optional.empty();
+                            }))
+                    .collect(Collectors.toList());
+
+            updated[0] += write(requests.stream()
+                    .map(CompletableFuture::join)
+                    .filter(Optional::isPresent)
+                    .map(Optional::get), page);
+        });
+
+        return updated[0];
+    }
+
+    private Optional<MediumSourceStatistics> requestSoundcloud(final MediumSourceStatistics medium) {
+        return Optional.ofNullable(soundcloudReader.refreshSongData(medium.getSourceId()))
+                .map(song -> medium.withCounts(
+                        toCount(song.getPlaybackCount()),
+                        toCount(song.getCommentCount()),
+                        toCount(song.getFavouriteCount())));
+    }
+
+    private Optional<MediumSourceStatistics> requestFacebook(final MediumSourceStatistics medium) {
+        return Optional.ofNullable(facebookReader.refreshVideo(medium.getSourceId()))
+                .map(video -> medium.withCounts(
+                        null,
+                        video.getComments().flatMap(FacebookComments::getSummary).map(FacebookCommentsSummary::getTotalCount).orElse(null),
+                        video.getLikes().flatMap(FacebookLikes::getSummary).map(FacebookLikesSummary::getTotalCount).orElse(null)));
+    }
+
+    /**
+     * Walk every active medium of a type, a page at a time
+     * The first page has no lower bound, there is no id to compare with that is also a valid binary id
+     *
+     * @param type     the type of media
+     * @param consumer consumes each page
+     */
+    private void forEachPage(final MediumType type, final Consumer<List<MediumSourceStatistics>> consumer) {
+        String afterId = null;
+        List<MediumSourceStatistics> page;
+
+        do {
+            page = afterId == null
+                    ? mediumRepository.findSourceStatistics(type, new PageRequest(0, PAGE_SIZE))
+                    : mediumRepository.findSourceStatistics(type, afterId, new PageRequest(0, PAGE_SIZE));
+
+            if (!page.isEmpty()) {
+                consumer.accept(page);
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == PAGE_SIZE);
+    }
+
+    /**
+     * Write the statistics that have changed as one batch, then reindex the media that changed
+     *
+     * @param refreshed the refreshed statistics
+     * @param current   the statistics currently stored
+     * @return the number of media updated
+     */
+    private int write(final Stream<MediumSourceStatistics> refreshed,
+                      final List<MediumSourceStatistics> current) {
+        final Map<String, MediumSourceStatistics> currentById = current.stream()
+                .collect(Collectors.toMap(MediumSourceStatistics::getId, Function.identity()));
+
+        final List<MediumSourceStatistics> changed = refreshed
+                .filter(medium -> medium.countsDiffer(currentById.get(medium.getId())))
+                .collect(Collectors.toList());
+
+        if (!changed.isEmpty()) {
+            final Timestamp modified = new Timestamp(System.currentTimeMillis());
+            jdbcTemplate.batchUpdate(UPDATE_STATISTICS_SQL, changed.stream()
+                    .map(medium -> new Object[]{
+                            medium.getSourcePlaybackCount(),
+                            medium.getSourceCommentCount(),
+                            medium.getSourceFavouriteCount(),
+                            modified,
+                            uuidStorage.toParameter(medium.getId())})
+                    .collect(Collectors.toList()));
+
+            reindex(changed.stream().map(MediumSourceStatistics::getId).collect(Collectors.toList()));
+        }
+
+        return changed.size();
+    }
+
+    /**
+     * Reindex media after their statistics were written around hibernate
+     * They are evicted from the second level cache first so the written counts are the ones loaded and indexed
+     *
+     * @param ids the ids of the media
+     */
+    private void reindex(final List<String> ids) {
+        ids.forEach(id -> entityManagerFactory.getCache().evict(Medium.class, id));
+
+        transactionTemplate.execute(status -> {
+            final FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(entityManager);
+            mediumRepository.findAll(ids).forEach(fullTextEntityManager::index);
+            return null;
+        });
+    }
+
+    private Integer parseCount(final String count) {
+        try {
+            return count != null ? toCount(Long.parseLong(count)) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Integer toCount(final Long count) {
+        return count != null ? (int) Math.min(count, Integer.MAX_VALUE) : null;
+    }
+}
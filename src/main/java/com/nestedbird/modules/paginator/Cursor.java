@@ -0,0 +1,177 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.paginator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Data;
+import org.joda.time.DateTime;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * A Cursor marks a position in a keyset paginated listing.
+ * It holds the property the listing is sorted by, the direction, and the sort value and id of the last element
+ * the client has seen. It is handed to clients as an opaque url safe string.
+ */
+@Data
+public final class Cursor {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final ConversionService conversionService = DefaultConversionService.getSharedInstance();
+
+    /**
+     * Create a cursor pointing at the start of a listing
+     *
+     * @param sortBy    the property the listing is sorted by
+     * @param direction the direction of the sort
+     * @return the cursor
+     */
+    public static Cursor start(final String sortBy, final Sort.Direction direction) {
+        return new Cursor(sortBy, direction, null, null);
+    }
+
+    /**
+     * Reads a cursor from its encoded form
+     *
+     * @param encoded the encoded cursor
+     * @return the cursor
+     */
+    public static Cursor decode(final String encoded) {
+        try {
+            final JsonNode node = objectMapper.readTree(Base64.getUrlDecoder().decode(encoded));
+
+            return new Cursor(
+                    node.get("s").asText(),
+                    Sort.Direction.fromString(node.get("d").asText()),
+                    node.hasNonNull("v") ? node.get("v").asText() : null,
+                    node.hasNonNull("i") ? node.get("i").asText() : null);
+        } catch (IOException | IllegalArgumentException | NullPointerException e) {
+            throw new InvalidCursor("Unable to read cursor", e);
+        }
+    }
+
+    /**
+     * The property the listing is sorted by
+     */
+    private final String sortBy;
+
+    /**
+     * The direction of the sort
+     */
+    private final Sort.Direction direction;
+
+    /**
+     * The sort value of the last element, in string form
+     */
+    private final String value;
+
+    /**
+     * The id of the last element
+     */
+    private final String id;
+
+    /**
+     * Does this cursor point past the start of the listing
+     *
+     * @return boolean
+     */
+    public boolean hasPosition() {
+        return id != null;
+    }
+
+    /**
+     * Create a cursor that points after an element
+     *
+     * @param sortValue the elements sort value
+     * @param elementId the elements id
+     * @return the new cursor
+     */
+    public Cursor after(final Object sortValue, final String elementId) {
+        return new Cursor(sortBy, direction, toCursorValue(sortValue), elementId);
+    }
+
+    /**
+     * Gets the sort value of the last element, as the type of the sorted property
+     *
+     * @param <T>  the type of the sorted property
+     * @param type the type of the sorted property
+     * @return the value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getValue(final Class<T> type) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            if (Date.class.isAssignableFrom(type)) {
+                return (T) new Date(Long.parseLong(value));
+            } else if (DateTime.class.isAssignableFrom(type)) {
+                return (T) new DateTime(Long.parseLong(value));
+            }
+            return conversionService.convert(value, type);
+        } catch (RuntimeException e) {
+            throw new InvalidCursor("Unable to read cursor value", e);
+        }
+    }
+
+    /**
+     * Encodes this cursor into a url safe string
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        final ObjectNode node = objectMapper.createObjectNode();
+        node.put("s", sortBy);
+        node.put("d", direction.name());
+        node.put("v", value);
+        node.put("i", id);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(node.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Converts a sort value into the string form we store in the cursor
+     * Dates are stored as milliseconds so they survive the round trip exactly
+     *
+     * @param sortValue the sort value
+     * @return the string form
+     */
+    private static String toCursorValue(final Object sortValue) {
+        String returnVar = null;
+
+        if (sortValue instanceof Date) {
+            returnVar = String.valueOf(((Date) sortValue).getTime());
+        } else if (sortValue instanceof DateTime) {
+            returnVar = String.valueOf(((DateTime) sortValue).getMillis());
+        } else if (sortValue instanceof Enum) {
+            returnVar = ((Enum) sortValue).name();
+        } else if (sortValue != null) {
+            returnVar = sortValue.toString();
+        }
+
+        return returnVar;
+    }
+}
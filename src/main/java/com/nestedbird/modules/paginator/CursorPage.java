@@ -0,0 +1,55 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.paginator;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A single page of a keyset paginated listing
+ *
+ * @param <T> the type of the elements
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    /**
+     * The elements of this page
+     */
+    private final List<T> content;
+
+    /**
+     * The cursor of the next page, null if this is the last page
+     */
+    private final String nextCursor;
+
+    /**
+     * The total number of elements, only counted when it was asked for
+     */
+    private final Long totalElements;
+
+    /**
+     * Is this the last page
+     *
+     * @return boolean
+     */
+    public boolean isLast() {
+        return nextCursor == null;
+    }
+}
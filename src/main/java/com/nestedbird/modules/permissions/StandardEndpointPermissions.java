@@ -52,6 +52,7 @@ public class StandardEndpointPermissions implements EndpointPermissions {
                 "/api/*/search/",
                 "/api/*/search/*/",
                 "/api/documentation",
+                "/ready",
 
 
                 "/",
@@ -93,7 +94,8 @@ public class StandardEndpointPermissions implements EndpointPermissions {
         return new String[]{
                 "/Records",
                 "/Records/*",
-                "/records/*/*"
+                "/records/*/*",
+                "/api/*/schema"
         };
     }
 
@@ -0,0 +1,156 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.projection;
+
+import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.Entity;
+import javax.persistence.Transient;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Turns the fields a client asks for, ie: fields=id,name,location.name, into a projection
+ * Fields are checked against how jackson serializes the entity for the current view, so selecting fields can never
+ * return anything the full json would leave out
+ */
+@Component
+public class FieldSelection {
+    /**
+     * How many relations deep a field can reach
+     */
+    private static final int MAX_DEPTH = 3;
+
+    /**
+     * The most fields that can be selected at once
+     */
+    private static final int MAX_FIELDS = 30;
+
+    /**
+     * The serialized properties of each class, by their json name
+     */
+    private final Map<Class<?>, Map<String, BeanPropertyDefinition>> properties = new ConcurrentHashMap<>();
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Instantiates a new Field selection.
+     *
+     * @param objectMapper the object mapper responses are serialized with
+     */
+    @Autowired
+    public FieldSelection(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Creates the projection of the fields a client asked for
+     *
+     * @param entityClass the entity class
+     * @param fields      the comma separated fields
+     * @param view        the json view of the response
+     * @return the projection
+     * @throws InvalidProjection when a field does not exist or is not visible
+     */
+    public Projection select(final Class<?> entityClass, final String fields, final Class<?> view) {
+        final List<String> attributes = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .distinct()
+                .map(field -> toAttribute(entityClass, field, view))
+                .collect(Collectors.toList());
+
+        if (attributes.isEmpty() || attributes.size() > MAX_FIELDS) {
+            throw new InvalidProjection("Between 1 and " + MAX_FIELDS + " fields can be selected");
+        }
+
+        return Projection.of(entityClass, attributes);
+    }
+
+    /**
+     * Finds the attribute path of a field, following each relation the field goes through
+     *
+     * @param entityClass the entity class
+     * @param field       the field
+     * @param view        the json view of the response
+     * @return the attribute path
+     */
+    private String toAttribute(final Class<?> entityClass, final String field, final Class<?> view) {
+        final String[] segments = field.split("\\.");
+        if (segments.length > MAX_DEPTH) {
+            throw new InvalidProjection("Field " + field + " is too deep");
+        }
+
+        final List<String> attribute = new ArrayList<>();
+        Class<?> current = entityClass;
+        for (final String segment : segments) {
+            if (!current.isAnnotationPresent(Entity.class)) {
+                throw new InvalidProjection("Unknown field " + field);
+            }
+
+            final BeanPropertyDefinition property = Optional.ofNullable(getProperties(current).get(segment))
+                    .filter(definition -> isVisible(definition, view))
+                    .orElseThrow(() -> new InvalidProjection("Unknown field " + field));
+
+            attribute.add(property.getInternalName());
+            current = elementType(property.getPrimaryType());
+        }
+
+        return String.join(".", attribute);
+    }
+
+    /**
+     * Gets the properties jackson serializes for a class that are also persisted
+     *
+     * @param clazz the class
+     * @return the properties, by json name
+     */
+    private Map<String, BeanPropertyDefinition> getProperties(final Class<?> clazz) {
+        return properties.computeIfAbsent(clazz, key -> objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(key))
+                .findProperties()
+                .stream()
+                .filter(BeanPropertyDefinition::hasField)
+                .filter(definition -> !Modifier.isTransient(definition.getField().getAnnotated().getModifiers()))
+                .filter(definition -> !definition.getField().hasAnnotation(Transient.class))
+                .filter(definition -> !definition.getField().hasAnnotation(JsonBackReference.class))
+                .collect(Collectors.toMap(BeanPropertyDefinition::getName, definition -> definition)));
+    }
+
+    /**
+     * Properties without a view are always serialized, as default view inclusion is enabled
+     *
+     * @param property the property
+     * @param view     the json view of the response
+     * @return is the property serialized in the view
+     */
+    private boolean isVisible(final BeanPropertyDefinition property, final Class<?> view) {
+        final Class<?>[] views = property.findViews();
+        return views == null || Arrays.stream(views).anyMatch(propertyView -> propertyView.isAssignableFrom(view));
+    }
+
+    private Class<?> elementType(final JavaType type) {
+        return type.isContainerType() ? type.getContentType().getRawClass() : type.getRawClass();
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.projection;
+
+import org.springframework.util.ReflectionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.*;
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * A projection of an entity, either a declared view or the fields a client asked for
+ * Only the columns of the view are selected, and each row is returned as nested maps instead of an entity, so
+ * nothing is lazily loaded while the response is serialized
+ */
+public class Projection {
+    /**
+     * The id attribute, which every view includes
+     */
+    private static final String ID = "id";
+
+    /**
+     * The projections of each entity class, by name
+     */
+    private static final Map<Class<?>, Map<String, Projection>> projections = new ConcurrentHashMap<>();
+
+    /**
+     * The class of the entity
+     */
+    private final Class<?> entityClass;
+
+    /**
+     * The attributes selected in the main query, including the attributes of related entities
+     */
+    private final List<String> attributes;
+
+    /**
+     * The attributes of each collection, each collection is fetched with its own query
+     */
+    private final Map<String, List<String>> collections;
+
+    private Projection(final Class<?> entityClass, final List<String> attributes, final Map<String, List<String>> collections) {
+        this.entityClass = entityClass;
+        this.attributes = Collections.unmodifiableList(attributes);
+        this.collections = Collections.unmodifiableMap(collections);
+    }
+
+    /**
+     * Gets the projection view of an entity class
+     *
+     * @param entityClass the entity class
+     * @param name        the name of the view
+     * @return the projection
+     * @throws InvalidProjection when the entity has no such view
+     */
+    public static Projection of(final Class<?> entityClass, final String name) {
+        return Optional.ofNullable(projections.computeIfAbsent(entityClass, Projection::findViews).get(name))
+                .orElseThrow(() -> new InvalidProjection("Unknown view " + name));
+    }
+
+    /**
+     * Creates a projection of a list of attributes, ie: the fields a client asked for
+     *
+     * @param entityClass the entity class
+     * @param attributes  the attribute paths
+     * @return the projection
+     */
+    public static Projection of(final Class<?> entityClass, final List<String> attributes) {
+        final List<String> selected = new ArrayList<>(Collections.singletonList(ID));
+        final Map<String, List<String>> collections = new LinkedHashMap<>();
+
+        for (final String attribute : attributes) {
+            final String first = attribute.split("\\.")[0];
+            if (isCollection(entityClass, first)) {
+                collections.computeIfAbsent(first, key -> new ArrayList<>())
+                        .add(first.equals(attribute) ? ID : attribute.substring(first.length() + 1));
+            } else if (!selected.contains(attribute)) {
+                selected.add(attribute);
+            }
+        }
+
+        return new Projection(entityClass, selected, collections);
+    }
+
+    /**
+     * Creates a projection that also selects an attribute of the entity, ie: the attribute a listing is sorted by
+     *
+     * @param attribute the attribute
+     * @return the projection
+     */
+    public Projection including(final String attribute) {
+        if (attributes.contains(attribute)) {
+            return this;
+        }
+        final List<String> included = new ArrayList<>(attributes);
+        included.add(attribute);
+        return new Projection(entityClass, included, collections);
+    }
+
+    /**
+     * Gets the attributes selected by the main query
+     *
+     * @return the attributes
+     */
+    public List<String> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * Creates the selections of the main query, related entities are left joined
+     *
+     * @param root the query root
+     * @return the selections, in the same order as the attributes
+     */
+    public List<Selection<?>> select(final Root<?> root) {
+        final Map<String, From<?, ?>> joins = new HashMap<>();
+        return attributes.stream()
+                .map(attribute -> path(root, attribute, joins))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Selects the entities with the given ids, keeping the order of the ids
+     *
+     * @param ids           the ids of the entities
+     * @param entityManager the entity manager
+     * @return the entities as nested maps
+     */
+    public List<Map<String, Object>> findAll(final List<?> ids, final EntityManager entityManager) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        final CriteriaQuery<Tuple> query = entityManager.getCriteriaBuilder().createTupleQuery();
+        final Root<?> root = query.from(entityClass);
+        query.multiselect(select(root)).where(root.get(ID).in(ids));
+
+        final Map<Object, Map<String, Object>> results = new HashMap<>();
+        read(entityManager.createQuery(query).getResultList(), entityManager)
+                .forEach(result -> results.put(result.get(ID), result));
+
+        return ids.stream()
+                .map(results::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reads the rows of the main query, then fetches the collections of the view
+     *
+     * @param rows          the rows of the main query
+     * @param entityManager the entity manager
+     * @return the rows as nested maps
+     */
+    public List<Map<String, Object>> read(final List<Tuple> rows, final EntityManager entityManager) {
+        final List<Map<String, Object>> results = rows.stream()
+                .map(row -> nest(attributes, row.toArray()))
+                .collect(Collectors.toList());
+
+        if (!results.isEmpty()) {
+            final List<Object> ids = results.stream()
+                    .map(result -> result.get(ID))
+                    .collect(Collectors.toList());
+
+            collections.forEach((collection, collectionAttributes) -> {
+                final Map<Object, List<Map<String, Object>>> elements =
+                        readCollection(entityManager, ids, collection, collectionAttributes);
+                results.forEach(result -> result.put(collection,
+                        elements.getOrDefault(result.get(ID), new ArrayList<>())));
+            });
+        }
+
+        return results;
+    }
+
+    /**
+     * Fetches the elements of one collection, for every row, in a single query
+     *
+     * @param entityManager the entity manager
+     * @param ids           the ids of the rows
+     * @param collection    the collection
+     * @param attributes    the attributes of the collection elements
+     * @return the elements of each row, by the id of the row
+     */
+    private Map<Object, List<Map<String, Object>>> readCollection(final EntityManager entityManager,
+                                                                  final List<Object> ids,
+                                                                  final String collection,
+                                                                  final List<String> attributes) {
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        final Root<?> root = query.from(entityClass);
+        final Join<?, ?> join = root.join(collection);
+        final Map<String, From<?, ?>> joins = new HashMap<>();
+
+        final List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get(ID));
+        attributes.forEach(attribute -> selections.add(path(join, attribute, joins)));
+        query.multiselect(selections).where(root.get(ID).in(ids));
+
+        final Map<Object, List<Map<String, Object>>> elements = new HashMap<>();
+        entityManager.createQuery(query).getResultList().forEach(row -> {
+            final Object[] values = row.toArray();
+            elements.computeIfAbsent(values[0], id -> new ArrayList<>())
+                    .add(nest(attributes, Arrays.copyOfRange(values, 1, values.length)));
+        });
+        return elements;
+    }
+
+    /**
+     * Turns the paths of a row into nested maps, ie: location.name becomes {location: {name: value}}
+     * Related entities that are missing become null rather than a map of nulls
+     *
+     * @param paths  the attribute paths
+     * @param values the values, in the same order as the paths
+     * @return the nested maps
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> nest(final List<String> paths, final Object[] values) {
+        final Map<String, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i < paths.size(); i++) {
+            final String[] segments = paths.get(i).split("\\.");
+            Map<String, Object> current = result;
+            for (int j = 0; j < segments.length - 1; j++) {
+                current = (Map<String, Object>) current.computeIfAbsent(segments[j], segment -> new LinkedHashMap<>());
+            }
+            current.put(segments[segments.length - 1], values[i]);
+        }
+        removeMissing(result);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean removeMissing(final Map<String, Object> map) {
+        map.replaceAll((key, value) -> value instanceof Map && removeMissing((Map<String, Object>) value) ? null : value);
+        return map.values().stream().allMatch(Objects::isNull);
+    }
+
+    /**
+     * Gets the path of an attribute, joining each related entity once
+     *
+     * @param from      where the path starts
+     * @param attribute the attribute path
+     * @param joins     the joins made so far
+     * @return the path
+     */
+    private static Path<?> path(final From<?, ?> from, final String attribute, final Map<String, From<?, ?>> joins) {
+        final String[] segments = attribute.split("\\.");
+        From<?, ?> current = from;
+        String joined = "";
+        for (int i = 0; i < segments.length - 1; i++) {
+            final From<?, ?> parent = current;
+            final String segment = segments[i];
+            joined += segment + ".";
+            current = joins.computeIfAbsent(joined, key -> parent.join(segment, JoinType.LEFT));
+        }
+        return current.get(segments[segments.length - 1]);
+    }
+
+    /**
+     * Reads the projection views declared on an entity class
+     *
+     * @param entityClass the entity class
+     * @return the projections, by name
+     */
+    private static Map<String, Projection> findViews(final Class<?> entityClass) {
+        final Map<String, Projection> views = new HashMap<>();
+        for (final ProjectionView view : entityClass.getAnnotationsByType(ProjectionView.class)) {
+            views.put(view.name(), of(entityClass, Arrays.asList(view.attributes())));
+        }
+        return views;
+    }
+
+    private static boolean isCollection(final Class<?> entityClass, final String attribute) {
+        return Optional.ofNullable(ReflectionUtils.findField(entityClass, attribute))
+                .map(Field::getType)
+                .map(Collection.class::isAssignableFrom)
+                .orElse(false);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.projection;
+
+import java.lang.annotation.*;
+
+/**
+ * Declares a named view of an entity, which lists only the attributes it needs
+ * Attributes of related entities are written as paths, ie: location.name
+ * Attributes of collections are fetched with a single extra query per collection, ie: artists.name
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(ProjectionViews.class)
+public @interface ProjectionView {
+    /**
+     * The name of the view, as requested with the view parameter
+     *
+     * @return the name
+     */
+    String name();
+
+    /**
+     * The attributes included in the view, the id is always included
+     *
+     * @return the attribute paths
+     */
+    String[] attributes();
+}
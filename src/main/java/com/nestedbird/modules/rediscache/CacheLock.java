@@ -0,0 +1,138 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.rediscache;
+
+import lombok.Value;
+import org.hibernate.cache.spi.access.SoftLock;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Stored in place of an entry while a transaction is changing it.
+ * Once released the lock remains, recording when the change was committed, so a node that read the database before
+ * the commit can not cache what it read. Transactions that change the entry at the same time share one lock, it is
+ * released when the last of them completes.
+ */
+@Value
+class CacheLock implements SoftLock, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Identifies the transaction that took the lock
+     */
+    private final String id;
+
+    /**
+     * When the lock stops being held, even if it was never released
+     */
+    private final long expiresAt;
+
+    /**
+     * When the lock was released, zero while it is held
+     */
+    private final long releasedAt;
+
+    /**
+     * How many transactions hold the lock
+     */
+    private final int holders;
+
+    /**
+     * Takes a new lock
+     *
+     * @param now     the current timestamp
+     * @param timeout how long the lock is held for if it is never released
+     * @return the lock
+     */
+    static CacheLock acquire(final long now, final long timeout) {
+        return new CacheLock(UUID.randomUUID().toString(), now + timeout, 0, 1);
+    }
+
+    /**
+     * Another transaction takes the lock while it is held
+     *
+     * @param now     the current timestamp
+     * @param timeout how long the lock is held for if it is never released
+     * @return the lock, held by one more transaction
+     */
+    CacheLock join(final long now, final long timeout) {
+        return new CacheLock(id, Math.max(expiresAt, now + timeout), 0, holders + 1);
+    }
+
+    /**
+     * A transaction holding the lock completes, the lock is released once no transaction holds it
+     *
+     * @param now the current timestamp
+     * @return the lock, held by one less transaction
+     */
+    CacheLock leave(final long now) {
+        return holders > 1 && isHeld(now) ? new CacheLock(id, expiresAt, 0, holders - 1) : release(now);
+    }
+
+    /**
+     * Releases the lock
+     *
+     * @param now the current timestamp
+     * @return the released lock
+     */
+    CacheLock release(final long now) {
+        return new CacheLock(id, expiresAt, now, 0);
+    }
+
+    /**
+     * Is the lock still held
+     *
+     * @param now the current timestamp
+     * @return whether it is held
+     */
+    boolean isHeld(final long now) {
+        return releasedAt == 0 && now < expiresAt;
+    }
+
+    /**
+     * Is this the same lock as another lock
+     *
+     * @param lock the other lock
+     * @return whether they are the same lock
+     */
+    boolean isSameLock(final SoftLock lock) {
+        return lock instanceof CacheLock && id.equals(((CacheLock) lock).getId());
+    }
+
+    /**
+     * Can a value read by a transaction replace this lock
+     * Only transactions that began after the lock was released could have read the committed value
+     *
+     * @param txTimestamp when the transaction that read the value began
+     * @param now         the current timestamp
+     * @return whether the value can be cached
+     */
+    boolean isReplaceableBy(final long txTimestamp, final long now) {
+        return !isHeld(now) && txTimestamp > (releasedAt != 0 ? releasedAt : expiresAt);
+    }
+
+    /**
+     * When the lock can be removed, by then no transaction that began before it was released should still be loading
+     *
+     * @param timeout how long locks are kept for
+     * @return the timestamp
+     */
+    long evictableAt(final long timeout) {
+        return (releasedAt != 0 ? releasedAt : expiresAt) + timeout;
+    }
+}
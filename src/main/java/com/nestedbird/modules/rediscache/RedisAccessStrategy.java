@@ -0,0 +1,217 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.rediscache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.access.RegionAccessStrategy;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * Reads and writes entries the way hibernate's read-write strategy does, with the locks stored in redis so they hold
+ * across every node.
+ * A change replaces the entry with a lock before it is written to the database, and the lock is released once the
+ * transaction completes. Values are only cached over a released lock by transactions that began after the release.
+ * Every access type is handled this way, since a nonstrict strategy leaves a window in which another node caches the
+ * value that is being replaced.
+ * Every change to an entry is a compare and set against what was read, so a node can never write over a lock it has
+ * not seen.
+ */
+@Slf4j
+abstract class RedisAccessStrategy implements RegionAccessStrategy {
+    /**
+     * How many times a lock is retried when other nodes keep changing the entry
+     */
+    private static final int MAX_ATTEMPTS = 10;
+
+    private final RedisTransactionalRegion region;
+
+    /**
+     * Instantiates a new Redis access strategy.
+     *
+     * @param region the region
+     */
+    RedisAccessStrategy(final RedisTransactionalRegion region) {
+        this.region = region;
+    }
+
+    @Override
+    public Object get(final SharedSessionContractImplementor session,
+                      final Object key,
+                      final long txTimestamp) throws CacheException {
+        final Object entry = region.read(key);
+        return entry instanceof CacheItem ? ((CacheItem) entry).getValue() : null;
+    }
+
+    @Override
+    public boolean putFromLoad(final SharedSessionContractImplementor session,
+                               final Object key,
+                               final Object value,
+                               final long txTimestamp,
+                               final Object version) throws CacheException {
+        return putFromLoad(session, key, value, txTimestamp, version, false);
+    }
+
+    @Override
+    public boolean putFromLoad(final SharedSessionContractImplementor session,
+                               final Object key,
+                               final Object value,
+                               final long txTimestamp,
+                               final Object version,
+                               final boolean minimalPutOverride) throws CacheException {
+        final Object entry = region.read(key);
+
+        if (entry == null) {
+            return region.writeIfAbsent(key, new CacheItem(value));
+        }
+        if (entry instanceof CacheLock && ((CacheLock) entry).isReplaceableBy(txTimestamp, region.nextTimestamp())) {
+            return region.replace(key, entry, new CacheItem(value));
+        }
+        return false;
+    }
+
+    @Override
+    public SoftLock lockItem(final SharedSessionContractImplementor session,
+                             final Object key,
+                             final Object version) throws CacheException {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            final long now = region.nextTimestamp();
+            final Object entry = region.read(key);
+            final CacheLock lock = entry instanceof CacheLock && ((CacheLock) entry).isHeld(now)
+                    ? ((CacheLock) entry).join(now, region.getTimeout())
+                    : CacheLock.acquire(now, region.getTimeout());
+
+            if (compareAndSet(key, entry, lock)) {
+                return lock;
+            }
+        }
+
+        // Overwriting is still safe, the value is not cached again until this lock is released
+        logger.info("[RedisAccessStrategy] [lockItem] Unable To Lock Entry In Region " + region.getName() + ", Overwriting It");
+        final CacheLock lock = CacheLock.acquire(region.nextTimestamp(), region.getTimeout());
+        region.write(key, lock);
+        region.expireLock(key, lock);
+        return lock;
+    }
+
+    @Override
+    public SoftLock lockRegion() throws CacheException {
+        region.removeAll();
+        return null;
+    }
+
+    @Override
+    public void unlockItem(final SharedSessionContractImplementor session,
+                           final Object key,
+                           final SoftLock lock) throws CacheException {
+        release(key, lock);
+    }
+
+    @Override
+    public void unlockRegion(final SoftLock lock) throws CacheException {
+        region.removeAll();
+    }
+
+    @Override
+    public void remove(final SharedSessionContractImplementor session, final Object key) throws CacheException {
+        // A lock is left in place, it is released when the transaction completes
+        final Object entry = region.read(key);
+        if (entry != null && !(entry instanceof CacheLock)) {
+            region.remove(key, entry);
+        }
+    }
+
+    @Override
+    public void removeAll() throws CacheException {
+        region.removeAll();
+    }
+
+    @Override
+    public void evict(final Object key) throws CacheException {
+        region.remove(key);
+    }
+
+    @Override
+    public void evictAll() throws CacheException {
+        region.removeAll();
+    }
+
+    /**
+     * Releases the lock taken on an entry
+     * If other transactions share the lock it stays held until they complete too. If another transaction has since
+     * locked the entry it is left alone, that transaction releases it when it completes. If the lock is gone, a
+     * released lock is written anyway, recording when this change was committed.
+     *
+     * @param key  the key
+     * @param lock the lock that was taken
+     */
+    void release(final Object key, final SoftLock lock) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            final long now = region.nextTimestamp();
+            final Object entry = region.read(key);
+            final CacheLock released;
+
+            if (entry instanceof CacheLock && ((CacheLock) entry).isSameLock(lock)) {
+                released = ((CacheLock) entry).leave(now);
+            } else if (entry instanceof CacheLock && ((CacheLock) entry).isHeld(now)) {
+                return;
+            } else {
+                released = CacheLock.acquire(now, region.getTimeout()).release(now);
+            }
+
+            if (compareAndSet(key, entry, released)) {
+                region.evictExpiredLocks(now);
+                return;
+            }
+        }
+
+        // Writing a released lock is the conservative choice, it stops anything read before now from being cached
+        logger.info("[RedisAccessStrategy] [release] Unable To Release Entry In Region " + region.getName() + ", Overwriting It");
+        final long now = region.nextTimestamp();
+        final CacheLock released = CacheLock.acquire(now, region.getTimeout()).release(now);
+        region.write(key, released);
+        region.expireLock(key, released);
+    }
+
+    /**
+     * Replaces an entry with a lock, only if the entry has not changed since it was read
+     *
+     * @param key   the key
+     * @param entry the entry that was read, null if nothing was cached
+     * @param lock  the lock
+     * @return whether the lock was written
+     */
+    private boolean compareAndSet(final Object key, final Object entry, final CacheLock lock) {
+        final boolean written = entry == null ? region.writeIfAbsent(key, lock) : region.replace(key, entry, lock);
+        if (written) {
+            region.expireLock(key, lock);
+        }
+        return written;
+    }
+
+    /**
+     * Caches a value that was just inserted, nothing can have been cached for it before
+     *
+     * @param key   the key
+     * @param value the value
+     * @return whether the value was cached
+     */
+    boolean putInserted(final Object key, final Object value) {
+        return region.writeIfAbsent(key, new CacheItem(value));
+    }
+}
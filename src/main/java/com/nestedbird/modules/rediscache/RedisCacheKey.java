@@ -0,0 +1,44 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.rediscache;
+
+import lombok.Value;
+
+import java.io.Serializable;
+
+/**
+ * Identifies an entity or collection within a region
+ */
+@Value
+class RedisCacheKey implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The entity name or collection role
+     */
+    private final String role;
+
+    /**
+     * The id of the entity or of the collection's owner
+     */
+    private final Object id;
+
+    /**
+     * The tenant, null when multi tenancy is not used
+     */
+    private final String tenantIdentifier;
+}
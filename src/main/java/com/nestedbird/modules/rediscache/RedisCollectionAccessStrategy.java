@@ -0,0 +1,57 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.rediscache;
+
+import org.hibernate.cache.spi.CollectionRegion;
+import org.hibernate.cache.spi.access.CollectionRegionAccessStrategy;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+
+/**
+ * Access strategy for collection regions
+ */
+class RedisCollectionAccessStrategy extends RedisAccessStrategy implements CollectionRegionAccessStrategy {
+    private final RedisCollectionRegion region;
+
+    /**
+     * Instantiates a new Redis collection access strategy.
+     *
+     * @param region the region
+     */
+    RedisCollectionAccessStrategy(final RedisCollectionRegion region) {
+        super(region);
+        this.region = region;
+    }
+
+    @Override
+    public Object generateCacheKey(final Object id,
+                                   final CollectionPersister persister,
+                                   final SessionFactoryImplementor factory,
+                                   final String tenantIdentifier) {
+        return new RedisCacheKey(persister.getRole(), id, tenantIdentifier);
+    }
+
+    @Override
+    public Object getCacheKeyId(final Object cacheKey) {
+        return ((RedisCacheKey) cacheKey).getId();
+    }
+
+    @Override
+    public CollectionRegion getRegion() {
+        return region;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.rediscache;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.CacheDataDescription;
+import org.hibernate.cache.spi.CollectionRegion;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cache.spi.access.CollectionRegionAccessStrategy;
+import org.redisson.api.RMap;
+import org.redisson.api.RScoredSortedSet;
+
+/**
+ * A region holding the ids of the elements of a collection
+ */
+class RedisCollectionRegion extends RedisTransactionalRegion implements CollectionRegion {
+    /**
+     * Instantiates a new Redis collection region.
+     *
+     * @param name       the region name
+     * @param map        the redis map holding the entries
+     * @param lockExpiry the sorted set recording when each lock can be removed
+     * @param metadata   the description of the cached data
+     */
+    RedisCollectionRegion(final String name,
+                          final RMap<Object, Object> map,
+                          final RScoredSortedSet<Object> lockExpiry,
+                          final CacheDataDescription metadata) {
+        super(name, map, lockExpiry, metadata);
+    }
+
+    @Override
+    public CollectionRegionAccessStrategy buildAccessStrategy(final AccessType accessType) throws CacheException {
+        if (accessType == AccessType.TRANSACTIONAL) {
+            throw new CacheException("Transactional caching is not supported, unable to cache " + getName());
+        }
+        return new RedisCollectionAccessStrategy(this);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.rediscache;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.EntityRegion;
+import org.hibernate.cache.spi.access.EntityRegionAccessStrategy;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Access strategy for entity regions
+ */
+class RedisEntityAccessStrategy extends RedisAccessStrategy implements EntityRegionAccessStrategy {
+    private final RedisEntityRegion region;
+
+    /**
+     * Instantiates a new Redis entity access strategy.
+     *
+     * @param region the region
+     */
+    RedisEntityAccessStrategy(final RedisEntityRegion region) {
+        super(region);
+        this.region = region;
+    }
+
+    @Override
+    public Object generateCacheKey(final Object id,
+                                   final EntityPersister persister,
+                                   final SessionFactoryImplementor factory,
+                                   final String tenantIdentifier) {
+        return new RedisCacheKey(persister.getRootEntityName(), id, tenantIdentifier);
+    }
+
+    @Override
+    public Object getCacheKeyId(final Object cacheKey) {
+        return ((RedisCacheKey) cacheKey).getId();
+    }
+
+    @Override
+    public EntityRegion getRegion() {
+        return region;
+    }
+
+    @Override
+    public boolean insert(final SharedSessionContractImplementor session,
+                          final Object key,
+                          final Object value,
+                          final Object version) throws CacheException {
+        // Cached once the transaction has committed
+        return false;
+    }
+
+    @Override
+    public boolean afterInsert(final SharedSessionContractImplementor session,
+                               final Object key,
+                               final Object value,
+                               final Object version) throws CacheException {
+        return putInserted(key, value);
+    }
+
+    @Override
+    public boolean update(final SharedSessionContractImplementor session,
+                          final Object key,
+                          final Object value,
+                          final Object currentVersion,
+                          final Object previousVersion) throws CacheException {
+        // The entry is locked until the transaction completes
+        return false;
+    }
+
+    @Override
+    public boolean afterUpdate(final SharedSessionContractImplementor session,
+                               final Object key,
+                               final Object value,
+                               final Object currentVersion,
+                               final Object previousVersion,
+                               final SoftLock lock) throws CacheException {
+        // The new value is cached by the next transaction to load it, another node may have changed it since
+        release(key, lock);
+        return false;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.rediscache;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.cache.spi.TimestampsRegion;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.redisson.api.RMap;
+
+/**
+ * A region holding query results or the time each table was last written to.
+ * Hibernate validates query results against the timestamps itself, so entries are simply read and written.
+ */
+class RedisGeneralDataRegion extends RedisRegion implements QueryResultsRegion, TimestampsRegion {
+    /**
+     * Instantiates a new Redis general data region.
+     *
+     * @param name the region name
+     * @param map  the redis map holding the entries
+     */
+    RedisGeneralDataRegion(final String name, final RMap<Object, Object> map) {
+        super(name, map);
+    }
+
+    @Override
+    public Object get(final SharedSessionContractImplementor session, final Object key) throws CacheException {
+        return read(key);
+    }
+
+    @Override
+    public void put(final SharedSessionContractImplementor session,
+                    final Object key,
+                    final Object value) throws CacheException {
+        write(key, value);
+    }
+
+    @Override
+    public void evict(final Object key) throws CacheException {
+        remove(key);
+    }
+
+    @Override
+    public void evictAll() throws CacheException {
+        removeAll();
+    }
+}
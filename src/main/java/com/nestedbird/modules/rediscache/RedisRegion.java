@@ -0,0 +1,201 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.rediscache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.Region;
+import org.redisson.api.RMap;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A cache region stored in a redis map.
+ * Redis being unavailable is treated as a cache miss, the database remains the source of truth.
+ */
+@Slf4j
+abstract class RedisRegion implements Region {
+    private final String name;
+
+    private final RMap<Object, Object> map;
+
+    /**
+     * Instantiates a new Redis region.
+     *
+     * @param name the region name
+     * @param map  the redis map holding the entries
+     */
+    RedisRegion(final String name, final RMap<Object, Object> map) {
+        this.name = name;
+        this.map = map;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void destroy() throws CacheException {
+        // The entries are shared with the other nodes, so they outlive this session factory
+    }
+
+    @Override
+    public boolean contains(final Object key) {
+        return read(key) != null;
+    }
+
+    @Override
+    public long getSizeInMemory() {
+        return -1;
+    }
+
+    @Override
+    public long getElementCountInMemory() {
+        return -1;
+    }
+
+    @Override
+    public long getElementCountOnDisk() {
+        return -1;
+    }
+
+    @Override
+    public Map toMap() {
+        try {
+            return new HashMap<>(map);
+        } catch (RuntimeException e) {
+            logger.info("[RedisRegion] [toMap] Unable To Read Region " + name, e);
+            return Collections.emptyMap();
+        }
+    }
+
+    @Override
+    public long nextTimestamp() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public int getTimeout() {
+        return RedisRegionFactory.LOCK_TIMEOUT;
+    }
+
+    /**
+     * Reads an entry
+     *
+     * @param key the key
+     * @return the entry, or null if it is not cached
+     */
+    Object read(final Object key) {
+        try {
+            return map.get(key);
+        } catch (RuntimeException e) {
+            logger.info("[RedisRegion] [read] Unable To Read From Region " + name, e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes an entry, replacing any entry with the same key
+     *
+     * @param key   the key
+     * @param entry the entry
+     */
+    void write(final Object key, final Object entry) {
+        try {
+            map.fastPut(key, entry);
+        } catch (RuntimeException e) {
+            logger.info("[RedisRegion] [write] Unable To Write To Region " + name, e);
+        }
+    }
+
+    /**
+     * Writes an entry if nothing is cached under its key
+     *
+     * @param key   the key
+     * @param entry the entry
+     * @return whether the entry was written
+     */
+    boolean writeIfAbsent(final Object key, final Object entry) {
+        try {
+            return map.fastPutIfAbsent(key, entry);
+        } catch (RuntimeException e) {
+            logger.info("[RedisRegion] [writeIfAbsent] Unable To Write To Region " + name, e);
+            return false;
+        }
+    }
+
+    /**
+     * Replaces an entry, only if it has not changed since it was read
+     * The comparison is made by redis, so it holds across every node
+     *
+     * @param key      the key
+     * @param expected the entry that was read
+     * @param entry    the new entry
+     * @return whether the entry was replaced
+     */
+    boolean replace(final Object key, final Object expected, final Object entry) {
+        try {
+            return map.replace(key, expected, entry);
+        } catch (RuntimeException e) {
+            logger.info("[RedisRegion] [replace] Unable To Write To Region " + name, e);
+            return false;
+        }
+    }
+
+    /**
+     * Removes an entry, only if it has not changed since it was read
+     *
+     * @param key      the key
+     * @param expected the entry that was read
+     * @return whether the entry was removed
+     */
+    boolean remove(final Object key, final Object expected) {
+        try {
+            return map.remove(key, expected);
+        } catch (RuntimeException e) {
+            logger.info("[RedisRegion] [remove] Unable To Remove From Region " + name, e);
+            return false;
+        }
+    }
+
+    /**
+     * Removes an entry
+     *
+     * @param key the key
+     */
+    void remove(final Object key) {
+        try {
+            map.fastRemove(key);
+        } catch (RuntimeException e) {
+            logger.info("[RedisRegion] [remove] Unable To Remove From Region " + name, e);
+        }
+    }
+
+    /**
+     * Removes every entry
+     */
+    void removeAll() {
+        try {
+            map.delete();
+        } catch (RuntimeException e) {
+            logger.info("[RedisRegion] [removeAll] Unable To Clear Region " + name, e);
+        }
+    }
+}
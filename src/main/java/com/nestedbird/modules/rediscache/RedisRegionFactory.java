@@ -0,0 +1,142 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.rediscache;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.*;
+import org.hibernate.cache.spi.access.AccessType;
+import org.redisson.api.LocalCachedMapOptions;
+import org.redisson.api.RMap;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RedissonClient;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second level cache shared by every node through redis.
+ * Entity, collection and query regions keep a near cache on each node, redis publishes an invalidation to the other
+ * nodes whenever an entry changes. Near cached entries also expire, so an invalidation that never arrives can only
+ * leave an entry stale for a short while. Timestamps are always read from redis, so a query result cached on one node is
+ * never served after another node has written to one of its tables.
+ * Entries are encoded with the codec the redisson client is configured with.
+ */
+public class RedisRegionFactory implements RegionFactory {
+    /**
+     * How long in milliseconds an entry stays locked when the transaction that locked it never releases it
+     */
+    static final int LOCK_TIMEOUT = 60000;
+
+    private final transient RedissonClient redissonClient;
+
+    /**
+     * How many entries each region keeps in its near cache
+     */
+    private final int nearCacheSize;
+
+    /**
+     * How long in milliseconds an entry is kept in a near cache
+     */
+    private final long nearCacheTimeToLive;
+
+    /**
+     * Instantiates a new Redis region factory.
+     *
+     * @param redissonClient      the redisson client
+     * @param nearCacheSize       how many entries each region keeps in its near cache
+     * @param nearCacheTimeToLive how long in milliseconds an entry is kept in a near cache
+     */
+    public RedisRegionFactory(final RedissonClient redissonClient, final int nearCacheSize, final long nearCacheTimeToLive) {
+        this.redissonClient = redissonClient;
+        this.nearCacheSize = nearCacheSize;
+        this.nearCacheTimeToLive = nearCacheTimeToLive;
+    }
+
+    @Override
+    public void start(final SessionFactoryOptions settings, final Properties properties) throws CacheException {
+        // The redisson client is owned by spring, so there is nothing to start or stop
+    }
+
+    @Override
+    public void stop() {
+    }
+
+    @Override
+    public boolean isMinimalPutsEnabledByDefault() {
+        // Every put is a round trip to redis, so we avoid putting what is already cached
+        return true;
+    }
+
+    @Override
+    public AccessType getDefaultAccessType() {
+        return AccessType.READ_WRITE;
+    }
+
+    @Override
+    public long nextTimestamp() {
+        // Timestamps are compared between nodes, so they have to come from the clock rather than a counter
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public EntityRegion buildEntityRegion(final String regionName,
+                                          final Properties properties,
+                                          final CacheDataDescription metadata) throws CacheException {
+        return new RedisEntityRegion(regionName, nearCachedMap(regionName), lockExpiry(regionName), metadata);
+    }
+
+    @Override
+    public NaturalIdRegion buildNaturalIdRegion(final String regionName,
+                                                final Properties properties,
+                                                final CacheDataDescription metadata) throws CacheException {
+        throw new CacheException("Natural id caching is not supported, unable to build region " + regionName);
+    }
+
+    @Override
+    public CollectionRegion buildCollectionRegion(final String regionName,
+                                                  final Properties properties,
+                                                  final CacheDataDescription metadata) throws CacheException {
+        return new RedisCollectionRegion(regionName, nearCachedMap(regionName), lockExpiry(regionName), metadata);
+    }
+
+    @Override
+    public QueryResultsRegion buildQueryResultsRegion(final String regionName,
+                                                      final Properties properties) throws CacheException {
+        return new RedisGeneralDataRegion(regionName, nearCachedMap(regionName));
+    }
+
+    @Override
+    public TimestampsRegion buildTimestampsRegion(final String regionName,
+                                                  final Properties properties) throws CacheException {
+        // A near cache could hold a timestamp that another node has already moved on, which would make stale
+        // query results look valid
+        return new RedisGeneralDataRegion(regionName, redissonClient.getMap(regionName));
+    }
+
+    private RMap<Object, Object> nearCachedMap(final String regionName) {
+        return redissonClient.getLocalCachedMap(regionName, LocalCachedMapOptions.defaults()
+                .cacheSize(nearCacheSize)
+                .evictionPolicy(LocalCachedMapOptions.EvictionPolicy.LRU)
+                .invalidateEntryOnChange(true)
+                .timeToLive(nearCacheTimeToLive, TimeUnit.MILLISECONDS));
+    }
+
+    private RScoredSortedSet<Object> lockExpiry(final String regionName) {
+        return redissonClient.getScoredSortedSet(regionName + ":locks");
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.rediscache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.spi.CacheDataDescription;
+import org.hibernate.cache.spi.TransactionalDataRegion;
+import org.redisson.api.RMap;
+import org.redisson.api.RScoredSortedSet;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A region holding entities or collections, these are written through an access strategy
+ * Locks are stored alongside the entries, a sorted set records when each can be removed so locks left behind by
+ * deleted entries or abandoned transactions do not stay in redis forever.
+ */
+@Slf4j
+abstract class RedisTransactionalRegion extends RedisRegion implements TransactionalDataRegion {
+    private final CacheDataDescription metadata;
+
+    /**
+     * The key of every lock, scored by when it can be removed
+     */
+    private final RScoredSortedSet<Object> lockExpiry;
+
+    /**
+     * When this node next looks for locks to remove
+     */
+    private final AtomicLong nextEviction = new AtomicLong();
+
+    /**
+     * Instantiates a new Redis transactional region.
+     *
+     * @param name       the region name
+     * @param map        the redis map holding the entries
+     * @param lockExpiry the sorted set recording when each lock can be removed
+     * @param metadata   the description of the cached data
+     */
+    RedisTransactionalRegion(final String name,
+                             final RMap<Object, Object> map,
+                             final RScoredSortedSet<Object> lockExpiry,
+                             final CacheDataDescription metadata) {
+        super(name, map);
+        this.lockExpiry = lockExpiry;
+        this.metadata = metadata;
+    }
+
+    @Override
+    public boolean isTransactionAware() {
+        return false;
+    }
+
+    @Override
+    public CacheDataDescription getCacheDataDescription() {
+        return metadata;
+    }
+
+    /**
+     * Records when a lock can be removed, replacing any time recorded for an earlier lock on the same entry
+     *
+     * @param key  the key
+     * @param lock the lock
+     */
+    void expireLock(final Object key, final CacheLock lock) {
+        try {
+            lockExpiry.add(lock.evictableAt(getTimeout()), key);
+        } catch (RuntimeException e) {
+            logger.info("[RedisTransactionalRegion] [expireLock] Unable To Write To Region " + getName(), e);
+        }
+    }
+
+    /**
+     * Removes the locks that have expired, at most once per lock timeout on each node
+     * A lock is only removed if it has not been replaced since it was read, an entry that has been locked again has
+     * also been given a later expiry
+     *
+     * @param now the current timestamp
+     */
+    void evictExpiredLocks(final long now) {
+        final long next = nextEviction.get();
+        if (now < next || !nextEviction.compareAndSet(next, now + getTimeout())) {
+            return;
+        }
+
+        try {
+            lockExpiry.valueRange(0, true, now, true).forEach(key -> {
+                final Object entry = read(key);
+                if (!(entry instanceof CacheLock)) {
+                    lockExpiry.remove(key);
+                } else if (((CacheLock) entry).evictableAt(getTimeout()) <= now && remove(key, entry)) {
+                    lockExpiry.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.info("[RedisTransactionalRegion] [evictExpiredLocks] Unable To Evict Locks From Region " + getName(), e);
+        }
+    }
+
+    @Override
+    void removeAll() {
+        super.removeAll();
+        try {
+            lockExpiry.delete();
+        } catch (RuntimeException e) {
+            logger.info("[RedisTransactionalRegion] [removeAll] Unable To Clear Region " + getName(), e);
+        }
+    }
+}
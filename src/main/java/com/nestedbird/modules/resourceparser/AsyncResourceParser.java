@@ -0,0 +1,135 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.resourceparser;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Parses external resources off the servlet thread
+ *
+ * Parsing happens on the bounded resource parser executor, and the request is released until the result is ready.
+ * When the executor is full, or the result takes longer than the async request timeout, the request fails with
+ * ResourceParseUnavailable instead of waiting.
+ * Concurrent requests for the same url share a single parse.
+ */
+@Component
+@Slf4j
+public class AsyncResourceParser {
+    private final ThreadPoolTaskExecutor resourceParserExecutor;
+
+    /**
+     * Parses currently running, by namespace and url
+     */
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Async resource parser.
+     *
+     * @param resourceParserExecutor the resource parser executor
+     */
+    @Autowired
+    public AsyncResourceParser(@Qualifier("resourceParserExecutor") final ThreadPoolTaskExecutor resourceParserExecutor) {
+        this.resourceParserExecutor = resourceParserExecutor;
+    }
+
+    /**
+     * Parse a url asynchronously
+     *
+     * @param namespace what kind of resource is being parsed, urls are only shared within a namespace
+     * @param url       the url
+     * @param parser    parses the url into a resource
+     * @param <T>       the type of resource
+     * @return the deferred resource
+     */
+    public <T> DeferredResult<T> parse(final String namespace, final String url, final Function<String, T> parser) {
+        final DeferredResult<T> result = new DeferredResult<>();
+        result.onTimeout(() -> result.setErrorResult(new ResourceParseUnavailable("Timed out parsing " + url)));
+
+        final String key = namespace + ":" + url.trim();
+        final CompletableFuture<Object> future = inFlight.computeIfAbsent(key, k -> submit(url, parser));
+
+        future.whenComplete((value, error) -> {
+            inFlight.remove(key, future);
+
+            if (error != null) {
+                result.setErrorResult(unwrap(error));
+            } else {
+                @SuppressWarnings("unchecked") final T resource = (T) value;
+                result.setResult(resource);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Create a result that is already complete with no resource, for requests that cannot be parsed
+     *
+     * @param <T> the type of resource
+     * @return the empty result
+     */
+    public <T> DeferredResult<T> empty() {
+        final DeferredResult<T> result = new DeferredResult<>();
+        result.setResult(null);
+        return result;
+    }
+
+    /**
+     * Submit a parse to the executor, carrying over the security context so the result is audited correctly
+     *
+     * @param url    the url
+     * @param parser parses the url into a resource
+     * @return the future resource
+     */
+    private CompletableFuture<Object> submit(final String url, final Function<String, ?> parser) {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        try {
+            new DelegatingSecurityContextExecutor(resourceParserExecutor, SecurityContextHolder.getContext())
+                    .execute(() -> {
+                        try {
+                            future.complete(parser.apply(url));
+                        } catch (RuntimeException e) {
+                            logger.info("[AsyncResourceParser] [submit] Failure To Parse Resource (" + url + ")", e);
+                            future.completeExceptionally(e);
+                        }
+                    });
+        } catch (TaskRejectedException e) {
+            future.completeExceptionally(new ResourceParseUnavailable("Too many resources are being parsed", e));
+        }
+
+        return future;
+    }
+
+    private Throwable unwrap(final Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.resourceparser;
+
+import com.google.common.collect.Lists;
+import com.nestedbird.jackson.facebook.FacebookEvent;
+import com.nestedbird.jackson.facebook.FacebookPlace;
+import com.nestedbird.models.core.Audited.AuditedEntity;
+import com.nestedbird.models.event.Event;
+import com.nestedbird.models.event.EventRepository;
+import com.nestedbird.models.location.Location;
+import com.nestedbird.models.location.LocationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.FlushModeType;
+import javax.persistence.PersistenceContext;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Persists the results of a facebook scan in bulk
+ *
+ * Events are written in chunks, each chunk being a single transaction. Existing events and locations for the whole
+ * chunk are resolved with one query each, new rows are persisted without intermediate flushes so hibernate can batch
+ * the inserts, and the lucene index work for the chunk is applied once when the transaction commits.
+ */
+@Component
+@Slf4j
+public class EventBatchParser {
+    /**
+     * How many events are written per transaction
+     */
+    private static final int CHUNK_SIZE = 50;
+
+    private final EventParser eventParser;
+
+    private final EventRepository eventRepository;
+
+    private final LocationRepository locationRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Instantiates a new Event batch parser.
+     *
+     * @param eventParser        the event parser
+     * @param eventRepository    the event repository
+     * @param locationRepository the location repository
+     * @param transactionManager the transaction manager
+     */
+    @Autowired
+    public EventBatchParser(final EventParser eventParser,
+                            final EventRepository eventRepository,
+                            final LocationRepository locationRepository,
+                            final PlatformTransactionManager transactionManager) {
+        this.eventParser = eventParser;
+        this.eventRepository = eventRepository;
+        this.locationRepository = locationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Parse and persist a list of facebook events
+     *
+     * @param facebookEvents the facebook events
+     * @return the number of events written
+     */
+    public int parse(final List<FacebookEvent> facebookEvents) {
+        final List<FacebookEvent> uniqueEvents = new ArrayList<>(facebookEvents.stream()
+                .filter(Objects::nonNull)
+                .filter(fbEvent -> fbEvent.getId() != null)
+                .filter(eventParser::filterOutNonJerseyPlaces)
+                .collect(Collectors.toMap(FacebookEvent::getId, Function.identity(), (first, second) -> second, LinkedHashMap::new))
+                .values());
+
+        return Lists.partition(uniqueEvents, CHUNK_SIZE).stream()
+                .mapToInt(this::persistChunk)
+                .sum();
+    }
+
+    /**
+     * Persist a chunk of facebook events in its own transaction
+     * If the chunk fails it is retried one event at a time, so a single bad event only loses itself
+     *
+     * @param chunk the facebook events
+     * @return the number of events written
+     */
+    private int persistChunk(final List<FacebookEvent> chunk) {
+        try {
+            return Optional.ofNullable(transactionTemplate.execute(status -> parseChunk(chunk))).orElse(0);
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                logger.warn("[EventBatchParser] [persistChunk] Failure To Persist Event " + chunk.get(0).getId(), e);
+                return 0;
+            }
+            logger.warn("[EventBatchParser] [persistChunk] Failure To Persist Chunk Of " + chunk.size() + " Events, Retrying One At A Time", e);
+            return chunk.stream()
+                    .mapToInt(fbEvent -> persistChunk(Collections.singletonList(fbEvent)))
+                    .sum();
+        }
+    }
+
+    /**
+     * Persist a chunk of facebook events inside the current transaction
+     *
+     * @param chunk the facebook events
+     * @return the number of events written
+     */
+    private int parseChunk(final List<FacebookEvent> chunk) {
+        entityManager.setFlushMode(FlushModeType.COMMIT);
+
+        final Map<Long, Event> existingEvents = findExistingEvents(chunk);
+        final LocationLookup locations = findLocations(chunk);
+
+        chunk.forEach(fbEvent -> Optional.ofNullable(existingEvents.get(Long.valueOf(fbEvent.getId())))
+                .map(event -> eventParser.updateEvent(event, fbEvent))
+                .orElseGet(() -> {
+                    final Event event = eventParser.buildEvent(fbEvent, locations.find(fbEvent.getPlace().orElse(null)));
+                    entityManager.persist(event);
+                    entityManager.persist(eventParser.buildEventTime(event, fbEvent));
+                    return event;
+                }));
+
+        return chunk.size();
+    }
+
+    /**
+     * Find every event we already have for this chunk in one query
+     *
+     * @param chunk the facebook events
+     * @return events keyed by their facebook id
+     */
+    private Map<Long, Event> findExistingEvents(final List<FacebookEvent> chunk) {
+        final Set<Long> facebookIds = chunk.stream()
+                .map(fbEvent -> Long.valueOf(fbEvent.getId()))
+                .collect(Collectors.toSet());
+
+        return eventRepository.findAllByFacebookIdIn(facebookIds).stream()
+                .collect(Collectors.toMap(Event::getFacebookId, Function.identity(), (first, second) -> first));
+    }
+
+    /**
+     * Find every location referenced by this chunk in one query
+     *
+     * @param chunk the facebook events
+     * @return location lookup for the chunk
+     */
+    private LocationLookup findLocations(final List<FacebookEvent> chunk) {
+        final List<FacebookPlace> places = chunk.stream()
+                .map(FacebookEvent::getPlace)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .filter(place -> place.getId() != null)
+                .collect(Collectors.toList());
+
+        final Set<Long> facebookIds = places.stream()
+                .map(place -> Long.parseLong(place.getId()))
+                .collect(Collectors.toSet());
+
+        final Set<String> names = places.stream()
+                .map(FacebookPlace::getName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        final List<Location> locations = facebookIds.isEmpty()
+                ? Collections.emptyList()
+                : locationRepository.findAllByFacebookIdInOrNameIn(facebookIds, names.isEmpty() ? Collections.singleton("") : names)
+                .stream()
+                .filter(AuditedEntity::getActive)
+                .collect(Collectors.toList());
+
+        return new LocationLookup(locations, locationRepository.findOne(EventParser.DEFAULT_LOCATION_ID));
+    }
+
+    /**
+     * Resolves facebook places against locations loaded for a chunk
+     * Matches by facebook id first, then by name, then falls back to the default location
+     */
+    private static final class LocationLookup {
+        private final Map<Long, Location> byFacebookId;
+
+        private final Map<String, Location> byName;
+
+        private final Location defaultLocation;
+
+        private LocationLookup(final List<Location> locations, final Location defaultLocation) {
+            this.byFacebookId = locations.stream()
+                    .filter(location -> location.getFacebookId() != null)
+                    .collect(Collectors.toMap(Location::getFacebookId, Function.identity(), (first, second) -> first));
+            this.byName = locations.stream()
+                    .collect(Collectors.toMap(Location::getName, Function.identity(), (first, second) -> first));
+            this.defaultLocation = defaultLocation;
+        }
+
+        private Location find(final FacebookPlace place) {
+            return Optional.ofNullable(place)
+                    .filter(e -> e.getId() != null)
+                    .map(e -> Optional.ofNullable(byFacebookId.get(Long.parseLong(e.getId())))
+                            .orElseGet(() -> byName.get(e.getName())))
+                    .orElse(defaultLocation);
+        }
+    }
+}
@@ -42,6 +42,16 @@ import java.util.regex.Pattern;
 public class EventParser {
     private static final Pattern facebookEventPattern = Pattern.compile(".*\\/events\\/([\\d]+).*");
 
+    /**
+     * Date format facebook uses for event times
+     */
+    static final String FACEBOOK_DATE_PATTERN = "yyyy-MM-dd'T'HH:mm:ss+SSSS";
+
+    /**
+     * Location used when an events place cannot be matched against one of our locations
+     */
+    static final String DEFAULT_LOCATION_ID = "7172dc45-d025-4f59-84f2-c2d8cd70ce3a";
+
     private final FacebookReader facebookReader;
 
     private final EventRepository eventRepository;
@@ -100,7 +110,7 @@ public class EventParser {
      */
     public Event updateEvent(final Event event, final FacebookEvent fbEvent) {
         event.setImageUrl(fbEvent.getCover().map(FacebookCover::getSource).orElse(""));
-        event.setUpdatedTime(fbEvent.getUpdatedTime(), "yyyy-MM-dd'T'HH:mm:ss+SSSS");
+        event.setUpdatedTime(fbEvent.getUpdatedTime(), FACEBOOK_DATE_PATTERN);
         return event;
     }
 
@@ -111,7 +121,27 @@ public class EventParser {
      * @return the event
      */
     public Event processFbEvent(final FacebookEvent fbEvent) {
-        final Event event = Event.builder()
+        final Event event = buildEvent(fbEvent, findLocationByFacebookPlace(fbEvent.getPlace().orElse(null))
+                .orElseGet(() -> locationService.findOne(DEFAULT_LOCATION_ID).orElse(null)));
+
+        eventRepository.saveAndFlush(event);
+
+        final EventTime eventTime = buildEventTime(event, fbEvent);
+
+        eventTimeRepository.saveAndFlush(eventTime);
+
+        return event;
+    }
+
+    /**
+     * Build a new event from a facebook event, without persisting it
+     *
+     * @param fbEvent  the fb event
+     * @param location the location the event is held at
+     * @return the event
+     */
+    Event buildEvent(final FacebookEvent fbEvent, final Location location) {
+        return Event.builder()
                 .name(
                         Optional.ofNullable(fbEvent.getName())
                                 .map(name -> name.replaceAll("([\\ud800-\\udbff\\udc00-\\udfff])", ""))
@@ -127,30 +157,32 @@ public class EventParser {
                                 .map(FacebookCover::getSource)
                                 .orElse("")
                 )
-                .location(
-                        findLocationByFacebookPlace(fbEvent.getPlace().orElse(null))
-                                .orElseGet(() -> locationService.findOne("7172dc45-d025-4f59-84f2-c2d8cd70ce3a").orElse(null))
-                )
+                .location(location)
                 .facebookId(
                         Long.valueOf(fbEvent.getId())
                 )
                 .processedDate(new DateTime())
                 .build()
-                .setUpdatedTime(fbEvent.getUpdatedTime(), "yyyy-MM-dd'T'HH:mm:ss+SSSS");
-
-        eventRepository.saveAndFlush(event);
+                .setUpdatedTime(fbEvent.getUpdatedTime(), FACEBOOK_DATE_PATTERN);
+    }
 
+    /**
+     * Build the event time of a new event from a facebook event, without persisting it
+     *
+     * @param event   the event the time belongs to
+     * @param fbEvent the fb event
+     * @return the event time
+     */
+    EventTime buildEventTime(final Event event, final FacebookEvent fbEvent) {
         final EventTime eventTime = EventTime.builder()
                 .event(event)
                 .active(true)
                 .build()
-                .setStartTime(fbEvent.getStartTime(), "yyyy-MM-dd'T'HH:mm:ss+SSSS");
+                .setStartTime(fbEvent.getStartTime(), FACEBOOK_DATE_PATTERN);
 
         event.setTimes(new HashSet<>(Arrays.asList(new EventTime[]{eventTime})));
 
-        eventTimeRepository.saveAndFlush(eventTime);
-
-        return event;
+        return eventTime;
     }
 
     /**
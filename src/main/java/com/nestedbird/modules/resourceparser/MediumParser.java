@@ -19,6 +19,7 @@ package com.nestedbird.modules.resourceparser;
 import com.nestedbird.jackson.facebook.*;
 import com.nestedbird.jackson.youtube.*;
 import com.nestedbird.models.medium.Medium;
+import com.nestedbird.models.medium.MediumService;
 import com.nestedbird.models.medium.MediumType;
 import com.nestedbird.modules.facebookreader.FacebookReader;
 import com.nestedbird.modules.soundcloudreader.SoundcloudReader;
@@ -43,6 +44,7 @@ public class MediumParser {
     private final YoutubeReader youtubeReader;
     private final FacebookReader facebookReader;
     private final SoundcloudReader soundcloudReader;
+    private final MediumService mediumService;
 
     /**
      * Instantiates a new Medium parser.
@@ -50,14 +52,17 @@ public class MediumParser {
      * @param youtubeReader    the youtube reader
      * @param facebookReader   the facebook reader
      * @param soundcloudReader the soundcloud reader
+     * @param mediumService    the medium service
      */
     @Autowired
     public MediumParser(final YoutubeReader youtubeReader,
                         final FacebookReader facebookReader,
-                        final SoundcloudReader soundcloudReader) {
+                        final SoundcloudReader soundcloudReader,
+                        final MediumService mediumService) {
         this.youtubeReader = youtubeReader;
         this.facebookReader = facebookReader;
         this.soundcloudReader = soundcloudReader;
+        this.mediumService = mediumService;
     }
 
     /**
@@ -130,9 +135,9 @@ public class MediumParser {
         final Mutable<String> id = Mutable.of("");
 
         PatternMatcher.of(facebookPattern, url)
-                .then(matcher -> id.mutate(matcher.group(0)));
+                .then(matcher -> id.mutate(matcher.group(1)));
 
-        return parseYoutubeId(id.get());
+        return parseFacebookId(id.get());
     }
 
     /**
@@ -142,21 +147,29 @@ public class MediumParser {
      * @return the medium
      */
     public Medium parseYoutubeId(final String id) {
-        final YoutubeListResponse listResponse = youtubeReader.requestVideoData(id);
+        final Optional<Medium> knownMedium = mediumService.findFirstBySourceIdAndType(id, MediumType.YOUTUBE);
+        if (knownMedium.isPresent()) {
+            return knownMedium.get();
+        }
+
         final Medium medium = new Medium();
 
-        Optional.ofNullable(listResponse.getItems().get(0)).ifPresent(video ->
-                medium.setSourceUrl("https://www.youtube.com/watch?v=" + video.getId())
-                        .setArtUrl(video.getSnippet().flatMap(YoutubeSnippet::getThumbnails).flatMap(YoutubeThumbnails::getHighestRes).map(YoutubeThumbnail::getUrl).orElse("/images/blackfat.jpg"))
-                        .setCreationDateTime(video.getSnippet().map(YoutubeSnippet::getPublishedAtParsed).orElse(new DateTime(0)))
-                        .setData(video.toJSON())
-                        .setType(MediumType.YOUTUBE)
-                        .setSubmissionDateTime(DateTime.now())
-                        .setSourcePlaybackCount(video.getStatistics().map(YoutubeStatistics::getViewCount).map(Integer::parseInt).orElse(0))
-                        .setSourceCommentCount(video.getStatistics().map(YoutubeStatistics::getCommentCount).map(Integer::parseInt).orElse(0))
-                        .setSourceFavouriteCount(video.getStatistics().map(YoutubeStatistics::getLikeCount).map(Integer::parseInt).orElse(0))
-                        .setSourceId(video.getId())
-        );
+        Optional.ofNullable(youtubeReader.requestVideoData(id))
+                .map(YoutubeListResponse::getItems)
+                .filter(items -> !items.isEmpty())
+                .map(items -> items.get(0))
+                .ifPresent(video ->
+                        medium.setSourceUrl("https://www.youtube.com/watch?v=" + video.getId())
+                                .setArtUrl(video.getSnippet().flatMap(YoutubeSnippet::getThumbnails).flatMap(YoutubeThumbnails::getHighestRes).map(YoutubeThumbnail::getUrl).orElse("/images/blackfat.jpg"))
+                                .setCreationDateTime(video.getSnippet().map(YoutubeSnippet::getPublishedAtParsed).orElse(new DateTime(0)))
+                                .setData(video.toJSON())
+                                .setType(MediumType.YOUTUBE)
+                                .setSubmissionDateTime(DateTime.now())
+                                .setSourcePlaybackCount(video.getStatistics().map(YoutubeStatistics::getViewCount).map(Integer::parseInt).orElse(0))
+                                .setSourceCommentCount(video.getStatistics().map(YoutubeStatistics::getCommentCount).map(Integer::parseInt).orElse(0))
+                                .setSourceFavouriteCount(video.getStatistics().map(YoutubeStatistics::getLikeCount).map(Integer::parseInt).orElse(0))
+                                .setSourceId(video.getId())
+                );
 
         return medium;
     }
@@ -168,6 +181,11 @@ public class MediumParser {
      * @return the medium
      */
     public Medium parseFacebookId(final String id) {
+        final Optional<Medium> knownMedium = mediumService.findFirstBySourceIdAndType(id, MediumType.FACEBOOK);
+        if (knownMedium.isPresent()) {
+            return knownMedium.get();
+        }
+
         final Medium medium = new Medium();
 
         Optional.ofNullable(facebookReader.requestVideo(id)).ifPresent(video ->
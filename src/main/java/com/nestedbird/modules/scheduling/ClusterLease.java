@@ -0,0 +1,91 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.nestedbird.modules.scheduling;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RAtomicLong;
+
+/**
+ * The lease a node holds while it runs a @ClusterSingleton job.
+ * If the node pauses for longer than its redis lock lasts, another node can take the job and a newer fencing token.
+ * Jobs that write to a third party check their lease right before each write, so a node that has lost the job
+ * stops instead of writing a second time.
+ */
+@Slf4j
+public final class ClusterLease {
+    /**
+     * The lease of the job running on this thread
+     */
+    private static final ThreadLocal<ClusterLease> current = new ThreadLocal<>();
+
+    private final String name;
+
+    private final long token;
+
+    /**
+     * The latest token taken for the job, by any node
+     */
+    private final RAtomicLong latestToken;
+
+    private ClusterLease(final String name, final long token, final RAtomicLong latestToken) {
+        this.name = name;
+        this.token = token;
+        this.latestToken = latestToken;
+    }
+
+    /**
+     * Is the job running on this thread still the latest run of that job
+     * Always true outside of a @ClusterSingleton job, ie: when the job is run through its endpoint
+     * If redis can not be reached the lease is treated as lost, as another node may have taken it
+     *
+     * @return whether the lease is held
+     */
+    public static boolean isHeld() {
+        final ClusterLease lease = current.get();
+        if (lease == null) {
+            return true;
+        }
+
+        try {
+            if (lease.latestToken.get() == lease.token) {
+                return true;
+            }
+            logger.info("[ClusterLease] [isHeld] Lease For " + lease.name + " Was Taken By Another Node");
+        } catch (RuntimeException e) {
+            logger.info("[ClusterLease] [isHeld] Unable To Check The Lease For " + lease.name, e);
+        }
+        return false;
+    }
+
+    /**
+     * Runs a job holding a lease
+     *
+     * @param name        the job name
+     * @param token       the fencing token of this run
+     * @param latestToken the latest token taken for the job
+     * @param job         the job
+     */
+    static void run(final String name, final long token, final RAtomicLong latestToken, final Runnable job) {
+        current.set(new ClusterLease(name, token, latestToken));
+        try {
+            job.run();
+        } finally {
+            current.remove();
+        }
+    }
+}
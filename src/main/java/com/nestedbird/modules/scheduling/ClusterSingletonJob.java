@@ -0,0 +1,150 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.scheduling;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RLock;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a job on only one node of the cluster.
+ * The node running the job holds a redis lock, which redisson keeps renewing while the node is alive. If the node
+ * dies the lock expires and the next run happens on another node.
+ * Each run is recorded in redis under the time it was due, so a node whose clock is behind does not run the job a
+ * second time after the first node has finished. Every run takes a new fencing token, and a node only writes the
+ * outcome of its run while its token is still the latest. The job can check its token too, through ClusterLease.
+ */
+@Slf4j
+class ClusterSingletonJob implements Runnable {
+    private static final String LOCK_PREFIX = "scheduler:lock:";
+    private static final String TOKEN_PREFIX = "scheduler:token:";
+    private static final String RECORD_PREFIX = "scheduler:job:";
+
+    /**
+     * Identifies this node in the run records
+     */
+    private static final String NODE = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final String name;
+
+    private final Runnable job;
+
+    private final ScheduledJobStatistics statistics;
+
+    private final RedissonClient redissonClient;
+
+    /**
+     * Instantiates a new Cluster singleton job.
+     *
+     * @param name           the job name
+     * @param job            the job
+     * @param statistics     the statistics of the job
+     * @param redissonClient the redisson client
+     */
+    ClusterSingletonJob(final String name,
+                        final Runnable job,
+                        final ScheduledJobStatistics statistics,
+                        final RedissonClient redissonClient) {
+        this.name = name;
+        this.job = job;
+        this.statistics = statistics;
+        this.redissonClient = redissonClient;
+    }
+
+    @Override
+    public void run() {
+        final RLock lock = redissonClient.getLock(LOCK_PREFIX + name);
+
+        try {
+            if (!lock.tryLock(0, TimeUnit.MILLISECONDS)) {
+                logger.debug("[ClusterSingletonJob] [run] Skipping " + name + ", It Is Running On Another Node");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException e) {
+            logger.info("[ClusterSingletonJob] [run] Unable To Take The Lease For " + name, e);
+            return;
+        }
+
+        try {
+            runLeased();
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void runLeased() {
+        final RMap<String, Object> record = redissonClient.getMap(RECORD_PREFIX + name);
+        final long due = statistics.getCurrentRunDue();
+
+        final Object lastDue = record.get("due");
+        if (due > 0 && lastDue instanceof Long && (Long) lastDue >= due) {
+            logger.debug("[ClusterSingletonJob] [run] Skipping " + name + ", It Already Ran On Another Node");
+            return;
+        }
+
+        final RAtomicLong latestToken = redissonClient.getAtomicLong(TOKEN_PREFIX + name);
+        final long token = latestToken.incrementAndGet();
+        final long start = System.currentTimeMillis();
+
+        final Map<String, Object> started = new HashMap<>();
+        started.put("due", due);
+        started.put("token", token);
+        started.put("node", NODE);
+        started.put("startedAt", start);
+        started.put("finishedAt", 0L);
+        started.put("outcome", "running");
+        record.putAll(started);
+
+        String outcome = "failed";
+        try {
+            ClusterLease.run(name, token, latestToken, job);
+            outcome = "succeeded";
+        } finally {
+            finish(record, token, start, outcome);
+        }
+    }
+
+    private void finish(final RMap<String, Object> record, final long token, final long start, final String outcome) {
+        try {
+            if (!Long.valueOf(token).equals(record.get("token"))) {
+                logger.info("[ClusterSingletonJob] [finish] Lease For " + name + " Was Lost Before The Run Finished");
+                return;
+            }
+
+            final long finish = System.currentTimeMillis();
+            final Map<String, Object> finished = new HashMap<>();
+            finished.put("finishedAt", finish);
+            finished.put("runTime", finish - start);
+            finished.put("outcome", outcome);
+            record.putAll(finished);
+        } catch (RuntimeException e) {
+            logger.info("[ClusterSingletonJob] [finish] Unable To Record The Run Of " + name, e);
+        }
+    }
+}
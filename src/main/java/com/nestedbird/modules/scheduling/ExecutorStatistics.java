@@ -0,0 +1,60 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.scheduling;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Reads the statistics of a thread pool
+ */
+public class ExecutorStatistics implements ExecutorStatisticsMXBean {
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Instantiates a new Executor statistics.
+     *
+     * @param executor the thread pool
+     */
+    public ExecutorStatistics(final ThreadPoolExecutor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public int getPoolSize() {
+        return executor.getPoolSize();
+    }
+
+    @Override
+    public int getMaximumPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    @Override
+    public long getCompletedTaskCount() {
+        return executor.getCompletedTaskCount();
+    }
+}
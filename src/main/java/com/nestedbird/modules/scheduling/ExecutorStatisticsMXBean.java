@@ -0,0 +1,57 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.scheduling;
+
+/**
+ * The statistics of a thread pool, as exposed over JMX
+ */
+public interface ExecutorStatisticsMXBean {
+    /**
+     * Gets how many tasks are waiting for a thread
+     *
+     * @return the queue depth
+     */
+    int getQueueDepth();
+
+    /**
+     * Gets how many threads are running a task
+     *
+     * @return the active count
+     */
+    int getActiveCount();
+
+    /**
+     * Gets how many threads the pool has
+     *
+     * @return the pool size
+     */
+    int getPoolSize();
+
+    /**
+     * Gets the most threads the pool will have
+     *
+     * @return the maximum pool size
+     */
+    int getMaximumPoolSize();
+
+    /**
+     * Gets how many tasks have completed
+     *
+     * @return the completed task count
+     */
+    long getCompletedTaskCount();
+}
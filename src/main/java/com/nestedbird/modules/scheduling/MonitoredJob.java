@@ -0,0 +1,62 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.scheduling;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs a scheduled job, recording its statistics and never letting two runs of the job overlap
+ */
+@Slf4j
+class MonitoredJob implements Runnable {
+    private final String name;
+
+    private final Runnable job;
+
+    private final ScheduledJobStatistics statistics;
+
+    /**
+     * Instantiates a new Monitored job.
+     *
+     * @param name       the job name
+     * @param job        the job
+     * @param statistics the statistics of the job
+     */
+    MonitoredJob(final String name, final Runnable job, final ScheduledJobStatistics statistics) {
+        this.name = name;
+        this.job = job;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void run() {
+        if (!statistics.start()) {
+            logger.info("[MonitoredJob] [run] Skipping " + name + ", The Previous Run Has Not Finished");
+            return;
+        }
+
+        final long start = System.currentTimeMillis();
+        try {
+            job.run();
+        } catch (RuntimeException | Error e) {
+            statistics.fail();
+            throw e;
+        } finally {
+            statistics.finish(System.currentTimeMillis() - start);
+        }
+    }
+}
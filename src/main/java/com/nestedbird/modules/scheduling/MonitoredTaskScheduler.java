@@ -0,0 +1,159 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.scheduling;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.ScheduledMethodRunnable;
+import org.springframework.util.ClassUtils;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Task scheduler that records the statistics of every job it runs.
+ * Each job is exposed over JMX as com.nestedbird:type=ScheduledJob,name=Class.method
+ * Jobs marked with @ClusterSingleton are only run by one node of the cluster.
+ */
+@Slf4j
+public class MonitoredTaskScheduler extends ThreadPoolTaskScheduler {
+    private final ConcurrentMap<String, ScheduledJobStatistics> jobs = new ConcurrentHashMap<>();
+
+    private final transient RedissonClient redissonClient;
+
+    /**
+     * Instantiates a new Monitored task scheduler.
+     *
+     * @param redissonClient the redisson client holding the leases of cluster singleton jobs
+     */
+    public MonitoredTaskScheduler(final RedissonClient redissonClient) {
+        this.redissonClient = redissonClient;
+    }
+
+    /**
+     * Gets the statistics of every job, by job name
+     *
+     * @return the job statistics
+     */
+    public Map<String, ScheduledJobStatistics> getJobs() {
+        return Collections.unmodifiableMap(jobs);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(final Runnable task, final Trigger trigger) {
+        final String name = getJobName(task);
+        final ScheduledJobStatistics statistics = getStatistics(name);
+        return super.schedule(monitor(name, task, statistics), new MonitoredTrigger(trigger, statistics));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(final Runnable task, final Date startTime, final long period) {
+        return super.scheduleAtFixedRate(monitor(task), startTime, period);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(final Runnable task, final long period) {
+        return super.scheduleAtFixedRate(monitor(task), period);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable task, final Date startTime, final long delay) {
+        return super.scheduleWithFixedDelay(monitor(task), startTime, delay);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable task, final long delay) {
+        return super.scheduleWithFixedDelay(monitor(task), delay);
+    }
+
+    @Override
+    public void destroy() {
+        super.destroy();
+
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        jobs.keySet().forEach(name -> {
+            try {
+                mBeanServer.unregisterMBean(getObjectName(name));
+            } catch (JMException e) {
+                logger.info("[MonitoredTaskScheduler] [destroy] Unable To Unregister Job " + name, e);
+            }
+        });
+    }
+
+    private MonitoredJob monitor(final Runnable task) {
+        final String name = getJobName(task);
+        return monitor(name, task, getStatistics(name));
+    }
+
+    private MonitoredJob monitor(final String name, final Runnable task, final ScheduledJobStatistics statistics) {
+        final Runnable job = isClusterSingleton(task)
+                ? new ClusterSingletonJob(name, task, statistics, redissonClient)
+                : task;
+        return new MonitoredJob(name, job, statistics);
+    }
+
+    private boolean isClusterSingleton(final Runnable task) {
+        return task instanceof ScheduledMethodRunnable &&
+                AnnotationUtils.findAnnotation(((ScheduledMethodRunnable) task).getMethod(), ClusterSingleton.class) != null;
+    }
+
+    private ScheduledJobStatistics getStatistics(final String name) {
+        return jobs.computeIfAbsent(name, this::register);
+    }
+
+    private ScheduledJobStatistics register(final String name) {
+        final ScheduledJobStatistics statistics = new ScheduledJobStatistics();
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(statistics, getObjectName(name));
+        } catch (JMException e) {
+            logger.info("[MonitoredTaskScheduler] [register] Unable To Register Job " + name, e);
+        }
+
+        return statistics;
+    }
+
+    private ObjectName getObjectName(final String name) throws JMException {
+        return new ObjectName("com.nestedbird:type=ScheduledJob,name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * Names a job after the method that @Scheduled is on, or after its class for anything else
+     *
+     * @param task the job
+     * @return the job name
+     */
+    private String getJobName(final Runnable task) {
+        if (task instanceof ScheduledMethodRunnable) {
+            final Method method = ((ScheduledMethodRunnable) task).getMethod();
+            return ClassUtils.getUserClass(method.getDeclaringClass()).getSimpleName() + "." + method.getName();
+        }
+        return task.getClass().getName();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.scheduling;
+
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+
+import java.util.Date;
+
+/**
+ * Works out when a job next runs, counting the scheduled times the job missed because it was still running
+ */
+class MonitoredTrigger implements Trigger {
+    /**
+     * The most missed runs counted at once, this bounds the work done when a job has been stuck for a long time
+     */
+    private static final int MAX_COUNTED_MISSES = 1000;
+
+    private final Trigger trigger;
+
+    private final ScheduledJobStatistics statistics;
+
+    /**
+     * Instantiates a new Monitored trigger.
+     *
+     * @param trigger    the trigger of the job
+     * @param statistics the statistics of the job
+     */
+    MonitoredTrigger(final Trigger trigger, final ScheduledJobStatistics statistics) {
+        this.trigger = trigger;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Date nextExecutionTime(final TriggerContext triggerContext) {
+        final Date next = trigger.nextExecutionTime(triggerContext);
+        final Date lastScheduled = triggerContext.lastScheduledExecutionTime();
+
+        if (next != null && lastScheduled != null) {
+            statistics.miss(countMissed(lastScheduled, next));
+        }
+        statistics.due(next);
+
+        return next;
+    }
+
+    /**
+     * Counts the times the job would have run between two runs, had each run finished instantly
+     *
+     * @param lastScheduled when the last run was scheduled
+     * @param next          when the next run is scheduled
+     * @return how many runs were missed
+     */
+    private long countMissed(final Date lastScheduled, final Date next) {
+        long missed = 0;
+
+        Date planned = trigger.nextExecutionTime(new SimpleTriggerContext(lastScheduled, lastScheduled, lastScheduled));
+        while (planned != null && planned.before(next) && missed < MAX_COUNTED_MISSES) {
+            missed++;
+            planned = trigger.nextExecutionTime(new SimpleTriggerContext(planned, planned, planned));
+        }
+
+        return missed;
+    }
+}
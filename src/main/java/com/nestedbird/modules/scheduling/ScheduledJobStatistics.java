@@ -0,0 +1,167 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.scheduling;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records how a scheduled job has been running
+ */
+public class ScheduledJobStatistics implements ScheduledJobStatisticsMXBean {
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong skippedRuns = new AtomicLong();
+    private final AtomicLong missedRuns = new AtomicLong();
+    private final AtomicLong totalRunTime = new AtomicLong();
+    private final AtomicLong lastRunTime = new AtomicLong();
+    private final AtomicLong maxRunTime = new AtomicLong();
+    private final AtomicLong lastStartDelay = new AtomicLong();
+    private final AtomicLong maxStartDelay = new AtomicLong();
+
+    /**
+     * When the next run is due, zero if the job is not run by a trigger
+     */
+    private final AtomicLong nextRunDue = new AtomicLong();
+
+    /**
+     * When the current run was due, zero if the job is not run by a trigger
+     */
+    private final AtomicLong currentRunDue = new AtomicLong();
+
+    /**
+     * Marks the job as started
+     *
+     * @return false if the previous run has not finished, in which case this run must not go ahead
+     */
+    boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            skippedRuns.incrementAndGet();
+            return false;
+        }
+
+        runs.incrementAndGet();
+
+        final long due = nextRunDue.getAndSet(0);
+        currentRunDue.set(due);
+        if (due > 0) {
+            final long delay = Math.max(0, System.currentTimeMillis() - due);
+            lastStartDelay.set(delay);
+            maxStartDelay.accumulateAndGet(delay, Math::max);
+        }
+        return true;
+    }
+
+    /**
+     * Marks the job as finished
+     *
+     * @param runTime how long in milliseconds the run took
+     */
+    void finish(final long runTime) {
+        totalRunTime.addAndGet(runTime);
+        lastRunTime.set(runTime);
+        maxRunTime.accumulateAndGet(runTime, Math::max);
+        running.set(false);
+    }
+
+    /**
+     * Records that a run threw an exception
+     */
+    void fail() {
+        failures.incrementAndGet();
+    }
+
+    /**
+     * Records the scheduled times that passed while the job was running
+     *
+     * @param missed how many were passed
+     */
+    void miss(final long missed) {
+        missedRuns.addAndGet(missed);
+    }
+
+    /**
+     * Records when the next run is due
+     *
+     * @param due when it is due
+     */
+    void due(final Date due) {
+        nextRunDue.set(due != null ? due.getTime() : 0);
+    }
+
+    /**
+     * Gets when the current run was due
+     *
+     * @return when it was due, zero if the job is not run by a trigger
+     */
+    long getCurrentRunDue() {
+        return currentRunDue.get();
+    }
+
+    @Override
+    public long getRuns() {
+        return runs.get();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.get();
+    }
+
+    @Override
+    public long getSkippedRuns() {
+        return skippedRuns.get();
+    }
+
+    @Override
+    public long getMissedRuns() {
+        return missedRuns.get();
+    }
+
+    @Override
+    public long getLastRunTime() {
+        return lastRunTime.get();
+    }
+
+    @Override
+    public long getMaxRunTime() {
+        return maxRunTime.get();
+    }
+
+    @Override
+    public long getAverageRunTime() {
+        final long completed = runs.get() - (running.get() ? 1 : 0);
+        return completed > 0 ? totalRunTime.get() / completed : 0;
+    }
+
+    @Override
+    public long getLastStartDelay() {
+        return lastStartDelay.get();
+    }
+
+    @Override
+    public long getMaxStartDelay() {
+        return maxStartDelay.get();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.scheduling;
+
+/**
+ * The statistics of a scheduled job, as exposed over JMX
+ */
+public interface ScheduledJobStatisticsMXBean {
+    /**
+     * Gets how many times the job has run
+     *
+     * @return the runs
+     */
+    long getRuns();
+
+    /**
+     * Gets how many runs threw an exception
+     *
+     * @return the failures
+     */
+    long getFailures();
+
+    /**
+     * Gets how many runs were skipped because the previous run had not finished
+     *
+     * @return the skipped runs
+     */
+    long getSkippedRuns();
+
+    /**
+     * Gets how many scheduled times passed while the job was still running, and so never happened
+     *
+     * @return the missed runs
+     */
+    long getMissedRuns();
+
+    /**
+     * Gets how long in milliseconds the last run took
+     *
+     * @return the last run time
+     */
+    long getLastRunTime();
+
+    /**
+     * Gets how long in milliseconds the longest run took
+     *
+     * @return the max run time
+     */
+    long getMaxRunTime();
+
+    /**
+     * Gets how long in milliseconds a run takes on average
+     *
+     * @return the average run time
+     */
+    long getAverageRunTime();
+
+    /**
+     * Gets how long in milliseconds the last run waited for a scheduler thread after it was due
+     *
+     * @return the last start delay
+     */
+    long getLastStartDelay();
+
+    /**
+     * Gets how long in milliseconds the most delayed run waited for a scheduler thread after it was due
+     *
+     * @return the max start delay
+     */
+    long getMaxStartDelay();
+
+    /**
+     * Is the job running right now
+     *
+     * @return whether it is running
+     */
+    boolean isRunning();
+}
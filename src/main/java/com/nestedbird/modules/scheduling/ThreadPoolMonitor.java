@@ -0,0 +1,95 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.scheduling;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Exposes the queue depth and activity of every thread pool over JMX, as com.nestedbird:type=ThreadPool,name=bean
+ */
+@Component
+@Slf4j
+public class ThreadPoolMonitor {
+    private final Map<String, ThreadPoolTaskExecutor> executors;
+
+    private final MonitoredTaskScheduler taskScheduler;
+
+    private final List<ObjectName> registeredNames = new ArrayList<>();
+
+    /**
+     * Instantiates a new Thread pool monitor.
+     *
+     * @param executors     the executors, by bean name
+     * @param taskScheduler the task scheduler
+     */
+    @Autowired
+    public ThreadPoolMonitor(final Map<String, ThreadPoolTaskExecutor> executors,
+                             final MonitoredTaskScheduler taskScheduler) {
+        this.executors = executors;
+        this.taskScheduler = taskScheduler;
+    }
+
+    /**
+     * Registers every thread pool
+     */
+    @PostConstruct
+    public void registerPools() {
+        executors.forEach((name, executor) -> register(name, executor.getThreadPoolExecutor()));
+        register("taskScheduler", taskScheduler.getScheduledThreadPoolExecutor());
+    }
+
+    /**
+     * Unregisters the thread pools
+     */
+    @PreDestroy
+    public void unregisterPools() {
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+        registeredNames.forEach(objectName -> {
+            try {
+                mBeanServer.unregisterMBean(objectName);
+            } catch (JMException e) {
+                logger.info("[ThreadPoolMonitor] [unregisterPools] Unable To Unregister Pool " + objectName, e);
+            }
+        });
+        registeredNames.clear();
+    }
+
+    private void register(final String name, final ThreadPoolExecutor executor) {
+        try {
+            final ObjectName objectName = new ObjectName("com.nestedbird:type=ThreadPool,name=" + name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new ExecutorStatistics(executor), objectName);
+            registeredNames.add(objectName);
+        } catch (JMException e) {
+            logger.info("[ThreadPoolMonitor] [registerPools] Unable To Register Pool " + name, e);
+        }
+    }
+}
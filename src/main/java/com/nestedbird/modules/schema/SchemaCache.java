@@ -0,0 +1,120 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.schema;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The SchemaCache reads and serializes the schema of every entity once, as schemas only change on deploy.
+ */
+@Component
+@Slf4j
+public class SchemaCache {
+    /**
+     * Serializes the schemas
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The entities that have schemas
+     */
+    private final SchemaEntities schemaEntities;
+
+    /**
+     * Serialized schemas, keyed by the class of the entity
+     */
+    private final Map<Class<?>, SchemaDocument> documents = new ConcurrentHashMap<>();
+
+    /**
+     * Serialized schema of every entity, keyed by the entities name
+     */
+    private SchemaDocument aggregatedDocument;
+
+    /**
+     * Instantiates a new Schema cache.
+     *
+     * @param objectMapper   the object mapper
+     * @param schemaEntities the schema entities
+     */
+    @Autowired
+    public SchemaCache(final ObjectMapper objectMapper,
+                       final SchemaEntities schemaEntities) {
+        this.objectMapper = objectMapper;
+        this.schemaEntities = schemaEntities;
+    }
+
+    /**
+     * Reads the schema of every entity that has a SchemaRepository, and builds the aggregated schema
+     */
+    @PostConstruct
+    public void compileSchemas() {
+        final Map<String, List<SchemaElement>> schemas = new TreeMap<>();
+        schemaEntities.getEntityClasses().forEach(entityClass -> {
+            final List<SchemaElement> schema = SchemaReader.read(entityClass);
+
+            schemas.put(entityClass.getSimpleName(), schema);
+            documents.put(entityClass, serialize(schema));
+        });
+
+        aggregatedDocument = serialize(schemas);
+
+        logger.info("[SchemaCache] [compileSchemas] Compiled " + documents.size() + " Schemas");
+    }
+
+    /**
+     * Gets the schema of an entity, reading it if it has not been read before
+     *
+     * @param entityClass the entity class
+     * @return the schema document
+     */
+    public SchemaDocument get(final Class<?> entityClass) {
+        return documents.computeIfAbsent(entityClass, type -> serialize(SchemaReader.read(type)));
+    }
+
+    /**
+     * Gets the schema of every entity, keyed by the entities name
+     *
+     * @return the schema document
+     */
+    public SchemaDocument getAll() {
+        return aggregatedDocument;
+    }
+
+    /**
+     * Serializes a schema
+     *
+     * @param schema the schema
+     * @return the schema document
+     */
+    private SchemaDocument serialize(final Object schema) {
+        try {
+            return SchemaDocument.of(objectMapper.writeValueAsBytes(schema));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize schema", e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.schema;
+
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serves the schema of every entity in a single response
+ */
+@RestController
+@RequestMapping("/api/v1/schema")
+public class SchemaController {
+    private final SchemaCache schemaCache;
+
+    /**
+     * Instantiates a new Schema controller.
+     *
+     * @param schemaCache the schema cache
+     */
+    @Autowired
+    SchemaController(final SchemaCache schemaCache) {
+        this.schemaCache = schemaCache;
+    }
+
+    /**
+     * gets the schema of every entity, keyed by the entities name
+     *
+     * @param version the version of the schema the client expects
+     * @return all of the schemas
+     */
+    @ApiOperation("Retrieve the schema of every element")
+    @RequestMapping(value = "", method = RequestMethod.GET)
+    public ResponseEntity<byte[]> getSchemas(@ApiParam(value = "Schema Version") @RequestParam(value = "version", required = false) final String version) {
+        return schemaCache.getAll().toResponseEntity(version);
+    }
+}
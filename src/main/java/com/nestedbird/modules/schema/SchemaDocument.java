@@ -0,0 +1,109 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.schema;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A SchemaDocument is a schema that has already been serialized, ready to be written straight to a response.
+ * Its version is the md5 of its body, so the version only changes when the schema itself changes.
+ */
+public final class SchemaDocument {
+    /**
+     * How long a client may cache a schema that it requested by its version
+     */
+    private static final long VERSIONED_MAX_AGE_DAYS = 365;
+
+    /**
+     * How long a client may cache a schema that it requested without a version
+     */
+    private static final long UNVERSIONED_MAX_AGE_HOURS = 24;
+
+    /**
+     * Create a new SchemaDocument from its serialized body
+     *
+     * @param body the serialized schema
+     * @return the schema document
+     */
+    public static SchemaDocument of(final byte[] body) {
+        return new SchemaDocument(body, DigestUtils.md5DigestAsHex(body));
+    }
+
+    /**
+     * The serialized schema
+     */
+    private final byte[] body;
+
+    /**
+     * The version of the schema
+     */
+    private final String version;
+
+    /**
+     * The strong etag of the schema
+     * This is in the same format that the ShallowEtagHeaderFilter generates, so both agree on the same value
+     */
+    private final String eTag;
+
+    private SchemaDocument(final byte[] body, final String version) {
+        this.body = body;
+        this.version = version;
+        this.eTag = "\"0" + version + "\"";
+    }
+
+    /**
+     * Gets the version of the schema
+     *
+     * @return the version
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the etag of the schema
+     *
+     * @return the etag
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * Creates a response for this schema
+     * If the client asked for this exact version, then the response can be cached indefinitely
+     *
+     * @param requestedVersion the version the client asked for, may be null
+     * @return the response entity
+     */
+    public ResponseEntity<byte[]> toResponseEntity(final String requestedVersion) {
+        final CacheControl cacheControl = version.equals(requestedVersion)
+                ? CacheControl.maxAge(VERSIONED_MAX_AGE_DAYS, TimeUnit.DAYS).cachePublic()
+                : CacheControl.maxAge(UNVERSIONED_MAX_AGE_HOURS, TimeUnit.HOURS).cachePublic().mustRevalidate();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .cacheControl(cacheControl)
+                .eTag(eTag)
+                .body(body);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.nestedbird.modules.schema;
+
+import com.nestedbird.modules.schema.annotations.SchemaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds every entity that has a SchemaRepository, scanning the classpath once for everything that needs them
+ */
+@Component
+@Slf4j
+public class SchemaEntities {
+    /**
+     * The package we scan for entities with schemas
+     */
+    private static final String entityPackage = "com.nestedbird.models";
+
+    /**
+     * The classes of the entities that were found
+     */
+    private final List<Class<?>> entityClasses;
+
+    /**
+     * Instantiates a new Schema entities, scanning the classpath.
+     */
+    public SchemaEntities() {
+        final ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(SchemaRepository.class));
+
+        final List<Class<?>> classes = new ArrayList<>();
+        scanner.findCandidateComponents(entityPackage).forEach(beanDefinition -> {
+            try {
+                classes.add(ClassUtils.forName(beanDefinition.getBeanClassName(), getClass().getClassLoader()));
+            } catch (ClassNotFoundException e) {
+                logger.info("[SchemaEntities] [SchemaEntities] Unable To Load Entity Class", e);
+            }
+        });
+
+        this.entityClasses = Collections.unmodifiableList(classes);
+    }
+
+    /**
+     * Gets the classes of every entity that has a SchemaRepository
+     *
+     * @return the entity classes
+     */
+    public List<Class<?>> getEntityClasses() {
+        return entityClasses;
+    }
+}
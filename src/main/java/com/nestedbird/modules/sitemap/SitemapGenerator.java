@@ -28,6 +28,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.joda.time.DateTime;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -84,6 +85,7 @@ public class SitemapGenerator {
      *
      * @return the xml
      */
+    @Transactional(readOnly = true)
     public String generate() {
         // @formatter:off
         return StringUtils.join(new String[]{
@@ -18,32 +18,37 @@ package com.nestedbird.modules.soundcloudreader;
 
 import com.nestedbird.config.SocialConfigSettings;
 import com.nestedbird.jackson.soundcloud.SoundcloudSong;
-import lombok.extern.slf4j.Slf4j;
+import com.nestedbird.modules.externalreader.ExternalReader;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 
 /**
  * The type Soundcloud reader.
  */
 @Component
-@Slf4j
 public class SoundcloudReader {
     /**
      * Social media settings information
      */
     private final SocialConfigSettings socialConfigSettings;
 
+    /**
+     * Shared layer external requests are made through
+     */
+    private final ExternalReader externalReader;
+
     /**
      * Instantiates a new Soundcloud reader.
      *
      * @param socialConfigSettings the social config settings
+     * @param externalReader       the external reader
      */
     @Autowired
-    public SoundcloudReader(final SocialConfigSettings socialConfigSettings) {
+    public SoundcloudReader(final SocialConfigSettings socialConfigSettings,
+                            final ExternalReader externalReader) {
         this.socialConfigSettings = socialConfigSettings;
+        this.externalReader = externalReader;
     }
 
     /**
@@ -54,36 +59,29 @@ public class SoundcloudReader {
      */
     public SoundcloudSong requestSongDataFromUrl(final String url) {
         final String requestUrl = generateRequestUrl(url);
-        return request(requestUrl, SoundcloudSong.class);
+        return requestCached("soundcloud:url:" + canonicalUrl(url), requestUrl, SoundcloudSong.class);
     }
 
     private String generateRequestUrl(final String url) {
         return String.format(
-                "https://api.soundcloud.com/resolve.json?url=%s&client_id=%s",
+                "%s/resolve.json?url=%s&client_id=%s",
+                socialConfigSettings.getScApiUrl(),
                 StringEscapeUtils.escapeHtml4(url),
                 socialConfigSettings.getScClientId()
         );
     }
 
     /**
-     * This is the method that actually makes the http request
+     * Makes the http request, reusing a recent response for the same resource
      *
+     * @param cacheKey         canonical key of the resource
      * @param url              request url
      * @param deconstructClass class of request object
      * @param <T>              type of request object this is
      * @return request object
      */
-    private <T> T request(final String url, final Class<T> deconstructClass) {
-        final RestTemplate restTemplate = new RestTemplate();
-        T deconstructedResponse = null;
-
-        try {
-            deconstructedResponse = restTemplate.getForObject(url, deconstructClass);
-        } catch (HttpClientErrorException err) {
-            logger.info("[SoundcloudReader] [request] Failure To Retrieve SoundCloud Resource (" + url + ")", err);
-        }
-
-        return deconstructedResponse;
+    private <T> T requestCached(final String cacheKey, final String url, final Class<T> deconstructClass) {
+        return externalReader.requestCached(cacheKey, url, deconstructClass);
     }
 
     /**
@@ -94,14 +92,42 @@ public class SoundcloudReader {
      */
     public SoundcloudSong requestSongData(final String id) {
         final String requestUrl = generateRequestUrlForSongId(id);
-        return request(requestUrl, SoundcloudSong.class);
+        return requestCached("soundcloud:track:" + id, requestUrl, SoundcloudSong.class);
+    }
+
+    /**
+     * Request a songs information, ignoring any cached response
+     *
+     * @param id Id of Entity
+     * @return the soundcloud song
+     */
+    public SoundcloudSong refreshSongData(final String id) {
+        externalReader.evict("soundcloud:track:" + id);
+        return requestSongData(id);
     }
 
     private String generateRequestUrlForSongId(final String id) {
         return String.format(
-                "https://api.soundcloud.com/tracks/%s.json?client_id=%s",
+                "%s/tracks/%s.json?client_id=%s",
+                socialConfigSettings.getScApiUrl(),
                 id,
                 socialConfigSettings.getScClientId()
         );
     }
+
+    /**
+     * Reduces the different ways of writing a soundcloud url to one form
+     * eg https://www.soundcloud.com/artist/song/?in=x becomes soundcloud.com/artist/song
+     *
+     * @param url the url
+     * @return the canonical url
+     */
+    private String canonicalUrl(final String url) {
+        return url.trim()
+                .toLowerCase()
+                .replaceFirst("^[a-z]+://", "")
+                .replaceFirst("^(www\\.|m\\.)", "")
+                .replaceFirst("[?#].*$", "")
+                .replaceFirst("/+$", "");
+    }
 }
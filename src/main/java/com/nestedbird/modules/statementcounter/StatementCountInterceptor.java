@@ -0,0 +1,79 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.statementcounter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Optional;
+
+/**
+ * Counts the sql statements each request runs, including the ones ran while the response is serialized
+ * The count is kept as a request attribute, and requests that run more statements than the threshold are logged
+ */
+@Slf4j
+public class StatementCountInterceptor extends HandlerInterceptorAdapter {
+    /**
+     * The request attribute holding the number of statements the request ran
+     */
+    public static final String STATEMENT_COUNT_ATTRIBUTE = StatementCountInterceptor.class.getName() + ".count";
+
+    /**
+     * The request attribute holding the statement count when the request started
+     */
+    private static final String START_ATTRIBUTE = StatementCountInterceptor.class.getName() + ".start";
+
+    /**
+     * Requests that run more statements than this are logged
+     */
+    private final long threshold;
+
+    /**
+     * Instantiates a new Statement count interceptor.
+     *
+     * @param threshold the number of statements a request can run before it is logged
+     */
+    public StatementCountInterceptor(final long threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request,
+                             final HttpServletResponse response,
+                             final Object handler) {
+        request.setAttribute(START_ATTRIBUTE, StatementCounter.getCount());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request,
+                                final HttpServletResponse response,
+                                final Object handler,
+                                final Exception ex) {
+        Optional.ofNullable((Long) request.getAttribute(START_ATTRIBUTE))
+                .map(start -> StatementCounter.getCount() - start)
+                .ifPresent(count -> {
+                    request.setAttribute(STATEMENT_COUNT_ATTRIBUTE, count);
+                    if (count > threshold) {
+                        logger.info("[StatementCountInterceptor] [afterCompletion] " + count + " Statements For " +
+                                request.getMethod() + " " + request.getRequestURI());
+                    }
+                });
+    }
+}
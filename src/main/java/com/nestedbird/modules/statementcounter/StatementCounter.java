@@ -0,0 +1,52 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.statementcounter;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the sql statements hibernate prepares on each thread.
+ * Hibernate creates this inspector itself, so the counts are held statically per thread, and callers measure a
+ * unit of work by comparing the count before and after it.
+ */
+public class StatementCounter implements StatementInspector {
+    /**
+     * The number of statements prepared on the current thread
+     */
+    private static final ThreadLocal<long[]> statementCount = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Gets the number of statements prepared on the current thread so far
+     *
+     * @return the statement count
+     */
+    public static long getCount() {
+        return statementCount.get()[0];
+    }
+
+    /**
+     * Records a statement, the statement itself is left unchanged
+     *
+     * @param sql the sql statement
+     * @return the same sql statement
+     */
+    @Override
+    public String inspect(final String sql) {
+        statementCount.get()[0]++;
+        return sql;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.storeloader;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RObject;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Builds the redis stores that are computed from the database, such as the upcoming events and the sitemap.
+ * Only one build of a store runs at a time across the cluster, guarded by a redisson lock. A store is built under a
+ * temporary key and renamed into place once it is complete, so readers keep getting the last complete store while a
+ * new one is built. Callers only wait when the store has never been built, for example after redis was flushed, or
+ * when it has gone missing since it was built, for example after redis evicted it.
+ */
+@Component
+@Slf4j
+public class StoreLoader {
+    private static final String LOCK_PREFIX = "store:lock:";
+    private static final String BUILT_PREFIX = "store:built:";
+    private static final String BUILDING_SUFFIX = ":building";
+
+    /**
+     * How long in milliseconds a caller waits for another node to finish building a store
+     */
+    private static final long BUILD_WAIT = 30000;
+
+    private final RedissonClient redissonClient;
+
+    /**
+     * The builds this node is waiting on, so callers on this node share a single wait
+     */
+    private final ConcurrentMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Store loader.
+     *
+     * @param redissonClient the redisson client
+     */
+    @Autowired
+    public StoreLoader(final RedissonClient redissonClient) {
+        this.redissonClient = redissonClient;
+    }
+
+    /**
+     * Gets a store, building it first if it has never been built
+     * If another node is building it we wait for that build rather than starting our own
+     *
+     * @param key   the key of the store
+     * @param store gets the store held under a key
+     * @param build fills an empty store
+     * @param <S>   the type of the store
+     * @return the store
+     */
+    public <S extends RObject> S getOrBuild(final String key, final Function<String, S> store, final Consumer<S> build) {
+        if (!isBuilt(key, store)) {
+            final CompletableFuture<Void> flight = new CompletableFuture<>();
+            final CompletableFuture<Void> existing = inFlight.putIfAbsent(key, flight);
+
+            if (existing == null) {
+                try {
+                    buildOnce(key, store, build);
+                } finally {
+                    inFlight.remove(key, flight);
+                    flight.complete(null);
+                }
+            } else {
+                waitFor(key, existing);
+            }
+        }
+
+        return store.apply(key);
+    }
+
+    /**
+     * Builds a store again, replacing the current store once the build is complete
+     * Nothing is done if the store is already being built
+     *
+     * @param key   the key of the store
+     * @param store gets the store held under a key
+     * @param build fills an empty store
+     * @param <S>   the type of the store
+     */
+    public <S extends RObject> void rebuild(final String key, final Function<String, S> store, final Consumer<S> build) {
+        final RLock lock = redissonClient.getLock(LOCK_PREFIX + key);
+
+        if (!lock.tryLock()) {
+            logger.debug("[StoreLoader] [rebuild] Skipping " + key + ", It Is Already Being Built");
+            return;
+        }
+
+        try {
+            build(key, store, build);
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    private <S extends RObject> void buildOnce(final String key, final Function<String, S> store, final Consumer<S> build) {
+        final RLock lock = redissonClient.getLock(LOCK_PREFIX + key);
+
+        try {
+            if (!lock.tryLock(BUILD_WAIT, TimeUnit.MILLISECONDS)) {
+                logger.info("[StoreLoader] [buildOnce] Timed Out Waiting For " + key + " To Be Built");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        try {
+            // Whoever held the lock before us has probably built it already
+            if (!isBuilt(key, store)) {
+                build(key, store, build);
+            }
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    private <S extends RObject> void build(final String key, final Function<String, S> store, final Consumer<S> build) {
+        final S building = store.apply(key + BUILDING_SUFFIX);
+
+        // A node that died mid build may have left a partial store behind
+        building.delete();
+        build.accept(building);
+
+        final boolean hasContents = building.isExists();
+        if (hasContents) {
+            building.rename(key);
+        } else {
+            store.apply(key).delete();
+        }
+
+        redissonClient.getBucket(BUILT_PREFIX + key).set(hasContents);
+    }
+
+    /**
+     * Has the store been built, and is it still there
+     * Redis does not keep empty stores, so the marker records whether the build had any contents. A store that should
+     * have contents but no longer exists has been evicted or deleted, and is built again
+     *
+     * @param key   the key of the store
+     * @param store gets the store held under a key
+     * @param <S>   the type of the store
+     * @return whether the store is built
+     */
+    private <S extends RObject> boolean isBuilt(final String key, final Function<String, S> store) {
+        final Object built = redissonClient.getBucket(BUILT_PREFIX + key).get();
+        return Boolean.FALSE.equals(built) || (built != null && store.apply(key).isExists());
+    }
+
+    private void waitFor(final String key, final CompletableFuture<Void> flight) {
+        try {
+            flight.get(BUILD_WAIT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.info("[StoreLoader] [waitFor] Unable To Wait For " + key + " To Be Built", e);
+        }
+    }
+
+    private void unlock(final RLock lock) {
+        if (lock.isHeldByCurrentThread()) {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.valuecodec;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+import com.nestedbird.models.core.DataObject;
+import org.xerial.snappy.Snappy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stores values as snappy compressed json, the way every redis value was stored before the compact codecs
+ *
+ * @param <T> the type of value
+ */
+public class JsonValueCodec<T extends DataObject> implements ValueCodec<T> {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Class<T> type;
+
+    /**
+     * Instantiates a new Json value codec.
+     *
+     * @param type the type of value
+     */
+    public JsonValueCodec(final Class<T> type) {
+        this.type = type;
+        objectMapper.registerModule(new Hibernate5Module());
+        objectMapper.configure(MapperFeature.DEFAULT_VIEW_INCLUSION, true);
+    }
+
+    @Override
+    public String getName() {
+        return "json";
+    }
+
+    @Override
+    public byte[] encode(final T value) {
+        try {
+            return Snappy.compress(value.toJSON().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T decode(final byte[] bytes) {
+        try {
+            return objectMapper.readValue(Snappy.uncompress(bytes), type);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to read " + type.getSimpleName() + " from json", e);
+        }
+    }
+}
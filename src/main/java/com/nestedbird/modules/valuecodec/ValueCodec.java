@@ -0,0 +1,50 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.valuecodec;
+
+/**
+ * Turns the values we keep in redis stores into bytes and back
+ * Stores key their contents by the codec name, so switching codec builds a new store rather than misreading the old
+ *
+ * @param <T> the type of value
+ */
+public interface ValueCodec<T> {
+    /**
+     * The name of the codec and version of its layout
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Encode a value
+     *
+     * @param value the value
+     * @return the encoded bytes
+     * @throws IllegalArgumentException the value cannot be encoded
+     */
+    byte[] encode(final T value);
+
+    /**
+     * Decode a value
+     *
+     * @param bytes the encoded bytes
+     * @return the value
+     * @throws IllegalArgumentException the bytes were not encoded by this codec
+     */
+    T decode(final byte[] bytes);
+}
@@ -0,0 +1,205 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.warmup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Warms the caches of a freshly started node before it reports itself ready
+ * Every step runs in parallel on the given executor. Once the budget runs out the node is reported ready anyway,
+ * steps that have not finished are left to finish in the background
+ */
+@Slf4j
+public class CacheWarmup implements ApplicationListener<ApplicationReadyEvent> {
+    /**
+     * The steps to run, by name, in the order they are reported
+     */
+    private final Map<String, Runnable> steps = new LinkedHashMap<>();
+
+    private final Executor executor;
+
+    /**
+     * How long in milliseconds the warm-up may hold back the node from being ready
+     */
+    private final Long budget;
+
+    private volatile List<WarmupStep> report = Collections.emptyList();
+
+    private volatile boolean ready = false;
+
+    /**
+     * Instantiates a new Cache warmup.
+     *
+     * @param executor the executor the steps run on
+     * @param budget   how long in milliseconds the warm-up may take
+     */
+    public CacheWarmup(final Executor executor, final Long budget) {
+        this.executor = executor;
+        this.budget = budget;
+    }
+
+    /**
+     * Adds a step to the warm-up
+     *
+     * @param name the name the step is reported under
+     * @param step the step
+     * @return this cache warmup
+     */
+    public CacheWarmup step(final String name, final Runnable step) {
+        steps.put(name, step);
+        return this;
+    }
+
+    /**
+     * Warm the caches once the application has started
+     *
+     * @param event application ready event
+     */
+    @Override
+    public void onApplicationEvent(final ApplicationReadyEvent event) {
+        warm();
+    }
+
+    /**
+     * Runs every step and waits for them to finish, or for the budget to run out
+     */
+    public void warm() {
+        final long start = System.currentTimeMillis();
+
+        final Map<String, RunningStep> running = new LinkedHashMap<>();
+        steps.forEach((name, step) -> running.put(name, new RunningStep(name, step, executor)));
+
+        await(running.values());
+
+        report = running.values().stream()
+                .map(RunningStep::toStep)
+                .collect(Collectors.toList());
+        ready = true;
+
+        report.forEach(step -> logger.info("[CacheWarmup] [warm] " + step.getName() + " " + step.getStatus() +
+                " In " + step.getDuration() + "ms"));
+        logger.info("[CacheWarmup] [warm] Warm-up Finished In " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    /**
+     * Has the warm-up finished, or run out of time
+     *
+     * @return true when the node is ready to serve requests
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * How each step went
+     * Until the warm-up has finished this reports every step as running
+     *
+     * @return the steps
+     */
+    public List<WarmupStep> getReport() {
+        if (ready) {
+            return report;
+        }
+        return steps.keySet().stream()
+                .map(name -> WarmupStep.builder().name(name).status(WarmupStep.Status.RUNNING).duration(0L).build())
+                .collect(Collectors.toList());
+    }
+
+    private void await(final Collection<RunningStep> running) {
+        final CompletableFuture<?>[] futures = running.stream()
+                .map(RunningStep::getFuture)
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(futures).get(budget, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.info("[CacheWarmup] [await] Warm-up Ran Out Of Time After " + budget + "ms");
+        } catch (ExecutionException e) {
+            // Failed steps are logged and reported individually
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A step that has been handed to the executor
+     */
+    private static final class RunningStep {
+        private final String name;
+        private final AtomicLong started = new AtomicLong(0);
+        private final AtomicLong finished = new AtomicLong(0);
+        private final CompletableFuture<Void> future;
+
+        RunningStep(final String name, final Runnable step, final Executor executor) {
+            this.name = name;
+            this.future = CompletableFuture.runAsync(() -> run(step), executor);
+        }
+
+        private void run(final Runnable step) {
+            started.set(System.currentTimeMillis());
+            try {
+                step.run();
+            } catch (RuntimeException e) {
+                logger.info("[CacheWarmup] [run] Warm-up Step " + name + " Failed", e);
+                throw e;
+            } finally {
+                finished.set(System.currentTimeMillis());
+            }
+        }
+
+        CompletableFuture<Void> getFuture() {
+            return future;
+        }
+
+        WarmupStep toStep() {
+            return WarmupStep.builder()
+                    .name(name)
+                    .status(getStatus())
+                    .duration(getDuration())
+                    .build();
+        }
+
+        private WarmupStep.Status getStatus() {
+            if (!future.isDone()) {
+                return WarmupStep.Status.TIMED_OUT;
+            }
+            return future.isCompletedExceptionally() ? WarmupStep.Status.FAILED : WarmupStep.Status.COMPLETE;
+        }
+
+        private Long getDuration() {
+            if (started.get() == 0) {
+                return 0L;
+            }
+            final long end = finished.get() == 0 ? System.currentTimeMillis() : finished.get();
+            return end - started.get();
+        }
+    }
+}
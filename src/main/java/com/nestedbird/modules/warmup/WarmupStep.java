@@ -0,0 +1,65 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.warmup;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How a single warm-up step went
+ */
+@Data
+@Builder
+@NoArgsConstructor(force = true, access = AccessLevel.PRIVATE)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class WarmupStep {
+    private final String name;
+    private final Status status;
+
+    /**
+     * How long the step ran for in milliseconds, or how long it had been running when the budget ran out
+     */
+    private final Long duration;
+
+    /**
+     * The state a warm-up step was left in
+     */
+    public enum Status {
+        /**
+         * The step has not finished yet
+         */
+        RUNNING,
+
+        /**
+         * The step finished
+         */
+        COMPLETE,
+
+        /**
+         * The step threw an exception
+         */
+        FAILED,
+
+        /**
+         * The step was still running when the warm-up budget ran out, it is left to finish in the background
+         */
+        TIMED_OUT
+    }
+}
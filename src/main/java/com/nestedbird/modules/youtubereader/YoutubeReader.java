@@ -18,31 +18,38 @@ package com.nestedbird.modules.youtubereader;
 
 import com.nestedbird.config.SocialConfigSettings;
 import com.nestedbird.jackson.youtube.YoutubeListResponse;
-import lombok.extern.slf4j.Slf4j;
+import com.nestedbird.modules.externalreader.ExternalReader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
+
+import java.util.Collection;
 
 /**
  * The type Youtube reader.
  */
 @Component
-@Slf4j
 public class YoutubeReader {
     /**
      * Social media settings information
      */
     private final SocialConfigSettings socialConfigSettings;
 
+    /**
+     * Shared layer external requests are made through
+     */
+    private final ExternalReader externalReader;
+
     /**
      * Instantiates a new Youtube reader.
      *
      * @param socialConfigSettings the social config settings
+     * @param externalReader       the external reader
      */
     @Autowired
-    public YoutubeReader(final SocialConfigSettings socialConfigSettings) {
+    public YoutubeReader(final SocialConfigSettings socialConfigSettings,
+                         final ExternalReader externalReader) {
         this.socialConfigSettings = socialConfigSettings;
+        this.externalReader = externalReader;
     }
 
     /**
@@ -53,35 +60,46 @@ public class YoutubeReader {
      */
     public YoutubeListResponse requestVideoData(final String id) {
         final String requestUrl = generateRequestUrl(id);
-        return request(requestUrl, YoutubeListResponse.class);
+        return requestCached("youtube:video:" + id, requestUrl, YoutubeListResponse.class);
+    }
+
+    /**
+     * Request the statistics of many videos in one request
+     * Responses are never cached, as the statistics are expected to change
+     *
+     * @param ids IDs of the videos, youtube allows up to 50 per request
+     * @return the youtube list response
+     */
+    public YoutubeListResponse requestVideoStatistics(final Collection<String> ids) {
+        final String requestUrl = String.format(
+                "%s/videos?id=%s&key=%s&part=statistics&maxResults=%s",
+                socialConfigSettings.getYtApiUrl(),
+                String.join(",", ids),
+                socialConfigSettings.getYtKey(),
+                ids.size()
+        );
+        return externalReader.request(requestUrl, YoutubeListResponse.class);
     }
 
     private String generateRequestUrl(final String id) {
         return String.format(
-                "https://www.googleapis.com/youtube/v3/videos?id=%s&key=%s&part=snippet,contentDetails,statistics,status",
+                "%s/videos?id=%s&key=%s&part=snippet,contentDetails,statistics,status",
+                socialConfigSettings.getYtApiUrl(),
                 id,
                 socialConfigSettings.getYtKey()
         );
     }
 
     /**
-     * This is the method that actually makes the http request
+     * Makes the http request, reusing a recent response for the same resource
      *
+     * @param cacheKey         canonical key of the resource
      * @param url              request url
      * @param deconstructClass class of request object
      * @param <T>              type of request object this is
      * @return request object
      */
-    private <T> T request(final String url, final Class<T> deconstructClass) {
-        final RestTemplate restTemplate = new RestTemplate();
-        T deconstructedResponse = null;
-
-        try {
-            deconstructedResponse = restTemplate.getForObject(url, deconstructClass);
-        } catch (HttpClientErrorException err) {
-            logger.info("[YoutubeReader] [request] Failure To Retrieve YouTube Resource (" + url + ")", err);
-        }
-
-        return deconstructedResponse;
+    private <T> T requestCached(final String cacheKey, final String url, final Class<T> deconstructClass) {
+        return externalReader.requestCached(cacheKey, url, deconstructClass);
     }
 }
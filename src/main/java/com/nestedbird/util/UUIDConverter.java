@@ -48,11 +48,42 @@ public class UUIDConverter {
         if (uuidString == null) throw new NullPointerException("String cannot be null");
         if (!isUUID(uuidString)) throw new IllegalArgumentException("string must be a valid uuid");
 
+        return Base64.encodeBase64URLSafeString(toBytes(uuidString));
+    }
+
+    /**
+     * Turns a UUID in string format to its 16 bytes
+     *
+     * @param uuidString String representation of the uuid
+     * @return the most significant bits followed by the least significant bits
+     * @throws IllegalArgumentException String must be a valid uuid
+     * @throws NullPointerException     String cannot be null
+     */
+    public static byte[] toBytes(final String uuidString) {
+        if (uuidString == null) throw new NullPointerException("String cannot be null");
+
         final UUID uuid = UUID.fromString(uuidString);
         final ByteBuffer bb = ByteBuffer.wrap(new byte[16]);
         bb.putLong(uuid.getMostSignificantBits());
         bb.putLong(uuid.getLeastSignificantBits());
-        return Base64.encodeBase64URLSafeString(bb.array());
+        return bb.array();
+    }
+
+    /**
+     * Converts the 16 bytes of a UUID to a string represented UUID
+     *
+     * @param bytes the most significant bits followed by the least significant bits
+     * @return String represented UUID
+     * @throws NullPointerException     Bytes must not be null
+     * @throws IllegalArgumentException There must be 16 bytes
+     */
+    public static String fromBytes(final byte[] bytes) {
+        if (bytes == null) throw new NullPointerException("Bytes cannot be null");
+        if (bytes.length != 16) throw new IllegalArgumentException("There should be 16 bytes");
+
+        final ByteBuffer bb = ByteBuffer.wrap(bytes);
+        final UUID uuid = new UUID(bb.getLong(), bb.getLong());
+        return uuid.toString();
     }
 
     /**
@@ -65,6 +96,24 @@ public class UUIDConverter {
         return PatternMatcher.of(uuidPattern, uuidString).doesMatch();
     }
 
+    /**
+     * Detects whether or not the string can be read as a UUID
+     * Unlike isUUID this is exactly what toBytes accepts, so ids that pass can always be bound as binary ids
+     *
+     * @param uuidString String represented UUID
+     * @return Whether or not the string can be read as a UUID
+     */
+    public static Boolean isParsable(final String uuidString) {
+        if (uuidString == null) return false;
+
+        try {
+            UUID.fromString(uuidString);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
     /**
      * Converts a Base64 encoded string to a string represented UUID
      *
@@ -77,9 +126,6 @@ public class UUIDConverter {
         if (base64String == null) throw new NullPointerException("String cannot be null");
         if (base64String.length() != 22) throw new IllegalArgumentException("String should be 22 characters long");
 
-        final byte[] bytes = Base64.decodeBase64(base64String);
-        final ByteBuffer bb = ByteBuffer.wrap(bytes);
-        final UUID uuid = new UUID(bb.getLong(), bb.getLong());
-        return uuid.toString();
+        return fromBytes(Base64.decodeBase64(base64String));
     }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.views;
+
+import com.nestedbird.modules.warmup.CacheWarmup;
+import com.nestedbird.modules.warmup.WarmupStep;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+/**
+ * Tells the load balancer whether this node is ready to serve requests
+ */
+@Controller
+public class ReadinessController {
+    private final CacheWarmup cacheWarmup;
+
+    /**
+     * Instantiates a new Readiness controller.
+     *
+     * @param cacheWarmup the cache warmup
+     */
+    @Autowired
+    public ReadinessController(final CacheWarmup cacheWarmup) {
+        this.cacheWarmup = cacheWarmup;
+    }
+
+    /**
+     * Responds 503 until the caches have been warmed, then 200
+     * The body reports how long each warm-up step took
+     *
+     * @return the warm-up steps
+     */
+    @RequestMapping(value = "/ready", method = RequestMethod.GET)
+    @ResponseBody
+    public ResponseEntity<List<WarmupStep>> ready() {
+        final HttpStatus status = cacheWarmup.isReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return new ResponseEntity<>(cacheWarmup.getReport(), status);
+    }
+}
@@ -16,49 +16,54 @@
 
 package com.nestedbird.views;
 
+import com.nestedbird.models.artist.Artist;
 import com.nestedbird.models.artist.ArtistService;
 import com.nestedbird.models.core.Base.BaseEntity;
+import com.nestedbird.models.core.Base.BaseService;
+import com.nestedbird.models.event.Event;
 import com.nestedbird.models.event.EventService;
+import com.nestedbird.models.location.Location;
 import com.nestedbird.models.location.LocationService;
+import com.nestedbird.models.medium.Medium;
 import com.nestedbird.models.medium.MediumService;
-import com.nestedbird.util.Mutable;
+import com.nestedbird.modules.entitytypes.EntityTypeRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 import javax.servlet.http.HttpServletResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 
 @Controller
 public class ResolverController {
-    private final EventService eventService;
+    /**
+     * The services of each type an id can resolve to, in the order they are tried when the type is not known
+     */
+    private final Map<Class<? extends BaseEntity>, BaseService<? extends BaseEntity>> services = new LinkedHashMap<>();
 
-    private final ArtistService artistService;
-
-    private final LocationService locationService;
-
-    private final MediumService mediumService;
+    private final EntityTypeRegistry entityTypeRegistry;
 
     @Autowired
     public ResolverController(final EventService eventService,
                               final ArtistService artistService,
                               final LocationService locationService,
-                              final MediumService mediumService) {
-        this.eventService = eventService;
-        this.artistService = artistService;
-        this.locationService = locationService;
-        this.mediumService = mediumService;
+                              final MediumService mediumService,
+                              final EntityTypeRegistry entityTypeRegistry) {
+        services.put(Event.class, eventService);
+        services.put(Artist.class, artistService);
+        services.put(Location.class, locationService);
+        services.put(Medium.class, mediumService);
+        this.entityTypeRegistry = entityTypeRegistry;
     }
 
 
     @RequestMapping(value = "/resolve/{id}")
     public void resolveEntityId(@PathVariable("id") final String id,
                                 final HttpServletResponse response) {
-        final Mutable<BaseEntity> entity = Mutable.of(null);
-        eventService.findOne(id).map(BaseEntity.class::cast).ifPresent(entity::mutate);
-        artistService.findOne(id).map(BaseEntity.class::cast).ifPresent(entity::mutate);
-        locationService.findOne(id).map(BaseEntity.class::cast).ifPresent(entity::mutate);
-        mediumService.findOne(id).map(BaseEntity.class::cast).ifPresent(entity::mutate);
+        final Optional<BaseEntity> entity = resolve(id);
 
         if (entity.isPresent()) {
             response.setStatus(HttpServletResponse.SC_MOVED_PERMANENTLY);
@@ -68,4 +73,31 @@ public class ResolverController {
             response.setHeader("Location", "/404");
         }
     }
+
+    /**
+     * Finds the entity an id belongs to
+     * The registry tells us which type to load, so usually this is a single lookup. Ids the registry does not know
+     * about, or knows wrongly, are looked for in every type and recorded once found
+     *
+     * @param id the id of the entity
+     * @return the entity
+     */
+    private Optional<BaseEntity> resolve(final String id) {
+        final Optional<Class<? extends BaseEntity>> type = entityTypeRegistry.typeOf(id);
+        final Optional<BaseEntity> registered = type
+                .map(services::get)
+                .flatMap(service -> service.findOne(id).map(BaseEntity.class::cast));
+        if (registered.isPresent()) {
+            return registered;
+        }
+
+        type.ifPresent(staleType -> entityTypeRegistry.remove(id));
+        final Optional<BaseEntity> entity = services.values().stream()
+                .map(service -> service.findOne(id).map(BaseEntity.class::cast))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .findFirst();
+        entity.ifPresent(entityTypeRegistry::register);
+        return entity;
+    }
 }
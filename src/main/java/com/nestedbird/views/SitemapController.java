@@ -16,7 +16,9 @@
 
 package com.nestedbird.views;
 
+import com.nestedbird.modules.scheduling.ClusterSingleton;
 import com.nestedbird.modules.sitemap.SitemapGenerator;
+import com.nestedbird.modules.storeloader.StoreLoader;
 import org.redisson.api.RBucket;
 import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,30 +35,37 @@ import org.springframework.web.bind.annotation.ResponseBody;
 @Controller
 @EnableScheduling
 public class SitemapController {
+    private static final String REDIS_KEY_SITEMAP = "SiteMapCache";
+
     private final SitemapGenerator sitemapGenerator;
 
     private final RedissonClient redissonClient;
 
+    private final StoreLoader storeLoader;
+
     /**
      * Instantiates a new Sitemap controller.
      *
      * @param sitemapGenerator the sitemap generator
      * @param redissonClient   the redisson client
+     * @param storeLoader      the store loader
      */
     @Autowired
     public SitemapController(final SitemapGenerator sitemapGenerator,
-                             final RedissonClient redissonClient) {
+                             final RedissonClient redissonClient,
+                             final StoreLoader storeLoader) {
         this.sitemapGenerator = sitemapGenerator;
         this.redissonClient = redissonClient;
+        this.storeLoader = storeLoader;
     }
 
     /**
      * Update redisson cache.
      */
     @Scheduled(cron = "0 0 */2 * * *")
+    @ClusterSingleton
     public void updateRedissonCache() {
-        final RBucket<String> bucket = redissonClient.getBucket("SiteMapCache");
-        bucket.set(sitemapGenerator.generate());
+        storeLoader.rebuild(REDIS_KEY_SITEMAP, this::getStore, this::buildSitemap);
     }
 
     /**
@@ -68,12 +77,14 @@ public class SitemapController {
     @RequestMapping("/sitemap.xml")
     @ResponseBody
     public String home(final Model model) {
-        final RBucket<String> bucket = redissonClient.getBucket("SiteMapCache");
+        return storeLoader.getOrBuild(REDIS_KEY_SITEMAP, this::getStore, this::buildSitemap).get();
+    }
 
-        if (bucket.get() == null || bucket.get().isEmpty()) {
-            bucket.set(sitemapGenerator.generate());
-        }
+    private RBucket<String> getStore(final String key) {
+        return redissonClient.getBucket(key);
+    }
 
-        return bucket.get();
+    private void buildSitemap(final RBucket<String> bucket) {
+        bucket.set(sitemapGenerator.generate());
     }
 }
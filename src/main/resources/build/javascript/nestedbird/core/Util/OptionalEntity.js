@@ -58,4 +58,14 @@ export default class OptionalEntity {
         }
         return this.get();
     }
+
+    /**
+     * Listings leave out large attributes, such as descriptions, so an entity read from a listing is retrieved in
+     * full when one of them is needed
+     */
+    retrieveIfMissing(attribute: string, dispatch: string) {
+        if (this.isPresent() && !(attribute in this.get())) {
+            store.dispatch(dispatch, this.get().id);
+        }
+    }
 };
\ No newline at end of file
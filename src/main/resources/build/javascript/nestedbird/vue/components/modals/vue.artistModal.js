@@ -19,7 +19,7 @@ import Vue from "vue/dist/vue";
 import Optional from "optional-js";
 // Site Modules
 import { Ajax } from "nestedbird/core/Ajax";
-import { Util } from "nestedbird/core/Util";
+import { OptionalEntity, Util } from "nestedbird/core/Util";
 import store from "nestedbird/vue/store";
 import { Modal, Tag } from "nestedbird/vue/mixins";
 
@@ -88,6 +88,7 @@ export const ArtistModal = {
         };
     },
     created() {
+        this.retrieveDescription();
         this.retrieveInitialMedia();
         this.retrieveInitialEvents();
     },
@@ -98,6 +99,7 @@ export const ArtistModal = {
     watch:    {
         Artist() {
             this.updateTags();
+            this.retrieveDescription();
         }
     },
     computed: {
@@ -181,6 +183,14 @@ export const ArtistModal = {
         }
     },
     methods:  {
+        /**
+         * Retrieves the full artist when its description was left out, ie: it was read from a listing
+         * @member module:Vue/Components.ArtistModal#retrieveDescription
+         * @method
+         */
+        retrieveDescription() {
+            OptionalEntity.of(this.Artist).retrieveIfMissing(`description`, `getArtist`);
+        },
         /**
          * Update meta tags
          * @member module:Vue/Components.ArtistModal#getMedia
@@ -20,7 +20,7 @@ import Optional from "optional-js";
 // Site Modules
 import { Ajax } from "nestedbird/core/Ajax";
 import { Modal, Tag } from "nestedbird/vue/mixins";
-import { Util } from "nestedbird/core/Util";
+import { OptionalEntity, Util } from "nestedbird/core/Util";
 import store from "nestedbird/vue/store";
 
 /**
@@ -63,9 +63,13 @@ export const EventModal = {
             name: store.getters.pathName
         };
     },
+    created() {
+        this.retrieveDescription();
+    },
     watch:    {
         Event() {
             this.updateTags();
+            this.retrieveDescription();
         }
     },
     computed: {
@@ -197,6 +201,14 @@ export const EventModal = {
         }
     },
     methods:  {
+        /**
+         * Retrieves the full event when its description was left out, ie: it was read from a listing
+         * @member module:Vue/Components.EventModal#retrieveDescription
+         * @method
+         */
+        retrieveDescription() {
+            OptionalEntity.of(this.Event).retrieveIfMissing(`description`, `getEvent`);
+        },
         /**
          * checks to see if a page is the current page
          * @member module:Vue/Components.EventModal#isPage
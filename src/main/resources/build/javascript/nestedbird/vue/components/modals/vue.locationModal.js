@@ -21,7 +21,7 @@ import Optional from "optional-js";
 import { Ajax } from "nestedbird/core/Ajax";
 import store from "nestedbird/vue/store";
 import { Modal } from "nestedbird/vue/mixins";
-import { Util } from "nestedbird/core/Util";
+import { OptionalEntity, Util } from "nestedbird/core/Util";
 
 /**
  * This class controls the Location Modal
@@ -75,6 +75,7 @@ export const LocationModal = {
         };
     },
     created() {
+        this.retrieveDescription();
         this.retrieveInitialEvents();
     },
     mounted() {
@@ -83,6 +84,7 @@ export const LocationModal = {
     watch:    {
         Location() {
             this.updateTags();
+            this.retrieveDescription();
         }
     },
     computed: {
@@ -177,6 +179,14 @@ export const LocationModal = {
         }
     },
     methods:  {
+        /**
+         * Retrieves the full location when its description was left out, ie: it was read from a listing
+         * @member module:Vue/Components.LocationModal#retrieveDescription
+         * @method
+         */
+        retrieveDescription() {
+            OptionalEntity.of(this.Location).retrieveIfMissing(`description`, `getLocation`);
+        },
         /**
          * Downloads more location events elements
          * @member module:Vue/Components.LocationModal#getEvents
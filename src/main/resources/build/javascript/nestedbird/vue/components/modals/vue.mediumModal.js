@@ -19,6 +19,7 @@ import Vue from "vue/dist/vue";
 import Optional from "optional-js";
 // Site Modules
 import { Ajax } from "nestedbird/core/Ajax";
+import { OptionalEntity } from "nestedbird/core/Util";
 import store from "nestedbird/vue/store";
 import { Modal, Tag } from "nestedbird/vue/mixins";
 
@@ -57,9 +58,13 @@ export const MediumModal = {
             id: store.getters.pathIdDecoded
         };
     },
+    created() {
+        this.retrieveDescription();
+    },
     watch:    {
         Medium() {
             this.updateTags();
+            this.retrieveDescription();
         }
     },
     computed: {
@@ -91,6 +96,14 @@ export const MediumModal = {
         }
     },
     methods:  {
+        /**
+         * Retrieves the artist of this medium in full when its description was left out, ie: it was read from a listing
+         * @member module:Vue/Components.MediumModal#retrieveDescription
+         * @method
+         */
+        retrieveDescription() {
+            OptionalEntity.of(this.Medium.song.artist).retrieveIfMissing(`description`, `getArtist`);
+        },
         /**
          * Update meta tags
          * @member module:Vue/Components.vueArtistModal#getMedia
@@ -18,6 +18,7 @@
 import Vue from "vue/dist/vue";
 // Site Modules
 import { Ajax } from "nestedbird/core/Ajax";
+import { OptionalEntity } from "nestedbird/core/Util";
 import store from "nestedbird/vue/store";
 import { Modal } from "nestedbird/vue/mixins";
 
@@ -53,9 +54,13 @@ export const SongModal = {
             id: store.getters.pathIdDecoded
         };
     },
+    created() {
+        this.retrieveDescription();
+    },
     watch:    {
         Song() {
             this.updateTags();
+            this.retrieveDescription();
         }
     },
     computed: {
@@ -87,6 +92,14 @@ export const SongModal = {
         }
     },
     methods:  {
+        /**
+         * Retrieves the artist of this song in full when its description was left out, ie: it was read from a listing
+         * @member module:Vue/Components.SongModal#retrieveDescription
+         * @method
+         */
+        retrieveDescription() {
+            OptionalEntity.of(this.Song.artist).retrieveIfMissing(`description`, `getArtist`);
+        },
         /**
          * Update meta tags
          * @member module:Vue/Components.SongModal#updateTags
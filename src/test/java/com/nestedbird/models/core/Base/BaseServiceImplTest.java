@@ -0,0 +1,67 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.nestedbird.models.core.Base;
+
+import com.nestedbird.models.event.Event;
+import com.nestedbird.testcategory.Fast;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Enclosed.class)
+public class BaseServiceImplTest {
+
+    @Category(Fast.class)
+    public static class inOrder {
+        private final Event first = new Event();
+        private final Event second = new Event();
+        private final Event third = new Event();
+
+        @Test
+        public void Should_Keep_Order_Of_Ids_When_Found_In_Other_Order() {
+            final List<String> ids = Arrays.asList(second.getId(), third.getId(), first.getId());
+
+            List<Event> expected = Arrays.asList(second, third, first);
+            List<Event> compared = BaseServiceImpl.inOrder(ids, Arrays.asList(first, second, third));
+            assertEquals("the elements must be returned in the order they were asked for", expected, compared);
+        }
+
+        @Test
+        public void Should_Leave_Out_Missing_When_Id_Not_Found() {
+            final List<String> ids = Arrays.asList(first.getId(), "missing", third.getId());
+
+            List<Event> expected = Arrays.asList(first, third);
+            List<Event> compared = BaseServiceImpl.inOrder(ids, Arrays.asList(third, first));
+            assertEquals("ids that do not exist must be left out", expected, compared);
+        }
+
+        @Test
+        public void Should_Be_Empty_When_Nothing_Found() {
+            List<Event> expected = Collections.emptyList();
+            List<Event> compared = BaseServiceImpl.inOrder(Collections.singletonList(first.getId()), Collections.emptyList());
+            assertEquals("no elements must be returned when none exist", expected, compared);
+        }
+    }
+}
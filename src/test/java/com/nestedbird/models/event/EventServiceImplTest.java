@@ -0,0 +1,126 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.nestedbird.models.event;
+
+import com.nestedbird.models.artist.Artist;
+import com.nestedbird.models.eventtime.EventTime;
+import com.nestedbird.models.location.Location;
+import com.nestedbird.testcategory.Fast;
+import org.hibernate.LazyInitializationException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Enclosed.class)
+public class EventServiceImplTest {
+    /**
+     * Creates a repository that only finds the given event by its facebook id, and refuses to save anything
+     */
+    private static EventRepository repository(final Event stored) {
+        return (EventRepository) Proxy.newProxyInstance(
+                EventRepository.class.getClassLoader(),
+                new Class[]{EventRepository.class},
+                (proxy, method, args) -> {
+                    if (!"findFirstByFacebookId".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return stored.getFacebookId().equals(args[0]) ? stored : null;
+                });
+    }
+
+    @Category(Fast.class)
+    public static class findOrSave {
+        private final Event stored = new Event();
+        private final lazySet<Artist> artists = new lazySet<>();
+        private final lazySet<EventTime> times = new lazySet<>();
+        private EventServiceImpl eventService;
+
+        @Before
+        public void setUp() throws Exception {
+            artists.add(new Artist());
+            times.add(new EventTime());
+            stored.setFacebookId(1234L);
+            stored.setLocation(new Location());
+            stored.setArtists(artists);
+            stored.setTimes(times);
+            eventService = new EventServiceImpl(repository(stored), null, null, null, null);
+        }
+
+        @Test
+        public void Should_Return_Stored_Event_When_Known() {
+            final Event parsed = new Event();
+            parsed.setFacebookId(1234L);
+
+            Event expected = stored;
+            Event compared = eventService.findOrSave(parsed);
+            assertEquals("a known event must not be saved again", expected, compared);
+        }
+
+        @Test
+        public void Should_Serialize_Relations_When_Session_Closed() {
+            final Event parsed = new Event();
+            parsed.setFacebookId(1234L);
+            final Event found = eventService.findOrSave(parsed);
+            artists.detach();
+            times.detach();
+
+            List<Boolean> expected = Arrays.asList(true, true);
+            List<Boolean> compared = Arrays.asList(found.getArtists().iterator().hasNext(), found.getTimes().iterator().hasNext());
+            assertEquals("the relations of a known event must be fetched before it leaves the session", expected, compared);
+        }
+    }
+
+    /**
+     * Acts like a lazy collection, it can only be fetched while it is attached to a session
+     */
+    public static class lazySet<T> extends HashSet<T> {
+        private boolean initialized;
+
+        private boolean detached;
+
+        void detach() {
+            detached = true;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            fetch();
+            return super.iterator();
+        }
+
+        @Override
+        public Spliterator<T> spliterator() {
+            fetch();
+            return super.spliterator();
+        }
+
+        private void fetch() {
+            if (!initialized && detached) {
+                throw new LazyInitializationException("failed to lazily initialize a collection, no session");
+            }
+            initialized = true;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.models.event;
+
+import com.nestedbird.modules.valuecodec.JsonValueCodec;
+import com.nestedbird.modules.valuecodec.ValueCodec;
+import com.nestedbird.testcategory.Fast;
+import com.nestedbird.testcategory.Slow;
+import org.joda.time.DateTime;
+import org.joda.time.Period;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.nustaq.serialization.FSTConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Enclosed.class)
+public class ParsedEventDataCodecTest {
+    private static ParsedEventData occurrence(final long startTime, final Period duration) {
+        return ParsedEventData.builder()
+                .eventId(UUID.randomUUID().toString())
+                .startTime(new DateTime(startTime))
+                .duration(duration)
+                .build();
+    }
+
+    @Category(Fast.class)
+    public static class decode {
+        @Test
+        public void Should_Match_When_Encoded_And_Decoded() {
+            final ParsedEventDataCodec codec = new ParsedEventDataCodec();
+            final ParsedEventData occurrence = occurrence(1500000000000L, new Period(3 * 60 * 60 * 1000));
+            final ParsedEventData decoded = codec.decode(codec.encode(occurrence));
+
+            String expected = occurrence.getEventId() + occurrence.getStartTime().getMillis() +
+                    occurrence.getDuration().toStandardDuration().getMillis();
+            String compared = decoded.getEventId() + decoded.getStartTime().getMillis() +
+                    decoded.getDuration().toStandardDuration().getMillis();
+            assertEquals("the event id, start time and duration must survive encoding", expected, compared);
+        }
+
+        @Test
+        public void Should_Measure_Months_From_Start_When_Encoded() {
+            final ParsedEventDataCodec codec = new ParsedEventDataCodec();
+            final DateTime start = new DateTime(2017, 2, 1, 0, 0);
+            final ParsedEventData occurrence = occurrence(start.getMillis(), Period.months(1));
+
+            Long expected = start.plusMonths(1).getMillis() - start.getMillis();
+            Long compared = codec.decode(codec.encode(occurrence)).getDuration().toStandardDuration().getMillis();
+            assertEquals("a month long occurrence starting in february must last 28 days", expected, compared);
+        }
+
+        @Test(expected = IllegalArgumentException.class)
+        public void Should_ThrowException_When_Bytes_Are_Json() {
+            new ParsedEventDataCodec().decode("{\"eventId\":\"\"}".getBytes());
+        }
+    }
+
+    /**
+     * Compares the size and decode time of the upcoming store entries under each encoding
+     */
+    @Category(Slow.class)
+    public static class benchmark {
+        private static final int OCCURRENCES = 20000;
+        private static final int ROUNDS = 5;
+
+        private static List<ParsedEventData> occurrences() {
+            final List<ParsedEventData> occurrences = new ArrayList<>();
+            for (int i = 0; i < OCCURRENCES; i++) {
+                occurrences.add(occurrence(1500000000000L + i * 3600000L, new Period(2 * 60 * 60 * 1000)));
+            }
+            return occurrences;
+        }
+
+        private static long size(final List<byte[]> encoded) {
+            return encoded.stream().mapToLong(bytes -> bytes.length).sum();
+        }
+
+        private static long decodeNanos(final List<byte[]> encoded, final Function<byte[], ?> decoder) {
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                final long start = System.nanoTime();
+                encoded.forEach(decoder::apply);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            return best;
+        }
+
+        private static List<byte[]> encode(final List<ParsedEventData> occurrences, final Function<ParsedEventData, byte[]> encoder) {
+            final List<byte[]> encoded = new ArrayList<>();
+            occurrences.forEach(occurrence -> encoded.add(encoder.apply(occurrence)));
+            return encoded;
+        }
+
+        private static void report(final String name, final List<byte[]> encoded, final long nanos) {
+            System.out.printf("[ParsedEventDataCodecTest] %-12s %6.1f bytes per entry, %7.0f ns per decode%n",
+                    name, (double) size(encoded) / OCCURRENCES, (double) nanos / OCCURRENCES);
+        }
+
+        @Test
+        public void Should_Be_Smallest_When_Compact() {
+            final List<ParsedEventData> occurrences = occurrences();
+            final ValueCodec<ParsedEventData> json = new JsonValueCodec<>(ParsedEventData.class);
+            final ValueCodec<ParsedEventData> compact = new ParsedEventDataCodec();
+            final FSTConfiguration fst = FSTConfiguration.createDefaultConfiguration();
+
+            final List<byte[]> jsonEncoded = encode(occurrences, json::encode);
+            final List<byte[]> fstEncoded = encode(occurrences, fst::asByteArray);
+            final List<byte[]> compactEncoded = encode(occurrences, compact::encode);
+
+            report("json+snappy", jsonEncoded, decodeNanos(jsonEncoded, json::decode));
+            report("fst", fstEncoded, decodeNanos(fstEncoded, fst::asObject));
+            report(compact.getName(), compactEncoded, decodeNanos(compactEncoded, compact::decode));
+
+            assertTrue("compact entries must be smaller than json+snappy", size(compactEncoded) < size(jsonEncoded));
+            assertTrue("compact entries must be smaller than fst", size(compactEncoded) < size(fstEncoded));
+        }
+    }
+}
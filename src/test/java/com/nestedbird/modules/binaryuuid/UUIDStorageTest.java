@@ -0,0 +1,223 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.binaryuuid;
+
+import com.nestedbird.testcategory.Fast;
+import com.nestedbird.testcategory.Integration;
+import com.nestedbird.util.UUIDConverter;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Enclosed.class)
+public class UUIDStorageTest {
+    @Category(Fast.class)
+    public static class fromSetting {
+        @Test
+        public void Should_Be_Char_When_Not_Set() {
+            UUIDStorage expected = UUIDStorage.CHAR;
+            UUIDStorage compared = UUIDStorage.fromSetting(null);
+            assertEquals("ids must stay strings unless binary storage is chosen", expected, compared);
+        }
+
+        @Test
+        public void Should_Be_Binary_When_Set_In_Lower_Case() {
+            UUIDStorage expected = UUIDStorage.BINARY;
+            UUIDStorage compared = UUIDStorage.fromSetting("binary");
+            assertEquals("the setting must not be case sensitive", expected, compared);
+        }
+    }
+
+    @Category(Fast.class)
+    public static class toParameter {
+        @Test
+        public void Should_Be_Bytes_When_Binary() {
+            final String id = "5aa5f535-da28-42bf-8d85-ac58d81b1a1e";
+
+            String expected = id;
+            String compared = UUIDConverter.fromBytes((byte[]) UUIDStorage.BINARY.toParameter(id));
+            assertEquals("binary storage must bind the 16 bytes of the id", expected, compared);
+        }
+
+        @Test
+        public void Should_Be_String_When_Char() {
+            final String id = "5aa5f535-da28-42bf-8d85-ac58d81b1a1e";
+
+            Object expected = id;
+            Object compared = UUIDStorage.CHAR.toParameter(id);
+            assertEquals("char storage must bind the id as it is", expected, compared);
+        }
+    }
+
+    /**
+     * Compares lookups and joins of events and artists with CHAR(36) and BINARY(16) ids
+     * Needs a MySQL database to create its tables in, set with -Dbenchmark.db.url, .username and .password
+     */
+    @Category(Integration.class)
+    public static class benchmark {
+        private static final int ARTISTS = 2000;
+        private static final int EVENTS = 20000;
+        private static final int ARTISTS_PER_EVENT = 3;
+        private static final int LOOKUPS = 20000;
+        private static final int JOINS = 20;
+
+        private static Connection connect() throws SQLException {
+            return DriverManager.getConnection(
+                    System.getProperty("benchmark.db.url", "jdbc:mysql://localhost:3306/nestedbird_benchmark"),
+                    System.getProperty("benchmark.db.username", "root"),
+                    System.getProperty("benchmark.db.password", ""));
+        }
+
+        private static List<String> ids(final int count) {
+            final List<String> ids = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                ids.add(UUID.randomUUID().toString());
+            }
+            return ids;
+        }
+
+        private static void create(final Statement statement, final UUIDStorage storage) throws SQLException {
+            final String prefix = "bench_" + storage.name().toLowerCase();
+            final String type = storage.getColumnType();
+            statement.execute("DROP TABLE IF EXISTS " + prefix + "_events_artists, " + prefix + "_events, " + prefix + "_artists");
+            statement.execute("CREATE TABLE " + prefix + "_artists (id " + type + " NOT NULL PRIMARY KEY, " +
+                    "name VARCHAR(255)) DEFAULT CHARSET = utf8mb4");
+            statement.execute("CREATE TABLE " + prefix + "_events (id " + type + " NOT NULL PRIMARY KEY, " +
+                    "name VARCHAR(255)) DEFAULT CHARSET = utf8mb4");
+            statement.execute("CREATE TABLE " + prefix + "_events_artists (event_id " + type + " NOT NULL, " +
+                    "artist_id " + type + " NOT NULL, PRIMARY KEY (event_id, artist_id), " +
+                    "FOREIGN KEY (event_id) REFERENCES " + prefix + "_events (id), " +
+                    "FOREIGN KEY (artist_id) REFERENCES " + prefix + "_artists (id)) DEFAULT CHARSET = utf8mb4");
+        }
+
+        private static void fill(final Connection connection,
+                                 final UUIDStorage storage,
+                                 final List<String> events,
+                                 final List<String> artists) throws SQLException {
+            final String prefix = "bench_" + storage.name().toLowerCase();
+            insert(connection, "INSERT INTO " + prefix + "_artists (id, name) VALUES (?, 'artist')", storage, artists);
+            insert(connection, "INSERT INTO " + prefix + "_events (id, name) VALUES (?, 'event')", storage, events);
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO " + prefix + "_events_artists (event_id, artist_id) VALUES (?, ?)")) {
+                for (int i = 0; i < events.size(); i++) {
+                    for (int j = 0; j < ARTISTS_PER_EVENT; j++) {
+                        statement.setObject(1, storage.toParameter(events.get(i)));
+                        statement.setObject(2, storage.toParameter(artists.get((i + j * 7) % artists.size())));
+                        statement.addBatch();
+                    }
+                }
+                statement.executeBatch();
+            }
+        }
+
+        private static void insert(final Connection connection,
+                                   final String sql,
+                                   final UUIDStorage storage,
+                                   final List<String> ids) throws SQLException {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (final String id : ids) {
+                    statement.setObject(1, storage.toParameter(id));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+
+        private static long lookups(final Connection connection,
+                                    final UUIDStorage storage,
+                                    final List<String> events) throws SQLException {
+            final Random random = new Random(1);
+            final long start = System.nanoTime();
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT name FROM bench_" + storage.name().toLowerCase() + "_events WHERE id = ?")) {
+                for (int i = 0; i < LOOKUPS; i++) {
+                    statement.setObject(1, storage.toParameter(events.get(random.nextInt(events.size()))));
+                    try (ResultSet result = statement.executeQuery()) {
+                        result.next();
+                    }
+                }
+            }
+            return System.nanoTime() - start;
+        }
+
+        private static long[] joins(final Statement statement, final UUIDStorage storage) throws SQLException {
+            final String prefix = "bench_" + storage.name().toLowerCase();
+            long rows = 0;
+            final long start = System.nanoTime();
+            for (int i = 0; i < JOINS; i++) {
+                try (ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM " + prefix + "_events e " +
+                        "JOIN " + prefix + "_events_artists ea ON ea.event_id = e.id " +
+                        "JOIN " + prefix + "_artists a ON a.id = ea.artist_id")) {
+                    result.next();
+                    rows = result.getLong(1);
+                }
+            }
+            return new long[]{System.nanoTime() - start, rows};
+        }
+
+        private static long size(final Statement statement, final UUIDStorage storage) throws SQLException {
+            statement.execute("ANALYZE TABLE bench_" + storage.name().toLowerCase() + "_events_artists");
+            try (ResultSet result = statement.executeQuery("SELECT DATA_LENGTH + INDEX_LENGTH " +
+                    "FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() " +
+                    "AND TABLE_NAME = 'bench_" + storage.name().toLowerCase() + "_events_artists'")) {
+                result.next();
+                return result.getLong(1);
+            }
+        }
+
+        @Test
+        public void Should_Join_The_Same_Rows_When_Binary() throws SQLException {
+            final List<String> events = ids(EVENTS);
+            final List<String> artists = ids(ARTISTS);
+            final List<Long> joinedRows = new ArrayList<>();
+
+            try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+                for (final UUIDStorage storage : UUIDStorage.values()) {
+                    create(statement, storage);
+                    fill(connection, storage, events, artists);
+
+                    final long lookupNanos = lookups(connection, storage, events);
+                    final long[] join = joins(statement, storage);
+                    joinedRows.add(join[1]);
+
+                    System.out.printf("[UUIDStorageTest] %-6s %6.1f us per lookup, %7.1f ms per join, " +
+                                    "events_artists %d KB%n", storage, lookupNanos / 1000.0 / LOOKUPS,
+                            join[0] / 1000000.0 / JOINS, size(statement, storage) / 1024);
+                }
+            }
+
+            Long expected = joinedRows.get(0);
+            Long compared = joinedRows.get(1);
+            assertEquals("both storages must join the same rows", expected, compared);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.conditionalget;
+
+import com.nestedbird.models.core.Base.BaseEntity;
+import com.nestedbird.models.event.Event;
+import com.nestedbird.models.location.Location;
+import com.nestedbird.testcategory.Fast;
+import org.joda.time.DateTime;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+@RunWith(Enclosed.class)
+public class ConditionalGetTest {
+    private static Event event(final long lastModified) {
+        final Event event = new Event();
+        event.setLastModifiedDate(new DateTime(lastModified));
+        return event;
+    }
+
+    private static Location location(final long lastModified) {
+        final Location location = new Location();
+        location.setLastModifiedDate(new DateTime(lastModified));
+        return location;
+    }
+
+    private static ServletWebRequest request(final String header, final String value) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/Events");
+        if (header != null) {
+            request.addHeader(header, value);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    @Category(Fast.class)
+    public static class checkNotModified {
+        private final List<Event> events = Arrays.asList(event(1000000L), event(5000000L));
+
+        @Test
+        public void Should_Be_Modified_When_No_Validators_Sent() {
+            boolean expected = false;
+            boolean compared = ConditionalGet.checkNotModified(request(null, null), events, CachePolicy.LISTING, true);
+            assertEquals("a client without a copy must get the full response", expected, compared);
+        }
+
+        @Test
+        public void Should_Not_Be_Modified_When_ETag_Matches() {
+            final ServletWebRequest first = request(null, null);
+            ConditionalGet.checkNotModified(first, events, CachePolicy.LISTING, true);
+            final String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+            final ServletWebRequest second = request(HttpHeaders.IF_NONE_MATCH, eTag);
+            boolean expected = true;
+            boolean compared = ConditionalGet.checkNotModified(second, events, CachePolicy.LISTING, true);
+            assertEquals("the etag of the first response must revalidate", expected, compared);
+        }
+
+        @Test
+        public void Should_Not_Be_Modified_When_Not_Modified_Since() {
+            final ServletWebRequest request = request(HttpHeaders.IF_MODIFIED_SINCE, "Thu, 01 Jan 1970 01:23:20 GMT");
+
+            boolean expected = true;
+            boolean compared = ConditionalGet.checkNotModified(request, events, CachePolicy.ENTITY, true);
+            assertEquals("the latest last modified date of the page must be used", expected, compared);
+        }
+
+        @Test
+        public void Should_Be_Modified_When_Related_Entity_Modified() {
+            final Event event = event(1000000L);
+            final Location location = location(1000000L);
+            event.setLocation(location);
+            final ServletWebRequest first = request(null, null);
+            ConditionalGet.checkNotModified(first, Collections.singletonList(event), CachePolicy.ENTITY, true);
+            final String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+            location.setLastModifiedDate(new DateTime(5000000L));
+            final ServletWebRequest second = request(HttpHeaders.IF_NONE_MATCH, eTag);
+            boolean expected = false;
+            boolean compared = ConditionalGet.checkNotModified(second, Collections.singletonList(event), CachePolicy.ENTITY, true);
+            assertEquals("the location is serialized with the event, so modifying it must modify the event", expected, compared);
+        }
+
+        @Test
+        public void Should_Not_Send_Last_Modified_When_Listing() {
+            final ServletWebRequest request = request(null, null);
+            ConditionalGet.checkNotModified(request, events, CachePolicy.LISTING, true);
+
+            String expected = null;
+            String compared = request.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+            assertEquals("removing an older element does not change the latest date of a listing", expected, compared);
+        }
+
+        @Test
+        public void Should_Vary_By_User_When_Shared() {
+            final ServletWebRequest request = request(null, null);
+            ConditionalGet.checkNotModified(request, events, CachePolicy.LISTING, true);
+
+            String expected = "Cookie, Authorization";
+            String compared = request.getResponse().getHeader(HttpHeaders.VARY);
+            assertEquals("shared caches must not give a signed in user the anonymous response", expected, compared);
+        }
+
+        @Test
+        public void Should_Set_Private_Cache_Control_When_Not_Shared() {
+            final ServletWebRequest request = request(null, null);
+            ConditionalGet.checkNotModified(request, events, CachePolicy.ENTITY, false);
+
+            String expected = "no-cache, private";
+            String compared = request.getResponse().getHeader(HttpHeaders.CACHE_CONTROL);
+            assertEquals("responses for a signed in user must not be stored by shared caches", expected, compared);
+        }
+    }
+
+    @Category(Fast.class)
+    public static class withRelations {
+        @Test
+        public void Should_Include_Serialized_Relations_When_Present() {
+            final Event event = event(1000000L);
+            final Location location = location(1000000L);
+            event.setLocation(location);
+
+            List<BaseEntity> expected = Arrays.asList(event, location);
+            List<BaseEntity> compared = ConditionalGet.withRelations(Collections.singletonList(event));
+            assertEquals("the location is serialized with the event", expected, compared);
+        }
+
+        @Test
+        public void Should_Skip_Back_References_When_Present() {
+            final Location location = location(1000000L);
+            location.getEvents().add(event(1000000L));
+
+            List<BaseEntity> expected = Collections.singletonList(location);
+            List<BaseEntity> compared = ConditionalGet.withRelations(Collections.singletonList(location));
+            assertEquals("the events of a location are not serialized with it", expected, compared);
+        }
+    }
+
+    @Category(Fast.class)
+    public static class eTag {
+        @Test
+        public void Should_Change_When_Page_Elements_Change() {
+            final Event event = event(1000000L);
+            final Event other = event(1000000L);
+
+            String expected = ConditionalGet.eTag(Collections.singletonList(event), 1000000L, "/api/v1/Events", null);
+            String compared = ConditionalGet.eTag(Arrays.asList(event, other), 1000000L, "/api/v1/Events", null);
+            assertNotEquals("adding an element to a page must change its etag", expected, compared);
+        }
+
+        @Test
+        public void Should_Change_When_View_Changes() {
+            final List<Event> events = Collections.singletonList(event(1000000L));
+
+            String expected = ConditionalGet.eTag(events, 1000000L, "/api/v1/Events", null, "Anonymous");
+            String compared = ConditionalGet.eTag(events, 1000000L, "/api/v1/Events", null, "Admin");
+            assertNotEquals("each json view must have its own etag", expected, compared);
+        }
+
+        @Test
+        public void Should_Be_Weak_When_Created() {
+            boolean expected = true;
+            boolean compared = ConditionalGet.eTag(Collections.emptyList(), -1, "/", null).startsWith("W/\"");
+            assertEquals("the etag describes the entities rather than the bytes", expected, compared);
+        }
+    }
+}
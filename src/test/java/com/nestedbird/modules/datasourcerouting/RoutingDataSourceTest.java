@@ -0,0 +1,169 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.datasourcerouting;
+
+import com.nestedbird.models.core.Base.BaseService;
+import com.nestedbird.models.core.Base.BaseServiceImpl;
+import com.nestedbird.models.event.Event;
+import com.nestedbird.testcategory.Fast;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.junit.Assert.assertSame;
+
+@RunWith(Enclosed.class)
+public class RoutingDataSourceTest {
+
+    @Category(Fast.class)
+    public static class getConnection {
+        private Connection primaryConnection;
+        private Connection replicaConnection;
+        private RoutingDataSource routingDataSource;
+
+        @Before
+        public void setUp() throws Exception {
+            primaryConnection = stubConnection();
+            replicaConnection = stubConnection();
+            routingDataSource = new RoutingDataSource(
+                    new testDataSource(primaryConnection),
+                    Collections.singletonMap("replica-0", new testDataSource(replicaConnection)),
+                    5);
+        }
+
+        @After
+        public void tearDown() throws Exception {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            DataSourceRouting.clear();
+        }
+
+        @Test
+        public void Should_Use_Primary_By_Default() throws SQLException {
+            assertSame("default work must use the primary", primaryConnection, routingDataSource.getConnection());
+        }
+
+        @Test
+        public void Should_Use_Replica_For_Read_Only_Transactions() throws SQLException {
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertSame("read only transactions must use the replica", replicaConnection, routingDataSource.getConnection());
+        }
+
+        @Test
+        public void Should_Use_Primary_For_Write_Transactions_When_Replica_Preferred() throws SQLException {
+            DataSourceRouting.preferReplica();
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            assertSame("write transactions must use the primary", primaryConnection, routingDataSource.getConnection());
+        }
+
+        @Test
+        public void Should_Use_Replica_For_Public_Listing() throws Exception {
+            final TransactionAttribute listing = new AnnotationTransactionAttributeSource()
+                    .getTransactionAttribute(BaseService.class.getMethod("listAllByPage", Pageable.class), testService.class);
+            beginTransaction(listing);
+            assertSame("public listings must use the replica", replicaConnection, routingDataSource.getConnection());
+        }
+
+        @Test
+        public void Should_Use_Primary_For_Saves() throws Exception {
+            final TransactionAttribute save = new AnnotationTransactionAttributeSource()
+                    .getTransactionAttribute(BaseService.class.getMethod("saveAll", Collection.class), testService.class);
+            beginTransaction(save);
+            assertSame("saves must use the primary", primaryConnection, routingDataSource.getConnection());
+        }
+
+        @Test
+        public void Should_Use_Replica_When_Preferred() throws SQLException {
+            DataSourceRouting.preferReplica();
+            assertSame("preferred work must use the replica", replicaConnection, routingDataSource.getConnection());
+        }
+
+        @Test
+        public void Should_Fall_Back_To_Primary_When_Replica_Fails() throws SQLException {
+            final RoutingDataSource failingRoutingDataSource = new RoutingDataSource(
+                    new testDataSource(primaryConnection),
+                    Collections.singletonMap("replica-0", new testDataSource(null)),
+                    5);
+
+            DataSourceRouting.preferReplica();
+            assertSame("failed replicas must fall back to the primary", primaryConnection, failingRoutingDataSource.getConnection());
+        }
+
+        /**
+         * Marks the current thread as the transaction manager would for a public GET request
+         */
+        private static void beginTransaction(final TransactionAttribute attribute) {
+            DataSourceRouting.preferReplica();
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(attribute.isReadOnly());
+        }
+
+        private static Connection stubConnection() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class[]{Connection.class},
+                    (proxy, method, args) -> null);
+        }
+    }
+
+    /**
+     * Declares its transactions like the entity services do, read write for the whole class
+     */
+    @Transactional
+    public abstract static class testService extends BaseServiceImpl<Event> {
+    }
+
+    /**
+     * Hands out a single connection, or fails if it has none
+     */
+    public static class testDataSource extends AbstractDataSource {
+        private final Connection connection;
+
+        public testDataSource(final Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (connection == null) {
+                throw new SQLException("Unavailable");
+            }
+            return connection;
+        }
+
+        @Override
+        public Connection getConnection(final String username, final String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.nestedbird.modules.entitytypes;
+
+import com.nestedbird.models.artist.Artist;
+import com.nestedbird.models.core.Base.BaseEntity;
+import com.nestedbird.models.event.Event;
+import com.nestedbird.models.location.Location;
+import com.nestedbird.testcategory.Fast;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.redisson.api.RMap;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Enclosed.class)
+public class EntityTypeRegistryTest {
+    /**
+     * Creates a registry of events and artists, recorded in memory rather than in redis
+     *
+     * @return the entity type registry
+     */
+    public static EntityTypeRegistry inMemory() {
+        return new EntityTypeRegistry(inMemoryMap(), Arrays.asList(Event.class, Artist.class));
+    }
+
+    /**
+     * Answers the parts of a redis hash the registry uses from a map held in memory
+     */
+    @SuppressWarnings("unchecked")
+    private static RMap<String, String> inMemoryMap() {
+        final Map<String, String> map = new ConcurrentHashMap<>();
+        return (RMap<String, String>) Proxy.newProxyInstance(
+                RMap.class.getClassLoader(),
+                new Class[]{RMap.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "fastPut":
+                            return map.put((String) args[0], (String) args[1]) == null;
+                        case "fastRemove":
+                            return Arrays.stream((Object[]) args[0]).filter(key -> map.remove(key) != null).count();
+                        default:
+                            return Map.class.getMethod(method.getName(), method.getParameterTypes()).invoke(map, args);
+                    }
+                });
+    }
+
+    @Category(Fast.class)
+    public static class typeOf {
+        @Test
+        public void Should_Be_Empty_When_Not_Recorded() {
+            Optional<Class<? extends BaseEntity>> expected = Optional.empty();
+            Optional<Class<? extends BaseEntity>> compared = inMemory().typeOf("unknown");
+            assertEquals("an id that was never recorded has no type", expected, compared);
+        }
+
+        @Test
+        public void Should_Find_Type_When_Recorded() {
+            final EntityTypeRegistry registry = inMemory();
+            final Event event = new Event();
+            registry.register(event);
+
+            Optional<Class<? extends BaseEntity>> expected = Optional.of(Event.class);
+            Optional<Class<? extends BaseEntity>> compared = registry.typeOf(event.getId());
+            assertEquals("a recorded id must resolve to its type", expected, compared);
+        }
+    }
+
+    @Category(Fast.class)
+    public static class register {
+        @Test
+        public void Should_Ignore_Entity_When_Type_Not_Registered() {
+            final EntityTypeRegistry registry = inMemory();
+            registry.register(new Location());
+
+            Boolean expected = true;
+            Boolean compared = registry.isEmpty();
+            assertEquals("only the types the registry was created with are recorded", expected, compared);
+        }
+    }
+
+    @Category(Fast.class)
+    public static class registerAll {
+        @Test
+        public void Should_Record_Every_Id_When_Backfilled() {
+            final EntityTypeRegistry registry = inMemory();
+            registry.registerAll(Artist.class, Arrays.asList("first", "second"));
+
+            List<Optional<Class<? extends BaseEntity>>> expected = Arrays.asList(Optional.of(Artist.class), Optional.of(Artist.class));
+            List<Optional<Class<? extends BaseEntity>>> compared = Arrays.asList(registry.typeOf("first"), registry.typeOf("second"));
+            assertEquals("every backfilled id must be recorded", expected, compared);
+        }
+
+        @Test
+        public void Should_Ignore_Ids_When_Type_Not_Registered() {
+            final EntityTypeRegistry registry = inMemory();
+            registry.registerAll(Location.class, Collections.singletonList("first"));
+
+            Boolean expected = true;
+            Boolean compared = registry.isEmpty();
+            assertEquals("only the types the registry was created with are recorded", expected, compared);
+        }
+    }
+
+    @Category(Fast.class)
+    public static class remove {
+        @Test
+        public void Should_Forget_Type_When_Removed() {
+            final EntityTypeRegistry registry = inMemory();
+            final Event event = new Event();
+            registry.register(event);
+            registry.remove(event.getId());
+
+            Optional<Class<? extends BaseEntity>> expected = Optional.empty();
+            Optional<Class<? extends BaseEntity>> compared = registry.typeOf(event.getId());
+            assertEquals("a deleted entity must no longer resolve", expected, compared);
+        }
+    }
+}
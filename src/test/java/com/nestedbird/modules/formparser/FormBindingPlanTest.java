@@ -0,0 +1,190 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.formparser;
+
+import com.nestedbird.modules.schema.annotations.SchemaView;
+import com.nestedbird.testcategory.Fast;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Enclosed.class)
+public class FormBindingPlanTest {
+
+    @Category(Fast.class)
+    public static class of {
+        private FormBindingPlan plan;
+
+        @Before
+        public void setUp() throws Exception {
+            plan = FormBindingPlan.of(testClass.class);
+        }
+
+        @Test
+        public void Should_Bind_Parent_Fields() {
+            Boolean expected = true;
+            Boolean compared = plan.getBinding("parentName").isPresent();
+            assertEquals("parent fields must be bound", expected, compared);
+        }
+
+        @Test
+        public void Should_Not_Bind_Static_Fields() {
+            Boolean expected = false;
+            Boolean compared = plan.getBinding("staticName").isPresent();
+            assertEquals("static fields must not be bound", expected, compared);
+        }
+
+        @Test
+        public void Should_Not_Be_Editable_Without_Setter() {
+            Boolean expected = false;
+            Boolean compared = plan.getBinding("noSetter").get().isEditable();
+            assertEquals("fields without setters must not be editable", expected, compared);
+        }
+
+        @Test
+        public void Should_Not_Be_Editable_When_Final() {
+            Boolean expected = false;
+            Boolean compared = plan.getBinding("finalName").get().isEditable();
+            assertEquals("final fields must not be editable", expected, compared);
+        }
+
+        @Test
+        public void Should_Not_Be_Editable_When_Invisible() {
+            Boolean expected = false;
+            Boolean compared = plan.getBinding("invisible").get().isEditable();
+            assertEquals("invisible fields must not be editable", expected, compared);
+        }
+    }
+
+    @Category(Fast.class)
+    public static class write {
+        private FormBindingPlan plan;
+        private testClass entity;
+
+        @Before
+        public void setUp() throws Exception {
+            plan = FormBindingPlan.of(testClass.class);
+            entity = new testClass();
+        }
+
+        @Test
+        public void Should_Write_Value() {
+            plan.getBinding("name").get().write(entity, "sausage");
+            assertEquals("value must be written", "sausage", entity.getName());
+        }
+
+        @Test
+        public void Should_Convert_Value() {
+            plan.getBinding("count").get().write(entity, "12");
+            assertEquals("value must be converted", Long.valueOf(12), entity.getCount());
+        }
+
+        @Test
+        public void Should_Convert_Collection() {
+            plan.getBinding("tags").get().write(entity, new ArrayList<>(Arrays.asList("a", "b")));
+            assertEquals("collection must be converted", new HashSet<>(Arrays.asList("a", "b")), entity.getTags());
+        }
+
+        @Test
+        public void Should_Lock_After_Written() {
+            final FormBinding binding = plan.getBinding("lockedName").get();
+            Boolean before = binding.isWritable(entity);
+            binding.write(entity, "sausage");
+            Boolean after = binding.isWritable(entity);
+            assertEquals("locked field must be writable while null", true, before);
+            assertEquals("locked field must not be writable once set", false, after);
+        }
+    }
+
+    public static class parentClass {
+        @SchemaView
+        private String parentName;
+
+        public void setParentName(final String parentName) {
+            this.parentName = parentName;
+        }
+    }
+
+    public static class testClass extends parentClass {
+        private static String staticName;
+
+        @SchemaView
+        private String name;
+
+        @SchemaView
+        private Long count;
+
+        @SchemaView
+        private Set<String> tags;
+
+        @SchemaView(locked = true)
+        private String lockedName;
+
+        @SchemaView
+        private String noSetter;
+
+        @SchemaView
+        private final String finalName = "";
+
+        @SchemaView(visible = false)
+        private String invisible;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+
+        public Long getCount() {
+            return count;
+        }
+
+        public void setCount(final Long count) {
+            this.count = count;
+        }
+
+        public Set<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(final Set<String> tags) {
+            this.tags = tags;
+        }
+
+        public void setLockedName(final String lockedName) {
+            this.lockedName = lockedName;
+        }
+
+        public void setFinalName(final String finalName) {
+        }
+
+        public void setInvisible(final String invisible) {
+            this.invisible = invisible;
+        }
+    }
+}
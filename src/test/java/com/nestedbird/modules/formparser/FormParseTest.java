@@ -0,0 +1,127 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.nestedbird.modules.formparser;
+
+import com.nestedbird.models.core.Base.BaseEntity;
+import com.nestedbird.modules.schema.annotations.SchemaView;
+import com.nestedbird.testcategory.Fast;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import javax.persistence.Basic;
+import javax.persistence.FetchType;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Enclosed.class)
+public class FormParseTest {
+    /**
+     * Creates a transaction manager whose transactions do nothing
+     */
+    private static PlatformTransactionManager transactionManager() {
+        return (PlatformTransactionManager) Proxy.newProxyInstance(
+                PlatformTransactionManager.class.getClassLoader(),
+                new Class[]{PlatformTransactionManager.class},
+                (proxy, method, args) -> "getTransaction".equals(method.getName()) ? new SimpleTransactionStatus() : null);
+    }
+
+    /**
+     * Creates a repository that records whether the lazy attribute was fetched when the entity was saved
+     * An enhanced entity leaves attributes that were never fetched out of the update
+     */
+    @SuppressWarnings("unchecked")
+    private static JpaRepository<lazyEntity, String> repository() {
+        return (JpaRepository<lazyEntity, String>) Proxy.newProxyInstance(
+                JpaRepository.class.getClassLoader(),
+                new Class[]{JpaRepository.class},
+                (proxy, method, args) -> {
+                    if (!"save".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    ((lazyEntity) args[0]).savedFetched = ((lazyEntity) args[0]).fetched;
+                    return args[0];
+                });
+    }
+
+    @Category(Fast.class)
+    public static class parseAndSave {
+        private FormParse formParse;
+
+        @Before
+        public void setUp() throws Exception {
+            formParse = new FormParse(null, transactionManager(), null);
+        }
+
+        @Test
+        public void Should_Save_Edited_Lazy_Attribute_When_Not_Fetched() {
+            final MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/v1/Artists");
+            request.addParameter("description", "edited");
+
+            final lazyEntity saved = formParse.parseAndSave(new lazyEntity(), request, repository());
+
+            List<Object> expected = Arrays.asList(true, "edited");
+            List<Object> compared = Arrays.asList(saved.savedFetched, saved.description);
+            assertEquals("the lazy attribute must be fetched before the edit is written over it", expected, compared);
+        }
+    }
+
+    /**
+     * Acts like an enhanced entity, the lazy attribute is only fetched once its getter is called
+     */
+    public static class lazyEntity extends BaseEntity {
+        @Basic(fetch = FetchType.LAZY)
+        @SchemaView
+        private String description;
+
+        private boolean fetched;
+
+        private boolean savedFetched;
+
+        public String getDescription() {
+            if (!fetched) {
+                fetched = true;
+                description = "stored";
+            }
+            return description;
+        }
+
+        public void setDescription(final String description) {
+            this.description = description;
+        }
+
+        @Override
+        public String getUrl() {
+            return "#";
+        }
+
+        @Override
+        public String getDefiningName() {
+            return "";
+        }
+    }
+}
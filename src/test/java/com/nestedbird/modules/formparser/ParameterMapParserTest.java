@@ -0,0 +1,86 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.formparser;
+
+import com.nestedbird.testcategory.Fast;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Enclosed.class)
+public class ParameterMapParserTest {
+
+    @Category(Fast.class)
+    public static class parse {
+        @Test
+        public void Should_Parse_String() {
+            final Map<String, String[]> parameterMap = new LinkedHashMap<>();
+            parameterMap.put("name", new String[]{"sausage"});
+
+            Object expected = "sausage";
+            Object compared = ParameterMapParser.parse(parameterMap).get("name");
+            assertEquals("string must be parsed", expected, compared);
+        }
+
+        @Test
+        public void Should_Use_Last_Value() {
+            final Map<String, String[]> parameterMap = new LinkedHashMap<>();
+            parameterMap.put("name", new String[]{"sausage", "bacon"});
+
+            Object expected = "bacon";
+            Object compared = ParameterMapParser.parse(parameterMap).get("name");
+            assertEquals("last value must be used", expected, compared);
+        }
+
+        @Test
+        public void Should_Parse_Array_Of_Objects_As_Map() throws JSONException {
+            final Map<String, String[]> parameterMap = new LinkedHashMap<>();
+            parameterMap.put("times[0].startTime", new String[]{"2017-01-01 00:00:00"});
+            parameterMap.put("times[0].repeatTime", new String[]{"0"});
+            parameterMap.put("times[1].startTime", new String[]{"2017-01-02 00:00:00"});
+
+            final JSONObject times = (JSONObject) ParameterMapParser.parse(parameterMap).get("times");
+
+            assertEquals("array of objects must be flagged as a map", true, times.get("_isMap"));
+            assertEquals("fields must be grouped by index", "0", times.getJSONObject("0").get("repeatTime"));
+            assertEquals("fields must be grouped by index", "2017-01-02 00:00:00", times.getJSONObject("1").get("startTime"));
+        }
+
+        @Test
+        public void Should_Parse_Large_Array_Of_Objects() throws JSONException {
+            final Integer size = 2000;
+            final Map<String, String[]> parameterMap = new LinkedHashMap<>();
+            for (Integer i = 0; i < size; i++) {
+                parameterMap.put("times[" + i + "].startTime", new String[]{"2017-01-01 00:00:00"});
+                parameterMap.put("times[" + i + "].repeatTime", new String[]{i.toString()});
+            }
+
+            final JSONObject times = (JSONObject) ParameterMapParser.parse(parameterMap).get("times");
+
+            assertEquals("every index must be present", size + 1, times.length());
+            assertEquals("fields must be grouped by index", "1999", times.getJSONObject("1999").get("repeatTime"));
+        }
+    }
+}
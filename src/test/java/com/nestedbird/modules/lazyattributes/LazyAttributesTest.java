@@ -0,0 +1,68 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.lazyattributes;
+
+import com.nestedbird.models.artist.Artist;
+import com.nestedbird.models.core.Base.BaseEntity;
+import com.nestedbird.models.song.Song;
+import com.nestedbird.testcategory.Fast;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Enclosed.class)
+public class LazyAttributesTest {
+    @Category(Fast.class)
+    public static class of {
+        @Test
+        public void Should_Find_Description_When_Artist() {
+            List<String> expected = Collections.singletonList("description");
+            List<String> compared = LazyAttributes.of(Artist.class);
+            assertEquals("the artists description must be fetched lazily", expected, compared);
+        }
+
+        @Test
+        public void Should_Find_Lyrics_When_Song() {
+            List<String> expected = Collections.singletonList("lyrics");
+            List<String> compared = LazyAttributes.of(Song.class);
+            assertEquals("the songs lyrics must be fetched lazily", expected, compared);
+        }
+
+        @Test
+        public void Should_Be_Empty_When_No_Lazy_Attributes() {
+            List<String> expected = Collections.emptyList();
+            List<String> compared = LazyAttributes.of(BaseEntity.class);
+            assertEquals("eager attributes must not be treated as lazy", expected, compared);
+        }
+    }
+
+    @Category(Fast.class)
+    public static class initialize {
+        @Test
+        public void Should_Return_Null_When_Entity_Missing() {
+            Artist expected = null;
+            Artist compared = LazyAttributes.initialize(null);
+            assertEquals("a missing entity must stay missing", expected, compared);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.paginator;
+
+import com.nestedbird.testcategory.Fast;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.springframework.data.domain.Sort;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Enclosed.class)
+public class CursorTest {
+
+    @Category(Fast.class)
+    public static class encode {
+        @Test
+        public void Should_Survive_Round_Trip() {
+            final Cursor expected = Cursor.start("createdDate", Sort.Direction.DESC)
+                    .after(new Date(1500000000000L), "7172dc45-d025-4f59-84f2-c2d8cd70ce3a");
+            final Cursor compared = Cursor.decode(expected.encode());
+            assertEquals("cursor must decode to the same cursor", expected, compared);
+        }
+
+        @Test
+        public void Should_Not_Have_Position_At_Start() {
+            Boolean expected = false;
+            Boolean compared = Cursor.decode(Cursor.start("id", Sort.Direction.ASC).encode()).hasPosition();
+            assertEquals("start cursor must not have a position", expected, compared);
+        }
+    }
+
+    @Category(Fast.class)
+    public static class getValue {
+        @Test
+        public void Should_Read_Date() {
+            final Date expected = new Date(1500000000000L);
+            final Date compared = Cursor.start("createdDate", Sort.Direction.ASC)
+                    .after(expected, "id")
+                    .getValue(Date.class);
+            assertEquals("date must be read back exactly", expected, compared);
+        }
+
+        @Test
+        public void Should_Read_Long() {
+            final Long expected = 42L;
+            final Long compared = Cursor.start("score", Sort.Direction.ASC)
+                    .after(expected, "id")
+                    .getValue(Long.class);
+            assertEquals("long must be read back exactly", expected, compared);
+        }
+    }
+
+    @Category(Fast.class)
+    public static class decode {
+        @Test(expected = InvalidCursor.class)
+        public void Should_Reject_Garbage() {
+            Cursor.decode("not a cursor");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.projection;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nestedbird.models.artist.Artist;
+import com.nestedbird.models.core.View;
+import com.nestedbird.models.event.Event;
+import com.nestedbird.testcategory.Fast;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Enclosed.class)
+public class FieldSelectionTest {
+    @Category(Fast.class)
+    public static class select {
+        private final FieldSelection fieldSelection = new FieldSelection(new ObjectMapper());
+
+        @Test
+        public void Should_Select_Id_And_Fields_When_Fields_Exist() {
+            List<String> expected = Arrays.asList("id", "name", "location.name");
+            List<String> compared = fieldSelection.select(Event.class, "name, location.name", View.Anonymous.class).getAttributes();
+            assertEquals("the id must always be selected along with the fields", expected, compared);
+        }
+
+        @Test(expected = InvalidProjection.class)
+        public void Should_Throw_When_Field_Unknown() {
+            fieldSelection.select(Event.class, "name,unknown", View.Anonymous.class);
+        }
+
+        @Test(expected = InvalidProjection.class)
+        public void Should_Throw_When_Field_Not_Serialized() {
+            fieldSelection.select(Event.class, "raw", View.Anonymous.class);
+        }
+
+        @Test(expected = InvalidProjection.class)
+        public void Should_Throw_When_Field_Is_Back_Reference() {
+            fieldSelection.select(Event.class, "recordedOccurrences.id", View.Anonymous.class);
+        }
+
+        @Test(expected = InvalidProjection.class)
+        public void Should_Throw_When_Field_Hidden_From_View() {
+            fieldSelection.select(Artist.class, "hiddenTags.name", View.Anonymous.class);
+        }
+
+        @Test
+        public void Should_Select_Field_When_Visible_To_View() {
+            List<String> expected = Collections.singletonList("id");
+            List<String> compared = fieldSelection.select(Artist.class, "hiddenTags.name", View.Moderator.class).getAttributes();
+            assertEquals("moderators can select hidden tags, which are fetched in their own query", expected, compared);
+        }
+
+        @Test(expected = InvalidProjection.class)
+        public void Should_Throw_When_No_Fields() {
+            fieldSelection.select(Event.class, " , ", View.Anonymous.class);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.projection;
+
+import com.nestedbird.models.event.Event;
+import com.nestedbird.testcategory.Fast;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(Enclosed.class)
+public class ProjectionTest {
+    @Category(Fast.class)
+    public static class of {
+        @Test
+        public void Should_Select_Related_Attributes_But_Not_Collections_When_Event_Summary() {
+            List<String> expected = Arrays.asList("id", "name", "imageUrl", "location.id", "location.name");
+            List<String> compared = Projection.of(Event.class, "summary").getAttributes();
+            assertEquals("collections must be fetched in their own query", expected, compared);
+        }
+
+        @Test(expected = InvalidProjection.class)
+        public void Should_Throw_When_View_Unknown() {
+            Projection.of(Event.class, "unknown");
+        }
+    }
+
+    @Category(Fast.class)
+    public static class including {
+        @Test
+        public void Should_Add_Attribute_When_Not_Selected() {
+            List<String> expected = Arrays.asList("id", "name", "imageUrl", "location.id", "location.name", "updatedTime");
+            List<String> compared = Projection.of(Event.class, "summary").including("updatedTime").getAttributes();
+            assertEquals("the sorted attribute must be selected for the cursor", expected, compared);
+        }
+
+        @Test
+        public void Should_Be_Same_Projection_When_Already_Selected() {
+            Projection expected = Projection.of(Event.class, "summary");
+            Projection compared = expected.including("name");
+            assertSame("the listing only removes the sorted attribute when it was not already selected", expected, compared);
+        }
+    }
+
+    @Category(Fast.class)
+    public static class nest {
+        @Test
+        public void Should_Nest_Related_Attributes_When_Path() {
+            final Map<String, Object> location = new LinkedHashMap<>();
+            location.put("id", "b");
+            location.put("name", "Hall");
+
+            Map<String, Object> expected = new LinkedHashMap<>();
+            expected.put("id", "a");
+            expected.put("location", location);
+            Map<String, Object> compared = Projection.nest(Arrays.asList("id", "location.id", "location.name"),
+                    new Object[]{"a", "b", "Hall"});
+            assertEquals("paths must become nested maps", expected, compared);
+        }
+
+        @Test
+        public void Should_Be_Null_When_Related_Entity_Missing() {
+            Map<String, Object> expected = new LinkedHashMap<>();
+            expected.put("id", "a");
+            expected.put("location", null);
+            Map<String, Object> compared = Projection.nest(Arrays.asList("id", "location.id", "location.name"),
+                    new Object[]{"a", null, null});
+            assertEquals("a missing relation must not become a map of nulls", expected, compared);
+        }
+
+        @Test
+        public void Should_Keep_Null_Attributes_When_Not_Related() {
+            Map<String, Object> expected = Collections.singletonMap("id", null);
+            Map<String, Object> compared = Projection.nest(Collections.singletonList("id"), new Object[]{null});
+            assertEquals("plain attributes must stay as they are", expected, compared);
+        }
+    }
+}
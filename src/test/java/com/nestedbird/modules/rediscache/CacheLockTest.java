@@ -0,0 +1,144 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.rediscache;
+
+import com.nestedbird.testcategory.Fast;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Enclosed.class)
+public class CacheLockTest {
+
+    @Category(Fast.class)
+    public static class isHeld {
+        @Test
+        public void Should_Be_Held_When_Acquired() {
+            Boolean expected = true;
+            Boolean compared = CacheLock.acquire(1000, 60000).isHeld(2000);
+            assertEquals("a new lock must be held", expected, compared);
+        }
+
+        @Test
+        public void Should_Not_Be_Held_When_Released() {
+            Boolean expected = false;
+            Boolean compared = CacheLock.acquire(1000, 60000).release(2000).isHeld(3000);
+            assertEquals("a released lock must not be held", expected, compared);
+        }
+
+        @Test
+        public void Should_Not_Be_Held_When_Expired() {
+            Boolean expected = false;
+            Boolean compared = CacheLock.acquire(1000, 60000).isHeld(61000);
+            assertEquals("a lock that was never released must stop being held", expected, compared);
+        }
+    }
+
+    @Category(Fast.class)
+    public static class isReplaceableBy {
+        @Test
+        public void Should_Not_Be_Replaceable_When_Held() {
+            Boolean expected = false;
+            Boolean compared = CacheLock.acquire(1000, 60000).isReplaceableBy(2000, 2000);
+            assertEquals("a held lock must not be replaced", expected, compared);
+        }
+
+        @Test
+        public void Should_Not_Be_Replaceable_When_Read_Before_Release() {
+            Boolean expected = false;
+            Boolean compared = CacheLock.acquire(1000, 60000).release(3000).isReplaceableBy(2000, 4000);
+            assertEquals("a value read before the release may be stale", expected, compared);
+        }
+
+        @Test
+        public void Should_Be_Replaceable_When_Read_After_Release() {
+            Boolean expected = true;
+            Boolean compared = CacheLock.acquire(1000, 60000).release(3000).isReplaceableBy(3500, 4000);
+            assertEquals("a value read after the release must be cached", expected, compared);
+        }
+    }
+
+    @Category(Fast.class)
+    public static class leave {
+        @Test
+        public void Should_Be_Held_When_Another_Holder_Remains() {
+            Boolean expected = true;
+            Boolean compared = CacheLock.acquire(1000, 60000).join(2000, 60000).leave(3000).isHeld(4000);
+            assertEquals("a shared lock must stay held until every holder leaves", expected, compared);
+        }
+
+        @Test
+        public void Should_Be_Released_When_Last_Holder_Leaves() {
+            Boolean expected = false;
+            Boolean compared = CacheLock.acquire(1000, 60000).join(2000, 60000).leave(3000).leave(4000).isHeld(5000);
+            assertEquals("a shared lock must be released once every holder leaves", expected, compared);
+        }
+
+        @Test
+        public void Should_Not_Be_Replaceable_When_Read_Before_Last_Leave() {
+            Boolean expected = false;
+            Boolean compared = CacheLock.acquire(1000, 60000).join(2000, 60000).leave(3000).leave(5000).isReplaceableBy(4000, 6000);
+            assertEquals("a value read before the last holder committed may be stale", expected, compared);
+        }
+    }
+
+    @Category(Fast.class)
+    public static class evictableAt {
+        @Test
+        public void Should_Expire_After_Release() {
+            Long expected = 62000L;
+            Long compared = CacheLock.acquire(1000, 60000).release(2000).evictableAt(60000);
+            assertEquals("a released lock must be kept for the timeout after its release", expected, compared);
+        }
+
+        @Test
+        public void Should_Expire_After_Abandoned() {
+            Long expected = 121000L;
+            Long compared = CacheLock.acquire(1000, 60000).evictableAt(60000);
+            assertEquals("a lock that was never released must be kept for the timeout after it expires", expected, compared);
+        }
+    }
+
+    @Category(Fast.class)
+    public static class isSameLock {
+        @Test
+        public void Should_Match_When_Released() {
+            final CacheLock lock = CacheLock.acquire(1000, 60000);
+            Boolean expected = true;
+            Boolean compared = lock.release(2000).isSameLock(lock);
+            assertEquals("releasing a lock must not change which lock it is", expected, compared);
+        }
+
+        @Test
+        public void Should_Not_Match_Other_Lock() {
+            Boolean expected = false;
+            Boolean compared = CacheLock.acquire(1000, 60000).isSameLock(CacheLock.acquire(1000, 60000));
+            assertEquals("two locks must not match", expected, compared);
+        }
+
+        @Test
+        public void Should_Match_When_Joined() {
+            final CacheLock lock = CacheLock.acquire(1000, 60000);
+            Boolean expected = true;
+            Boolean compared = lock.join(2000, 60000).isSameLock(lock);
+            assertEquals("a transaction joining a lock must share it", expected, compared);
+        }
+    }
+}
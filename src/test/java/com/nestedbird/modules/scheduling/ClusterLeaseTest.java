@@ -14,27 +14,27 @@
  *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-package com.nestedbird.formparser;
+
+package com.nestedbird.modules.scheduling;
 
 import com.nestedbird.testcategory.Fast;
-import org.json.JSONException;
-import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 
+import static org.junit.Assert.assertEquals;
+
 @RunWith(Enclosed.class)
-public class ParameterMapParser {
-    @Category(Fast.class)
-    public static class parse {
-        @Before
-        public void setUp() throws Exception {
-        }
+public class ClusterLeaseTest {
 
+    @Category(Fast.class)
+    public static class isHeld {
         @Test
-        public void Can_Parse_Arrays() throws JSONException {
-
+        public void Should_Be_Held_When_Outside_Cluster_Singleton_Job() {
+            Boolean expected = true;
+            Boolean compared = ClusterLease.isHeld();
+            assertEquals("a job run through its endpoint must not be fenced", expected, compared);
         }
     }
 }
@@ -0,0 +1,90 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.scheduling;
+
+import com.nestedbird.testcategory.Fast;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Enclosed.class)
+public class MonitoredTriggerTest {
+    private static final long MINUTE = 60000;
+
+    private static MonitoredTrigger everyTenMinutes(final ScheduledJobStatistics statistics) {
+        return new MonitoredTrigger(new CronTrigger("0 */10 * * * *", TimeZone.getTimeZone("UTC")), statistics);
+    }
+
+    @Category(Fast.class)
+    public static class nextExecutionTime {
+        @Test
+        public void Should_Not_Count_Missed_Runs_When_Job_Is_Quick() {
+            final ScheduledJobStatistics statistics = new ScheduledJobStatistics();
+            final Date scheduled = new Date(1500000000000L - 1500000000000L % (10 * MINUTE));
+            everyTenMinutes(statistics).nextExecutionTime(new SimpleTriggerContext(
+                    scheduled, scheduled, new Date(scheduled.getTime() + MINUTE)));
+
+            Long expected = 0L;
+            Long compared = statistics.getMissedRuns();
+            assertEquals("a job that finishes before its next run must not miss any runs", expected, compared);
+        }
+
+        @Test
+        public void Should_Count_Missed_Runs_When_Job_Overruns() {
+            final ScheduledJobStatistics statistics = new ScheduledJobStatistics();
+            final Date scheduled = new Date(1500000000000L - 1500000000000L % (10 * MINUTE));
+            everyTenMinutes(statistics).nextExecutionTime(new SimpleTriggerContext(
+                    scheduled, scheduled, new Date(scheduled.getTime() + 25 * MINUTE)));
+
+            Long expected = 2L;
+            Long compared = statistics.getMissedRuns();
+            assertEquals("a job running for 25 minutes must miss two ten minute runs", expected, compared);
+        }
+    }
+
+    @Category(Fast.class)
+    public static class start {
+        @Test
+        public void Should_Skip_When_Previous_Run_Has_Not_Finished() {
+            final ScheduledJobStatistics statistics = new ScheduledJobStatistics();
+            statistics.start();
+
+            Boolean expected = false;
+            Boolean compared = statistics.start();
+            assertEquals("a job must not overlap itself", expected, compared);
+        }
+
+        @Test
+        public void Should_Start_When_Previous_Run_Has_Finished() {
+            final ScheduledJobStatistics statistics = new ScheduledJobStatistics();
+            statistics.start();
+            statistics.finish(10);
+
+            Boolean expected = true;
+            Boolean compared = statistics.start();
+            assertEquals("a job must run again once it has finished", expected, compared);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.nestedbird.modules.warmup;
+
+import com.nestedbird.testcategory.Fast;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Enclosed.class)
+public class CacheWarmupTest {
+    private static WarmupStep.Status statusOf(final CacheWarmup cacheWarmup, final String name) {
+        return cacheWarmup.getReport().stream()
+                .filter(step -> step.getName().equals(name))
+                .findFirst()
+                .map(WarmupStep::getStatus)
+                .orElse(null);
+    }
+
+    @Category(Fast.class)
+    public static class warm {
+        @Test
+        public void Should_Run_Steps_In_Parallel_When_Warming() {
+            final ExecutorService executor = Executors.newFixedThreadPool(2);
+            final CountDownLatch latch = new CountDownLatch(2);
+            final Runnable waitForOther = () -> {
+                latch.countDown();
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+            final CacheWarmup cacheWarmup = new CacheWarmup(executor, 10000L)
+                    .step("first", waitForOther)
+                    .step("second", waitForOther);
+            cacheWarmup.warm();
+            executor.shutdownNow();
+
+            Long expected = 0L;
+            Long compared = latch.getCount();
+            assertEquals("both steps must be running at the same time", expected, compared);
+        }
+
+        @Test
+        public void Should_Report_Failed_When_Step_Throws() {
+            final ExecutorService executor = Executors.newSingleThreadExecutor();
+            final CacheWarmup cacheWarmup = new CacheWarmup(executor, 10000L)
+                    .step("failing", () -> {
+                        throw new IllegalStateException("failure");
+                    });
+            cacheWarmup.warm();
+            executor.shutdownNow();
+
+            WarmupStep.Status expected = WarmupStep.Status.FAILED;
+            WarmupStep.Status compared = statusOf(cacheWarmup, "failing");
+            assertEquals("a step that throws must be reported as failed", expected, compared);
+        }
+
+        @Test
+        public void Should_Report_Timed_Out_When_Budget_Runs_Out() {
+            final ExecutorService executor = Executors.newSingleThreadExecutor();
+            final CountDownLatch release = new CountDownLatch(1);
+            final CacheWarmup cacheWarmup = new CacheWarmup(executor, 50L)
+                    .step("slow", () -> {
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+            cacheWarmup.warm();
+            release.countDown();
+            executor.shutdownNow();
+
+            WarmupStep.Status expected = WarmupStep.Status.TIMED_OUT;
+            WarmupStep.Status compared = statusOf(cacheWarmup, "slow");
+            assertEquals("a step still running when the budget runs out must be reported as timed out", expected, compared);
+        }
+    }
+
+    @Category(Fast.class)
+    public static class isReady {
+        @Test
+        public void Should_Not_Be_Ready_When_Warmup_Has_Not_Run() {
+            final CacheWarmup cacheWarmup = new CacheWarmup(Runnable::run, 10000L)
+                    .step("step", () -> {
+                    });
+
+            Boolean expected = false;
+            Boolean compared = cacheWarmup.isReady();
+            assertEquals("the node must not report ready before warming up", expected, compared);
+        }
+
+        @Test
+        public void Should_Be_Ready_When_Warmup_Has_Run() {
+            final CacheWarmup cacheWarmup = new CacheWarmup(Runnable::run, 10000L)
+                    .step("step", () -> {
+                    });
+            cacheWarmup.warm();
+
+            Boolean expected = true;
+            Boolean compared = cacheWarmup.isReady();
+            assertEquals("the node must report ready once warmed up", expected, compared);
+        }
+    }
+}
@@ -104,4 +104,70 @@ public class UUIDConverterTest {
             assertEquals("uuid must be invalid", expected, compared);
         }
     }
-}
\ No newline at end of file
+
+    @Category(Fast.class)
+    public static class isParsable {
+        @Test
+        public void Should_Detect_Valid_UUID() {
+            Boolean expected = true;
+            Boolean compared = UUIDConverter.isParsable("5aa5f535-da28-42bf-8d85-ac58d81b1a1e");
+            assertEquals("uuid must be parsable", expected, compared);
+        }
+
+        @Test
+        public void Should_Return_False_When_Empty() {
+            Boolean expected = false;
+            Boolean compared = UUIDConverter.isParsable("");
+            assertEquals("uuid must not be parsable", expected, compared);
+        }
+
+        @Test
+        public void Should_Return_False_When_Prefixed() {
+            Boolean expected = false;
+            Boolean compared = UUIDConverter.isParsable("sausages5aa5f535-da28-42bf-8d85-ac58d81b1a1e");
+            assertEquals("uuid must not be parsable", expected, compared);
+        }
+
+        @Test
+        public void Should_Return_False_On_Null() {
+            Boolean expected = false;
+            Boolean compared = UUIDConverter.isParsable(null);
+            assertEquals("uuid must not be parsable", expected, compared);
+        }
+    }
+
+    @Category(Fast.class)
+    public static class toBytes {
+        @Test
+        public void Should_Match_When_Decoded() {
+            String expected = "5aa5f535-da28-42bf-8d85-ac58d81b1a1e";
+            String compared = UUIDConverter.fromBytes(UUIDConverter.toBytes("5aa5f535-da28-42bf-8d85-ac58d81b1a1e"));
+            assertEquals("string must match", expected, compared);
+        }
+
+        @Test
+        public void Should_Be_16_Bytes_When_Encoded() {
+            Integer expected = 16;
+            Integer compared = UUIDConverter.toBytes("5aa5f535-da28-42bf-8d85-ac58d81b1a1e").length;
+            assertEquals("uuid must be 16 bytes", expected, compared);
+        }
+
+        @Test(expected = IllegalArgumentException.class)
+        public void Should_ThrowExeption_When_UUIDIsInvalid() {
+            UUIDConverter.toBytes("sausages");
+        }
+    }
+
+    @Category(Fast.class)
+    public static class fromBytes {
+        @Test(expected = IllegalArgumentException.class)
+        public void Should_ThrowExeption_When_BytesAreWrongLength() {
+            UUIDConverter.fromBytes(new byte[15]);
+        }
+
+        @Test(expected = NullPointerException.class)
+        public void Should_ThrowExeption_When_BytesAreNull() {
+            UUIDConverter.fromBytes(null);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ *  NestedBird  Copyright (C) 2016-2017  Michael Haddon
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License version 3
+ *  as published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.nestedbird.views;
+
+import com.nestedbird.models.artist.Artist;
+import com.nestedbird.models.artist.ArtistService;
+import com.nestedbird.models.core.Base.BaseEntity;
+import com.nestedbird.models.event.Event;
+import com.nestedbird.models.event.EventService;
+import com.nestedbird.models.location.LocationService;
+import com.nestedbird.models.medium.MediumService;
+import com.nestedbird.modules.entitytypes.EntityTypeRegistry;
+import com.nestedbird.modules.entitytypes.EntityTypeRegistryTest;
+import com.nestedbird.testcategory.Fast;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Enclosed.class)
+public class ResolverControllerTest {
+    /**
+     * Creates a service that only finds the given entity, and records every id it is asked for
+     *
+     * @param serviceClass the service interface
+     * @param entity       the entity the service finds, or null
+     * @param lookups      where the ids asked for are recorded
+     * @param <S>          the type of service
+     * @return the service
+     */
+    private static <S> S service(final Class<S> serviceClass, final BaseEntity entity, final List<String> lookups) {
+        return serviceClass.cast(Proxy.newProxyInstance(
+                serviceClass.getClassLoader(),
+                new Class[]{serviceClass},
+                (proxy, method, args) -> {
+                    if (!"findOne".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    lookups.add((String) args[0]);
+                    return Optional.ofNullable(entity).filter(found -> found.getId().equals(args[0]));
+                }));
+    }
+
+    @Category(Fast.class)
+    public static class resolveEntityId {
+        private final Event event = new Event();
+        private final Artist artist = new Artist();
+        private final List<String> lookups = new ArrayList<>();
+        private EntityTypeRegistry registry;
+        private ResolverController resolverController;
+
+        @Before
+        public void setUp() {
+            event.setName("An Event");
+            artist.setName("An Artist");
+            registry = EntityTypeRegistryTest.inMemory();
+            resolverController = new ResolverController(
+                    service(EventService.class, event, lookups),
+                    service(ArtistService.class, artist, lookups),
+                    service(LocationService.class, null, lookups),
+                    service(MediumService.class, null, lookups),
+                    registry);
+        }
+
+        @Test
+        public void Should_Load_Once_When_Type_Recorded() {
+            registry.register(artist);
+            resolverController.resolveEntityId(artist.getId(), new MockHttpServletResponse());
+
+            Integer expected = 1;
+            Integer compared = lookups.size();
+            assertEquals("a recorded id must only be looked for in its own type", expected, compared);
+        }
+
+        @Test
+        public void Should_Redirect_To_Entity_When_Not_Recorded() {
+            final MockHttpServletResponse response = new MockHttpServletResponse();
+            resolverController.resolveEntityId(artist.getId(), response);
+
+            String expected = artist.getUrl();
+            String compared = response.getHeader("Location");
+            assertEquals("an id the registry does not know must be looked for in every type", expected, compared);
+        }
+
+        @Test
+        public void Should_Record_Type_When_Not_Recorded() {
+            resolverController.resolveEntityId(artist.getId(), new MockHttpServletResponse());
+
+            Optional<Class<? extends BaseEntity>> expected = Optional.of(Artist.class);
+            Optional<Class<? extends BaseEntity>> compared = registry.typeOf(artist.getId());
+            assertEquals("the type found by looking in every type must be recorded", expected, compared);
+        }
+
+        @Test
+        public void Should_Correct_Type_When_Recorded_Wrongly() {
+            registry.registerAll(Event.class, Collections.singletonList(artist.getId()));
+            final MockHttpServletResponse response = new MockHttpServletResponse();
+            resolverController.resolveEntityId(artist.getId(), response);
+
+            List<Object> expected = Arrays.asList(artist.getUrl(), Optional.of(Artist.class));
+            List<Object> compared = Arrays.asList(response.getHeader("Location"), registry.typeOf(artist.getId()));
+            assertEquals("a stale record must be replaced by the type the entity was found in", expected, compared);
+        }
+
+        @Test
+        public void Should_Redirect_To_Not_Found_When_Unknown() {
+            final MockHttpServletResponse response = new MockHttpServletResponse();
+            resolverController.resolveEntityId("unknown", response);
+
+            String expected = "/404";
+            String compared = response.getHeader("Location");
+            assertEquals("an id of no entity must redirect to the not found page", expected, compared);
+        }
+    }
+}